@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.BasicSessionCredentials;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Measures {@link AWS4Signer#sign} for the three request shapes the SDK
+ * produces: a JSON body (DynamoDB), a form encoded body (SQS) and a bodiless
+ * GET with query parameters (EC2), with and without a session token. The
+ * signing key cache is warm, as it is for every request but the first one of
+ * the day.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar AWS4SignerBenchmark},
+ * adding {@code -prof gc} to see the allocation rate per signature.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class AWS4SignerBenchmark {
+
+    private static final byte[] GET_ITEM_BODY = ("{\"TableName\":\"Music\",\"Key\":{\"Artist\":{\"S\":\"No One You Know\"},"
+            + "\"SongTitle\":{\"S\":\"Call Me Today\"}},\"ConsistentRead\":true}").getBytes(StringUtils.UTF8);
+
+    private static final byte[] SEND_MESSAGE_BODY = ("Action=SendMessage&Version=2012-11-05"
+            + "&QueueUrl=https%3A%2F%2Fsqs.us-west-2.amazonaws.com%2F123456789012%2Forders"
+            + "&MessageBody=%7B%22orderId%22%3A%2200000001%22%2C%22status%22%3A%22SHIPPED%22%7D")
+            .getBytes(StringUtils.UTF8);
+
+    @Param({"dynamodb", "sqs", "ec2"})
+    private String service;
+
+    @Param({"false", "true"})
+    private boolean sessionCredentials;
+
+    private AWS4Signer signer;
+
+    private AWSCredentials credentials;
+
+    private DefaultRequest<Void> request;
+
+    private ByteArrayInputStream content;
+
+    @Setup
+    public void setup() {
+        signer = new AWS4Signer();
+        signer.setServiceName(service);
+        signer.setRegionName("us-west-2");
+        credentials = sessionCredentials
+                ? new BasicSessionCredentials("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY", "session-token")
+                : new BasicAWSCredentials("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY");
+
+        request = new DefaultRequest<Void>(service);
+        request.setEndpoint(URI.create("https://" + service + ".us-west-2.amazonaws.com"));
+        request.setResourcePath("/");
+        request.addHeader("User-Agent", "aws-sdk-java/benchmark");
+        request.addHeader("amz-sdk-invocation-id", "0b1c2d3e-4f50-6172-8394-a5b6c7d8e9f0");
+        request.addHeader("amz-sdk-retry", "0/0/500");
+
+        if ("dynamodb".equals(service)) {
+            request.setHttpMethod(HttpMethodName.POST);
+            request.addHeader("X-Amz-Target", "DynamoDB_20120810.GetItem");
+            request.addHeader("Content-Type", "application/x-amz-json-1.0");
+            setContent(GET_ITEM_BODY);
+        } else if ("sqs".equals(service)) {
+            request.setHttpMethod(HttpMethodName.POST);
+            request.addHeader("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
+            setContent(SEND_MESSAGE_BODY);
+        } else {
+            request.setHttpMethod(HttpMethodName.GET);
+            request.addParameter("Action", "DescribeInstances");
+            request.addParameter("Version", "2016-11-15");
+            request.addParameter("Filter.1.Name", "instance-state-name");
+            request.addParameter("Filter.1.Value.1", "running");
+            request.addParameter("Filter.2.Name", "tag:Environment");
+            request.addParameter("Filter.2.Value.1", "production");
+            setContent(new byte[0]);
+        }
+    }
+
+    private void setContent(byte[] body) {
+        content = new ByteArrayInputStream(body);
+        request.setContent(content);
+        request.addHeader("Content-Length", String.valueOf(body.length));
+    }
+
+    @Benchmark
+    public String sign() {
+        // The previous signature must not end up in the signed headers
+        request.getHeaders().remove("Authorization");
+        content.reset();
+        signer.sign(request, credentials);
+        return request.getHeaders().get("Authorization");
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Node;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceResponse;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.Request;
+import com.amazonaws.http.AmazonHttpClient;
+import com.amazonaws.http.DefaultErrorResponseHandler;
+import com.amazonaws.http.HttpResponseHandler;
+import com.amazonaws.http.StaxResponseHandler;
+import com.amazonaws.protocol.json.JsonClientMetadata;
+import com.amazonaws.protocol.json.JsonOperationMetadata;
+import com.amazonaws.protocol.json.SdkJsonProtocolFactory;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.transform.QueryRequestMarshaller;
+import com.amazonaws.services.dynamodbv2.model.transform.QueryResultJsonUnmarshaller;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.transform.ReceiveMessageRequestMarshaller;
+import com.amazonaws.services.sqs.model.transform.ReceiveMessageResultStaxUnmarshaller;
+import com.amazonaws.transform.Unmarshaller;
+
+/**
+ * Measures a complete {@link AmazonHttpClient} round trip, from a marshalled
+ * request to an unmarshalled result, against a {@link StubHttpServer} on the
+ * loopback interface that replays a recorded response. Requests are not
+ * signed; see {@link AWS4SignerBenchmark} for that part of the pipeline.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar AmazonHttpClientBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class AmazonHttpClientBenchmark {
+
+    private static final int SERVER_THREADS = 8;
+
+    private final SdkJsonProtocolFactory protocolFactory = new SdkJsonProtocolFactory(new JsonClientMetadata()
+            .withProtocolVersion("1.0")
+            .withSupportsCbor(false)
+            .withSupportsIon(false));
+
+    private final ReceiveMessageRequest receiveMessage = new ReceiveMessageRequest(
+            "https://sqs.us-west-2.amazonaws.com/123456789012/orders")
+            .withMaxNumberOfMessages(10)
+            .withAttributeNames("All");
+
+    private final QueryRequest query = new QueryRequest("Music")
+            .withKeyConditionExpression("Artist = :artist")
+            .withExpressionAttributeValues(Collections.singletonMap(":artist",
+                    new AttributeValue("No One You Know")));
+
+    private final HttpResponseHandler<AmazonServiceException> errorResponseHandler =
+            new DefaultErrorResponseHandler(Collections.<Unmarshaller<AmazonServiceException, Node>> emptyList());
+
+    private final HttpResponseHandler<AmazonWebServiceResponse<ReceiveMessageResult>> staxResponseHandler =
+            new StaxResponseHandler<ReceiveMessageResult>(ReceiveMessageResultStaxUnmarshaller.getInstance());
+
+    private final HttpResponseHandler<AmazonWebServiceResponse<QueryResult>> jsonResponseHandler =
+            protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                    .withPayloadJson(true).withHasStreamingSuccessResponse(false),
+                    QueryResultJsonUnmarshaller.getInstance());
+
+    private StubHttpServer sqsServer;
+
+    private StubHttpServer dynamoDbServer;
+
+    private URI sqsEndpoint;
+
+    private URI dynamoDbEndpoint;
+
+    private AmazonHttpClient client;
+
+    @Setup
+    public void setup() throws Exception {
+        sqsServer = new StubHttpServer("text/xml", RecordedPayloads.SQS_RECEIVE_MESSAGE.bytes(), SERVER_THREADS);
+        dynamoDbServer = new StubHttpServer("application/x-amz-json-1.0", RecordedPayloads.DYNAMODB_QUERY.bytes(),
+                SERVER_THREADS);
+        sqsEndpoint = URI.create(sqsServer.getEndpoint());
+        dynamoDbEndpoint = URI.create(dynamoDbServer.getEndpoint());
+        client = new AmazonHttpClient(new ClientConfiguration());
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+        sqsServer.stop();
+        dynamoDbServer.stop();
+    }
+
+    @Benchmark
+    public ReceiveMessageResult sqsReceiveMessage() {
+        Request<ReceiveMessageRequest> request = new ReceiveMessageRequestMarshaller().marshall(receiveMessage);
+        request.setEndpoint(sqsEndpoint);
+        return client.requestExecutionBuilder()
+                .request(request)
+                .errorResponseHandler(errorResponseHandler)
+                .execute(staxResponseHandler)
+                .getAwsResponse()
+                .getResult();
+    }
+
+    @Benchmark
+    public QueryResult dynamoDbQuery() {
+        Request<QueryRequest> request = new QueryRequestMarshaller(protocolFactory).marshall(query);
+        request.setEndpoint(dynamoDbEndpoint);
+        return client.requestExecutionBuilder()
+                .request(request)
+                .errorResponseHandler(errorResponseHandler)
+                .execute(jsonResponseHandler)
+                .getAwsResponse()
+                .getResult();
+    }
+}
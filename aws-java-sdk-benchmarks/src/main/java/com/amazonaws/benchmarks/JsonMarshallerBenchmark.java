@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.Request;
+import com.amazonaws.protocol.json.JsonClientMetadata;
+import com.amazonaws.protocol.json.SdkJsonProtocolFactory;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutRequest;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.amazonaws.services.dynamodbv2.model.transform.BatchWriteItemRequestMarshaller;
+import com.amazonaws.services.dynamodbv2.model.transform.PutItemRequestMarshaller;
+
+/**
+ * Measures the generated JSON protocol marshallers on DynamoDB writes, from
+ * the request object to the serialized body.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar JsonMarshallerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class JsonMarshallerBenchmark {
+
+    private final SdkJsonProtocolFactory protocolFactory = new SdkJsonProtocolFactory(new JsonClientMetadata()
+            .withProtocolVersion("1.0")
+            .withSupportsCbor(false)
+            .withSupportsIon(false));
+
+    private final PutItemRequest putItem = new PutItemRequest("Music", createItem(0))
+            .withConditionExpression("attribute_not_exists(SongTitle)");
+
+    private final BatchWriteItemRequest batchWriteItem = createBatchWriteItem();
+
+    @Benchmark
+    public Request<PutItemRequest> dynamoDbPutItem() {
+        return new PutItemRequestMarshaller(protocolFactory).marshall(putItem);
+    }
+
+    @Benchmark
+    public Request<BatchWriteItemRequest> dynamoDbBatchWriteItem() {
+        return new BatchWriteItemRequestMarshaller(protocolFactory).marshall(batchWriteItem);
+    }
+
+    private static BatchWriteItemRequest createBatchWriteItem() {
+        List<WriteRequest> writes = new ArrayList<WriteRequest>();
+        for (int i = 0; i < 25; i++) {
+            writes.add(new WriteRequest(new PutRequest(createItem(i))));
+        }
+        Map<String, List<WriteRequest>> requestItems = new HashMap<String, List<WriteRequest>>();
+        requestItems.put("Music", writes);
+        return new BatchWriteItemRequest(requestItems);
+    }
+
+    private static Map<String, AttributeValue> createItem(int i) {
+        Map<String, AttributeValue> item = new HashMap<String, AttributeValue>();
+        item.put("Artist", new AttributeValue("No One You Know"));
+        item.put("SongTitle", new AttributeValue("Song " + i));
+        item.put("AlbumTitle", new AttributeValue("Somewhat Famous"));
+        item.put("Year", new AttributeValue().withN(String.valueOf(1990 + i)));
+        item.put("Price", new AttributeValue().withN("1.99"));
+        item.put("Tags", new AttributeValue().withSS("featured", "tag" + i));
+        item.put("Explicit", new AttributeValue().withBOOL(i % 4 == 0));
+        item.put("Cover", new AttributeValue().withB(ByteBuffer.wrap(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+        Map<String, AttributeValue> award = new HashMap<String, AttributeValue>();
+        award.put("Name", new AttributeValue("Best Song"));
+        award.put("Year", new AttributeValue().withN(String.valueOf(2000 + i)));
+        item.put("Awards", new AttributeValue().withL(new AttributeValue().withM(award)));
+        return item;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.protocol.json.SdkStructuredPlainJsonFactory;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.transform.GetItemResultJsonUnmarshaller;
+import com.amazonaws.services.dynamodbv2.model.transform.QueryResultJsonUnmarshaller;
+import com.amazonaws.transform.JsonUnmarshallerContext;
+import com.amazonaws.transform.JsonUnmarshallerContextImpl;
+import com.amazonaws.transform.Unmarshaller;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Measures {@link JsonUnmarshallerContextImpl} driving the generated DynamoDB
+ * unmarshallers over recorded responses, the same way
+ * {@link com.amazonaws.http.JsonResponseHandler} does minus the HTTP plumbing.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar JsonUnmarshallerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class JsonUnmarshallerBenchmark {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final byte[] query = RecordedPayloads.DYNAMODB_QUERY.bytes();
+
+    private final byte[] getItem = RecordedPayloads.DYNAMODB_GET_ITEM.bytes();
+
+    @Benchmark
+    public QueryResult dynamoDbQuery() throws Exception {
+        return unmarshall(QueryResultJsonUnmarshaller.getInstance(), query);
+    }
+
+    @Benchmark
+    public GetItemResult dynamoDbGetItem() throws Exception {
+        return unmarshall(GetItemResultJsonUnmarshaller.getInstance(), getItem);
+    }
+
+    private static <T> T unmarshall(Unmarshaller<T, JsonUnmarshallerContext> unmarshaller, byte[] payload)
+            throws Exception {
+        JsonParser parser = JSON_FACTORY.createParser(payload);
+        try {
+            return unmarshaller.unmarshall(new JsonUnmarshallerContextImpl(parser,
+                    SdkStructuredPlainJsonFactory.JSON_SCALAR_UNMARSHALLERS, null));
+        } finally {
+            parser.close();
+        }
+    }
+}
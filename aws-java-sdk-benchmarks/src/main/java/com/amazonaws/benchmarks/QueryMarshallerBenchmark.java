@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.Request;
+import com.amazonaws.services.ec2.model.BlockDeviceMapping;
+import com.amazonaws.services.ec2.model.DescribeInstancesRequest;
+import com.amazonaws.services.ec2.model.EbsBlockDevice;
+import com.amazonaws.services.ec2.model.Filter;
+import com.amazonaws.services.ec2.model.RunInstancesRequest;
+import com.amazonaws.services.ec2.model.transform.DescribeInstancesRequestMarshaller;
+import com.amazonaws.services.ec2.model.transform.RunInstancesRequestMarshaller;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.transform.SendMessageBatchRequestMarshaller;
+import com.amazonaws.util.SdkHttpUtils;
+
+/**
+ * Measures the generated query and EC2 protocol marshallers, including the
+ * form encoding of the parameters that {@link SdkHttpUtils#encodeParameters}
+ * performs before the request goes on the wire.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar QueryMarshallerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class QueryMarshallerBenchmark {
+
+    private final SendMessageBatchRequest sendMessageBatch = createSendMessageBatch();
+
+    private final DescribeInstancesRequest describeInstances = new DescribeInstancesRequest().withFilters(
+            new Filter("instance-state-name").withValues("pending", "running"),
+            new Filter("tag:Environment").withValues("production"),
+            new Filter("vpc-id").withValues("vpc-11112222"));
+
+    private final RunInstancesRequest runInstances = new RunInstancesRequest("ami-bff32ccc", 1, 5)
+            .withInstanceType("t2.micro")
+            .withKeyName("my_keypair")
+            .withSecurityGroupIds("sg-e4076980", "sg-e4076981")
+            .withSubnetId("subnet-56f5f633")
+            .withBlockDeviceMappings(new BlockDeviceMapping().withDeviceName("/dev/xvda").withEbs(
+                    new EbsBlockDevice().withVolumeSize(64).withVolumeType("gp2").withDeleteOnTermination(true)))
+            .withUserData("IyEvYmluL2Jhc2gKeXVtIHVwZGF0ZSAteQp5dW0gaW5zdGFsbCAteSBodHRwZDI0");
+
+    @Benchmark
+    public String sqsSendMessageBatch() {
+        return encode(new SendMessageBatchRequestMarshaller().marshall(sendMessageBatch));
+    }
+
+    @Benchmark
+    public String ec2DescribeInstances() {
+        return encode(new DescribeInstancesRequestMarshaller().marshall(describeInstances));
+    }
+
+    @Benchmark
+    public String ec2RunInstances() {
+        return encode(new RunInstancesRequestMarshaller().marshall(runInstances));
+    }
+
+    private static String encode(Request<?> request) {
+        return SdkHttpUtils.encodeParameters(request);
+    }
+
+    private static SendMessageBatchRequest createSendMessageBatch() {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<SendMessageBatchRequestEntry>();
+        for (int i = 0; i < 10; i++) {
+            entries.add(new SendMessageBatchRequestEntry("msg-" + i,
+                    "{\"orderId\":\"0000000" + i + "\",\"status\":\"SHIPPED\",\"items\":[{\"sku\":\"B00" + i
+                            + "\",\"quantity\":" + (i + 1) + "}]}")
+                    .addMessageAttributesEntry("Source", new MessageAttributeValue()
+                            .withDataType("String").withStringValue("fulfillment-service"))
+                    .addMessageAttributesEntry("Attempt", new MessageAttributeValue()
+                            .withDataType("Number").withStringValue(String.valueOf(i))));
+        }
+        return new SendMessageBatchRequest("https://sqs.us-west-2.amazonaws.com/123456789012/orders", entries);
+    }
+}
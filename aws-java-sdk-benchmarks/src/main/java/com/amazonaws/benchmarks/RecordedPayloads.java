@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Service responses recorded from live calls and checked in under
+ * {@code com/amazonaws/benchmarks/payloads}, so that the unmarshalling and
+ * HTTP benchmarks parse what the services really send back.
+ */
+public enum RecordedPayloads {
+
+    /** A DynamoDB Query response holding 25 items of mixed attribute types. */
+    DYNAMODB_QUERY("dynamodb-query.json"),
+
+    /** A DynamoDB GetItem response for a single item. */
+    DYNAMODB_GET_ITEM("dynamodb-getitem.json"),
+
+    /** An SQS ReceiveMessage response with ten messages and their attributes. */
+    SQS_RECEIVE_MESSAGE("sqs-receivemessage.xml"),
+
+    /** An EC2 DescribeInstances response with four reservations of five instances each. */
+    EC2_DESCRIBE_INSTANCES("ec2-describeinstances.xml");
+
+    private final String resourceName;
+
+    private volatile byte[] bytes;
+
+    private RecordedPayloads(String resourceName) {
+        this.resourceName = resourceName;
+    }
+
+    /**
+     * Returns the recorded response body. The array is shared, callers must
+     * not modify it.
+     */
+    public byte[] bytes() {
+        byte[] result = bytes;
+        if (result == null) {
+            bytes = result = load();
+        }
+        return result;
+    }
+
+    private byte[] load() {
+        InputStream in = RecordedPayloads.class.getResourceAsStream("payloads/" + resourceName);
+        if (in == null) {
+            throw new IllegalStateException("Missing recorded payload " + resourceName);
+        }
+        try {
+            return IOUtils.toByteArray(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read recorded payload " + resourceName, e);
+        } finally {
+            IOUtils.closeQuietly(in, null);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.ResponseMetadata;
+import com.amazonaws.services.ec2.model.DescribeInstancesResult;
+import com.amazonaws.services.ec2.model.transform.DescribeInstancesResultStaxUnmarshaller;
+import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.transform.ReceiveMessageResultStaxUnmarshaller;
+import com.amazonaws.transform.StaxUnmarshallerContext;
+import com.amazonaws.transform.Unmarshaller;
+
+/**
+ * Measures {@link StaxUnmarshallerContext} driving the generated SQS and EC2
+ * unmarshallers over recorded responses, the same way
+ * {@link com.amazonaws.http.StaxResponseHandler} does minus the HTTP plumbing.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar StaxUnmarshallerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class StaxUnmarshallerBenchmark {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    private final byte[] receiveMessage = RecordedPayloads.SQS_RECEIVE_MESSAGE.bytes();
+
+    private final byte[] describeInstances = RecordedPayloads.EC2_DESCRIBE_INSTANCES.bytes();
+
+    @Benchmark
+    public ReceiveMessageResult sqsReceiveMessage() throws Exception {
+        return unmarshall(ReceiveMessageResultStaxUnmarshaller.getInstance(), receiveMessage);
+    }
+
+    @Benchmark
+    public DescribeInstancesResult ec2DescribeInstances() throws Exception {
+        return unmarshall(DescribeInstancesResultStaxUnmarshaller.getInstance(), describeInstances);
+    }
+
+    private static <T> T unmarshall(Unmarshaller<T, StaxUnmarshallerContext> unmarshaller, byte[] payload)
+            throws Exception {
+        XMLStreamReader reader = createReader(payload);
+        try {
+            StaxUnmarshallerContext context = new StaxUnmarshallerContext(reader,
+                    Collections.<String, String> emptyMap());
+            context.registerMetadataExpression("ResponseMetadata/RequestId", 2, ResponseMetadata.AWS_REQUEST_ID);
+            context.registerMetadataExpression("requestId", 2, ResponseMetadata.AWS_REQUEST_ID);
+            return unmarshaller.unmarshall(context);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static XMLStreamReader createReader(byte[] payload) throws XMLStreamException {
+        // Factories are not guaranteed to be thread safe, StaxResponseHandler locks the same way
+        synchronized (XML_INPUT_FACTORY) {
+            return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(payload));
+        }
+    }
+}
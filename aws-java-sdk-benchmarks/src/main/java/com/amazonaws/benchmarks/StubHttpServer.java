@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.amazonaws.util.IOUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A loopback HTTP server that answers every request with the same canned
+ * response, so that the HTTP benchmarks measure the client and not a network
+ * or a service.
+ */
+class StubHttpServer {
+
+    static {
+        // Without TCP_NODELAY the canned responses sit behind the client's
+        // delayed ACKs and every call measures a 40ms timer instead of the SDK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    /**
+     * Starts a server on an ephemeral loopback port.
+     *
+     * @param contentType
+     *            The Content-Type header of the canned response.
+     * @param body
+     *            The canned response body.
+     * @param workerThreads
+     *            The number of threads serving requests; should be at least
+     *            the number of benchmark threads so that requests never queue.
+     */
+    StubHttpServer(final String contentType, final byte[] body, int workerThreads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream requestBody = exchange.getRequestBody();
+                try {
+                    IOUtils.toByteArray(requestBody);
+                } finally {
+                    requestBody.close();
+                }
+                exchange.getResponseHeaders().set("Content-Type", contentType);
+                exchange.getResponseHeaders().set("x-amzn-RequestId", "b6633655-283d-45b4-aee4-4e84e0ae6afa");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream responseBody = exchange.getResponseBody();
+                try {
+                    responseBody.write(body);
+                } finally {
+                    responseBody.close();
+                }
+            }
+        });
+        executor = Executors.newFixedThreadPool(workerThreads);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the base endpoint of the server, e.g. {@code http://127.0.0.1:54321}.
+     */
+    String getEndpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
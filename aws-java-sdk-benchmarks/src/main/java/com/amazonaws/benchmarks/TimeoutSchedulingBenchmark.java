@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.http.timers.request.HttpRequestAbortTaskImpl;
+import com.amazonaws.http.timers.request.HttpRequestAbortTaskTracker;
+import com.amazonaws.http.timers.request.HttpRequestTimer;
+
+/**
+ * Measures the per-request cost of arming and disarming a request timeout, which is what every
+ * request that completes in time pays. Compares the shared
+ * {@link com.amazonaws.http.timers.HashedWheelTimer} against the per-client
+ * {@link ScheduledThreadPoolExecutor} that {@link HttpRequestTimer} used to create, both with an
+ * idle timer and with many requests already in flight.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar TimeoutSchedulingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@Threads(4)
+public class TimeoutSchedulingBenchmark {
+
+    private static final int REQUEST_TIMEOUT_MILLIS = 60 * 1000;
+
+    private final HttpRequestBase request = new HttpGet("http://localhost/");
+
+    /**
+     * Number of timeouts already pending in the timer, i.e. requests in flight.
+     */
+    @Param({"0", "100000"})
+    private int pendingTimeouts;
+
+    private final List<HttpRequestAbortTaskTracker> pendingTrackers =
+            new ArrayList<HttpRequestAbortTaskTracker>();
+
+    private ScheduledThreadPoolExecutor executor;
+
+    private HttpRequestTimer requestTimer;
+
+    @Setup
+    public void setup() {
+        // Same configuration as the executor previously built for each client
+        executor = new ScheduledThreadPoolExecutor(5);
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setKeepAliveTime(5, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        requestTimer = new HttpRequestTimer();
+        for (int i = 0; i < pendingTimeouts; i++) {
+            executor.schedule(new HttpRequestAbortTaskImpl(request), 10 * REQUEST_TIMEOUT_MILLIS,
+                              TimeUnit.MILLISECONDS);
+            pendingTrackers.add(requestTimer.startTimer(request, 10 * REQUEST_TIMEOUT_MILLIS));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        for (HttpRequestAbortTaskTracker tracker : pendingTrackers) {
+            tracker.cancelTask();
+        }
+        pendingTrackers.clear();
+    }
+
+    @Benchmark
+    public boolean scheduledThreadPoolExecutor() {
+        HttpRequestAbortTaskImpl task = new HttpRequestAbortTaskImpl(request);
+        ScheduledFuture<?> future = executor.schedule(task, REQUEST_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        return future.cancel(false);
+    }
+
+    @Benchmark
+    public HttpRequestAbortTaskTracker hashedWheelTimer() {
+        HttpRequestAbortTaskTracker tracker = requestTimer.startTimer(request, REQUEST_TIMEOUT_MILLIS);
+        tracker.cancelTask();
+        return tracker;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel.Reflect;
+
+/**
+ * Measures the cost of getting and setting a bean property of the
+ * {@link DynamoDBMapper} through {@link Method#invoke}, once with the usual
+ * access checks and once with the methods made accessible by
+ * {@link StandardBeanAccessors}, for both an object and a primitive property.
+ * <p>
+ * This benchmark lives in the datamodeling package as the property accessors
+ * can only be built directly from within it.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar StandardBeanAccessorsBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class StandardBeanAccessorsBenchmark {
+
+    private final Item item = new Item();
+
+    private Reflect<Object,Object> reflectedString, reflectedLong;
+
+    private Reflect<Object,Object> accessibleString, accessibleLong;
+
+    private Object string = "value", number = Long.valueOf(42L);
+
+    @Setup
+    public void setup() throws Exception {
+        reflectedString = new StandardBeanProperties.MethodReflect<Object,Object>(Item.class.getMethod("getString"));
+        reflectedLong = new StandardBeanProperties.MethodReflect<Object,Object>(Item.class.getMethod("getLong"));
+        // Each lookup returns a new Method, so only these are made accessible
+        final Method getString = Item.class.getMethod("getString");
+        final Method getLong = Item.class.getMethod("getLong");
+        accessibleString = StandardBeanAccessors.reflectOf(getString, StandardBeanProperties.MethodReflect.setterOf(getString));
+        accessibleLong = StandardBeanAccessors.reflectOf(getLong, StandardBeanProperties.MethodReflect.setterOf(getLong));
+        if (accessibleString == null || accessibleLong == null) {
+            throw new IllegalStateException("accessors could not be made accessible");
+        }
+    }
+
+    @Benchmark
+    public Object reflectedGetString() {
+        return reflectedString.get(item);
+    }
+
+    @Benchmark
+    public Object accessibleGetString() {
+        return accessibleString.get(item);
+    }
+
+    @Benchmark
+    public void reflectedSetString() {
+        reflectedString.set(item, string);
+    }
+
+    @Benchmark
+    public void accessibleSetString() {
+        accessibleString.set(item, string);
+    }
+
+    @Benchmark
+    public Object reflectedGetLong() {
+        return reflectedLong.get(item);
+    }
+
+    @Benchmark
+    public Object accessibleGetLong() {
+        return accessibleLong.get(item);
+    }
+
+    @Benchmark
+    public void reflectedSetLong() {
+        reflectedLong.set(item, number);
+    }
+
+    @Benchmark
+    public void accessibleSetLong() {
+        accessibleLong.set(item, number);
+    }
+
+    public static class Item {
+        private String string;
+        private long value;
+
+        public String getString() { return string; }
+        public void setString(String string) { this.string = string; }
+        public long getLong() { return value; }
+        public void setLong(long value) { this.value = value; }
+    }
+}
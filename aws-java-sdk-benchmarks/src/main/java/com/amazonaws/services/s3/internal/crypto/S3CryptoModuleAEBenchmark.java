@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.internal.crypto;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.KeyGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.services.s3.internal.S3Direct;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.CryptoConfiguration;
+import com.amazonaws.services.s3.model.CryptoMode;
+import com.amazonaws.services.s3.model.EncryptionMaterials;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.StaticEncryptionMaterialsProvider;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Measures the encryption and decryption throughput of
+ * {@link S3CryptoModuleAE} (AES/GCM) for a put and a get of a 1 MiB object,
+ * against an in-memory {@link S3Direct} that simply drains the ciphertext on
+ * put and replays it on get, so that nothing but the crypto pipeline is
+ * measured. As each operation moves exactly 1 MiB, the reported ops/s reads
+ * directly as MiB/s.
+ * <p>
+ * This benchmark lives in the crypto package as the crypto modules can only
+ * be built directly from within it.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar S3CryptoModuleAEBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class S3CryptoModuleAEBenchmark {
+
+    private static final int OBJECT_SIZE = 1024 * 1024;
+
+    private final byte[] plaintext = new byte[OBJECT_SIZE];
+
+    private final InMemoryS3 s3 = new InMemoryS3();
+
+    private S3CryptoModuleAE module;
+
+    @Setup
+    public void setup() throws Exception {
+        new Random(42).nextBytes(plaintext);
+        KeyGenerator generator = KeyGenerator.getInstance("AES");
+        generator.init(256);
+        module = new S3CryptoModuleAE(s3,
+                new StaticEncryptionMaterialsProvider(new EncryptionMaterials(generator.generateKey())),
+                new CryptoConfiguration(CryptoMode.AuthenticatedEncryption).readOnly());
+        // Leaves the ciphertext and its envelope behind for the get benchmark
+        put();
+    }
+
+    @Benchmark
+    public PutObjectResult put() {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(OBJECT_SIZE);
+        return module.putObjectSecurely(new PutObjectRequest("bucket", "key",
+                new ByteArrayInputStream(plaintext), metadata));
+    }
+
+    @Benchmark
+    public byte[] get() throws IOException {
+        S3Object object = module.getObjectSecurely(new GetObjectRequest("bucket", "key"));
+        try {
+            return IOUtils.toByteArray(object.getObjectContent());
+        } finally {
+            object.close();
+        }
+    }
+
+    /**
+     * Keeps the last object put, and only supports single part puts and gets.
+     */
+    private static final class InMemoryS3 extends S3Direct {
+
+        private volatile ObjectMetadata metadata;
+
+        private volatile byte[] content;
+
+        @Override
+        public PutObjectResult putObject(PutObjectRequest req) {
+            try {
+                content = IOUtils.toByteArray(req.getInputStream());
+                req.getInputStream().close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            metadata = req.getMetadata();
+            return new PutObjectResult();
+        }
+
+        @Override
+        public S3Object getObject(GetObjectRequest req) {
+            ObjectMetadata objectMetadata = metadata.clone();
+            objectMetadata.setContentLength(content.length);
+            S3Object object = new S3Object();
+            object.setBucketName(req.getBucketName());
+            object.setKey(req.getKey());
+            object.setObjectMetadata(objectMetadata);
+            object.setObjectContent(new S3ObjectInputStream(new ByteArrayInputStream(content), null));
+            return object;
+        }
+
+        @Override
+        public ObjectMetadata getObject(GetObjectRequest req, File dest) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest req) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest req) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UploadPartResult uploadPart(UploadPartRequest req) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CopyPartResult copyPart(CopyPartRequest req) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void abortMultipartUpload(AbortMultipartUploadRequest req) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -54,6 +54,13 @@ public class CustomizationConfig {
      */
     private List<String> operationsWithResponseStreamContentLengthValidation;
 
+    /**
+     * The name of the operations which the async client executes on the non-blocking transport,
+     * when one is configured, instead of on its executor. Only supported for the JSON protocols,
+     * and for operations with neither a streaming input nor a streaming output.
+     */
+    private List<String> operationsWithNonBlockingExecution;
+
     /**
      * If specified the name of the custom exception unmarshaller (e.g. 'LegacyErrorUnmarshaller'
      * for SimpleDB). If not set then the default unmarshaller of the protocol will be used (e.g.
@@ -231,6 +238,14 @@ public class CustomizationConfig {
         this.operationsWithResponseStreamContentLengthValidation = operationsWithResponseStreamContentLengthValidation;
     }
 
+    public List<String> getOperationsWithNonBlockingExecution() {
+        return operationsWithNonBlockingExecution;
+    }
+
+    public void setOperationsWithNonBlockingExecution(List<String> operationsWithNonBlockingExecution) {
+        this.operationsWithNonBlockingExecution = operationsWithNonBlockingExecution;
+    }
+
     public String getCustomExceptionUnmarshallerImpl() {
         return customExceptionUnmarshallerImpl;
     }
@@ -18,6 +18,11 @@ public ${operation.asyncFutureType} ${operation.methodName}Async(
     final ${operation.input.variableType} request,
     final ${operation.asyncHandlerType} asyncHandler) {
 
+  <#if (customizationConfig.operationsWithNonBlockingExecution![])?seq_contains(operation.operationName)>
+    if (isNonBlocking()) {
+        return ${operation.methodName}NonBlocking(request, asyncHandler);
+    }
+  </#if>
     return executorService.submit(new ${operation.asyncCallableType}() {
         @Override
         public ${operation.asyncReturnType} call() throws Exception {
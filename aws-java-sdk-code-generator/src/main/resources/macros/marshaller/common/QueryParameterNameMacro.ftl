@@ -0,0 +1,24 @@
+<#-- Writes a query parameter name as a chain of QueryParameterWriter calls, so
+     list indices are written into the parameter buffer rather than
+     concatenated into a new string. The name is given as a sequence of
+     pieces: strings are written as they are, and hashes such as
+     {"index": "tagsListIndex"} name the variable holding a list index.
+     Adjacent strings are joined into a single call. -->
+<#macro content parameterPath>
+    <#local literal = ""/>
+    parameterWriter<#t>
+    <#list parameterPath as piece>
+        <#if piece?is_hash>
+            <#if literal?has_content>
+                .name("${literal}")<#t>
+                <#local literal = ""/>
+            </#if>
+            .name(${piece.index})<#t>
+        <#else>
+            <#local literal = literal + piece/>
+        </#if>
+    </#list>
+    <#if literal?has_content>
+        .name("${literal}")<#t>
+    </#if>
+</#macro>
@@ -4,22 +4,22 @@
 <#if shape.members??>
     <#list shape.members as member>
         <#local getMember = getterFunctionPrefix + ".get" + member.name />
-        <#local marshallLocationName = member.http.marshallLocationName />
+        <#local marshallLocationName = [member.http.marshallLocationName] />
 
         <#if member.http.additionalMarshallingPath?has_content>
-            <#local marshallLocationName = marshallLocationName + "." + member.http.additionalMarshallingPath />
+            <#local marshallLocationName = marshallLocationName + ["." + member.http.additionalMarshallingPath] />
         </#if>
 
         <#if contextPath?has_content>
-            <#local marshallLocationName = contextPath + "." + marshallLocationName/>
+            <#local marshallLocationName = contextPath + ["."] + marshallLocationName/>
         </#if>
 
         <#if member.simple>
             <#if member.idempotencyToken>
-                request.addParameter("${marshallLocationName}", <@IdempotencyTokenMacro.content getMember member.variable.simpleType/>);
+                <@QueryParameterNameMacro.content marshallLocationName/>.value(<@IdempotencyTokenMacro.content getMember member.variable.simpleType/>);
             <#else>
                 if(${getMember}() != null) {
-                    request.addParameter("${marshallLocationName}", StringUtils.from${member.variable.simpleType}(${getMember}()));
+                    <@QueryParameterNameMacro.content marshallLocationName/>.value(StringUtils.from${member.variable.simpleType}(${getMember}()));
                 }
             </#if>
         <#elseif member.list>
@@ -43,16 +43,16 @@
                     <#if listModel.simple>
                          if (${loopVariable} != null) {
                             <#if listModel.memberAdditionalMarshallingPath?has_content>
-                                request.addParameter("${marshallLocationName}." + ${listIndex} + ".${listModel.memberAdditionalMarshallingPath}", StringUtils.from${listModel.memberType}(${loopVariable}));
+                                <@QueryParameterNameMacro.content marshallLocationName + [".", {"index": listIndex}, "." + listModel.memberAdditionalMarshallingPath]/>.value(StringUtils.from${listModel.memberType}(${loopVariable}));
                             <#else>
-                                request.addParameter("${marshallLocationName}." + ${listIndex}, StringUtils.from${listModel.memberType}(${loopVariable}));
+                                <@QueryParameterNameMacro.content marshallLocationName + [".", {"index": listIndex}]/>.value(StringUtils.from${listModel.memberType}(${loopVariable}));
                             </#if>
                          }
                     <#else>
                         <#if listModel.memberAdditionalMarshallingPath?has_content>
-                            <@MemberMarshallerMacro.content customConfig listModel.memberType loopVariable shapes marshallLocationName + ".\" + " + listIndex + " + \"."+listModel.memberAdditionalMarshallingPath+"\""/>
+                            <@MemberMarshallerMacro.content customConfig listModel.memberType loopVariable shapes marshallLocationName + [".", {"index": listIndex}, "." + listModel.memberAdditionalMarshallingPath]/>
                         <#else>
-                            <@MemberMarshallerMacro.content customConfig listModel.memberType loopVariable shapes marshallLocationName + ".\" + " + listIndex + " + \""/>
+                            <@MemberMarshallerMacro.content customConfig listModel.memberType loopVariable shapes marshallLocationName + [".", {"index": listIndex}]/>
                         </#if>
                     </#if>
                     ${listIndex}++;
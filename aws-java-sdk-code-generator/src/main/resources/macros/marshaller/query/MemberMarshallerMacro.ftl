@@ -8,15 +8,15 @@
 <#local variable = member.variable />
 
 <#if member.simple>
-    <#local parameterPath = http.marshallLocationName/>
+    <#local parameterPath = [http.marshallLocationName]/>
     <#if contextPath?has_content>
-        <#local parameterPath = contextPath + "." + parameterPath/>
+        <#local parameterPath = contextPath + ["."] + parameterPath/>
     </#if>
     <#if member.idempotencyToken>
-        request.addParameter("${parameterPath}", <@IdempotencyTokenMacro.content getMember member.variable.simpleType/>);
+        <@QueryParameterNameMacro.content parameterPath/>.value(<@IdempotencyTokenMacro.content getMember member.variable.simpleType/>);
     <#else>
         if(${getMember}() != null) {
-            request.addParameter("${parameterPath}", StringUtils.from${variable.simpleType}(${getMember}()));
+            <@QueryParameterNameMacro.content parameterPath/>.value(StringUtils.from${variable.simpleType}(${getMember}()));
         }
     </#if>
 <#elseif member.list>
@@ -28,20 +28,22 @@
 
     <#if http.flattened>
         <#if listModel.memberLocationName?has_content>
-            <#local parameterPath = listModel.memberLocationName/>
+            <#local parameterPath = [listModel.memberLocationName]/>
         <#else>
-            <#local parameterPath = http.marshallLocationName/>
+            <#local parameterPath = [http.marshallLocationName]/>
+        </#if>
+        <#if contextPath?has_content>
+            <#local parameterPath = contextPath + ["."] + parameterPath/>
         </#if>
-        <#local parameterPath = contextPath?has_content?string(contextPath+"."+parameterPath,parameterPath)/>
 
         <#-- The variable parameterRootPath is the root marshall location for the list. It is used as the query key when the list
              is empty and an empty string is to be sent to the wire.
          -->
         <#local parameterRootPath = parameterPath>
     <#else>
-        <#local parameterPath = http.marshallLocationName/>
+        <#local parameterPath = [http.marshallLocationName]/>
         <#if contextPath?has_content>
-            <#local parameterPath = contextPath + "." + parameterPath/>
+            <#local parameterPath = contextPath + ["."] + parameterPath/>
         </#if>
 
         <#-- The variable parameterRootPath is the root marshall location for the list. It is used as the query key when the list
@@ -50,9 +52,9 @@
         <#local parameterRootPath = parameterPath>
 
         <#if listModel.memberLocationName?has_content>
-            <#local parameterPath = parameterPath + "." + listModel.memberLocationName/>
+            <#local parameterPath = parameterPath + ["." + listModel.memberLocationName]/>
         <#else>
-            <#local parameterPath = parameterPath + ".member"/>
+            <#local parameterPath = parameterPath + [".member"]/>
         </#if>
     </#if>
 
@@ -60,12 +62,12 @@
         ${listModel.templateImplType} ${listVariable} = (${listModel.templateImplType})${getMember}();
         <#if listModel.sendEmptyQueryString>
             if (${listVariable}.isEmpty()) {
-                request.addParameter("${parameterRootPath}", "");
+                <@QueryParameterNameMacro.content parameterRootPath/>.value("");
             }
         </#if>
         <#if listModel.marshallNonAutoConstructedEmptyLists>
             if (${listVariable}.isEmpty() && !${listVariable}.isAutoConstruct()) {
-                request.addParameter("${parameterRootPath}", "");
+                <@QueryParameterNameMacro.content parameterRootPath/>.value("");
             }
         </#if>
         if (!${listVariable}.isEmpty() || !${listVariable}.isAutoConstruct()) {
@@ -75,7 +77,7 @@
         if (${listVariable} != null) {
             <#-- For query protocol, an empty list is serialized differently. -->
             if (${listVariable}.isEmpty()) {
-                request.addParameter("${parameterRootPath}", "");
+                <@QueryParameterNameMacro.content parameterRootPath/>.value("");
             } else {
     </#if>
                 int ${listIndex} = 1;
@@ -83,10 +85,10 @@
                 for (${listModel.memberType} ${loopVariable} : ${listVariable}) {
                     <#if listModel.simple>
                     if (${loopVariable} != null) {
-                        request.addParameter("${parameterPath}." + ${listIndex}, StringUtils.from${listModel.simpleType}(${loopVariable}));
+                        <@QueryParameterNameMacro.content parameterPath + [".", {"index": listIndex}]/>.value(StringUtils.from${listModel.simpleType}(${loopVariable}));
                     }
                     <#else>
-                    <@MemberMarshallerMacro.content customConfig listModel.memberType loopVariable shapes parameterPath + ".\" + " + listIndex + " + \""/>
+                    <@MemberMarshallerMacro.content customConfig listModel.memberType loopVariable shapes parameterPath + [".", {"index": listIndex}]/>
                     </#if>
                     ${listIndex}++;
                 }
@@ -95,15 +97,15 @@
     </#if>
         }
 <#elseif member.map>
-    <#local parameterPath = http.marshallLocationName/>
+    <#local parameterPath = [http.marshallLocationName]/>
     <#local mapModel = member.mapModel />
 
     <#if contextPath?has_content>
-        <#local parameterPath = contextPath + "." + parameterPath/>
+        <#local parameterPath = contextPath + ["."] + parameterPath/>
     </#if>
 
     <#if !http.flattened>
-        <#local parameterPath = parameterPath + ".entry"/>
+        <#local parameterPath = parameterPath + [".entry"]/>
     </#if>
 
     <#local listIndex = variable.variableName  + "ListIndex"/>
@@ -115,15 +117,15 @@
             int ${listIndex} = 1;
             for (Map.Entry<${mapModel.keyType},${mapModel.valueType}> entry : ${variable.variableName}.entrySet()) {
                 if (entry.getKey() != null) {
-                    request.addParameter("${parameterPath}." + ${listIndex} + ".${mapModel.keyLocationName}", StringUtils.from${mapModel.keyType}(entry.getKey()));
+                    <@QueryParameterNameMacro.content parameterPath + [".", {"index": listIndex}, "." + mapModel.keyLocationName]/>.value(StringUtils.from${mapModel.keyType}(entry.getKey()));
                 }
                 <#if mapModel.valueSimple>
                 if (entry.getValue() != null) {
-                    request.addParameter("${parameterPath}." + ${listIndex} + ".${mapModel.valueLocationName}", StringUtils.from${mapModel.valueModel.variable.simpleType}(entry.getValue()));
+                    <@QueryParameterNameMacro.content parameterPath + [".", {"index": listIndex}, "." + mapModel.valueLocationName]/>.value(StringUtils.from${mapModel.valueModel.variable.simpleType}(entry.getValue()));
                 }
                 <#else>
                 if (entry.getValue() != null) {
-                    <#local path = parameterPath + ".\" + " + listIndex + " + \"" + ".${mapModel.valueLocationName}"/>
+                    <#local path = parameterPath + [".", {"index": listIndex}, "." + mapModel.valueLocationName]/>
                     <@MemberMarshallerMacro.content customConfig mapModel.valueType "entry.getValue()" shapes path/>
                 }
                 </#if>
@@ -134,9 +136,9 @@
     </#if>
 
 <#else>
-    <#local parameterPath = http.marshallLocationName/>
+    <#local parameterPath = [http.marshallLocationName]/>
     <#if contextPath?has_content>
-        <#local parameterPath = contextPath + "." + parameterPath/>
+        <#local parameterPath = contextPath + ["."] + parameterPath/>
     </#if>
     <#local memberVariableName = variable.variableName/>
     ${variable.variableType} ${memberVariableName} = ${getMember}();
@@ -0,0 +1,20 @@
+<#--
+    Emitted for the operations listed in operationsWithNonBlockingExecution, and called by the
+    async client when a non-blocking transport is configured.
+-->
+<#macro content metadata operationModel>
+
+    /**
+     * Executes the ${operationModel.operationName} operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    ${operationModel.asyncFutureType} ${operationModel.methodName}NonBlocking(${operationModel.input.variableType} ${operationModel.input.variableName},
+            ${operationModel.asyncHandlerType} asyncHandler) {
+        <@ResponseHandlerCreation.content operationModel, metadata, "new ${operationModel.syncReturnType}${metadata.unmarshallerClassSuffix}()", operationModel.returnType.returnType />
+        <@ClientInvokeMethodErrorResponseHandlerCreation.content metadata customizationConfig />
+
+        return invokeNonBlocking(${operationModel.input.variableName}, <@RequestMarshallerCreation.content operationModel />, responseHandler,
+                errorResponseHandler, <#if operationModel.authenticated>awsCredentialsProvider<#else>null</#if>, asyncHandler);
+    }
+</#macro>
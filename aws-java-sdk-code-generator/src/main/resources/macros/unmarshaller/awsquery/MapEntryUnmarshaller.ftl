@@ -11,10 +11,10 @@
                 = new MapEntry<${memberModel.mapModel.keyType}, ${memberModel.mapModel.valueType}>();
 
             while (true) {
-                XMLEvent xmlEvent = context.nextEvent();
-                if (xmlEvent.isEndDocument()) return entry;
+                int token = context.nextToken();
+                if (token == XMLStreamConstants.END_DOCUMENT) return entry;
 
-                if (xmlEvent.isAttribute() || xmlEvent.isStartElement()) {
+                if (token == XMLStreamConstants.ATTRIBUTE || token == XMLStreamConstants.START_ELEMENT) {
                     if (context.testExpression("${memberModel.mapModel.keyLocationName}", targetDepth)) {
                         entry.setKey(${memberModel.mapModel.keyType}StaxUnmarshaller.getInstance().unmarshall(context));
                         continue;
@@ -23,7 +23,7 @@
                         entry.setValue(${memberModel.mapModel.valueModel.variable.simpleType}StaxUnmarshaller.getInstance().unmarshall(context));
                         continue;
                     }
-                } else if (xmlEvent.isEndElement()) {
+                } else if (token == XMLStreamConstants.END_ELEMENT) {
                     if (context.getCurrentDepth() < originalDepth) return entry;
                 }
             }
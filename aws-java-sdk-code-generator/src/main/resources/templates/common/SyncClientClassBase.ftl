@@ -236,6 +236,9 @@ public class ${metadata.syncClient} extends AmazonWebServiceClient implements ${
 
 <#list operations?values as operationModel>
     <@ClientMethodForOperation.content metadata operationModel/>
+  <#if ClientMethodForNonBlockingOperation?has_content && (customizationConfig.operationsWithNonBlockingExecution![])?seq_contains(operationModel.operationName)>
+    <@ClientMethodForNonBlockingOperation.content metadata operationModel/>
+  </#if>
     <@ClientMethodForOperationWithSimpleForm.content operationModel />
 </#list>
 
@@ -6,7 +6,7 @@ import java.util.HashMap;
 import java.util.ArrayList;
 import java.util.Map.Entry;
 
-import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.XMLStreamConstants;
 
 import ${metadata.packageName}.model.*;
 import com.amazonaws.transform.Unmarshaller;
@@ -75,10 +75,10 @@ public class ${shape.shapeName}StaxUnmarshaller implements Unmarshaller<${shape.
 </#if>
 
         while (true) {
-            XMLEvent xmlEvent = context.nextEvent();
-            if (xmlEvent.isEndDocument()) return ${shape.variable.variableName};
+            int token = context.nextToken();
+            if (token == XMLStreamConstants.END_DOCUMENT) return ${shape.variable.variableName};
 
-            if (xmlEvent.isAttribute() || xmlEvent.isStartElement()) {
+            if (token == XMLStreamConstants.ATTRIBUTE || token == XMLStreamConstants.START_ELEMENT) {
 
 <#if shape.members?has_content>
   <#if shape.customization.artificialResultWrapper?has_content>
@@ -96,7 +96,7 @@ public class ${shape.shapeName}StaxUnmarshaller implements Unmarshaller<${shape.
     </#list>
   </#if>
 </#if>
-            } else if (xmlEvent.isEndElement()) {
+            } else if (token == XMLStreamConstants.END_ELEMENT) {
                 if (context.getCurrentDepth() < originalDepth) {
                     return ${shape.variable.variableName};
                 }
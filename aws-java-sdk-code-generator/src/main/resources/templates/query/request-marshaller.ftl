@@ -9,6 +9,7 @@ import com.amazonaws.SdkClientException;
 import com.amazonaws.Request;
 import com.amazonaws.DefaultRequest;
 import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.protocol.query.QueryParameterWriter;
 import ${metadata.packageName}.model.*;
 import com.amazonaws.transform.Marshaller;
 import com.amazonaws.util.StringUtils;
@@ -33,12 +34,14 @@ public class ${shapeName}Marshaller implements Marshaller<Request<${shapeName}>,
        <#assign serviceNameForRequest = customConfig.customServiceNameForRequest!metadata.syncInterface />
 
         <@DefaultRequestCreation.content shape serviceNameForRequest/>
-        request.addParameter("Action", "${shape.marshaller.action}");
-        <#if metadata.apiVersion?has_content>request.addParameter("Version", "${metadata.apiVersion}");</#if>
+        QueryParameterWriter parameterWriter = QueryParameterWriter.forCurrentThread();
+        parameterWriter.parameter("Action", "${shape.marshaller.action}");
+        <#if metadata.apiVersion?has_content>parameterWriter.parameter("Version", "${metadata.apiVersion}");</#if>
         <#if shape.marshaller.verb?has_content>request.setHttpMethod(HttpMethodName.${shape.marshaller.verb});</#if>
 
-        <@MemberMarshallerMacro.content customConfig shapeName shape.variable.variableName shapes ""/>
+        <@MemberMarshallerMacro.content customConfig shapeName shape.variable.variableName shapes []/>
 
+        parameterWriter.writeTo(request);
         return request;
     }
 
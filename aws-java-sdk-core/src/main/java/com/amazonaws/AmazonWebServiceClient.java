@@ -16,14 +16,17 @@ package com.amazonaws;
 
 import com.amazonaws.annotation.SdkInternalApi;
 import com.amazonaws.annotation.SdkProtectedApi;
+import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.RegionAwareSigner;
 import com.amazonaws.auth.Signer;
 import com.amazonaws.auth.SignerFactory;
 import com.amazonaws.client.AwsSyncClientParams;
+import com.amazonaws.handlers.AsyncHandler;
 import com.amazonaws.handlers.RequestHandler;
 import com.amazonaws.handlers.RequestHandler2;
 import com.amazonaws.http.AmazonHttpClient;
 import com.amazonaws.http.ExecutionContext;
+import com.amazonaws.http.HttpResponseHandler;
 import com.amazonaws.internal.DefaultServiceEndpointBuilder;
 import com.amazonaws.internal.auth.DefaultSignerProvider;
 import com.amazonaws.internal.auth.SignerProvider;
@@ -33,10 +36,12 @@ import com.amazonaws.metrics.AwsSdkMetrics;
 import com.amazonaws.metrics.RequestMetricCollector;
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.Regions;
+import com.amazonaws.transform.Marshaller;
 import com.amazonaws.util.AWSRequestMetrics;
 import com.amazonaws.util.AWSRequestMetrics.Field;
 import com.amazonaws.util.AwsHostNameUtils;
 import com.amazonaws.util.Classes;
+import com.amazonaws.util.CredentialUtils;
 import com.amazonaws.util.RuntimeHttpUtils;
 import com.amazonaws.util.StringUtils;
 
@@ -46,6 +51,8 @@ import org.apache.commons.logging.LogFactory;
 import java.net.URI;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import static com.amazonaws.SDKGlobalConfiguration.PROFILING_SYSTEM_PROPERTY;
 
@@ -602,6 +609,92 @@ public abstract class AmazonWebServiceClient {
         }
     }
 
+    /**
+     * Returns true if async clients should execute requests with {@link #invokeNonBlocking} on the
+     * non-blocking transport, which is only the case when one is configured with
+     * {@link ClientConfiguration#setAsyncHttpTransportFactory}; false if they should run them on
+     * their executor.
+     */
+    @SdkProtectedApi
+    protected final boolean isNonBlocking() {
+        return clientConfiguration.getAsyncHttpTransportFactory() != null;
+    }
+
+    /**
+     * Marshalls the request and executes it on the non-blocking transport, without holding a
+     * thread while it is in flight. As on the executor of an async client, the async handler is
+     * notified before the returned future completes, and failures, including those to marshall the
+     * request, are reported through both. Cancelling the future aborts the execution.
+     *
+     * @param originalRequest      The request passed in from the user
+     * @param marshaller           Marshaller of the request
+     * @param responseHandler      Handler of a successful response
+     * @param errorResponseHandler Handler of an unsuccessful response
+     * @param credentialsProvider  Credentials provider of the client, or null for an operation
+     *                             which is invoked without authentication
+     * @param asyncHandler         Optional callback notified on completion; may be null.
+     */
+    @SdkProtectedApi
+    protected final <X, Y extends AmazonWebServiceRequest> Future<X> invokeNonBlocking(
+            final Y originalRequest,
+            Marshaller<Request<Y>, Y> marshaller,
+            HttpResponseHandler<AmazonWebServiceResponse<X>> responseHandler,
+            HttpResponseHandler<AmazonServiceException> errorResponseHandler,
+            AWSCredentialsProvider credentialsProvider,
+            final AsyncHandler<Y, X> asyncHandler) {
+        final ResultFuture<X> future = new ResultFuture<X>();
+        ExecutionContext executionContext = createExecutionContext(originalRequest);
+        final AWSRequestMetrics awsRequestMetrics = executionContext.getAwsRequestMetrics();
+        awsRequestMetrics.startEvent(Field.ClientExecuteTime);
+        Request<Y> request = null;
+
+        try {
+            awsRequestMetrics.startEvent(Field.RequestMarshallTime);
+            try {
+                request = marshaller.marshall(beforeMarshalling(originalRequest));
+                // Binds the request metrics to the current request.
+                request.setAWSRequestMetrics(awsRequestMetrics);
+            } finally {
+                awsRequestMetrics.endEvent(Field.RequestMarshallTime);
+            }
+            if (credentialsProvider != null) {
+                executionContext.setCredentialsProvider(
+                        CredentialUtils.getCredentialsProvider(originalRequest, credentialsProvider));
+            }
+            request.setEndpoint(endpoint);
+            request.setTimeOffset(timeOffset);
+
+            final Request<Y> sent = request;
+            future.setExecution(client.executeAsync(request, responseHandler, errorResponseHandler,
+                    executionContext, new AsyncHandler<AmazonWebServiceRequest, Response<X>>() {
+                        @Override
+                        public void onSuccess(AmazonWebServiceRequest ignored, Response<X> response) {
+                            endClientExecution(awsRequestMetrics, sent, response);
+                            X result = response.getAwsResponse();
+                            try {
+                                if (asyncHandler != null) {
+                                    asyncHandler.onSuccess(originalRequest, result);
+                                }
+                            } catch (RuntimeException e) {
+                                future.fail(e, null);
+                                return;
+                            }
+                            future.complete(result);
+                        }
+
+                        @Override
+                        public void onError(Exception exception) {
+                            endClientExecution(awsRequestMetrics, sent, null);
+                            future.fail(exception, asyncHandler);
+                        }
+                    }));
+        } catch (RuntimeException e) {
+            endClientExecution(awsRequestMetrics, request, null);
+            future.fail(e, asyncHandler);
+        }
+        return future;
+    }
+
     /**
      * @deprecated by {@link #getServiceName()}.
      */
@@ -840,4 +933,53 @@ public abstract class AmazonWebServiceClient {
     protected boolean calculateCRC32FromCompressedData() {
         return false;
     }
+
+    /**
+     * The future of a request executed by {@link #invokeNonBlocking}; cancelling it aborts the
+     * execution.
+     */
+    private static final class ResultFuture<X> extends FutureTask<X> {
+
+        private volatile Future<?> execution;
+
+        ResultFuture() {
+            super(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, null);
+        }
+
+        void setExecution(Future<?> execution) {
+            this.execution = execution;
+            if (isCancelled()) {
+                execution.cancel(true);
+            }
+        }
+
+        void complete(X result) {
+            set(result);
+        }
+
+        void fail(Exception exception, AsyncHandler<?, ?> asyncHandler) {
+            try {
+                if (asyncHandler != null) {
+                    asyncHandler.onError(exception);
+                }
+            } catch (RuntimeException e) {
+                exception = e;
+            }
+            setException(exception);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> current = execution;
+            if (cancelled && current != null) {
+                current.cancel(mayInterruptIfRunning);
+            }
+            return cancelled;
+        }
+    }
 }
@@ -14,7 +14,10 @@
  */
 package com.amazonaws;
 
+import com.amazonaws.annotation.Beta;
 import com.amazonaws.http.IdleConnectionReaper;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.HttpClientFactory;
 import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.util.VersionInfoUtils;
@@ -103,6 +106,11 @@ public class ClientConfiguration {
      */
     public static final boolean DEFAULT_THROTTLE_RETRIES = true;
 
+    /**
+     * The default on whether to adaptively rate limit requests on throttling.
+     */
+    public static final boolean DEFAULT_USE_ADAPTIVE_RATE_LIMITING = false;
+
     /**
      * The default on whether to cache response metadata.
      */
@@ -194,6 +202,8 @@ public class ClientConfiguration {
 
     private boolean throttleRetries = DEFAULT_THROTTLE_RETRIES;
 
+    private boolean useAdaptiveRateLimiting = DEFAULT_USE_ADAPTIVE_RATE_LIMITING;
+
     /**
      * Optional size hint (in bytes) for the low level TCP send buffer. This is an advanced option
      * for advanced users who want to tune low level TCP parameters to try and squeeze out more
@@ -275,6 +285,12 @@ public class ClientConfiguration {
      */
     private DnsResolver dnsResolver = new SystemDefaultDnsResolver();
 
+    /**
+     * Factory for the non-blocking transport used by asynchronous request execution. Async clients
+     * only execute requests on the transport, instead of on their executor, when it is set.
+     */
+    private HttpClientFactory<AsyncHttpTransport> asyncHttpTransportFactory;
+
     /**
      * An instance of {@link SecureRandom} configured by the user; or the JDK default will be used
      * if it is set to null or not explicitly configured.
@@ -313,6 +329,7 @@ public class ClientConfiguration {
         this.maxErrorRetry = other.maxErrorRetry;
         this.retryPolicy = other.retryPolicy;
         this.throttleRetries = other.throttleRetries;
+        this.useAdaptiveRateLimiting = other.useAdaptiveRateLimiting;
         this.localAddress = other.localAddress;
         this.protocol = other.protocol;
         this.proxyDomain = other.proxyDomain;
@@ -335,6 +352,7 @@ public class ClientConfiguration {
         this.signerOverride = other.signerOverride;
         this.responseMetadataCacheSize = other.responseMetadataCacheSize;
         this.dnsResolver = other.dnsResolver;
+        this.asyncHttpTransportFactory = other.asyncHttpTransportFactory;
         this.useExpectContinue = other.useExpectContinue;
         this.apacheHttpClientConfig = new ApacheHttpClientConfig(other.apacheHttpClientConfig);
         this.cacheResponseMetadata = other.cacheResponseMetadata;
@@ -1332,6 +1350,53 @@ public class ClientConfiguration {
         return this;
     }
 
+    /**
+     * Returns whether adaptive rate limiting will be used.
+     * <p>
+     * Adaptive rate limiting paces the requests sent by the client once the service starts
+     * throttling them. Each throttling response lowers the rate at which the client sends
+     * requests, and each other response lets it grow back, so that a client running near the
+     * provisioned limits of a service spends fewer round trips on requests that would only be
+     * throttled and retried. Requests wait in the client, before being signed and sent, until
+     * the current rate allows them to go out.
+     * </p>
+     * <p>
+     * The limiter is shared by all the requests of a client, but not across clients; clients
+     * calling the same resource each adapt to the throttling responses they receive.
+     * </p>
+     *
+     * @return true if adaptive rate limiting will be used
+     */
+    public boolean useAdaptiveRateLimiting() {
+        return useAdaptiveRateLimiting;
+    }
+
+    /**
+     * Sets whether adaptive rate limiting should be used.
+     *
+     * @param use
+     *            true if requests should be paced according to the throttling responses
+     *            received by the client
+     * @see #useAdaptiveRateLimiting()
+     */
+    public void setUseAdaptiveRateLimiting(boolean use) {
+        this.useAdaptiveRateLimiting = use;
+    }
+
+    /**
+     * Sets whether adaptive rate limiting should be used.
+     *
+     * @param use
+     *            true if requests should be paced according to the throttling responses
+     *            received by the client
+     * @return The updated ClientConfiguration object.
+     * @see #useAdaptiveRateLimiting()
+     */
+    public ClientConfiguration withAdaptiveRateLimiting(boolean use) {
+        setUseAdaptiveRateLimiting(use);
+        return this;
+    }
+
     /**
      * Checks if gzip compression is used
      *
@@ -1759,6 +1824,50 @@ public class ClientConfiguration {
         return this;
     }
 
+    /**
+     * Returns the factory used to create the non-blocking transport for asynchronous request
+     * execution, or null if async clients run every request on their executor.
+     */
+    @Beta
+    public HttpClientFactory<AsyncHttpTransport> getAsyncHttpTransportFactory() {
+        return asyncHttpTransportFactory;
+    }
+
+    /**
+     * Sets the factory used to create the non-blocking transport for asynchronous request
+     * execution. Null, the default, keeps async clients running every request on their executor.
+     * Set a {@link com.amazonaws.http.nio.client.impl.NioHttpTransportFactory}, or another
+     * factory, to opt in: async clients which support it then send requests over the transport
+     * without holding an executor thread while they are in flight.
+     * <p>
+     * Requests sent over the transport have their whole body read into memory before they are
+     * sent, so that retries can replay it; avoid opting in for large or streaming payloads.
+     */
+    @Beta
+    public void setAsyncHttpTransportFactory(
+            final HttpClientFactory<AsyncHttpTransport> asyncHttpTransportFactory) {
+        this.asyncHttpTransportFactory = asyncHttpTransportFactory;
+    }
+
+    /**
+     * Sets the factory used to create the non-blocking transport for asynchronous request
+     * execution. Null, the default, keeps async clients running every request on their executor.
+     * Set a {@link com.amazonaws.http.nio.client.impl.NioHttpTransportFactory}, or another
+     * factory, to opt in: async clients which support it then send requests over the transport
+     * without holding an executor thread while they are in flight.
+     * <p>
+     * Requests sent over the transport have their whole body read into memory before they are
+     * sent, so that retries can replay it; avoid opting in for large or streaming payloads.
+     *
+     * @return The updated ClientConfiguration object.
+     */
+    @Beta
+    public ClientConfiguration withAsyncHttpTransportFactory(
+            final HttpClientFactory<AsyncHttpTransport> asyncHttpTransportFactory) {
+        setAsyncHttpTransportFactory(asyncHttpTransportFactory);
+        return this;
+    }
+
     /**
      * Returns whether or not to cache response metadata.
      * <p>
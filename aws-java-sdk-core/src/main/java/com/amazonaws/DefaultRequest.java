@@ -14,9 +14,12 @@
  */
 package com.amazonaws;
 
+import com.amazonaws.annotation.SdkInternalApi;
 import com.amazonaws.event.ProgressInputStream;
 import com.amazonaws.handlers.HandlerContextKey;
 import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.protocol.query.EncodedQueryParameters;
+import com.amazonaws.protocol.query.QueryParameterWriter;
 import com.amazonaws.util.AWSRequestMetrics;
 import com.amazonaws.util.json.Jackson;
 
@@ -37,7 +40,7 @@ import java.util.Map;
  * Callers shouldn't ever interact directly with objects of this class.
  */
 @NotThreadSafe
-public class DefaultRequest<T> implements Request<T> {
+public class DefaultRequest<T> implements Request<T>, EncodedQueryParameters {
 
     /** The resource path being requested */
     private String resourcePath;
@@ -54,6 +57,12 @@ public class DefaultRequest<T> implements Request<T> {
      */
     private Map<String, List<String>> parameters = new LinkedHashMap<String, List<String>>();
 
+    /**
+     * The form encoded equivalent of {@link #parameters}, when they were all
+     * written by a query protocol marshaller and haven't been changed since.
+     */
+    private byte[] encodedParameters;
+
     /** Map of the headers included in this request */
     private Map<String, String> headers = new HashMap<String, String>();
 
@@ -160,6 +169,11 @@ public class DefaultRequest<T> implements Request<T> {
      * @see com.amazonaws.Request#addParameter(java.lang.String, java.lang.String)
      */
     public void addParameter(String name, String value) {
+        encodedParameters = null;
+        putParameter(name, value);
+    }
+
+    private void putParameter(String name, String value) {
         List<String> paramList = parameters.get(name);
         if (paramList == null) {
             paramList = new ArrayList<String>();
@@ -183,9 +197,53 @@ public class DefaultRequest<T> implements Request<T> {
      * @see com.amazonaws.Request#getParameters()
      */
     public Map<String, List<String>> getParameters() {
+        // The caller may change the map, so its encoded form can't be trusted
+        // anymore.
+        encodedParameters = null;
         return parameters;
     }
 
+    /**
+     * Adds form encoded parameters, as written by a
+     * {@link QueryParameterWriter}, after the existing parameters of this
+     * request. They are decoded into the parameter map right away, and the
+     * encoded form is also kept as long as it covers all the parameters.
+     */
+    @SdkInternalApi
+    @Override
+    public void addEncodedParameters(byte[] encoded) {
+        if (encoded.length == 0) {
+            return;
+        }
+        if (encodedParameters != null) {
+            byte[] joined = new byte[encodedParameters.length + 1 + encoded.length];
+            System.arraycopy(encodedParameters, 0, joined, 0, encodedParameters.length);
+            joined[encodedParameters.length] = '&';
+            System.arraycopy(encoded, 0, joined, encodedParameters.length + 1, encoded.length);
+            encodedParameters = joined;
+        } else if (parameters.isEmpty()) {
+            encodedParameters = encoded;
+        }
+        QueryParameterWriter.decode(encoded, 0, encoded.length, new QueryParameterWriter.ParameterSink() {
+            @Override
+            public void parameter(String name, String value) {
+                putParameter(name, value);
+            }
+        });
+    }
+
+    /**
+     * Returns all the parameters of this request in their form encoded form,
+     * or null if they are not available that way because a parameter was
+     * added without being encoded or the parameter map has been handed out.
+     * The returned array must not be modified.
+     */
+    @SdkInternalApi
+    @Override
+    public byte[] getEncodedParameters() {
+        return encodedParameters;
+    }
+
     /**
      * @see com.amazonaws.Request#withParameter(java.lang.String, java.lang.String)
      */
@@ -255,6 +313,7 @@ public class DefaultRequest<T> implements Request<T> {
      * @see com.amazonaws.Request#setParameters(java.util.Map)
      */
     public void setParameters(Map<String, List<String>> parameters) {
+        this.encodedParameters = null;
         this.parameters.clear();
         this.parameters.putAll(parameters);
     }
@@ -298,7 +357,7 @@ public class DefaultRequest<T> implements Request<T> {
             builder.append(resourcePath);
         }
         builder.append(" ");
-        if (!getParameters().isEmpty()) {
+        if (!parameters.isEmpty()) {
             builder.append("Parameters: (")
                    .append(Jackson.toJsonString(parameters));
         }
@@ -15,13 +15,15 @@
 package com.amazonaws.auth;
 
 import com.amazonaws.ReadLimitInfo;
+import com.amazonaws.Request;
 import com.amazonaws.SdkClientException;
 import com.amazonaws.SignableRequest;
 import com.amazonaws.annotation.SdkTestInternalApi;
 import com.amazonaws.auth.internal.AWS4SignerRequestParams;
 import com.amazonaws.auth.internal.AWS4SignerUtils;
-import com.amazonaws.auth.internal.SignerKey;
-import com.amazonaws.internal.FIFOCache;
+import com.amazonaws.auth.internal.AWS4SigningEngine;
+import com.amazonaws.auth.internal.SigningKeyCache;
+import com.amazonaws.handlers.HandlerContextKey;
 import com.amazonaws.log.InternalLogApi;
 import com.amazonaws.log.InternalLogFactory;
 import com.amazonaws.util.BinaryUtils;
@@ -33,9 +35,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -44,13 +44,16 @@ import java.util.concurrent.TimeUnit;
 import static com.amazonaws.auth.internal.SignerConstants.AUTHORIZATION;
 import static com.amazonaws.auth.internal.SignerConstants.AWS4_SIGNING_ALGORITHM;
 import static com.amazonaws.auth.internal.SignerConstants.AWS4_TERMINATOR;
+import static com.amazonaws.auth.internal.SignerConstants.AWS_CHUNKED;
 import static com.amazonaws.auth.internal.SignerConstants.HOST;
 import static com.amazonaws.auth.internal.SignerConstants.LINE_SEPARATOR;
 import static com.amazonaws.auth.internal.SignerConstants.PRESIGN_URL_MAX_EXPIRATION_SECONDS;
+import static com.amazonaws.auth.internal.SignerConstants.STREAMING_AWS4_HMAC_SHA256_PAYLOAD;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_ALGORITHM;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CONTENT_SHA256;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CREDENTIAL;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_DATE;
+import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_DECODED_CONTENT_LENGTH;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_EXPIRES;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_SECURITY_TOKEN;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_SIGNATURE;
@@ -64,8 +67,10 @@ public class AWS4Signer extends AbstractAWSSigner implements
 
     protected static final InternalLogApi log = InternalLogFactory.getLog(AWS4Signer.class);
     private static final int SIGNER_CACHE_MAX_SIZE = 300;
-    private static final FIFOCache<SignerKey> signerCache = new FIFOCache<SignerKey>(SIGNER_CACHE_MAX_SIZE);
+    private static final SigningKeyCache signerCache = new SigningKeyCache(SIGNER_CACHE_MAX_SIZE);
     private static final List<String> listOfHeadersToIgnoreInLowerCase = Arrays.asList("connection");
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
 
     private final SdkClock clock;
 
@@ -299,10 +304,11 @@ public class AWS4Signer extends AbstractAWSSigner implements
         final String path = SdkHttpUtils.appendUri(
                 request.getEndpoint().getPath(), request.getResourcePath());
 
-        final StringBuilder canonicalRequestBuilder = new StringBuilder(request
-                .getHttpMethod().toString());
+        final StringBuilder canonicalRequestBuilder = AWS4SigningEngine.current()
+                .canonicalRequestBuilder();
 
-        canonicalRequestBuilder.append(LINE_SEPARATOR)
+        canonicalRequestBuilder.append(request.getHttpMethod().toString())
+                .append(LINE_SEPARATOR)
                 // This would optionally double url-encode the resource path
                 .append(getCanonicalizedResourcePath(path, doubleUrlEncode))
                 .append(LINE_SEPARATOR)
@@ -310,7 +316,8 @@ public class AWS4Signer extends AbstractAWSSigner implements
                 .append(LINE_SEPARATOR)
                 .append(getCanonicalizedHeaderString(request))
                 .append(LINE_SEPARATOR)
-                .append(getSignedHeadersString(request)).append(LINE_SEPARATOR)
+                .append(getSignedHeadersString(request))
+                .append(LINE_SEPARATOR)
                 .append(contentSha256);
 
         final String canonicalRequest = canonicalRequestBuilder.toString();
@@ -329,14 +336,15 @@ public class AWS4Signer extends AbstractAWSSigner implements
     protected String createStringToSign(String canonicalRequest,
             AWS4SignerRequestParams signerParams) {
 
-        final StringBuilder stringToSignBuilder = new StringBuilder(
-                signerParams.getSigningAlgorithm());
-        stringToSignBuilder.append(LINE_SEPARATOR)
+        final AWS4SigningEngine engine = AWS4SigningEngine.current();
+        final StringBuilder stringToSignBuilder = engine.stringToSignBuilder();
+        stringToSignBuilder.append(signerParams.getSigningAlgorithm())
+                .append(LINE_SEPARATOR)
                 .append(signerParams.getFormattedSigningDateTime())
                 .append(LINE_SEPARATOR)
                 .append(signerParams.getScope())
-                .append(LINE_SEPARATOR)
-                .append(BinaryUtils.toHex(hash(canonicalRequest)));
+                .append(LINE_SEPARATOR);
+        engine.appendSha256Hex(stringToSignBuilder, canonicalRequest);
 
         final String stringToSign = stringToSignBuilder.toString();
 
@@ -355,47 +363,30 @@ public class AWS4Signer extends AbstractAWSSigner implements
     private final byte[] deriveSigningKey(AWSCredentials credentials,
             AWS4SignerRequestParams signerRequestParams) {
 
-        final String cacheKey = computeSigningCacheKeyName(credentials,
-                signerRequestParams);
         final long daysSinceEpochSigningDate = DateUtils
                 .numberOfDaysSinceEpoch(signerRequestParams
                         .getSigningDateTimeMilli());
 
-        SignerKey signerKey = signerCache.get(cacheKey);
-
-        if (signerKey != null) {
-            if (daysSinceEpochSigningDate == signerKey
-                    .getNumberOfDaysSinceEpoch()) {
-                return signerKey.getSigningKey();
-            }
+        byte[] signingKey = signerCache.get(credentials.getAWSSecretKey(),
+                daysSinceEpochSigningDate, signerRequestParams.getRegionName(),
+                signerRequestParams.getServiceName());
+        if (signingKey != null) {
+            return signingKey;
         }
         if (log.isDebugEnabled()) {
             log.debug("Generating a new signing key as the signing key not available in the cache for the date "
                     + TimeUnit.DAYS.toMillis(daysSinceEpochSigningDate));
         }
-        byte[] signingKey = newSigningKey(credentials,
+        signingKey = newSigningKey(credentials,
                 signerRequestParams.getFormattedSigningDate(),
                 signerRequestParams.getRegionName(),
                 signerRequestParams.getServiceName());
-        signerCache.add(cacheKey, new SignerKey(
-                daysSinceEpochSigningDate, signingKey));
+        signerCache.put(credentials.getAWSSecretKey(), daysSinceEpochSigningDate,
+                signerRequestParams.getRegionName(),
+                signerRequestParams.getServiceName(), signingKey);
         return signingKey;
     }
 
-    /**
-     * Computes the name to be used to reference the signing key in the cache.
-     */
-    private final String computeSigningCacheKeyName(AWSCredentials credentials,
-            AWS4SignerRequestParams signerRequestParams) {
-        final StringBuilder hashKeyBuilder = new StringBuilder(
-                credentials.getAWSSecretKey());
-
-        return hashKeyBuilder.append("-")
-                .append(signerRequestParams.getRegionName())
-                .append("-")
-                .append(signerRequestParams.getServiceName()).toString();
-    }
-
     /**
      * Step 3 of the AWS Signature version 4 calculation. It involves deriving
      * the signing key and computing the signature. Refer to
@@ -404,8 +395,7 @@ public class AWS4Signer extends AbstractAWSSigner implements
      */
     protected final byte[] computeSignature(String stringToSign,
             byte[] signingKey, AWS4SignerRequestParams signerRequestParams) {
-        return sign(stringToSign.getBytes(Charset.forName("UTF-8")), signingKey,
-                SigningAlgorithm.HmacSHA256);
+        return AWS4SigningEngine.current().hmacSha256(signingKey, stringToSign);
     }
 
     /**
@@ -414,25 +404,18 @@ public class AWS4Signer extends AbstractAWSSigner implements
     private String buildAuthorizationHeader(SignableRequest<?> request,
             byte[] signature, AWSCredentials credentials,
             AWS4SignerRequestParams signerParams) {
-        final String signingCredentials = credentials.getAWSAccessKeyId() + "/"
-                + signerParams.getScope();
-
-        final String credential = "Credential="
-                + signingCredentials;
-        final String signerHeaders = "SignedHeaders="
-                + getSignedHeadersString(request);
-        final String signatureHeader = "Signature="
-                + BinaryUtils.toHex(signature);
-
-        final StringBuilder authHeaderBuilder = new StringBuilder();
+        final StringBuilder authHeaderBuilder = AWS4SigningEngine.current()
+                .stringToSignBuilder();
 
         authHeaderBuilder.append(AWS4_SIGNING_ALGORITHM)
-                         .append(" ")
-                         .append(credential)
-                         .append(", ")
-                         .append(signerHeaders)
-                         .append(", ")
-                         .append(signatureHeader);
+                         .append(" Credential=")
+                         .append(credentials.getAWSAccessKeyId())
+                         .append("/")
+                         .append(signerParams.getScope())
+                         .append(", SignedHeaders=")
+                         .append(getSignedHeadersString(request))
+                         .append(", Signature=");
+        AWS4SigningEngine.appendHex(authHeaderBuilder, signature);
 
         return authHeaderBuilder.toString();
     }
@@ -463,20 +446,15 @@ public class AWS4Signer extends AbstractAWSSigner implements
     }
 
     protected String getCanonicalizedHeaderString(SignableRequest<?> request) {
-        final List<String> sortedHeaders = new ArrayList<String>(request.getHeaders()
-                .keySet());
-        Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
-
         final Map<String, String> requestHeaders = request.getHeaders();
         StringBuilder buffer = new StringBuilder();
-        for (String header : sortedHeaders) {
+        for (String header : AWS4SigningEngine.current().sortedHeaderNames(requestHeaders)) {
             if (shouldExcludeHeaderFromSigning(header)) {
                 continue;
             }
-            String key = StringUtils.lowerCase(header);
             String value = requestHeaders.get(header);
 
-            StringUtils.appendCompactedString(buffer, key);
+            appendLowerCase(buffer, header, true);
             buffer.append(":");
             if (value != null) {
                 StringUtils.appendCompactedString(buffer, value);
@@ -489,25 +467,51 @@ public class AWS4Signer extends AbstractAWSSigner implements
     }
 
     protected String getSignedHeadersString(SignableRequest<?> request) {
-        final List<String> sortedHeaders = new ArrayList<String>(request
-                .getHeaders().keySet());
-        Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
-
         StringBuilder buffer = new StringBuilder();
-        for (String header : sortedHeaders) {
+        for (String header : AWS4SigningEngine.current().sortedHeaderNames(request.getHeaders())) {
             if (shouldExcludeHeaderFromSigning(header)) {
                 continue;
             }
             if (buffer.length() > 0)
                 buffer.append(";");
-            buffer.append(StringUtils.lowerCase(header));
+            appendLowerCase(buffer, header, false);
         }
 
         return buffer.toString();
     }
 
     protected boolean shouldExcludeHeaderFromSigning(String header) {
-        return listOfHeadersToIgnoreInLowerCase.contains(header.toLowerCase());
+        for (String ignored : listOfHeadersToIgnoreInLowerCase) {
+            if (ignored.equalsIgnoreCase(header)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends the header name in lower case, as {@link StringUtils#lowerCase}
+     * would, optionally compacting white space. Plain ASCII names are lower
+     * cased as they are appended.
+     */
+    private static void appendLowerCase(StringBuilder buffer, String header, boolean compact) {
+        final int length = header.length();
+        for (int i = 0; i < length; i++) {
+            char c = header.charAt(i);
+            if (c >= 0x80 || (compact && c <= ' ')) {
+                String lowerCase = StringUtils.lowerCase(header);
+                if (compact) {
+                    StringUtils.appendCompactedString(buffer, lowerCase);
+                } else {
+                    buffer.append(lowerCase);
+                }
+                return;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            char c = header.charAt(i);
+            buffer.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
     }
 
     protected void addHostHeader(SignableRequest<?> request) {
@@ -530,8 +534,15 @@ public class AWS4Signer extends AbstractAWSSigner implements
      * do any other necessary set-ups on the request headers. (e.g. aws-chunked
      * uses a pre-defined header value, and needs to change some headers
      * relating to content-encoding and content-length.)
+     * <p>
+     * Requests that enable {@link HandlerContextKey#CHUNKED_PAYLOAD_SIGNING}
+     * and have a known Content-Length are set up for aws-chunked encoding
+     * here, so their payload is never read before it is sent.
      */
     protected String calculateContentHash(SignableRequest<?> request) {
+        if (useChunkedPayloadSigning(request)) {
+            return setUpChunkedPayload(request);
+        }
         InputStream payloadStream = getBinaryRequestPayloadStream(request);
         ReadLimitInfo info = request.getReadLimitInfo();
         payloadStream.mark(info == null ? -1 : info.getReadLimit());
@@ -554,7 +565,43 @@ public class AWS4Signer extends AbstractAWSSigner implements
      */
     protected void processRequestPayload(SignableRequest<?> request, byte[] signature,
             byte[] signingKey, AWS4SignerRequestParams signerRequestParams) {
-        return;
+        if (STREAMING_AWS4_HMAC_SHA256_PAYLOAD.equals(request.getHeaders().get(X_AMZ_CONTENT_SHA256))) {
+            request.setContent(new AwsChunkedEncodingInputStream(
+                    request.getContent(), signingKey,
+                    signerRequestParams.getFormattedSigningDateTime(),
+                    signerRequestParams.getScope(),
+                    BinaryUtils.toHex(signature), this));
+        }
+    }
+
+    private boolean useChunkedPayloadSigning(SignableRequest<?> signableRequest) {
+        if (!(signableRequest instanceof Request) || signableRequest.getContent() == null) {
+            return false;
+        }
+        Boolean chunkedPayloadSigning = ((Request<?>) signableRequest)
+                .getHandlerContext(HandlerContextKey.CHUNKED_PAYLOAD_SIGNING);
+        // Streaming signatures need x-amz-decoded-content-length, so a payload
+        // of unknown length is hashed as a whole instead.
+        return chunkedPayloadSigning != null && chunkedPayloadSigning
+                && signableRequest.getHeaders().get(CONTENT_LENGTH) != null;
+    }
+
+    /**
+     * Sets the headers of an aws-chunked request, whose payload length is
+     * known, and computes the length of the encoded payload.
+     */
+    private String setUpChunkedPayload(SignableRequest<?> request) {
+        final Map<String, String> headers = request.getHeaders();
+        final String contentLength = headers.get(CONTENT_LENGTH);
+        final long decodedContentLength = Long.parseLong(contentLength);
+        request.addHeader(X_AMZ_DECODED_CONTENT_LENGTH, contentLength);
+        request.addHeader(CONTENT_LENGTH, Long.toString(AwsChunkedEncodingInputStream
+                .calculateStreamContentLength(decodedContentLength)));
+        final String contentEncoding = headers.get(CONTENT_ENCODING);
+        request.addHeader(CONTENT_ENCODING, contentEncoding == null
+                ? AWS_CHUNKED : AWS_CHUNKED + "," + contentEncoding);
+        request.addHeader(X_AMZ_CONTENT_SHA256, STREAMING_AWS4_HMAC_SHA256_PAYLOAD);
+        return STREAMING_AWS4_HMAC_SHA256_PAYLOAD;
     }
 
     /**
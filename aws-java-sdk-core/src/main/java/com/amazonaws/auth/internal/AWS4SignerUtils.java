@@ -29,6 +29,18 @@ public final class AWS4SignerUtils {
     private static final DateTimeFormatter timeFormatter = DateTimeFormat
             .forPattern("yyyyMMdd'T'HHmmss'Z'").withZoneUTC();
 
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * MILLIS_PER_SECOND;
+
+    /**
+     * The most recently formatted date and time stamps. Every request signed
+     * within the same second, or day, reuses them.
+     */
+    private static volatile FormattedTime lastDateStamp = new FormattedTime(Long.MIN_VALUE, null);
+
+    private static volatile FormattedTime lastTimestamp = new FormattedTime(Long.MIN_VALUE, null);
+
     /**
      * Returns a string representation of the given date time in yyyyMMdd
      * format. The date returned is in the UTC zone.
@@ -36,7 +48,13 @@ public final class AWS4SignerUtils {
      * For example, given a time "1416863450581", this method returns "20141124"
      */
     public static String formatDateStamp(long timeMilli) {
-        return dateFormatter.print(timeMilli);
+        final long day = floorDiv(timeMilli, MILLIS_PER_DAY);
+        FormattedTime last = lastDateStamp;
+        if (last.period != day) {
+            last = new FormattedTime(day, dateFormatter.print(timeMilli));
+            lastDateStamp = last;
+        }
+        return last.formatted;
     }
 
     /**
@@ -47,6 +65,29 @@ public final class AWS4SignerUtils {
      * "20141124T211050Z"
      */
     public static String formatTimestamp(long timeMilli) {
-        return timeFormatter.print(timeMilli);
+        final long second = floorDiv(timeMilli, MILLIS_PER_SECOND);
+        FormattedTime last = lastTimestamp;
+        if (last.period != second) {
+            last = new FormattedTime(second, timeFormatter.print(timeMilli));
+            lastTimestamp = last;
+        }
+        return last.formatted;
+    }
+
+    private static long floorDiv(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        return dividend % divisor < 0 ? quotient - 1 : quotient;
+    }
+
+    private static final class FormattedTime {
+
+        private final long period;
+
+        private final String formatted;
+
+        private FormattedTime(long period, String formatted) {
+            this.period = period;
+            this.formatted = formatted;
+        }
     }
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth.internal;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.annotation.SdkInternalApi;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-thread scratch state for AWS4 signing: the builders for the canonical
+ * request and the string to sign, a SHA-256 digest and an HMAC-SHA256 instance
+ * that stays initialized with the last signing key. Nothing is allocated per
+ * request beyond the strings handed back to the signer.
+ * <p>
+ * The instance returned by {@link #current()} belongs to the calling thread,
+ * and each builder must only be used by one signing step at a time.
+ */
+@SdkInternalApi
+public final class AWS4SigningEngine {
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    /** Builders that grew beyond this are dropped rather than kept for reuse. */
+    private static final int MAX_REUSED_BUILDER_SIZE = 16 * 1024;
+
+    private static final int SHA256_LENGTH = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<AWS4SigningEngine> CURRENT = new ThreadLocal<AWS4SigningEngine>() {
+        @Override
+        protected AWS4SigningEngine initialValue() {
+            return new AWS4SigningEngine();
+        }
+    };
+
+    private StringBuilder canonicalRequest = new StringBuilder(1024);
+
+    private StringBuilder stringToSign = new StringBuilder(256);
+
+    private final List<String> headerNames = new ArrayList<String>();
+
+    private byte[] utf8 = new byte[1024];
+
+    private final byte[] digest = new byte[SHA256_LENGTH];
+
+    private final MessageDigest sha256;
+
+    private final Mac hmacSha256;
+
+    /** The key {@link #hmacSha256} is currently initialized with. */
+    private byte[] hmacKey;
+
+    private AWS4SigningEngine() {
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+            this.hmacSha256 = Mac.getInstance(HMAC_SHA256);
+        } catch (Exception e) {
+            throw new SdkClientException("Unable to initialize AWS4 signing: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the signing engine of the current thread.
+     */
+    public static AWS4SigningEngine current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the empty builder used for the canonical request.
+     */
+    public StringBuilder canonicalRequestBuilder() {
+        if (canonicalRequest.capacity() > MAX_REUSED_BUILDER_SIZE) {
+            canonicalRequest = new StringBuilder(1024);
+        }
+        canonicalRequest.setLength(0);
+        return canonicalRequest;
+    }
+
+    /**
+     * Returns the empty builder used for the string to sign and the
+     * authorization header.
+     */
+    public StringBuilder stringToSignBuilder() {
+        if (stringToSign.capacity() > MAX_REUSED_BUILDER_SIZE) {
+            stringToSign = new StringBuilder(256);
+        }
+        stringToSign.setLength(0);
+        return stringToSign;
+    }
+
+    /**
+     * Returns the given header names sorted case insensitively, in a list
+     * that is reused by the next call.
+     */
+    public List<String> sortedHeaderNames(Map<String, String> headers) {
+        headerNames.clear();
+        for (String name : headers.keySet()) {
+            headerNames.add(name);
+        }
+        Collections.sort(headerNames, String.CASE_INSENSITIVE_ORDER);
+        return headerNames;
+    }
+
+    /**
+     * Appends the lower case hex encoded SHA-256 hash of the UTF-8 encoding of
+     * the given text.
+     */
+    public void appendSha256Hex(StringBuilder destination, CharSequence text) {
+        int length = encodeUtf8(text);
+        try {
+            sha256.reset();
+            sha256.update(utf8, 0, length);
+            sha256.digest(digest, 0, SHA256_LENGTH);
+        } catch (Exception e) {
+            throw new SdkClientException(
+                    "Unable to compute hash while signing request: " + e.getMessage(), e);
+        }
+        appendHex(destination, digest, SHA256_LENGTH);
+    }
+
+    /**
+     * Computes the HMAC-SHA256 of the UTF-8 encoding of the given text. The
+     * MAC is only re-initialized when called with a different key array than
+     * last time.
+     */
+    public byte[] hmacSha256(byte[] key, CharSequence text) {
+        int length = encodeUtf8(text);
+        try {
+            if (key != hmacKey) {
+                hmacSha256.init(new SecretKeySpec(key, HMAC_SHA256));
+                hmacKey = key;
+            }
+            hmacSha256.update(utf8, 0, length);
+            return hmacSha256.doFinal();
+        } catch (Exception e) {
+            hmacKey = null;
+            throw new SdkClientException(
+                    "Unable to calculate a request signature: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends the lower case hex encoding of the given bytes.
+     */
+    public static void appendHex(StringBuilder destination, byte[] data) {
+        appendHex(destination, data, data.length);
+    }
+
+    private static void appendHex(StringBuilder destination, byte[] data, int length) {
+        for (int i = 0; i < length; i++) {
+            destination.append(HEX[(data[i] >> 4) & 0x0F]).append(HEX[data[i] & 0x0F]);
+        }
+    }
+
+    /**
+     * Encodes the text into {@link #utf8}, returning the number of bytes.
+     */
+    private int encodeUtf8(CharSequence text) {
+        final int chars = text.length();
+        int count = 0;
+        for (int i = 0; i < chars; i++) {
+            char c = text.charAt(i);
+            if (count + 4 > utf8.length) {
+                utf8 = Arrays.copyOf(utf8, Math.max(utf8.length << 1, count + 4));
+            }
+            if (c < 0x80) {
+                utf8[count++] = (byte) c;
+            } else if (c < 0x800) {
+                utf8[count++] = (byte) (0xC0 | (c >> 6));
+                utf8[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                utf8[count++] = (byte) (0xF0 | (codePoint >> 18));
+                utf8[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                utf8[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                utf8[count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // Same replacement as String#getBytes for malformed input
+                utf8[count++] = '?';
+            } else {
+                utf8[count++] = (byte) (0xE0 | (c >> 12));
+                utf8[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                utf8[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return count;
+    }
+}
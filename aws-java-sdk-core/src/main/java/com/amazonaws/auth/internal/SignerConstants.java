@@ -37,6 +37,13 @@ public final class SignerConstants {
 
     public static final String X_AMZ_CONTENT_SHA256 = "x-amz-content-sha256";
 
+    public static final String X_AMZ_DECODED_CONTENT_LENGTH = "x-amz-decoded-content-length";
+
+    /** Sent in lieu of the payload hash when the payload is signed chunk by chunk */
+    public static final String STREAMING_AWS4_HMAC_SHA256_PAYLOAD = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
+
+    public static final String AWS_CHUNKED = "aws-chunked";
+
     public static final String X_AMZ_SIGNATURE = "X-Amz-Signature";
 
     public static final String X_AMZ_ALGORITHM = "X-Amz-Algorithm";
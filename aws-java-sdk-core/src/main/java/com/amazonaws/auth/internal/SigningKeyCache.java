@@ -0,0 +1,132 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth.internal;
+
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.annotation.ThreadSafe;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded cache of AWS4 signing keys, keyed by the secret key, the signing
+ * date and the region and service names the key was derived for. Lookups never
+ * block; when the cache is full the oldest keys are evicted first.
+ * <p>
+ * The cached arrays are shared, so callers must not modify them.
+ */
+@SdkInternalApi
+@ThreadSafe
+public final class SigningKeyCache {
+
+    private final int maxSize;
+
+    private final ConcurrentMap<Key, byte[]> signingKeys = new ConcurrentHashMap<Key, byte[]>();
+
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<Key>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    public SigningKeyCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize " + maxSize + " must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached signing key, or null if there is none.
+     */
+    public byte[] get(String secretKey, long daysSinceEpoch, String regionName,
+            String serviceName) {
+        return signingKeys.get(new Key(secretKey, daysSinceEpoch, regionName, serviceName));
+    }
+
+    public void put(String secretKey, long daysSinceEpoch, String regionName,
+            String serviceName, byte[] signingKey) {
+        Key key = new Key(secretKey, daysSinceEpoch, regionName, serviceName);
+        if (signingKeys.putIfAbsent(key, signingKey) != null) {
+            return;
+        }
+        insertionOrder.add(key);
+        if (size.incrementAndGet() > maxSize) {
+            Key oldest = insertionOrder.poll();
+            if (oldest != null) {
+                signingKeys.remove(oldest);
+                size.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of signing keys in the cache.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private static final class Key {
+
+        private final String secretKey;
+
+        private final long daysSinceEpoch;
+
+        private final String regionName;
+
+        private final String serviceName;
+
+        private final int hashCode;
+
+        Key(String secretKey, long daysSinceEpoch, String regionName, String serviceName) {
+            this.secretKey = secretKey;
+            this.daysSinceEpoch = daysSinceEpoch;
+            this.regionName = regionName;
+            this.serviceName = serviceName;
+            int hash = secretKey == null ? 0 : secretKey.hashCode();
+            hash = 31 * hash + (int) (daysSinceEpoch ^ (daysSinceEpoch >>> 32));
+            hash = 31 * hash + (regionName == null ? 0 : regionName.hashCode());
+            hash = 31 * hash + (serviceName == null ? 0 : serviceName.hashCode());
+            this.hashCode = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hashCode == other.hashCode
+                    && daysSinceEpoch == other.daysSinceEpoch
+                    && equal(secretKey, other.secretKey)
+                    && equal(regionName, other.regionName)
+                    && equal(serviceName, other.serviceName);
+        }
+
+        private static boolean equal(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+}
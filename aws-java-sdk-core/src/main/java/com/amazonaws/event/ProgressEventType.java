@@ -127,7 +127,13 @@ public enum ProgressEventType {
     TRANSFER_CANCELED_EVENT,
     TRANSFER_PART_STARTED_EVENT,
     TRANSFER_PART_COMPLETED_EVENT,
-    TRANSFER_PART_FAILED_EVENT;
+    TRANSFER_PART_FAILED_EVENT,
+    /**
+     * Event indicating that some of the objects of a bulk delete have been
+     * deleted. The bytes of this type of event are the number of objects
+     * deleted, not a number of bytes.
+     */
+    TRANSFER_OBJECTS_DELETED_EVENT;
 
     /**
      * Returns true if this event type is a transfer event, which may involve
@@ -143,6 +149,7 @@ public enum ProgressEventType {
             case TRANSFER_PART_COMPLETED_EVENT:
             case TRANSFER_PART_FAILED_EVENT:
             case TRANSFER_PART_STARTED_EVENT:
+            case TRANSFER_OBJECTS_DELETED_EVENT:
             case TRANSFER_PREPARING_EVENT:
             case TRANSFER_STARTED_EVENT:
                 return true;
@@ -58,7 +58,7 @@ public class SDKProgressPublisher {
         return deliverEvent(listener, new ProgressEvent(type));
     }
 
-    private static Future<?> deliverEvent(final ProgressListener listener,
+    protected static Future<?> deliverEvent(final ProgressListener listener,
             final ProgressEvent event) {
 
         if (listener instanceof DeliveryMode) {
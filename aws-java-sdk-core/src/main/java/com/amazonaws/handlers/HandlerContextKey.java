@@ -46,6 +46,15 @@ public class HandlerContextKey<T> {
     /** The key under which the request credentials are set. */
     public static final HandlerContextKey<AWSCredentials> AWS_CREDENTIALS = new HandlerContextKey<AWSCredentials>("AWSCredentials");
 
+    /**
+     * Whether the AWS4 signer should sign the request payload chunk by chunk
+     * as it is sent, rather than hashing the whole payload before sending it.
+     * Only applies to requests whose content is a stream with a known
+     * Content-Length, and only to services that accept streaming payload
+     * signatures. Glacier does not, so its uploads must not set it.
+     */
+    public static final HandlerContextKey<Boolean> CHUNKED_PAYLOAD_SIGNING = new HandlerContextKey<Boolean>("ChunkedPayloadSigning");
+
     private final String name;
 
     public HandlerContextKey(String name) {
@@ -39,6 +39,7 @@ import com.amazonaws.auth.Signer;
 import com.amazonaws.event.ProgressEventType;
 import com.amazonaws.event.ProgressInputStream;
 import com.amazonaws.event.ProgressListener;
+import com.amazonaws.handlers.AsyncHandler;
 import com.amazonaws.handlers.CredentialsRequestHandler;
 import com.amazonaws.handlers.HandlerContextKey;
 import com.amazonaws.handlers.RequestHandler2;
@@ -46,8 +47,10 @@ import com.amazonaws.http.apache.client.impl.ApacheHttpClientFactory;
 import com.amazonaws.http.apache.client.impl.ConnectionManagerAwareHttpClient;
 import com.amazonaws.http.apache.request.impl.ApacheHttpRequestFactory;
 import com.amazonaws.http.apache.utils.ApacheUtils;
+import com.amazonaws.http.client.AsyncHttpTransport;
 import com.amazonaws.http.client.HttpClientFactory;
 import com.amazonaws.http.exception.HttpRequestTimeoutException;
+import com.amazonaws.http.nio.client.impl.NioHttpTransportFactory;
 import com.amazonaws.http.request.HttpRequestFactory;
 import com.amazonaws.http.response.AwsResponseHandlerAdapter;
 import com.amazonaws.http.settings.HttpClientSettings;
@@ -64,6 +67,7 @@ import com.amazonaws.internal.SdkBufferedInputStream;
 import com.amazonaws.internal.auth.SignerProviderContext;
 import com.amazonaws.metrics.AwsSdkMetrics;
 import com.amazonaws.metrics.RequestMetricCollector;
+import com.amazonaws.retry.ClientRateLimiter;
 import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.retry.RetryUtils;
 import com.amazonaws.retry.internal.AuthErrorRetryStrategy;
@@ -106,12 +110,13 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static com.amazonaws.SDKGlobalConfiguration.PROFILING_SYSTEM_PROPERTY;
 import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
@@ -144,6 +149,9 @@ public class AmazonHttpClient {
 
     private static final HttpClientFactory<ConnectionManagerAwareHttpClient> httpClientFactory = new
             ApacheHttpClientFactory();
+
+    private static final HttpClientFactory<AsyncHttpTransport> defaultAsyncHttpTransportFactory = new
+            NioHttpTransportFactory();
     /**
      * Used for testing via failure injection.
      */
@@ -163,6 +171,13 @@ public class AmazonHttpClient {
      */
     private static final int THROTTLED_RETRIES = 100;
 
+    /**
+     * When throttled retries are enabled, this much capacity is returned to the pool every second
+     * regardless of the outcome of requests, so that a client whose pool has been drained by an
+     * outage regains the ability to retry at a slow, steady rate.
+     */
+    private static final int THROTTLED_RETRY_REFILL_PER_SECOND = THROTTLED_RETRY_COST;
+
     static {
         // Customers have reported XML parsing issues with the following
         // JVM versions, which don't occur with more recent versions, so
@@ -184,6 +199,11 @@ public class AmazonHttpClient {
      * Internal client for sending HTTP requests
      */
     private ConnectionManagerAwareHttpClient httpClient;
+    /**
+     * Non-blocking transport used by {@link RequestExecutionBuilder#executeAsync}; created on
+     * first use so that clients which only make blocking calls don't start an event loop.
+     */
+    private volatile AsyncHttpTransport asyncHttpTransport;
     /**
      * Client configuration options, such as proxy httpClientSettings, max retries, etc.
      */
@@ -207,6 +227,12 @@ public class AmazonHttpClient {
      */
     private final CapacityManager retryCapacity;
 
+    /**
+     * Paces outgoing requests according to throttling responses, or null if adaptive rate
+     * limiting is disabled.
+     */
+    private final ClientRateLimiter rateLimiter;
+
     /**
      * Timer to enforce timeouts on the whole execution of the request (request handlers, retries,
      * backoff strategy, unmarshalling, etc)
@@ -314,9 +340,33 @@ public class AmazonHttpClient {
         this.httpClient = httpClient;
     }
 
+    /**
+     * Package-protected constructor for unit test purposes; lets a test time requests on a timer
+     * of its own instead of the one shared by all clients.
+     */
+    @SdkTestInternalApi
+    public AmazonHttpClient(ClientConfiguration clientConfig,
+                            ConnectionManagerAwareHttpClient httpClient,
+                            RequestMetricCollector requestMetricCollector,
+                            HttpRequestTimer httpRequestTimer,
+                            ClientExecutionTimer clientExecutionTimer) {
+        this(clientConfig, requestMetricCollector, HttpClientSettings.adapt(clientConfig, false),
+             httpRequestTimer, clientExecutionTimer);
+        this.httpClient = httpClient;
+    }
+
     private AmazonHttpClient(ClientConfiguration clientConfig,
                              RequestMetricCollector requestMetricCollector,
                              HttpClientSettings httpClientSettings) {
+        this(clientConfig, requestMetricCollector, httpClientSettings, new HttpRequestTimer(),
+             new ClientExecutionTimer());
+    }
+
+    private AmazonHttpClient(ClientConfiguration clientConfig,
+                             RequestMetricCollector requestMetricCollector,
+                             HttpClientSettings httpClientSettings,
+                             HttpRequestTimer httpRequestTimer,
+                             ClientExecutionTimer clientExecutionTimer) {
         this.config = clientConfig;
         this.httpClientSettings = httpClientSettings;
         this.requestMetricCollector = requestMetricCollector;
@@ -324,14 +374,19 @@ public class AmazonHttpClient {
                 clientConfig.getCacheResponseMetadata() ?
                         new ResponseMetadataCache(clientConfig.getResponseMetadataCacheSize()) :
                         new NullResponseMetadataCache();
-        this.httpRequestTimer = new HttpRequestTimer();
-        this.clientExecutionTimer = new ClientExecutionTimer();
+        this.httpRequestTimer = httpRequestTimer;
+        this.clientExecutionTimer = clientExecutionTimer;
 
         // When enabled, total retry capacity is computed based on retry cost
         // and desired number of retries.
         int throttledRetryMaxCapacity = clientConfig.useThrottledRetries()
                 ? THROTTLED_RETRY_COST * THROTTLED_RETRIES : -1;
-        this.retryCapacity = new CapacityManager(throttledRetryMaxCapacity);
+        this.retryCapacity = new CapacityManager(throttledRetryMaxCapacity,
+                                                 THROTTLED_RETRY_REFILL_PER_SECOND);
+        if (clientConfig.useThrottledRetries()) {
+            AwsSdkMetrics.registerRetryCapacity(retryCapacity);
+        }
+        this.rateLimiter = clientConfig.useAdaptiveRateLimiting() ? new ClientRateLimiter() : null;
     }
 
     private static boolean isTemporaryRedirect(org.apache.http.HttpResponse response) {
@@ -353,8 +408,12 @@ public class AmazonHttpClient {
      * make more requests.
      */
     public void shutdown() {
-        clientExecutionTimer.shutdown();
-        httpRequestTimer.shutdown();
+        AwsSdkMetrics.unregisterRetryCapacity(retryCapacity);
+        synchronized (this) {
+            if (asyncHttpTransport != null) {
+                asyncHttpTransport.shutdown();
+            }
+        }
         IdleConnectionReaper.removeConnectionManager(httpClient
                                                              .getHttpClientConnectionManager());
         httpClient.getHttpClientConnectionManager().shutdown();
@@ -417,6 +476,281 @@ public class AmazonHttpClient {
         return timeOffset;
     }
 
+    /**
+     * Returns the non-blocking transport used for asynchronous execution, creating it on first
+     * use from the factory configured in {@link ClientConfiguration}.
+     */
+    synchronized AsyncHttpTransport getAsyncHttpTransport() {
+        if (asyncHttpTransport == null) {
+            HttpClientFactory<AsyncHttpTransport> factory = config.getAsyncHttpTransportFactory();
+            asyncHttpTransport = (factory != null ? factory : defaultAsyncHttpTransportFactory)
+                    .create(httpClientSettings);
+        }
+        return asyncHttpTransport;
+    }
+
+    ClientConfiguration getClientConfiguration() {
+        return config;
+    }
+
+    HttpClientSettings getHttpClientSettings() {
+        return httpClientSettings;
+    }
+
+    /**
+     * Records the clock skew detected from a service response so that subsequent requests are
+     * signed with the corrected time.
+     */
+    void adjustTimeOffset(int clockSkew) {
+        SDKGlobalTime.setGlobalTimeOffset(timeOffset = clockSkew);
+    }
+
+    /**
+     * Create a client side identifier that will be sent with the initial request and each
+     * retry.
+     */
+    void setSdkTransactionId(Request<?> request) {
+        request.addHeader(HEADER_SDK_TRANSACTION_ID,
+                          new UUID(random.nextLong(), random.nextLong()).toString());
+    }
+
+    /**
+     * Sets a User-Agent for the specified request, taking into account any custom data.
+     */
+    void setUserAgent(Request<?> request, RequestConfig requestConfig) {
+        RequestClientOptions opts = requestConfig.getRequestClientOptions();
+        if (opts != null) {
+            request.addHeader(HEADER_USER_AGENT, RuntimeHttpUtils
+                    .getUserAgent(config, opts.getClientMarker(Marker.USER_AGENT)));
+        } else {
+            request.addHeader(HEADER_USER_AGENT, RuntimeHttpUtils.getUserAgent(config, null));
+        }
+    }
+
+    /**
+     * Merge query parameters into the given request.
+     */
+    void mergeQueryParameters(Request<?> request, Map<String, List<String>> params) {
+        Map<String, List<String>> existingParams = request.getParameters();
+        for (Entry<String, List<String>> param : params.entrySet()) {
+            String pName = param.getKey();
+            List<String> pValues = param.getValue();
+            existingParams.put(pName, CollectionUtils.mergeLists(existingParams.get(pName), pValues));
+        }
+    }
+
+    /**
+     * Adds Retry information to the {@link #HEADER_SDK_RETRY_INFO} header. Used for analysis of
+     * retry policy.
+     *
+     * @param request          Request to add header to
+     * @param requestCount     Number of the attempt about to be made, starting at 1
+     * @param lastBackoffDelay Delay before this attempt
+     */
+    void updateRetryHeaderInfo(Request<?> request, int requestCount, long lastBackoffDelay) {
+        int availableRetryCapacity = retryCapacity.availableCapacity();
+
+        String headerValue = String.format("%s/%s/%s",
+                                           requestCount - 1,
+                                           lastBackoffDelay,
+                                           availableRetryCapacity >= 0 ?
+                                                   availableRetryCapacity : "");
+
+        request.addHeader(HEADER_SDK_RETRY_INFO, headerValue);
+    }
+
+    /**
+     * Returns true if a failed request should be retried, consuming retry capacity if needed.
+     *
+     * @param request          The request that failed.
+     * @param executionContext Execution context of the request.
+     * @param exception        The client/service exception from the failed request.
+     * @param retries          Number of retries attempted so far.
+     * @return True if the failed request should be retried.
+     */
+    boolean shouldRetry(Request<?> request,
+                        ExecutionContext executionContext,
+                        SdkClientException exception,
+                        int retries) {
+        final RetryPolicy retryPolicy = config.getRetryPolicy();
+
+        int maxErrorRetry = config.getMaxErrorRetry();
+        // We should use the maxErrorRetry in
+        // the RetryPolicy if either the user has not explicitly set it in
+        // ClientConfiguration, or the RetryPolicy is configured to take
+        // higher precedence.
+        if (maxErrorRetry < 0 || !retryPolicy.isMaxErrorRetryInClientConfigHonored()) {
+            maxErrorRetry = retryPolicy.getMaxErrorRetry();
+        }
+
+        // Immediately fails when it has exceeds the max retry count.
+        if (retries >= maxErrorRetry) {
+            return false;
+        }
+
+        // Do not use retry capacity for throttling exceptions
+        if (!(exception instanceof AmazonServiceException &&
+              RetryUtils.isThrottlingException((AmazonServiceException) exception))) {
+            // See if we have enough available retry capacity to be able to execute
+            // this retry attempt.
+            if (!retryCapacity.acquire(THROTTLED_RETRY_COST)) {
+                executionContext.getAwsRequestMetrics().incrementCounter(ThrottledRetryCount);
+                return false;
+            }
+            executionContext.markRetryCapacityConsumed();
+        }
+
+        // Finally, pass all the context information to the RetryCondition and let it
+        // decide whether it should be retried.
+        if (!retryPolicy.getRetryCondition()
+                .shouldRetry(request.getOriginalRequest(), exception, retries)) {
+            // If the retry policy fails we immediately return consumed capacity to the pool.
+            if (executionContext.retryCapacityConsumed()) {
+                retryCapacity.release(THROTTLED_RETRY_COST);
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns capacity to the retry pool after a successful attempt. If this was a successful
+     * retry attempt we'll release the full retry capacity that the attempt originally consumed.
+     * If this was a successful initial request we return a lesser amount.
+     */
+    void releaseRetryCapacity(boolean isRetry, ExecutionContext executionContext) {
+        if (isRetry && executionContext.retryCapacityConsumed()) {
+            retryCapacity.release(THROTTLED_RETRY_COST);
+        } else {
+            retryCapacity.release();
+        }
+    }
+
+    /**
+     * Reserves a slot for the next attempt with the adaptive rate limiter, if enabled.
+     *
+     * @return Milliseconds the attempt must wait before being sent; zero if it can be sent now.
+     */
+    long reserveRateLimiterPause() {
+        if (rateLimiter == null) {
+            return 0;
+        }
+        long pauseNanos = rateLimiter.reserve();
+        // Round up so that the attempt never goes out before its token is available
+        return pauseNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(pauseNanos) + 1;
+    }
+
+    /**
+     * Feeds the outcome of an attempt that received a response to the adaptive rate limiter, if
+     * enabled.
+     *
+     * @param ase The service error of the attempt; or null if it was successful.
+     */
+    void updateRateLimiter(AmazonServiceException ase) {
+        if (rateLimiter != null) {
+            if (ase != null && RetryUtils.isThrottlingException(ase)) {
+                rateLimiter.onThrottle();
+            } else {
+                rateLimiter.onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Records the currently consumed retry capacity in the request metrics.
+     */
+    void captureRetryCapacityMetrics(AWSRequestMetrics awsRequestMetrics) {
+        awsRequestMetrics.setCounter(Field.RetryCapacityConsumed, retryCapacity.consumedCapacity());
+    }
+
+    /**
+     * Returns the difference between the client's clock time and the service clock time in unit
+     * of seconds.
+     *
+     * @param serverDateHeader Value of the Date header of the response; or null if absent.
+     * @param exception        The clock skew error returned by the service.
+     */
+    int parseClockSkewOffset(String serverDateHeader, AmazonServiceException exception) {
+        final long currentTimeMilli = System.currentTimeMillis();
+        Date serverDate;
+        String serverDateStr = null;
+
+        try {
+            if (serverDateHeader == null) {
+                // SQS doesn't return Date header
+                final String errmsg = exception.getMessage();
+                serverDateStr = getServerDateFromException(errmsg);
+                if (serverDateStr == null) {
+                    log.warn("Unable to parse clock skew offset from errmsg: " + errmsg);
+                    return 0;
+                }
+                serverDate = DateUtils.parseCompressedISO8601Date(serverDateStr);
+            } else {
+                serverDateStr = serverDateHeader;
+                serverDate = DateUtils.parseRFC822Date(serverDateStr);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Unable to parse clock skew offset from response: " + serverDateStr, e);
+            return 0;
+        }
+
+        long diff = currentTimeMilli - serverDate.getTime();
+        return (int) (diff / 1000);
+    }
+
+    // SWF: Signature not yet current: 20140819T173921Z is still later than 20140819T173829Z
+    // (20140819T173329Z + 5 min.)
+
+    /**
+     * Returns date string from the exception message body in form of yyyyMMdd'T'HHmmss'Z' We
+     * needed to extract date from the message body because SQS is the only service that does
+     * not provide date header in the response. Example, when device time is behind than the
+     * server time than we get a string that looks something like this: "Signature expired:
+     * 20130401T030113Z is now earlier than 20130401T034613Z (20130401T040113Z - 15 min.)"
+     *
+     * @param body The message from where the server time is being extracted
+     * @return Return datetime in string format (yyyyMMdd'T'HHmmss'Z')
+     */
+    private String getServerDateFromException(String body) {
+        final int startPos = body.indexOf("(");
+        int endPos = body.indexOf(" + ");
+        if (endPos == -1) {
+            endPos = body.indexOf(" - ");
+        }
+        return endPos == -1 ? null : body.substring(startPos + 1, endPos);
+    }
+
+    /**
+     * Gets the correct request timeout taking into account precedence of the configuration in
+     * {@link AmazonWebServiceRequest} versus {@link ClientConfiguration}
+     *
+     * @param requestConfig Current request configuration
+     * @return Request timeout value or 0 if none is set
+     */
+    int getRequestTimeout(RequestConfig requestConfig) {
+        if (requestConfig.getRequestTimeout() != null) {
+            return requestConfig.getRequestTimeout();
+        } else {
+            return config.getRequestTimeout();
+        }
+    }
+
+    /**
+     * Gets the correct client execution timeout taking into account precedence of the
+     * configuration in {@link AmazonWebServiceRequest} versus {@link ClientConfiguration}
+     *
+     * @param requestConfig Current request configuration
+     * @return Client Execution timeout value or 0 if none is set
+     */
+    int getClientExecutionTimeout(RequestConfig requestConfig) {
+        if (requestConfig.getClientExecutionTimeout() != null) {
+            return requestConfig.getClientExecutionTimeout();
+        } else {
+            return config.getClientExecutionTimeout();
+        }
+    }
+
     /**
      * Executes the request and returns the result.
      *
@@ -447,6 +781,39 @@ public class AmazonHttpClient {
                 .execute(adaptedRespHandler);
     }
 
+    /**
+     * Executes the request on the non-blocking transport and returns immediately; the
+     * asynchronous counterpart of {@link #execute(Request, HttpResponseHandler, HttpResponseHandler,
+     * ExecutionContext)}, caching the response metadata in the same way.
+     *
+     * @param request              The AmazonWebServices request to send to the remote server
+     * @param responseHandler      A response handler to accept a successful response from the
+     *                             remote server
+     * @param errorResponseHandler A response handler to accept an unsuccessful response from the
+     *                             remote server
+     * @param executionContext     Additional information about the context of this web service
+     *                             call
+     * @param asyncHandler         Optional callback notified on completion; may be null.
+     * @see RequestExecutionBuilder#executeAsync(HttpResponseHandler, AsyncHandler)
+     */
+    public <T> Future<Response<T>> executeAsync(Request<?> request,
+                                                HttpResponseHandler<AmazonWebServiceResponse<T>> responseHandler,
+                                                HttpResponseHandler<AmazonServiceException> errorResponseHandler,
+                                                ExecutionContext executionContext,
+                                                AsyncHandler<AmazonWebServiceRequest, ? super Response<T>> asyncHandler) {
+        HttpResponseHandler<T> adaptedRespHandler = new AwsResponseHandlerAdapter<T>(
+                getNonNullResponseHandler(responseHandler),
+                request,
+                executionContext.getAwsRequestMetrics(),
+                responseMetadataCache);
+        return requestExecutionBuilder()
+                .request(request)
+                .requestConfig(new AmazonWebServiceRequestAdapter(request.getOriginalRequest()))
+                .errorResponseHandler(errorResponseHandler)
+                .executionContext(executionContext)
+                .executeAsync(adaptedRespHandler, asyncHandler);
+    }
+
     /**
      * Ensures the response handler is not null. If it is this method returns a dummy response
      * handler.
@@ -536,6 +903,22 @@ public class AmazonHttpClient {
          */
         Response<Void> execute();
 
+        /**
+         * Executes the request on the non-blocking transport and returns immediately. Retries,
+         * signing and request handlers are applied as for {@link #execute(HttpResponseHandler)},
+         * but no caller thread is held while the request is in flight or backing off. The request
+         * content and the response are buffered in memory, so this is not suited to streaming
+         * operations.
+         *
+         * @param responseHandler Response handler that outputs the actual result type.
+         * @param asyncHandler    Optional callback notified on completion; may be null.
+         * @param <Output>        Result type
+         * @return Future completed with the unmarshalled result.
+         */
+        <Output> Future<Response<Output>> executeAsync(
+                HttpResponseHandler<Output> responseHandler,
+                AsyncHandler<AmazonWebServiceRequest, ? super Response<Output>> asyncHandler);
+
     }
 
     private class RequestExecutionBuilderImpl implements RequestExecutionBuilder {
@@ -588,6 +971,22 @@ public class AmazonHttpClient {
             return execute(null);
         }
 
+        @Override
+        public <Output> Future<Response<Output>> executeAsync(
+                HttpResponseHandler<Output> responseHandler,
+                AsyncHandler<AmazonWebServiceRequest, ? super Response<Output>> asyncHandler) {
+            RequestConfig config = requestConfig != null ? requestConfig : new AmazonWebServiceRequestAdapter(request.getOriginalRequest());
+            return new AsyncRequestExecutor<Output>(AmazonHttpClient.this,
+                                                    request,
+                                                    config,
+                                                    getNonNullResponseHandler(errorResponseHandler),
+                                                    getNonNullResponseHandler(responseHandler),
+                                                    executionContext,
+                                                    getRequestHandlers(),
+                                                    asyncHandler
+            ).execute();
+        }
+
         private List<RequestHandler2> getRequestHandlers() {
             List<RequestHandler2> requestHandler2s = executionContext.getRequestHandler2s();
             if (requestHandler2s == null) {
@@ -656,14 +1055,14 @@ public class AmazonHttpClient {
         private Response<Output> doExecute() throws InterruptedException {
             runBeforeRequestHandlers();
             setSdkTransactionId(request);
-            setUserAgent(request);
+            setUserAgent(request, requestConfig);
 
             ProgressListener listener = requestConfig.getProgressListener();
             // add custom headers
             request.getHeaders().putAll(config.getHeaders());
             request.getHeaders().putAll(requestConfig.getCustomRequestHeaders());
             // add custom query parameters
-            mergeQueryParameters(requestConfig.getCustomQueryParameters());
+            mergeQueryParameters(request, requestConfig.getCustomQueryParameters());
             Response<Output> response = null;
             final InputStream origContent = request.getContent();
             final InputStream toBeClosed = beforeRequest(); // for progress tracking
@@ -771,18 +1170,6 @@ public class AmazonHttpClient {
             }
         }
 
-        /**
-         * Merge query parameters into the given request.
-         */
-        private void mergeQueryParameters(Map<String, List<String>> params) {
-            Map<String, List<String>> existingParams = request.getParameters();
-            for (Entry<String, List<String>> param : params.entrySet()) {
-                String pName = param.getKey();
-                List<String> pValues = param.getValue();
-                existingParams.put(pName, CollectionUtils.mergeLists(existingParams.get(pName), pValues));
-            }
-        }
-
         /**
          * Publishes the "request content length" event, and returns an input stream, which will be
          * made mark-and-resettable if possible, for progress tracking purposes.
@@ -920,7 +1307,7 @@ public class AmazonHttpClient {
                     .addPropertyWith(Field.ServiceEndpoint, request.getEndpoint());
             // Make a copy of the original request params and headers so that we can
             // permute it in this loop and start over with the original every time.
-            final Map<String, List<String>> originalParameters = new LinkedHashMap<String, List<String>>(request.getParameters());
+            final OriginalParameters originalParameters = OriginalParameters.of(request);
             final Map<String, String> originalHeaders = new HashMap<String, String>(request.getHeaders());
             // Always mark the input stream before execution.
             final ExecOneRequestParams execOneParams = new ExecOneRequestParams();
@@ -956,7 +1343,7 @@ public class AmazonHttpClient {
                 }
                 awsRequestMetrics.setCounter(Field.RequestCount, execOneParams.requestCount);
                 if (execOneParams.isRetry()) {
-                    request.setParameters(originalParameters);
+                    originalParameters.restore(request);
                     request.setHeaders(originalHeaders);
                     request.setContent(originalContent);
                 }
@@ -1067,7 +1454,8 @@ public class AmazonHttpClient {
             if (execOneParams.isRetry()) {
                 pauseBeforeRetry(execOneParams, listener);
             }
-            updateRetryHeaderInfo(request, execOneParams);
+            pauseForRateLimiter();
+            updateRetryHeaderInfo(request, execOneParams.requestCount, execOneParams.lastBackoffDelay);
 
             // Sign the request if a signer was provided
             execOneParams.newSigner(request, executionContext);
@@ -1104,7 +1492,7 @@ public class AmazonHttpClient {
             execOneParams.resetBeforeHttpRequest();
             publishProgress(listener, ProgressEventType.HTTP_REQUEST_STARTED_EVENT);
             awsRequestMetrics.startEvent(Field.HttpRequestTime);
-            awsRequestMetrics.setCounter(Field.RetryCapacityConsumed, retryCapacity.consumedCapacity());
+            captureRetryCapacityMetrics(awsRequestMetrics);
 
             /////////// Send HTTP request ////////////
             executionContext.getClientExecutionTrackerTask().setCurrentHttpRequest(execOneParams.apacheRequest);
@@ -1150,16 +1538,8 @@ public class AmazonHttpClient {
                                                            localRequestContext);
                 Output response = handleResponse(httpResponse);
 
-            /*
-             * If this was a successful retry attempt we'll release the full retry capacity that
-             * the attempt originally consumed.  If this was a successful initial request
-             * we return a lesser amount.
-             */
-                if (execOneParams.isRetry() && executionContext.retryCapacityConsumed()) {
-                    retryCapacity.release(THROTTLED_RETRY_COST);
-                } else {
-                    retryCapacity.release();
-                }
+                updateRateLimiter(null);
+                releaseRetryCapacity(execOneParams.isRetry(), executionContext);
                 return new Response<Output>(response, httpResponse);
             }
             if (isTemporaryRedirect(execOneParams.apacheResponse)) {
@@ -1186,6 +1566,7 @@ public class AmazonHttpClient {
             awsRequestMetrics.addPropertyWith(Field.AWSRequestID, ase.getRequestId())
                     .addPropertyWith(Field.AWSErrorCode, ase.getErrorCode())
                     .addPropertyWith(Field.StatusCode, ase.getStatusCode());
+            updateRateLimiter(ase);
             // Check whether we should internally retry the auth error
             execOneParams.authRetryParam = null;
             AuthErrorRetryStrategy authRetry = executionContext.getAuthErrorRetryStrategy();
@@ -1214,7 +1595,7 @@ public class AmazonHttpClient {
          */
             if (RetryUtils.isClockSkewError(ase)) {
                 int clockSkew = parseClockSkewOffset(execOneParams.apacheResponse, ase);
-                SDKGlobalTime.setGlobalTimeOffset(timeOffset = clockSkew);
+                adjustTimeOffset(clockSkew);
                 request.setTimeOffset(timeOffset); // adjust time offset for the retry
             }
             return null; // => retry
@@ -1289,48 +1670,6 @@ public class AmazonHttpClient {
             return t;
         }
 
-        /**
-         * Create a client side identifier that will be sent with the initial request and each
-         * retry.
-         */
-        private void setSdkTransactionId(Request<?> request) {
-            request.addHeader(HEADER_SDK_TRANSACTION_ID,
-                              new UUID(random.nextLong(), random.nextLong()).toString());
-        }
-
-        /**
-         * Sets a User-Agent for the specified request, taking into account any custom data.
-         */
-        private void setUserAgent(Request<?> request) {
-            RequestClientOptions opts = requestConfig.getRequestClientOptions();
-            if (opts != null) {
-                request.addHeader(HEADER_USER_AGENT, RuntimeHttpUtils
-                        .getUserAgent(config, opts.getClientMarker(Marker.USER_AGENT)));
-            } else {
-                request.addHeader(HEADER_USER_AGENT, RuntimeHttpUtils.getUserAgent(config, null));
-            }
-        }
-
-        /**
-         * Adds Retry information to the {@link #HEADER_SDK_RETRY_INFO} header. Used for analysis of
-         * retry policy.
-         *
-         * @param request              Request to add header to
-         * @param execOneRequestParams Request context containing retry information
-         */
-        private void updateRetryHeaderInfo(Request<?> request,
-                                           ExecOneRequestParams execOneRequestParams) {
-            int availableRetryCapacity = retryCapacity.availableCapacity();
-
-            String headerValue = String.format("%s/%s/%s",
-                                               execOneRequestParams.requestCount - 1,
-                                               execOneRequestParams.lastBackoffDelay,
-                                               availableRetryCapacity >= 0 ?
-                                                       availableRetryCapacity : "");
-
-            request.addHeader(HEADER_SDK_RETRY_INFO, headerValue);
-        }
-
         /**
          * Returns true if a failed request should be retried.
          *
@@ -1340,24 +1679,8 @@ public class AmazonHttpClient {
          */
         private boolean shouldRetry(ExecOneRequestParams params,
                                     SdkClientException exception) {
-            final int retries = params.requestCount - 1;
-            final RetryPolicy retryPolicy = config.getRetryPolicy();
             final HttpRequestBase method = params.apacheRequest;
 
-            int maxErrorRetry = config.getMaxErrorRetry();
-            // We should use the maxErrorRetry in
-            // the RetryPolicy if either the user has not explicitly set it in
-            // ClientConfiguration, or the RetryPolicy is configured to take
-            // higher precedence.
-            if (maxErrorRetry < 0 || !retryPolicy.isMaxErrorRetryInClientConfigHonored()) {
-                maxErrorRetry = retryPolicy.getMaxErrorRetry();
-            }
-
-            // Immediately fails when it has exceeds the max retry count.
-            if (retries >= maxErrorRetry) {
-                return false;
-            }
-
             // Never retry on requests containing non-repeatable entity
             if (method instanceof HttpEntityEnclosingRequest) {
                 HttpEntity entity = ((HttpEntityEnclosingRequest) method).getEntity();
@@ -1369,30 +1692,8 @@ public class AmazonHttpClient {
                 }
             }
 
-            // Do not use retry capacity for throttling exceptions
-            if (!(exception instanceof AmazonServiceException &&
-                  RetryUtils.isThrottlingException((AmazonServiceException) exception))) {
-                // See if we have enough available retry capacity to be able to execute
-                // this retry attempt.
-                if (!retryCapacity.acquire(THROTTLED_RETRY_COST)) {
-                    awsRequestMetrics.incrementCounter(ThrottledRetryCount);
-                    return false;
-                }
-                executionContext.markRetryCapacityConsumed();
-            }
-
-            // Finally, pass all the context information to the RetryCondition and let it
-            // decide whether it should be retried.
-            if (!retryPolicy.getRetryCondition()
-                    .shouldRetry(request.getOriginalRequest(), exception, retries)) {
-                // If the retry policy fails we immediately return consumed capacity to the pool.
-                if (executionContext.retryCapacityConsumed()) {
-                    retryCapacity.release(THROTTLED_RETRY_COST);
-                }
-                return false;
-            }
-
-            return true;
+            return AmazonHttpClient.this.shouldRetry(request, executionContext, exception,
+                                                     params.requestCount - 1);
         }
 
         private boolean isRequestSuccessful(org.apache.http.HttpResponse response) {
@@ -1596,6 +1897,21 @@ public class AmazonHttpClient {
             }
         }
 
+        /**
+         * Waits until the adaptive rate limiter, if enabled, allows the next attempt to be sent.
+         */
+        private void pauseForRateLimiter() throws InterruptedException {
+            long pause = reserveRateLimiterPause();
+            if (pause > 0) {
+                awsRequestMetrics.startEvent(Field.RateLimiterPauseTime);
+                try {
+                    Thread.sleep(pause);
+                } finally {
+                    awsRequestMetrics.endEvent(Field.RateLimiterPauseTime);
+                }
+            }
+        }
+
         /**
          * Sleep for a period of time on failed request to avoid flooding a service with retries.
          *
@@ -1627,90 +1943,15 @@ public class AmazonHttpClient {
             Thread.sleep(delay);
         }
 
-        // SWF: Signature not yet current: 20140819T173921Z is still later than 20140819T173829Z
-        // (20140819T173329Z + 5 min.)
-
-        /**
-         * Returns date string from the exception message body in form of yyyyMMdd'T'HHmmss'Z' We
-         * needed to extract date from the message body because SQS is the only service that does
-         * not provide date header in the response. Example, when device time is behind than the
-         * server time than we get a string that looks something like this: "Signature expired:
-         * 20130401T030113Z is now earlier than 20130401T034613Z (20130401T040113Z - 15 min.)"
-         *
-         * @param body The message from where the server time is being extracted
-         * @return Return datetime in string format (yyyyMMdd'T'HHmmss'Z')
-         */
-        private String getServerDateFromException(String body) {
-            final int startPos = body.indexOf("(");
-            int endPos = body.indexOf(" + ");
-            if (endPos == -1) {
-                endPos = body.indexOf(" - ");
-            }
-            return endPos == -1 ? null : body.substring(startPos + 1, endPos);
-        }
-
         /**
          * Returns the difference between the client's clock time and the service clock time in unit
          * of seconds.
          */
         private int parseClockSkewOffset(org.apache.http.HttpResponse response,
                                          AmazonServiceException exception) {
-            final long currentTimeMilli = System.currentTimeMillis();
-            Date serverDate;
-            String serverDateStr = null;
             Header[] responseDateHeader = response.getHeaders("Date");
-
-            try {
-                if (responseDateHeader.length == 0) {
-                    // SQS doesn't return Date header
-                    final String errmsg = exception.getMessage();
-                    serverDateStr = getServerDateFromException(errmsg);
-                    if (serverDateStr == null) {
-                        log.warn("Unable to parse clock skew offset from errmsg: " + errmsg);
-                        return 0;
-                    }
-                    serverDate = DateUtils.parseCompressedISO8601Date(serverDateStr);
-                } else {
-                    serverDateStr = responseDateHeader[0].getValue();
-                    serverDate = DateUtils.parseRFC822Date(serverDateStr);
-                }
-            } catch (RuntimeException e) {
-                log.warn("Unable to parse clock skew offset from response: " + serverDateStr, e);
-                return 0;
-            }
-
-            long diff = currentTimeMilli - serverDate.getTime();
-            return (int) (diff / 1000);
-        }
-
-        /**
-         * Gets the correct request timeout taking into account precedence of the configuration in
-         * {@link AmazonWebServiceRequest} versus {@link ClientConfiguration}
-         *
-         * @param requestConfig Current request configuration
-         * @return Request timeout value or 0 if none is set
-         */
-        private int getRequestTimeout(RequestConfig requestConfig) {
-            if (requestConfig.getRequestTimeout() != null) {
-                return requestConfig.getRequestTimeout();
-            } else {
-                return config.getRequestTimeout();
-            }
-        }
-
-        /**
-         * Gets the correct client execution timeout taking into account precedence of the
-         * configuration in {@link AmazonWebServiceRequest} versus {@link ClientConfiguration}
-         *
-         * @param requestConfig Current request configuration
-         * @return Client Execution timeout value or 0 if none is set
-         */
-        private int getClientExecutionTimeout(RequestConfig requestConfig) {
-            if (requestConfig.getClientExecutionTimeout() != null) {
-                return requestConfig.getClientExecutionTimeout();
-            } else {
-                return config.getClientExecutionTimeout();
-            }
+            return AmazonHttpClient.this.parseClockSkewOffset(
+                    responseDateHeader.length == 0 ? null : responseDateHeader[0].getValue(), exception);
         }
 
         /**
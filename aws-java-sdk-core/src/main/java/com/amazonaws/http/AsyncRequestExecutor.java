@@ -0,0 +1,805 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import static com.amazonaws.SDKGlobalConfiguration.PROFILING_SYSTEM_PROPERTY;
+import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
+import static com.amazonaws.event.SDKProgressPublisher.publishRequestBytesTransferred;
+import static com.amazonaws.event.SDKProgressPublisher.publishRequestContentLength;
+import static com.amazonaws.event.SDKProgressPublisher.publishResponseContentLength;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonServiceException.ErrorType;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.RequestConfig;
+import com.amazonaws.Response;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.annotation.ThreadSafe;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.CanHandleNullCredentials;
+import com.amazonaws.auth.Signer;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressInputStream;
+import com.amazonaws.event.ProgressListener;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.handlers.CredentialsRequestHandler;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.Cancellable;
+import com.amazonaws.http.client.HttpTransportCallback;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.client.HttpTransportResponse;
+import com.amazonaws.http.exception.HttpRequestTimeoutException;
+import com.amazonaws.http.nio.request.impl.NioHttpRequestFactory;
+import com.amazonaws.http.request.HttpRequestFactory;
+import com.amazonaws.http.timers.client.ClientExecutionTimeoutException;
+import com.amazonaws.internal.auth.SignerProviderContext;
+import com.amazonaws.retry.RetryUtils;
+import com.amazonaws.retry.internal.AuthErrorRetryStrategy;
+import com.amazonaws.retry.internal.AuthRetryParameters;
+import com.amazonaws.util.AWSRequestMetrics;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.CRC32ChecksumCalculatingInputStream;
+import com.amazonaws.util.CountingInputStream;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.SdkHttpUtils;
+
+/**
+ * Executes a single request on an {@link AsyncHttpTransport}. Mirrors the blocking retry loop in
+ * {@link AmazonHttpClient}, but every wait (the exchange itself, backoff between attempts and the
+ * request/client execution timeouts) is driven by transport callbacks and timers instead of a
+ * parked caller thread.
+ * <p>
+ * Only one thread drives the execution at a time: the caller for the first attempt, then whichever
+ * transport thread delivers the outcome of the current attempt or runs the retry timer. Hand-off
+ * between them goes through the transport, so the per-execution state below is not otherwise
+ * guarded.
+ */
+@SdkInternalApi
+@ThreadSafe
+class AsyncRequestExecutor<Output> {
+
+    private static final Log log = LogFactory.getLog(AsyncRequestExecutor.class);
+
+    private static final HttpRequestFactory<HttpTransportRequest> requestFactory =
+            new NioHttpRequestFactory();
+
+    private final AmazonHttpClient client;
+    private final Request<?> request;
+    private final RequestConfig requestConfig;
+    private final HttpResponseHandler<AmazonServiceException> errorResponseHandler;
+    private final HttpResponseHandler<Output> responseHandler;
+    private final ExecutionContext executionContext;
+    private final List<RequestHandler2> requestHandler2s;
+    private final AsyncHandler<AmazonWebServiceRequest, ? super Response<Output>> asyncHandler;
+    private final AWSRequestMetrics awsRequestMetrics;
+    private final ProgressListener listener;
+
+    private final ResponseFuture future = new ResponseFuture();
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    private AsyncHttpTransport transport;
+    private OriginalParameters originalParameters;
+    private Map<String, String> originalHeaders;
+    private InputStream originalContent;
+    private byte[] content;
+
+    private int requestCount;
+    private long lastBackoffDelay;
+    private SdkClientException retriedException;
+    private URI redirectedURI;
+    private AuthRetryParameters authRetryParam;
+    private Signer signer;
+    private URI signerURI;
+
+    private volatile Attempt currentAttempt;
+    private volatile Cancellable retryTask;
+    private volatile Cancellable executionTimeoutTask;
+
+    AsyncRequestExecutor(AmazonHttpClient client,
+                         Request<?> request,
+                         RequestConfig requestConfig,
+                         HttpResponseHandler<AmazonServiceException> errorResponseHandler,
+                         HttpResponseHandler<Output> responseHandler,
+                         ExecutionContext executionContext,
+                         List<RequestHandler2> requestHandler2s,
+                         AsyncHandler<AmazonWebServiceRequest, ? super Response<Output>> asyncHandler) {
+        this.client = client;
+        this.request = request;
+        this.requestConfig = requestConfig;
+        this.errorResponseHandler = errorResponseHandler;
+        this.responseHandler = responseHandler;
+        this.executionContext = executionContext;
+        this.requestHandler2s = requestHandler2s;
+        this.asyncHandler = asyncHandler;
+        this.awsRequestMetrics = executionContext == null ? null : executionContext.getAwsRequestMetrics();
+        this.listener = requestConfig.getProgressListener();
+    }
+
+    /**
+     * Starts executing the request and returns a future for its result. Failures that happen
+     * before the first attempt is sent (e.g. in a request handler) are reported through the
+     * future rather than thrown.
+     */
+    Future<Response<Output>> execute() {
+        if (executionContext == null) {
+            throw new SdkClientException(
+                    "Internal SDK Error: No execution context parameter specified.");
+        }
+        try {
+            transport = client.getAsyncHttpTransport();
+            runBeforeRequestHandlers();
+            client.setSdkTransactionId(request);
+            client.setUserAgent(request, requestConfig);
+            // add custom headers
+            request.getHeaders().putAll(client.getClientConfiguration().getHeaders());
+            request.getHeaders().putAll(requestConfig.getCustomRequestHeaders());
+            // add custom query parameters
+            client.mergeQueryParameters(request, requestConfig.getCustomQueryParameters());
+            originalContent = request.getContent();
+            content = bufferContent(originalContent);
+        } catch (RuntimeException e) {
+            complete(null, e);
+            return future;
+        }
+
+        awsRequestMetrics
+                .addPropertyWith(Field.RequestType, requestConfig.getRequestType())
+                .addPropertyWith(Field.ServiceName, request.getServiceName())
+                .addPropertyWith(Field.ServiceEndpoint, request.getEndpoint());
+        // Keep a copy of the original params and headers so every attempt starts over from them.
+        originalParameters = OriginalParameters.of(request);
+        originalHeaders = new HashMap<String, String>(request.getHeaders());
+
+        publishProgress(listener, ProgressEventType.CLIENT_REQUEST_STARTED_EVENT);
+        int clientExecutionTimeout = client.getClientExecutionTimeout(requestConfig);
+        if (clientExecutionTimeout > 0) {
+            executionTimeoutTask = transport.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    abortCurrentAttempt();
+                    fail(new ClientExecutionTimeoutException());
+                }
+            }, clientExecutionTimeout);
+        }
+        sendPacedAttempt();
+        return future;
+    }
+
+    private void runBeforeRequestHandlers() {
+        AWSCredentials credentials = getCredentialsFromContext();
+        request.addHandlerContext(HandlerContextKey.AWS_CREDENTIALS, credentials);
+        for (RequestHandler2 requestHandler2 : requestHandler2s) {
+            if (requestHandler2 instanceof CredentialsRequestHandler) {
+                ((CredentialsRequestHandler) requestHandler2).setCredentials(credentials);
+            }
+            requestHandler2.beforeRequest(request);
+        }
+    }
+
+    /**
+     * Reads the request content into memory once so that every attempt can replay it without
+     * relying on mark/reset of the caller's stream.
+     */
+    private byte[] bufferContent(InputStream in) {
+        if (in == null) {
+            return null;
+        }
+        try {
+            byte[] bytes = IOUtils.toByteArray(in);
+            publishRequestContentLength(listener, bytes.length);
+            return bytes;
+        } catch (IOException e) {
+            throw new SdkClientException("Unable to read request content: " + e.getMessage(), e);
+        }
+    }
+
+    private AWSCredentials getCredentialsFromContext() {
+        final AWSCredentialsProvider credentialsProvider = executionContext.getCredentialsProvider();
+
+        AWSCredentials credentials = null;
+        if (credentialsProvider != null) {
+            awsRequestMetrics.startEvent(Field.CredentialsRequestTime);
+            try {
+                credentials = credentialsProvider.getCredentials();
+            } finally {
+                awsRequestMetrics.endEvent(Field.CredentialsRequestTime);
+            }
+        }
+        return credentials;
+    }
+
+    private boolean isRetry() {
+        return requestCount > 1 || redirectedURI != null || authRetryParam != null;
+    }
+
+    /**
+     * Sends the next attempt once the adaptive rate limiter, if enabled, allows it; the wait is
+     * scheduled on the transport rather than blocking the calling thread.
+     */
+    private void sendPacedAttempt() {
+        long pause = client.reserveRateLimiterPause();
+        if (pause <= 0) {
+            sendAttempt();
+            return;
+        }
+        awsRequestMetrics.startEvent(Field.RateLimiterPauseTime);
+        retryTask = transport.schedule(new Runnable() {
+            @Override
+            public void run() {
+                awsRequestMetrics.endEvent(Field.RateLimiterPauseTime);
+                sendAttempt();
+            }
+        }, pause);
+        if (done.get()) {
+            retryTask.cancel();
+        }
+    }
+
+    /**
+     * Signs and sends the next attempt.
+     */
+    private void sendAttempt() {
+        if (done.get()) {
+            return;
+        }
+        requestCount++;
+        if (redirectedURI != null) {
+            String scheme = redirectedURI.getScheme();
+            String beforeAuthority = scheme == null ? "" : scheme + "://";
+            request.setEndpoint(URI.create(beforeAuthority + redirectedURI.getAuthority()));
+            request.setResourcePath(SdkHttpUtils.urlEncode(redirectedURI.getPath(), true));
+        }
+        if (authRetryParam != null) {
+            request.setEndpoint(authRetryParam.getEndpointForRetry());
+        }
+        awsRequestMetrics.setCounter(Field.RequestCount, requestCount);
+        if (isRetry()) {
+            originalParameters.restore(request);
+            request.setHeaders(originalHeaders);
+        }
+        request.setContent(content == null ? null : new ByteArrayInputStream(content));
+
+        try {
+            if (AmazonHttpClient.requestLog.isDebugEnabled()) {
+                AmazonHttpClient.requestLog.debug((isRetry() ? "Retrying " : "Sending ") + "Request: " + request);
+            }
+            final AWSCredentials credentials = getCredentialsFromContext();
+            client.updateRetryHeaderInfo(request, requestCount, lastBackoffDelay);
+
+            newSigner();
+            if (signer != null && (credentials != null || signer instanceof CanHandleNullCredentials)) {
+                awsRequestMetrics.startEvent(Field.RequestSigningTime);
+                try {
+                    if (client.getTimeOffset() != 0) {
+                        request.setTimeOffset(client.getTimeOffset());
+                    }
+                    signer.sign(request, credentials);
+                } finally {
+                    awsRequestMetrics.endEvent(Field.RequestSigningTime);
+                }
+            }
+
+            HttpTransportRequest transportRequest =
+                    requestFactory.create(request, client.getHttpClientSettings());
+            if (redirectedURI != null) {
+                transportRequest = new HttpTransportRequest(transportRequest.getHttpMethod(),
+                                                            redirectedURI,
+                                                            transportRequest.getHeaders(),
+                                                            transportRequest.getContent());
+            }
+
+            retriedException = null;
+            authRetryParam = null;
+            redirectedURI = null;
+            publishProgress(listener, ProgressEventType.HTTP_REQUEST_STARTED_EVENT);
+            awsRequestMetrics.startEvent(Field.HttpRequestTime);
+            client.captureRetryCapacityMetrics(awsRequestMetrics);
+
+            Attempt attempt = new Attempt();
+            currentAttempt = attempt;
+            attempt.start(transportRequest);
+        } catch (IOException ioe) {
+            onFailure(ioe);
+        } catch (RuntimeException e) {
+            fail(captureExceptionMetrics(e));
+        }
+    }
+
+    private void newSigner() {
+        final SignerProviderContext.Builder signerProviderContext = SignerProviderContext
+                .builder()
+                .withRequest(request)
+                .withRequestConfig(requestConfig);
+        if (authRetryParam != null) {
+            signerURI = authRetryParam.getEndpointForRetry();
+            signer = authRetryParam.getSignerForRetry();
+            // Push the local signer override back to the execution context
+            executionContext.setSigner(signer);
+        } else if (redirectedURI != null && !redirectedURI.equals(signerURI)) {
+            signerURI = redirectedURI;
+            signer = executionContext.getSigner(signerProviderContext
+                                                        .withUri(signerURI)
+                                                        .withIsRedirect(true)
+                                                        .build());
+        } else if (signer == null) {
+            signerURI = request.getEndpoint();
+            signer = executionContext.getSigner(signerProviderContext.withUri(signerURI).build());
+        }
+    }
+
+    /**
+     * Handles the response to the current attempt: unmarshalls a successful response, follows a
+     * temporary redirect, or unmarshalls the error and decides whether to retry.
+     */
+    private void onResponse(HttpTransportResponse transportResponse) {
+        try {
+            publishProgress(listener, ProgressEventType.HTTP_REQUEST_COMPLETED_EVENT);
+            if (content != null) {
+                publishRequestBytesTransferred(listener, content.length);
+            }
+            final int statusCode = transportResponse.getStatusCode();
+            if (statusCode / 100 == 2) {
+                awsRequestMetrics.addProperty(Field.StatusCode, statusCode);
+                HttpResponse httpResponse = createResponse(transportResponse);
+                Output output = handleResponse(httpResponse);
+                client.updateRateLimiter(null);
+                client.releaseRetryCapacity(isRetry(), executionContext);
+                succeed(new Response<Output>(output, httpResponse));
+                return;
+            }
+            String location = transportResponse.getHeader("Location");
+            if (statusCode == 307 && location != null) {
+                /*
+                 * S3 sends 307 Temporary Redirects if you try to delete an EU bucket from the US
+                 * endpoint; send the next attempt to the redirected location.
+                 */
+                if (log.isDebugEnabled()) {
+                    log.debug("Redirecting to: " + location);
+                }
+                redirectedURI = URI.create(location);
+                awsRequestMetrics.addPropertyWith(Field.StatusCode, statusCode)
+                        .addPropertyWith(Field.RedirectLocation, location)
+                        .addPropertyWith(Field.AWSRequestID, null);
+                scheduleRetry();
+                return;
+            }
+
+            final AmazonServiceException ase = handleErrorResponse(transportResponse);
+            awsRequestMetrics.addPropertyWith(Field.AWSRequestID, ase.getRequestId())
+                    .addPropertyWith(Field.AWSErrorCode, ase.getErrorCode())
+                    .addPropertyWith(Field.StatusCode, ase.getStatusCode());
+            client.updateRateLimiter(ase);
+            // Check whether we should internally retry the auth error
+            authRetryParam = null;
+            AuthErrorRetryStrategy authRetry = executionContext.getAuthErrorRetryStrategy();
+            if (authRetry != null) {
+                authRetryParam = authRetry.shouldRetryWithAuthParam(
+                        request, createResponse(transportResponse), ase);
+            }
+            if (authRetryParam == null &&
+                !client.shouldRetry(request, executionContext, ase, requestCount - 1)) {
+                fail(captureExceptionMetrics(ase));
+                return;
+            }
+            if (RetryUtils.isThrottlingException(ase)) {
+                awsRequestMetrics.incrementCounterWith(Field.ThrottleException)
+                        .addProperty(Field.ThrottleException, ase);
+            }
+            retriedException = ase;
+            if (RetryUtils.isClockSkewError(ase)) {
+                int clockSkew = client.parseClockSkewOffset(transportResponse.getHeader("Date"), ase);
+                client.adjustTimeOffset(clockSkew);
+                request.setTimeOffset(client.getTimeOffset()); // adjust time offset for the retry
+            }
+            scheduleRetry();
+        } catch (IOException ioe) {
+            onFailure(ioe);
+        } catch (RuntimeException e) {
+            fail(captureExceptionMetrics(e));
+        }
+    }
+
+    /**
+     * Handles an I/O failure of the current attempt, retrying it if the retry policy allows.
+     */
+    private void onFailure(IOException ioe) {
+        captureExceptionMetrics(ioe);
+        awsRequestMetrics.addProperty(Field.AWSRequestID, null);
+        SdkClientException sdkClientException = new SdkClientException(
+                "Unable to execute HTTP request: " + ioe.getMessage(), ioe);
+        boolean willRetry;
+        try {
+            willRetry = client.shouldRetry(request, executionContext, sdkClientException,
+                                           requestCount - 1);
+        } catch (RuntimeException e) {
+            fail(captureExceptionMetrics(e));
+            return;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug(sdkClientException.getMessage() + (willRetry ? " Request will be retried." : ""), ioe);
+        }
+        if (!willRetry) {
+            fail(sdkClientException);
+            return;
+        }
+        retriedException = sdkClientException;
+        scheduleRetry();
+    }
+
+    /**
+     * Schedules the next attempt after the backoff delay of the retry policy; redirects and auth
+     * retries are sent without delay.
+     */
+    private void scheduleRetry() {
+        publishProgress(listener, ProgressEventType.CLIENT_REQUEST_RETRY_EVENT);
+        long delay = 0;
+        if (retriedException != null) {
+            final int retries = requestCount - 1;
+            delay = client.getClientConfiguration().getRetryPolicy().getBackoffStrategy()
+                    .delayBeforeNextRetry(request.getOriginalRequest(), retriedException, retries);
+            lastBackoffDelay = delay;
+            if (log.isDebugEnabled()) {
+                log.debug("Retriable error detected, will retry in " + delay +
+                          "ms, attempt number: " + retries);
+            }
+        }
+        awsRequestMetrics.startEvent(Field.RetryPauseTime);
+        retryTask = transport.schedule(new Runnable() {
+            @Override
+            public void run() {
+                awsRequestMetrics.endEvent(Field.RetryPauseTime);
+                sendPacedAttempt();
+            }
+        }, delay);
+        if (done.get()) {
+            retryTask.cancel();
+        }
+    }
+
+    private HttpResponse createResponse(HttpTransportResponse transportResponse) throws IOException {
+        HttpContext context = new BasicHttpContext();
+        HttpResponse httpResponse = new HttpResponse(request, null, context);
+        Map<String, String> headers = new HashMap<String, String>(transportResponse.getHeaders());
+
+        InputStream is = new ByteArrayInputStream(transportResponse.getContent());
+        if (transportResponse.getHeader("x-amz-crc32") != null) {
+            // The checksum covers the bytes on the wire, before any content decoding.
+            CRC32ChecksumCalculatingInputStream crc32Stream = new CRC32ChecksumCalculatingInputStream(is);
+            context.setAttribute(CRC32ChecksumCalculatingInputStream.class.getName(), crc32Stream);
+            is = crc32Stream;
+        }
+        if ("gzip".equalsIgnoreCase(transportResponse.getHeader("Content-Encoding"))) {
+            is = new GZIPInputStream(is);
+            removeHeader(headers, "Content-Encoding");
+            removeHeader(headers, "Content-Length");
+            removeHeader(headers, "Content-MD5");
+        }
+        httpResponse.setContent(is);
+        httpResponse.setStatusCode(transportResponse.getStatusCode());
+        httpResponse.setStatusText(transportResponse.getStatusText());
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            httpResponse.addHeader(header.getKey(), header.getValue());
+        }
+        return httpResponse;
+    }
+
+    private static void removeHeader(Map<String, String> headers, String name) {
+        for (String header : headers.keySet()) {
+            if (header.equalsIgnoreCase(name)) {
+                headers.remove(header);
+                return;
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private Output handleResponse(HttpResponse httpResponse) throws IOException {
+        try {
+            CountingInputStream countingInputStream = null;
+            InputStream is = httpResponse.getContent();
+            if (System.getProperty(PROFILING_SYSTEM_PROPERTY) != null) {
+                is = countingInputStream = new CountingInputStream(is);
+            }
+            httpResponse.setContent(ProgressInputStream.inputStreamForResponse(is, listener));
+            String s = httpResponse.getHeaders().get("Content-Length");
+            if (s != null) {
+                try {
+                    publishResponseContentLength(listener, Long.parseLong(s));
+                } catch (NumberFormatException e) {
+                    log.warn("Cannot parse the Content-Length header of the response.");
+                }
+            }
+
+            Output awsResponse;
+            awsRequestMetrics.startEvent(Field.ResponseProcessingTime);
+            publishProgress(listener, ProgressEventType.HTTP_RESPONSE_STARTED_EVENT);
+            try {
+                HttpResponse toUnmarshall = httpResponse;
+                for (RequestHandler2 requestHandler : requestHandler2s) {
+                    toUnmarshall = requestHandler.beforeUnmarshalling(request, toUnmarshall);
+                }
+                awsResponse = responseHandler.handle(toUnmarshall);
+            } finally {
+                awsRequestMetrics.endEvent(Field.ResponseProcessingTime);
+            }
+            publishProgress(listener, ProgressEventType.HTTP_RESPONSE_COMPLETED_EVENT);
+
+            if (countingInputStream != null) {
+                awsRequestMetrics.setCounter(Field.BytesProcessed, countingInputStream.getByteCount());
+            }
+            return awsResponse;
+        } catch (IOException e) {
+            throw e;
+        } catch (AmazonClientException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SdkClientException(
+                    "Unable to unmarshall response (" + e.getMessage() + "). Response Code: "
+                    + httpResponse.getStatusCode() + ", Response Text: " +
+                    httpResponse.getStatusText(), e);
+        }
+    }
+
+    private AmazonServiceException handleErrorResponse(HttpTransportResponse transportResponse)
+            throws IOException {
+        final int statusCode = transportResponse.getStatusCode();
+        final String reasonPhrase = transportResponse.getStatusText();
+        AmazonServiceException exception;
+        try {
+            exception = errorResponseHandler.handle(createResponse(transportResponse));
+            if (AmazonHttpClient.requestLog.isDebugEnabled()) {
+                AmazonHttpClient.requestLog.debug("Received error response: " + exception);
+            }
+        } catch (Exception e) {
+            // If the errorResponseHandler doesn't work, then check for error
+            // responses that don't have any content
+            if (statusCode == 413) {
+                exception = new AmazonServiceException("Request entity too large");
+                exception.setServiceName(request.getServiceName());
+                exception.setStatusCode(statusCode);
+                exception.setErrorType(ErrorType.Client);
+                exception.setErrorCode("Request entity too large");
+            } else if (statusCode >= 500 && statusCode < 600) {
+                exception = new AmazonServiceException(reasonPhrase);
+                exception.setServiceName(request.getServiceName());
+                exception.setStatusCode(statusCode);
+                exception.setErrorType(ErrorType.Service);
+                exception.setErrorCode(reasonPhrase);
+            } else if (e instanceof IOException) {
+                throw (IOException) e;
+            } else {
+                throw new SdkClientException(
+                        "Unable to unmarshall error response (" + e.getMessage() +
+                        "). Response Code: " + statusCode + ", Response Text: " + reasonPhrase, e);
+            }
+        }
+
+        exception.setStatusCode(statusCode);
+        exception.setServiceName(request.getServiceName());
+        exception.fillInStackTrace();
+        return exception;
+    }
+
+    private <T extends Throwable> T captureExceptionMetrics(T t) {
+        awsRequestMetrics.incrementCounterWith(Field.Exception)
+                .addProperty(Field.Exception, t);
+        if (t instanceof AmazonServiceException) {
+            AmazonServiceException ase = (AmazonServiceException) t;
+            if (RetryUtils.isThrottlingException(ase)) {
+                awsRequestMetrics.incrementCounterWith(Field.ThrottleException)
+                        .addProperty(Field.ThrottleException, ase);
+            }
+        }
+        return t;
+    }
+
+    private void abortCurrentAttempt() {
+        Attempt attempt = currentAttempt;
+        if (attempt != null) {
+            attempt.abort();
+        }
+        Cancellable retry = retryTask;
+        if (retry != null) {
+            retry.cancel();
+        }
+    }
+
+    private void succeed(Response<Output> response) {
+        publishProgress(listener, ProgressEventType.CLIENT_REQUEST_SUCCESS_EVENT);
+        awsRequestMetrics.getTimingInfo().endTiming();
+        try {
+            for (RequestHandler2 handler2 : requestHandler2s) {
+                handler2.afterResponse(request, response);
+            }
+        } catch (AmazonClientException e) {
+            fail(e);
+            return;
+        } catch (RuntimeException e) {
+            complete(null, e);
+            return;
+        }
+        complete(response, null);
+    }
+
+    private void fail(Exception e) {
+        if (done.get()) {
+            return;
+        }
+        if (e instanceof AmazonClientException) {
+            publishProgress(listener, ProgressEventType.CLIENT_REQUEST_FAILED_EVENT);
+            try {
+                for (RequestHandler2 handler2 : requestHandler2s) {
+                    handler2.afterError(request, null, e);
+                }
+            } catch (RuntimeException handlerException) {
+                e = handlerException;
+            }
+        }
+        complete(null, e);
+    }
+
+    /**
+     * Completes the future and notifies the async handler exactly once.
+     */
+    private void complete(Response<Output> response, Exception e) {
+        if (!done.compareAndSet(false, true)) {
+            return;
+        }
+        Cancellable timeout = executionTimeoutTask;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        request.setContent(originalContent); // restore the original content
+        if (e == null) {
+            future.complete(response);
+            if (asyncHandler != null) {
+                asyncHandler.onSuccess(request.getOriginalRequest(), response);
+            }
+        } else {
+            future.completeExceptionally(e);
+            if (asyncHandler != null) {
+                asyncHandler.onError(e);
+            }
+        }
+    }
+
+    /**
+     * A single exchange on the transport. Exactly one of completion, failure, request timeout or
+     * abort takes effect.
+     */
+    private class Attempt implements HttpTransportCallback {
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile Cancellable exchange;
+        private volatile Cancellable requestTimeoutTask;
+
+        void start(HttpTransportRequest transportRequest) {
+            int requestTimeout = client.getRequestTimeout(requestConfig);
+            if (requestTimeout > 0) {
+                requestTimeoutTask = transport.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (finish()) {
+                            cancelExchange();
+                            onFailure(new HttpRequestTimeoutException(
+                                    "Request did not complete before the request timeout configuration."));
+                        }
+                    }
+                }, requestTimeout);
+            }
+            exchange = transport.execute(transportRequest, this);
+            if (finished.get()) {
+                // Timed out or aborted before the exchange handle was available
+                cancelExchange();
+            }
+        }
+
+        @Override
+        public void completed(HttpTransportResponse response) {
+            if (finish()) {
+                onResponse(response);
+            }
+        }
+
+        @Override
+        public void failed(IOException e) {
+            if (finish()) {
+                onFailure(e);
+            }
+        }
+
+        void abort() {
+            if (finish()) {
+                cancelExchange();
+            }
+        }
+
+        private boolean finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return false;
+            }
+            Cancellable timeout = requestTimeoutTask;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+            awsRequestMetrics.endEvent(Field.HttpRequestTime);
+            return true;
+        }
+
+        private void cancelExchange() {
+            Cancellable toCancel = exchange;
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+        }
+    }
+
+    /**
+     * Future handed to the caller; cancelling it aborts the exchange in flight.
+     */
+    private class ResponseFuture extends FutureTask<Response<Output>> {
+
+        ResponseFuture() {
+            super(new Runnable() {
+                @Override
+                public void run() {
+                }
+            }, null);
+        }
+
+        void complete(Response<Output> response) {
+            set(response);
+        }
+
+        void completeExceptionally(Throwable t) {
+            setException(t);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && done.compareAndSet(false, true)) {
+                abortCurrentAttempt();
+                Cancellable timeout = executionTimeoutTask;
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import com.amazonaws.Request;
+import com.amazonaws.protocol.query.EncodedQueryParameters;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy of the parameters of a request taken before its first attempt, so that
+ * every retry starts over from them. Parameters that a query marshaller wrote
+ * in their encoded form are kept that way, so that retries don't have to
+ * encode them again.
+ */
+final class OriginalParameters {
+
+    private final Map<String, List<String>> parameters;
+
+    private final byte[] encodedParameters;
+
+    private OriginalParameters(Map<String, List<String>> parameters, byte[] encodedParameters) {
+        this.parameters = parameters;
+        this.encodedParameters = encodedParameters;
+    }
+
+    static OriginalParameters of(Request<?> request) {
+        if (request instanceof EncodedQueryParameters) {
+            byte[] encoded = ((EncodedQueryParameters) request).getEncodedParameters();
+            if (encoded != null) {
+                return new OriginalParameters(Collections.<String, List<String>>emptyMap(), encoded);
+            }
+        }
+        return new OriginalParameters(
+                new LinkedHashMap<String, List<String>>(request.getParameters()), null);
+    }
+
+    void restore(Request<?> request) {
+        request.setParameters(parameters);
+        if (encodedParameters != null) {
+            ((EncodedQueryParameters) request).addEncodedParameters(encodedParameters);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.client;
+
+import com.amazonaws.annotation.Beta;
+
+/**
+ * A non-blocking HTTP transport that the SDK can use to send requests without dedicating a
+ * thread to each request in flight. Implementations are created through a
+ * {@link HttpClientFactory} and must be safe for use by multiple concurrent callers.
+ */
+@Beta
+public interface AsyncHttpTransport {
+
+    /**
+     * Sends the given request and returns immediately. Exactly one of the callback's methods will
+     * be invoked once the exchange completes, fails or is cancelled.
+     *
+     * @param request  The fully signed request to send.
+     * @param callback Callback notified of the outcome of the exchange.
+     * @return A handle that can be used to abort the exchange.
+     */
+    Cancellable execute(HttpTransportRequest request, HttpTransportCallback callback);
+
+    /**
+     * Schedules a task to run after the given delay on a thread owned by the transport. Used by
+     * the SDK to implement retry backoff and timeouts without blocking a caller thread. Tasks must
+     * be short and must not block.
+     *
+     * @param task        Task to run.
+     * @param delayMillis Delay in milliseconds before the task is run.
+     * @return A handle that can be used to cancel the task before it runs.
+     */
+    Cancellable schedule(Runnable task, long delayMillis);
+
+    /**
+     * Releases all resources held by this transport. In flight exchanges are failed.
+     */
+    void shutdown();
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.client;
+
+import java.io.IOException;
+
+import com.amazonaws.annotation.Beta;
+
+/**
+ * Callback notified by an {@link AsyncHttpTransport} when an exchange completes. Callbacks may be
+ * invoked on a transport owned thread and should hand off long running work.
+ */
+@Beta
+public interface HttpTransportCallback {
+
+    /**
+     * Invoked when a complete response, of any status code, has been received.
+     *
+     * @param response The response received from the remote host.
+     */
+    void completed(HttpTransportResponse response);
+
+    /**
+     * Invoked when the exchange could not be completed, including when it was cancelled.
+     *
+     * @param cause The I/O failure that ended the exchange.
+     */
+    void failed(IOException cause);
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.client;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.annotation.Beta;
+import com.amazonaws.annotation.Immutable;
+import com.amazonaws.http.HttpMethodName;
+
+/**
+ * An HTTP request ready to be sent by an {@link AsyncHttpTransport}. The request content is fully
+ * buffered so that it can be written without blocking and resent on retry.
+ */
+@Beta
+@Immutable
+public class HttpTransportRequest {
+
+    private final HttpMethodName httpMethod;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final byte[] content;
+
+    /**
+     * @param httpMethod HTTP method of the request.
+     * @param uri        Absolute URI, including the encoded query string, of the request.
+     * @param headers    Headers to send, excluding Host and Content-Length which are computed by
+     *                   the transport.
+     * @param content    Request payload; or null if the request has no payload.
+     */
+    public HttpTransportRequest(HttpMethodName httpMethod,
+                                URI uri,
+                                Map<String, String> headers,
+                                byte[] content) {
+        this.httpMethod = httpMethod;
+        this.uri = uri;
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<String, String>(headers));
+        this.content = content;
+    }
+
+    public HttpMethodName getHttpMethod() {
+        return httpMethod;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The request payload; or null if the request has no payload.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+}
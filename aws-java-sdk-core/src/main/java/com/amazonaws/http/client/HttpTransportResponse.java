@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.client;
+
+import java.util.Collections;
+import java.util.Map;
+
+import com.amazonaws.annotation.Beta;
+import com.amazonaws.annotation.Immutable;
+
+/**
+ * An HTTP response received by an {@link AsyncHttpTransport}, with its content fully read.
+ */
+@Beta
+@Immutable
+public class HttpTransportResponse {
+
+    private final int statusCode;
+    private final String statusText;
+    private final Map<String, String> headers;
+    private final byte[] content;
+
+    /**
+     * @param statusCode HTTP status code of the response.
+     * @param statusText Reason phrase of the response.
+     * @param headers    Response headers, keyed by the header name as sent by the server.
+     * @param content    Response payload; an empty array if the response has no payload.
+     */
+    public HttpTransportResponse(int statusCode,
+                                 String statusText,
+                                 Map<String, String> headers,
+                                 byte[] content) {
+        this.statusCode = statusCode;
+        this.statusText = statusText;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.content = content;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getStatusText() {
+        return statusText;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the value of the given header, ignoring the case of the header name.
+     *
+     * @param name Name of the header.
+     * @return The header value; or null if the header is not present.
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+}
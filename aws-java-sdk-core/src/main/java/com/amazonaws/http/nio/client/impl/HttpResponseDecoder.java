@@ -0,0 +1,299 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.annotation.NotThreadSafe;
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.http.client.HttpTransportResponse;
+
+/**
+ * Incremental HTTP/1.1 response parser. Bytes are fed in as they arrive from the network and the
+ * decoder reports when a complete response, including the body, has been read. Interim (1xx)
+ * responses are skipped.
+ */
+@SdkInternalApi
+@NotThreadSafe
+class HttpResponseDecoder {
+
+    /**
+     * Upper bound on the size of the status line or of a single header line.
+     */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private enum State {
+        STATUS_LINE, HEADERS, BODY_FIXED, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILERS, BODY_UNTIL_CLOSE, DONE
+    }
+
+    private final boolean headRequest;
+    private final StringBuilder line = new StringBuilder();
+    private final Map<String, String> headers = new LinkedHashMap<String, String>();
+
+    private State state = State.STATUS_LINE;
+    private int statusCode;
+    private String statusText;
+    private boolean keepAlive;
+    private long remaining;
+    private ByteArrayOutputStream body;
+
+    /**
+     * @param headRequest True if the response is for a HEAD request, which never has a body.
+     */
+    HttpResponseDecoder(boolean headRequest) {
+        this.headRequest = headRequest;
+    }
+
+    /**
+     * Consumes as many bytes as possible from the given buffer.
+     *
+     * @return True if a complete response has been read.
+     * @throws IOException If the response is malformed.
+     */
+    boolean decode(ByteBuffer in) throws IOException {
+        while (state != State.DONE && in.hasRemaining()) {
+            switch (state) {
+                case STATUS_LINE:
+                    String statusLine = readLine(in);
+                    if (statusLine != null && statusLine.length() > 0) {
+                        parseStatusLine(statusLine);
+                        state = State.HEADERS;
+                    }
+                    break;
+                case HEADERS:
+                    String header = readLine(in);
+                    if (header == null) {
+                        break;
+                    }
+                    if (header.length() == 0) {
+                        headersComplete();
+                    } else {
+                        parseHeader(header);
+                    }
+                    break;
+                case BODY_FIXED:
+                    copyBody(in);
+                    if (remaining == 0) {
+                        state = State.DONE;
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    String chunkSize = readLine(in);
+                    if (chunkSize != null) {
+                        remaining = parseChunkSize(chunkSize);
+                        state = remaining == 0 ? State.TRAILERS : State.CHUNK_DATA;
+                    }
+                    break;
+                case CHUNK_DATA:
+                    copyBody(in);
+                    if (remaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                    break;
+                case CHUNK_END:
+                    String chunkEnd = readLine(in);
+                    if (chunkEnd != null) {
+                        state = State.CHUNK_SIZE;
+                    }
+                    break;
+                case TRAILERS:
+                    String trailer = readLine(in);
+                    if (trailer != null && trailer.length() == 0) {
+                        state = State.DONE;
+                    }
+                    break;
+                case BODY_UNTIL_CLOSE:
+                    remaining = in.remaining();
+                    copyBody(in);
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected decoder state " + state);
+            }
+        }
+        return state == State.DONE;
+    }
+
+    /**
+     * Notifies the decoder that the connection was closed by the remote host.
+     *
+     * @return True if the response is complete.
+     * @throws IOException If the connection was closed before a complete response was read.
+     */
+    boolean endOfStream() throws IOException {
+        if (state == State.BODY_UNTIL_CLOSE) {
+            state = State.DONE;
+        }
+        if (state != State.DONE) {
+            throw new IOException("Connection closed by remote host before the response was complete");
+        }
+        return true;
+    }
+
+    /**
+     * @return True once any part of a response has been read.
+     */
+    boolean isStarted() {
+        return state != State.STATUS_LINE || line.length() > 0;
+    }
+
+    /**
+     * @return True if the connection can be reused for another request once the response is read.
+     */
+    boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    HttpTransportResponse toResponse() {
+        return new HttpTransportResponse(statusCode, statusText, headers,
+                                         body == null ? new byte[0] : body.toByteArray());
+    }
+
+    private void parseStatusLine(String statusLine) throws IOException {
+        // HTTP-Version SP Status-Code SP Reason-Phrase
+        int firstSpace = statusLine.indexOf(' ');
+        if (firstSpace < 0 || !statusLine.startsWith("HTTP/")) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+        int secondSpace = statusLine.indexOf(' ', firstSpace + 1);
+        String code = secondSpace < 0
+                ? statusLine.substring(firstSpace + 1)
+                : statusLine.substring(firstSpace + 1, secondSpace);
+        try {
+            statusCode = Integer.parseInt(code.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid HTTP status code: " + statusLine);
+        }
+        statusText = secondSpace < 0 ? "" : statusLine.substring(secondSpace + 1);
+        keepAlive = !statusLine.startsWith("HTTP/1.0");
+        headers.clear();
+    }
+
+    private void parseHeader(String header) throws IOException {
+        int colon = header.indexOf(':');
+        if (colon <= 0) {
+            throw new IOException("Invalid HTTP header: " + header);
+        }
+        String name = header.substring(0, colon).trim();
+        String value = header.substring(colon + 1).trim();
+        String existing = headers.get(name);
+        headers.put(name, existing == null ? value : existing + ", " + value);
+    }
+
+    private void headersComplete() throws IOException {
+        if (statusCode >= 100 && statusCode < 200) {
+            // Interim response such as 100-continue; the final response follows.
+            state = State.STATUS_LINE;
+            return;
+        }
+        String connection = headerValue("Connection");
+        if (connection != null) {
+            if ("close".equalsIgnoreCase(connection)) {
+                keepAlive = false;
+            } else if ("keep-alive".equalsIgnoreCase(connection)) {
+                keepAlive = true;
+            }
+        }
+        if (headRequest || statusCode == 204 || statusCode == 304) {
+            state = State.DONE;
+            return;
+        }
+        String transferEncoding = headerValue("Transfer-Encoding");
+        String contentLength = headerValue("Content-Length");
+        if (transferEncoding != null && transferEncoding.toLowerCase().contains("chunked")) {
+            body = new ByteArrayOutputStream();
+            state = State.CHUNK_SIZE;
+        } else if (contentLength != null) {
+            try {
+                remaining = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid Content-Length: " + contentLength);
+            }
+            if (remaining < 0 || remaining > Integer.MAX_VALUE) {
+                throw new IOException("Unsupported Content-Length: " + contentLength);
+            }
+            body = new ByteArrayOutputStream((int) remaining);
+            state = remaining == 0 ? State.DONE : State.BODY_FIXED;
+        } else {
+            body = new ByteArrayOutputStream();
+            keepAlive = false;
+            state = State.BODY_UNTIL_CLOSE;
+        }
+    }
+
+    private String headerValue(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private long parseChunkSize(String chunkSize) throws IOException {
+        int extension = chunkSize.indexOf(';');
+        String size = (extension < 0 ? chunkSize : chunkSize.substring(0, extension)).trim();
+        try {
+            long value = Long.parseLong(size, 16);
+            if (value < 0 || value + body.size() > Integer.MAX_VALUE) {
+                throw new IOException("Unsupported chunk size: " + chunkSize);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid chunk size: " + chunkSize);
+        }
+    }
+
+    private void copyBody(ByteBuffer in) {
+        int count = (int) Math.min(remaining, in.remaining());
+        if (in.hasArray()) {
+            body.write(in.array(), in.arrayOffset() + in.position(), count);
+            in.position(in.position() + count);
+        } else {
+            byte[] bytes = new byte[count];
+            in.get(bytes);
+            body.write(bytes, 0, count);
+        }
+        remaining -= count;
+    }
+
+    /**
+     * Reads a CRLF (or bare LF) terminated line.
+     *
+     * @return The line without its terminator; or null if the line is not complete yet.
+     */
+    private String readLine(ByteBuffer in) throws IOException {
+        while (in.hasRemaining()) {
+            char c = (char) (in.get() & 0xFF);
+            if (c == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                String result = line.toString();
+                line.setLength(0);
+                return result;
+            }
+            if (line.length() >= MAX_LINE_LENGTH) {
+                throw new IOException("HTTP response line exceeds " + MAX_LINE_LENGTH + " bytes");
+            }
+            line.append(c);
+        }
+        return null;
+    }
+}
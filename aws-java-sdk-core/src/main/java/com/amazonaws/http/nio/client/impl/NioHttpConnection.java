@@ -0,0 +1,642 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.Map;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.ssl.X509HostnameVerifier;
+
+import com.amazonaws.SDKGlobalConfiguration;
+import com.amazonaws.annotation.NotThreadSafe;
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.client.HttpTransportResponse;
+import com.amazonaws.http.nio.client.impl.NioHttpTransport.Exchange;
+import com.amazonaws.http.nio.client.impl.NioHttpTransport.LoopTimer;
+import com.amazonaws.http.nio.client.impl.NioHttpTransport.Route;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * A single HTTP/1.1 connection driven by the {@link NioHttpTransport} event loop, optionally
+ * secured with an {@link SSLEngine}. Every method must be called on the loop thread.
+ */
+@SdkInternalApi
+@NotThreadSafe
+class NioHttpConnection {
+
+    private static final Log log = LogFactory.getLog(NioHttpConnection.class);
+
+    private static final int PLAIN_BUFFER_SIZE = 16 * 1024;
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final NioHttpTransport transport;
+    private final Route route;
+    private final SocketChannel channel;
+    private final SSLEngine engine;
+    private final X509HostnameVerifier hostnameVerifier;
+    private final long createdAt = System.currentTimeMillis();
+
+    /** The addresses of the host, and the one to fall back to if this connection can't be opened. */
+    private final InetAddress[] addresses;
+    private final int nextAddress;
+
+    /** Bytes read from the socket, in fill mode. */
+    private final ByteBuffer netIn;
+    /** Bytes waiting to be written to the socket, in drain mode. */
+    private final ByteBuffer netOut;
+    /** Decrypted application bytes, in fill mode; only used with TLS. */
+    private final ByteBuffer appIn;
+
+    private SelectionKey key;
+    private ByteBuffer requestBuffer = EMPTY;
+    private Exchange exchange;
+    private HttpResponseDecoder decoder;
+    private LoopTimer connectTimer;
+    private LoopTimer socketTimer;
+    private long lastActivity;
+    private long idleSince;
+    private boolean connected;
+    private boolean handshaking;
+    /** Whether the TLS engine's delegated tasks are running on the callback pool. */
+    private boolean runningTasks;
+    private boolean closed;
+
+    NioHttpConnection(NioHttpTransport transport,
+                      Route route,
+                      SocketChannel channel,
+                      SSLEngine engine,
+                      X509HostnameVerifier hostnameVerifier,
+                      InetAddress[] addresses,
+                      int nextAddress) {
+        this.transport = transport;
+        this.route = route;
+        this.channel = channel;
+        this.engine = engine;
+        this.hostnameVerifier = hostnameVerifier;
+        this.addresses = addresses;
+        this.nextAddress = nextAddress;
+        if (engine == null) {
+            this.netIn = ByteBuffer.allocate(PLAIN_BUFFER_SIZE);
+            this.netOut = EMPTY;
+            this.appIn = null;
+        } else {
+            this.netIn = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+            this.netOut = ByteBuffer.allocate(engine.getSession().getPacketBufferSize());
+            this.netOut.flip();
+            this.appIn = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize());
+        }
+    }
+
+    Route getRoute() {
+        return route;
+    }
+
+    /**
+     * Registers the connection with the selector. The given exchange is sent as soon as the
+     * connection is established.
+     */
+    void register(Selector selector, Exchange firstExchange, boolean alreadyConnected,
+                  int connectTimeoutMillis) throws IOException {
+        attach(firstExchange);
+        key = channel.register(selector, alreadyConnected ? 0 : SelectionKey.OP_CONNECT, this);
+        if (alreadyConnected) {
+            onConnected();
+            updateInterest();
+        } else if (connectTimeoutMillis > 0) {
+            connectTimer = transport.addTimer(connectTimeoutMillis, new Runnable() {
+                @Override
+                public void run() {
+                    if (!connected) {
+                        connectFailed(NioHttpTransport.connectTimeout(route));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Sends the exchange over this connection, which must be idle.
+     */
+    void send(Exchange next) {
+        attach(next);
+        if (connected && !handshaking && !runningTasks) {
+            startRequest();
+        }
+    }
+
+    /**
+     * @return True if this idle connection can be handed out again.
+     */
+    boolean isReusable(long maxIdleMillis, long timeToLiveMillis) {
+        long now = System.currentTimeMillis();
+        return !closed && channel.isOpen()
+               && (maxIdleMillis <= 0 || now - idleSince < maxIdleMillis)
+               && (timeToLiveMillis < 0 || now - createdAt < timeToLiveMillis);
+    }
+
+    void handleIo(int readyOps) {
+        try {
+            if ((readyOps & SelectionKey.OP_CONNECT) != 0) {
+                boolean finished;
+                try {
+                    finished = channel.finishConnect();
+                } catch (IOException e) {
+                    connectFailed(e);
+                    return;
+                }
+                if (finished) {
+                    onConnected();
+                }
+            }
+            if (!closed && !runningTasks && (readyOps & SelectionKey.OP_READ) != 0) {
+                onReadable();
+            }
+            if (!closed && !runningTasks && (readyOps & SelectionKey.OP_WRITE) != 0) {
+                if (handshaking) {
+                    handshake();
+                } else {
+                    flush();
+                }
+            }
+            updateInterest();
+        } catch (IOException e) {
+            close(e);
+        } catch (RuntimeException e) {
+            close(new IOException("Unexpected failure on connection to " + route.host, e));
+        }
+    }
+
+    /**
+     * Closes the connection, failing the current exchange if there is one.
+     *
+     * @param cause Failure reported to the current exchange; or null for a normal close.
+     */
+    void close(IOException cause) {
+        if (closed) {
+            return;
+        }
+        closeChannel();
+        Exchange current = exchange;
+        exchange = null;
+        decoder = null;
+        if (current != null) {
+            current.connection = null;
+            current.fail(cause != null ? cause : new IOException("Connection closed"));
+        }
+        transport.connectionClosed(this);
+    }
+
+    /**
+     * Closes the connection after it could not be opened, handing the exchange over to a
+     * connection to the next address of the host if there is one.
+     */
+    private void connectFailed(IOException cause) {
+        if (closed) {
+            return;
+        }
+        if (nextAddress >= addresses.length || exchange == null || exchange.isDone()) {
+            close(cause);
+            return;
+        }
+        closeChannel();
+        Exchange current = exchange;
+        exchange = null;
+        current.connection = null;
+        transport.connectNext(route, current, addresses, nextAddress, cause);
+    }
+
+    private void closeChannel() {
+        closed = true;
+        cancelTimer(connectTimer);
+        cancelTimer(socketTimer);
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Unable to close connection", e);
+        }
+    }
+
+    private void attach(Exchange next) {
+        exchange = next;
+        next.connection = this;
+    }
+
+    private void onConnected() throws IOException {
+        connected = true;
+        cancelTimer(connectTimer);
+        lastActivity = System.currentTimeMillis();
+        if (engine != null) {
+            engine.beginHandshake();
+            handshaking = true;
+            armSocketTimer();
+            handshake();
+        } else {
+            startRequest();
+        }
+    }
+
+    private void startRequest() {
+        if (exchange.isDone()) {
+            // Cancelled while waiting for the connection.
+            exchange.connection = null;
+            exchange = null;
+            idleSince = System.currentTimeMillis();
+            transport.release(this);
+            return;
+        }
+        HttpTransportRequest request = exchange.request;
+        decoder = new HttpResponseDecoder(request.getHttpMethod() == HttpMethodName.HEAD);
+        requestBuffer = ByteBuffer.wrap(encode(request));
+        lastActivity = System.currentTimeMillis();
+        armSocketTimer();
+        try {
+            flush();
+            updateInterest();
+        } catch (IOException e) {
+            close(e);
+        }
+    }
+
+    private void onReadable() throws IOException {
+        int read = channel.read(netIn);
+        if (read < 0) {
+            onEndOfStream();
+            return;
+        }
+        if (read == 0) {
+            return;
+        }
+        lastActivity = System.currentTimeMillis();
+        if (engine == null) {
+            netIn.flip();
+            deliver(netIn);
+            netIn.compact();
+        } else if (handshaking) {
+            handshake();
+        } else {
+            unwrap();
+        }
+    }
+
+    private void onEndOfStream() throws IOException {
+        if (engine != null) {
+            try {
+                engine.closeInbound();
+            } catch (SSLException e) {
+                log.debug("Connection closed without TLS close_notify", e);
+            }
+        }
+        if (exchange != null && decoder != null && decoder.isStarted() && decoder.endOfStream()) {
+            responseComplete(false);
+        } else {
+            close(new IOException("The target server failed to respond"));
+        }
+    }
+
+    private void unwrap() throws IOException {
+        netIn.flip();
+        try {
+            while (netIn.hasRemaining() && !closed) {
+                SSLEngineResult result = engine.unwrap(netIn, appIn);
+                if (result.getHandshakeStatus() == HandshakeStatus.NEED_TASK) {
+                    runDelegatedTasks();
+                    break;
+                }
+                if (engine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+                    // Post-handshake messages, such as a key update, need a reply.
+                    wrapHandshakeData();
+                }
+                if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                    break;
+                } else if (result.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW
+                           || !appIn.hasRemaining()) {
+                    deliverApplicationData();
+                } else if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                    deliverApplicationData();
+                    onEndOfStream();
+                    return;
+                }
+            }
+        } finally {
+            netIn.compact();
+        }
+        deliverApplicationData();
+    }
+
+    private void deliverApplicationData() throws IOException {
+        appIn.flip();
+        try {
+            deliver(appIn);
+        } finally {
+            appIn.compact();
+        }
+    }
+
+    private void deliver(ByteBuffer data) throws IOException {
+        if (!data.hasRemaining() || closed) {
+            return;
+        }
+        if (exchange == null || decoder == null) {
+            // Nothing was asked of the server; the connection is no longer usable.
+            data.position(data.limit());
+            close(null);
+            return;
+        }
+        if (decoder.decode(data)) {
+            responseComplete(decoder.isKeepAlive());
+            data.position(data.limit());
+        }
+    }
+
+    private void responseComplete(boolean reusable) {
+        Exchange completed = exchange;
+        HttpTransportResponse response = decoder.toResponse();
+        exchange = null;
+        decoder = null;
+        cancelTimer(socketTimer);
+        completed.connection = null;
+        completed.complete(response);
+        if (reusable && !requestBuffer.hasRemaining()) {
+            idleSince = System.currentTimeMillis();
+            transport.release(this);
+        } else {
+            close(null);
+        }
+    }
+
+    private void handshake() throws IOException {
+        while (true) {
+            HandshakeStatus status = engine.getHandshakeStatus();
+            if (status == HandshakeStatus.NEED_TASK) {
+                runDelegatedTasks();
+                return;
+            } else if (status == HandshakeStatus.NEED_WRAP) {
+                if (!wrapHandshakeData()) {
+                    return;
+                }
+            } else if (status == HandshakeStatus.NEED_UNWRAP) {
+                netIn.flip();
+                SSLEngineResult result;
+                try {
+                    result = engine.unwrap(netIn, appIn);
+                } finally {
+                    netIn.compact();
+                }
+                if (result.getStatus() == SSLEngineResult.Status.BUFFER_UNDERFLOW) {
+                    return;
+                }
+                if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                    throw new SSLException("TLS connection closed during handshake");
+                }
+            } else {
+                if (!writePending()) {
+                    return;
+                }
+                handshaking = false;
+                verifyHostname();
+                if (exchange != null) {
+                    startRequest();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Produces and writes the handshake data the engine needs to send.
+     *
+     * @return True if all of it was written to the socket.
+     */
+    private boolean wrapHandshakeData() throws IOException {
+        netOut.compact();
+        SSLEngineResult result;
+        try {
+            result = engine.wrap(EMPTY, netOut);
+        } finally {
+            netOut.flip();
+        }
+        if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+            throw new SSLException("TLS connection closed during handshake");
+        }
+        return writePending();
+    }
+
+    private void verifyHostname() throws SSLException {
+        if (SDKGlobalConfiguration.isCertCheckingDisabled()) {
+            return;
+        }
+        Certificate[] certificates = engine.getSession().getPeerCertificates();
+        if (certificates.length == 0 || !(certificates[0] instanceof X509Certificate)) {
+            throw new SSLPeerUnverifiedException("No X.509 certificate presented by " + route.host);
+        }
+        hostnameVerifier.verify(route.host, (X509Certificate) certificates[0]);
+    }
+
+    /**
+     * Runs the engine's delegated tasks, such as certificate validation, on the callback pool so
+     * that they don't hold up the loop. No I/O is done on the connection until they are finished,
+     * after which the handshake or the unwrapping of the data already read resumes.
+     */
+    private void runDelegatedTasks() {
+        runningTasks = true;
+        transport.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                Runnable task;
+                while ((task = engine.getDelegatedTask()) != null) {
+                    task.run();
+                }
+                transport.runOnLoop(new Runnable() {
+                    @Override
+                    public void run() {
+                        delegatedTasksDone();
+                    }
+                });
+            }
+        });
+    }
+
+    private void delegatedTasksDone() {
+        runningTasks = false;
+        if (closed) {
+            return;
+        }
+        try {
+            if (handshaking) {
+                handshake();
+            } else {
+                unwrap();
+                if (!closed && exchange != null && decoder == null) {
+                    startRequest();
+                }
+            }
+            updateInterest();
+        } catch (IOException e) {
+            close(e);
+        } catch (RuntimeException e) {
+            close(new IOException("Unexpected failure on connection to " + route.host, e));
+        }
+    }
+
+    /**
+     * Writes as much of the pending request as the socket accepts.
+     */
+    private void flush() throws IOException {
+        if (engine == null) {
+            if (requestBuffer.hasRemaining()) {
+                channel.write(requestBuffer);
+            }
+            return;
+        }
+        while (writePending() && requestBuffer.hasRemaining()) {
+            netOut.compact();
+            SSLEngineResult result;
+            try {
+                result = engine.wrap(requestBuffer, netOut);
+            } finally {
+                netOut.flip();
+            }
+            if (result.getStatus() == SSLEngineResult.Status.CLOSED) {
+                throw new SSLException("TLS connection closed while sending request");
+            }
+        }
+    }
+
+    /**
+     * @return True if all encrypted bytes have been written to the socket.
+     */
+    private boolean writePending() throws IOException {
+        if (netOut.hasRemaining()) {
+            channel.write(netOut);
+        }
+        return !netOut.hasRemaining();
+    }
+
+    private void updateInterest() {
+        if (closed || !key.isValid()) {
+            return;
+        }
+        if (!connected) {
+            key.interestOps(SelectionKey.OP_CONNECT);
+            return;
+        }
+        if (runningTasks) {
+            key.interestOps(0);
+            return;
+        }
+        int ops = SelectionKey.OP_READ;
+        if (requestBuffer.hasRemaining() || netOut.hasRemaining()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(ops);
+    }
+
+    private void armSocketTimer() {
+        cancelTimer(socketTimer);
+        socketTimer = null;
+        final int socketTimeout = transport.getSettings().getSocketTimeout();
+        if (socketTimeout > 0) {
+            scheduleSocketTimer(socketTimeout, socketTimeout);
+        }
+    }
+
+    private void scheduleSocketTimer(long delay, final int socketTimeout) {
+        socketTimer = transport.addTimer(delay, new Runnable() {
+            @Override
+            public void run() {
+                if (closed || (exchange == null && !handshaking)) {
+                    return;
+                }
+                long idle = System.currentTimeMillis() - lastActivity;
+                if (idle >= socketTimeout) {
+                    close(new SocketTimeoutException("Read timed out"));
+                } else {
+                    scheduleSocketTimer(socketTimeout - idle, socketTimeout);
+                }
+            }
+        });
+    }
+
+    private static void cancelTimer(LoopTimer timer) {
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
+    /**
+     * Serializes the request line, headers and payload.
+     */
+    private byte[] encode(HttpTransportRequest request) {
+        URI uri = request.getUri();
+        byte[] content = request.getContent();
+        StringBuilder head = new StringBuilder(256);
+        String path = uri.getRawPath();
+        head.append(request.getHttpMethod().name()).append(' ')
+            .append(path == null || path.length() == 0 ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            head.append('?').append(uri.getRawQuery());
+        }
+        head.append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(uri.getHost());
+        if (uri.getPort() != -1 && uri.getPort() != (route.secure ? 443 : 80)) {
+            head.append(':').append(uri.getPort());
+        }
+        head.append("\r\n");
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            if ("Host".equalsIgnoreCase(header.getKey())
+                || "Content-Length".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        if (content != null || request.getHttpMethod() == HttpMethodName.POST
+            || request.getHttpMethod() == HttpMethodName.PUT) {
+            head.append("Content-Length: ").append(content == null ? 0 : content.length).append("\r\n");
+        }
+        head.append("\r\n");
+        byte[] headBytes = head.toString().getBytes(StringUtils.UTF8);
+        if (content == null || content.length == 0) {
+            return headBytes;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(headBytes.length + content.length);
+        out.write(headBytes, 0, headBytes.length);
+        out.write(content, 0, content.length);
+        return out.toByteArray();
+    }
+}
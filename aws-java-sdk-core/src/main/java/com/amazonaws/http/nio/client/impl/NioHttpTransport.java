@@ -0,0 +1,750 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.net.URI;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.X509HostnameVerifier;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.annotation.ThreadSafe;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.Cancellable;
+import com.amazonaws.http.client.HttpTransportCallback;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.client.HttpTransportResponse;
+import com.amazonaws.http.settings.HttpClientSettings;
+import com.amazonaws.internal.SdkSSLContext;
+
+/**
+ * {@link AsyncHttpTransport} implemented on top of a single NIO selector loop. All socket I/O,
+ * TLS record processing and connection pooling happen on the loop thread; completed exchanges,
+ * scheduled tasks and the delegated tasks of a TLS handshake are handed to a small, fixed size
+ * callback pool so that the number of threads does not grow with the number of requests in
+ * flight. Host names are resolved on a separate pool whose threads are only started while a
+ * connection is being opened, so that a slow resolver holds up neither the loop nor the
+ * callbacks.
+ */
+@SdkInternalApi
+@ThreadSafe
+class NioHttpTransport implements AsyncHttpTransport {
+
+    private static final Log log = LogFactory.getLog(NioHttpTransport.class);
+
+    private static final AtomicInteger TRANSPORT_COUNT = new AtomicInteger();
+
+    private final HttpClientSettings settings;
+    private final Selector selector;
+    private final Thread loopThread;
+    private final ExecutorService callbackExecutor;
+    private final ExecutorService resolverExecutor;
+    private final SSLContext sslContext;
+    private final X509HostnameVerifier hostnameVerifier;
+
+    /** Work submitted from other threads, drained by the loop thread. */
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<Runnable>();
+
+    /** Timers ordered by deadline; only accessed by the loop thread. */
+    private final PriorityQueue<LoopTimer> timers = new PriorityQueue<LoopTimer>();
+
+    /** Cancelled timers still in the queue; only accessed by the loop thread. */
+    private int cancelledTimers;
+
+    /** Connection pools keyed by scheme, host and port; only accessed by the loop thread. */
+    private final Map<String, Route> routes = new HashMap<String, Route>();
+
+    private volatile boolean running = true;
+
+    /** Set once the loop has closed everything; tasks submitted afterwards run on the caller. */
+    private volatile boolean loopClosed;
+
+    private long timerSequence;
+
+    NioHttpTransport(HttpClientSettings settings) throws IOException {
+        this.settings = settings;
+        this.selector = Selector.open();
+        this.sslContext = SdkSSLContext.getPreferredSSLContext(settings.getSecureRandom());
+        this.hostnameVerifier = settings.useBrowserCompatibleHostNameVerifier()
+                ? SSLConnectionSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER
+                : SSLConnectionSocketFactory.STRICT_HOSTNAME_VERIFIER;
+        final int id = TRANSPORT_COUNT.incrementAndGet();
+        this.callbackExecutor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                daemonThreadFactory("aws-sdk-nio-" + id + "-callback-"));
+        this.resolverExecutor = Executors.newCachedThreadPool(
+                daemonThreadFactory("aws-sdk-nio-" + id + "-resolver-"));
+        this.loopThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runLoop();
+            }
+        }, "aws-sdk-nio-" + id + "-event-loop");
+        this.loopThread.setDaemon(true);
+        this.loopThread.start();
+    }
+
+    @Override
+    public Cancellable execute(HttpTransportRequest request, HttpTransportCallback callback) {
+        final Exchange exchange = new Exchange(request, callback);
+        if (!running) {
+            exchange.fail(shutdownException());
+            return exchange;
+        }
+        runOnLoop(new Runnable() {
+            @Override
+            public void run() {
+                lease(exchange);
+            }
+        });
+        return exchange;
+    }
+
+    @Override
+    public Cancellable schedule(final Runnable task, final long delayMillis) {
+        final LoopTimer timer = new LoopTimer(delayMillis, new Runnable() {
+            @Override
+            public void run() {
+                callbackExecutor.execute(task);
+            }
+        });
+        runOnLoop(new Runnable() {
+            @Override
+            public void run() {
+                addTimer(timer);
+            }
+        });
+        return timer;
+    }
+
+    @Override
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        callbackExecutor.shutdown();
+        resolverExecutor.shutdown();
+    }
+
+    HttpClientSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Runs the given task on the loop thread, waking the selector if needed.
+     */
+    void runOnLoop(Runnable task) {
+        if (Thread.currentThread() == loopThread) {
+            task.run();
+        } else {
+            pendingTasks.add(task);
+            if (loopClosed) {
+                // No loop left to run it, e.g. a host resolved after shutdown.
+                runPendingTasks();
+            } else {
+                selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * Arms a timer that runs on the loop thread. Must be called on the loop thread.
+     */
+    LoopTimer addTimer(long delayMillis, Runnable task) {
+        LoopTimer timer = new LoopTimer(delayMillis, task);
+        addTimer(timer);
+        return timer;
+    }
+
+    private void addTimer(LoopTimer timer) {
+        if (!timer.cancelled) {
+            timer.sequence = timerSequence++;
+            timer.queued = true;
+            timers.add(timer);
+        }
+    }
+
+    /**
+     * Accounts for a timer cancelled while in the queue, purging the cancelled timers once they
+     * make up half of it, so that timers which are re-armed for every exchange, such as the socket
+     * timeout, don't pile up until their deadline. Runs on the loop thread.
+     */
+    private void timerCancelled(LoopTimer timer) {
+        if (!timer.queued) {
+            return;
+        }
+        if (++cancelledTimers > timers.size() / 2) {
+            Iterator<LoopTimer> it = timers.iterator();
+            while (it.hasNext()) {
+                LoopTimer queued = it.next();
+                if (queued.cancelled) {
+                    queued.queued = false;
+                    it.remove();
+                }
+            }
+            cancelledTimers = 0;
+        }
+    }
+
+    private LoopTimer pollTimer() {
+        LoopTimer timer = timers.poll();
+        timer.queued = false;
+        if (timer.cancelled && cancelledTimers > 0) {
+            cancelledTimers--;
+        }
+        return timer;
+    }
+
+    /**
+     * Hands the outcome of an exchange to the callback pool.
+     */
+    void dispatch(Runnable completion) {
+        try {
+            callbackExecutor.execute(completion);
+        } catch (RuntimeException e) {
+            // The callback pool has been shut down; complete on the current thread instead.
+            completion.run();
+        }
+    }
+
+    private void runLoop() {
+        try {
+            while (running) {
+                long timeout = runDueTimers();
+                if (pendingTasks.isEmpty()) {
+                    selector.select(timeout);
+                } else {
+                    selector.selectNow();
+                }
+                processSelectedKeys();
+                runPendingTasks();
+            }
+        } catch (ClosedSelectorException e) {
+            log.debug("Selector closed", e);
+        } catch (IOException e) {
+            log.error("NIO HTTP transport event loop failed", e);
+        } catch (RuntimeException e) {
+            log.error("NIO HTTP transport event loop failed", e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Runs all timers that are due.
+     *
+     * @return Milliseconds until the next timer is due, or 0 to block until woken up.
+     */
+    private long runDueTimers() {
+        while (!timers.isEmpty()) {
+            LoopTimer next = timers.peek();
+            if (next.cancelled) {
+                pollTimer();
+                continue;
+            }
+            long remainingNanos = next.deadline - System.nanoTime();
+            if (remainingNanos > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+            }
+            pollTimer();
+            try {
+                next.task.run();
+            } catch (RuntimeException e) {
+                log.warn("Timer task failed", e);
+            }
+        }
+        return 0;
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            NioHttpConnection connection = (NioHttpConnection) key.attachment();
+            if (!key.isValid()) {
+                connection.close(new IOException("Connection closed"));
+                continue;
+            }
+            connection.handleIo(key.readyOps());
+        }
+    }
+
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Event loop task failed", e);
+            }
+        }
+    }
+
+    private void closeAll() {
+        IOException shutdown = shutdownException();
+        runPendingTasks();
+        for (SelectionKey key : new ArrayList<SelectionKey>(selector.keys())) {
+            ((NioHttpConnection) key.attachment()).close(shutdown);
+        }
+        for (Route route : routes.values()) {
+            Exchange waiting;
+            while ((waiting = route.waiting.poll()) != null) {
+                waiting.fail(shutdown);
+            }
+        }
+        routes.clear();
+        timers.clear();
+        cancelledTimers = 0;
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.debug("Unable to close selector", e);
+        }
+        loopClosed = true;
+        runPendingTasks();
+    }
+
+    /**
+     * Assigns a connection to the exchange, reusing an idle one when possible. Runs on the loop
+     * thread.
+     */
+    private void lease(final Exchange exchange) {
+        if (exchange.isDone()) {
+            return;
+        }
+        final Route route = route(exchange.request.getUri());
+        NioHttpConnection idle;
+        while ((idle = route.idle.pollLast()) != null) {
+            if (idle.isReusable(settings.getMaxIdleConnectionTime(), settings.getConnectionPoolTTL())) {
+                idle.send(exchange);
+                return;
+            }
+            idle.close(null);
+        }
+        if (route.open < settings.getMaxConnections()) {
+            connect(route, exchange);
+            return;
+        }
+        route.waiting.add(exchange);
+        int poolTimeout = settings.getConnectionPoolRequestTimeout();
+        if (poolTimeout > 0) {
+            exchange.poolTimer = addTimer(poolTimeout, new Runnable() {
+                @Override
+                public void run() {
+                    if (route.waiting.remove(exchange)) {
+                        exchange.fail(new ConnectionPoolTimeoutException(
+                                "Timeout waiting for connection from pool"));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Resolves the host of the route on the resolver pool, since the resolver may block, then
+     * connects to its addresses on the loop thread.
+     */
+    private void connect(final Route route, final Exchange exchange) {
+        route.open++;
+        Runnable resolve = new Runnable() {
+            @Override
+            public void run() {
+                final InetAddress[] addresses;
+                try {
+                    addresses = settings.getDnsResolver().resolve(route.host);
+                    if (addresses == null || addresses.length == 0) {
+                        throw new UnknownHostException("Unable to resolve host " + route.host);
+                    }
+                } catch (final IOException e) {
+                    runOnLoop(new Runnable() {
+                        @Override
+                        public void run() {
+                            connectFailed(route, exchange, e);
+                        }
+                    });
+                    return;
+                } catch (final RuntimeException e) {
+                    runOnLoop(new Runnable() {
+                        @Override
+                        public void run() {
+                            connectFailed(route, exchange,
+                                          new IOException("Unable to resolve host " + route.host, e));
+                        }
+                    });
+                    return;
+                }
+                runOnLoop(new Runnable() {
+                    @Override
+                    public void run() {
+                        connect(route, exchange, addresses, 0);
+                    }
+                });
+            }
+        };
+        try {
+            resolverExecutor.execute(resolve);
+        } catch (RejectedExecutionException e) {
+            connectFailed(route, exchange, shutdownException());
+        }
+    }
+
+    /**
+     * Connects to the address of the route at the given index, falling back to the addresses after
+     * it when the connection can't be opened. The route already accounts for the connection. Runs
+     * on the loop thread.
+     */
+    void connect(Route route, Exchange exchange, InetAddress[] addresses, int index) {
+        if (!running) {
+            connectFailed(route, exchange, shutdownException());
+            return;
+        }
+        if (exchange.isDone()) {
+            // Aborted while the host was being resolved.
+            connectFailed(route, exchange, null);
+            return;
+        }
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            configure(channel);
+            SSLEngine engine = null;
+            if (route.secure) {
+                engine = sslContext.createSSLEngine(route.host, route.port);
+                engine.setUseClientMode(true);
+            }
+            NioHttpConnection connection = new NioHttpConnection(this, route, channel, engine,
+                                                                 hostnameVerifier, addresses, index + 1);
+            boolean connected = channel.connect(new InetSocketAddress(addresses[index], route.port));
+            connection.register(selector, exchange, connected, settings.getConnectionTimeout());
+        } catch (IOException e) {
+            closeQuietly(channel);
+            connectNext(route, exchange, addresses, index + 1, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            connectNext(route, exchange, addresses, index + 1,
+                        new IOException("Unable to open connection to " + route.host, e));
+        }
+    }
+
+    /**
+     * Connects to the next address of the route after a connection attempt failed, or fails the
+     * exchange if there is none left.
+     */
+    void connectNext(Route route, Exchange exchange, InetAddress[] addresses, int index,
+                     IOException cause) {
+        if (index < addresses.length) {
+            log.debug("Unable to connect to " + addresses[index - 1] + ", trying " + addresses[index], cause);
+            connect(route, exchange, addresses, index);
+        } else {
+            connectFailed(route, exchange, cause);
+        }
+    }
+
+    /**
+     * Gives up the connection the route accounted for, failing the exchange with the given cause
+     * unless it is null.
+     */
+    private void connectFailed(Route route, Exchange exchange, IOException cause) {
+        route.open--;
+        if (cause != null) {
+            exchange.fail(cause);
+        }
+        leaseNextWaiting(route);
+    }
+
+    private void configure(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        channel.socket().setKeepAlive(settings.useTcpKeepAlive());
+        int[] bufferSizes = settings.getSocketBufferSize();
+        if (bufferSizes[0] > 0) {
+            channel.socket().setSendBufferSize(bufferSizes[0]);
+        }
+        if (bufferSizes[1] > 0) {
+            channel.socket().setReceiveBufferSize(bufferSizes[1]);
+        }
+        if (settings.getLocalAddress() != null) {
+            channel.socket().bind(new InetSocketAddress(settings.getLocalAddress(), 0));
+        }
+    }
+
+    /**
+     * Returns a connection to its pool once an exchange completed on it.
+     */
+    void release(NioHttpConnection connection) {
+        Route route = connection.getRoute();
+        Exchange next = pollWaiting(route);
+        if (next != null) {
+            connection.send(next);
+        } else {
+            route.idle.addLast(connection);
+        }
+    }
+
+    /**
+     * Accounts for a closed connection and starts a waiting exchange if there is one.
+     */
+    void connectionClosed(NioHttpConnection connection) {
+        Route route = connection.getRoute();
+        route.idle.remove(connection);
+        route.open--;
+        leaseNextWaiting(route);
+    }
+
+    private void leaseNextWaiting(Route route) {
+        if (!running) {
+            return;
+        }
+        Exchange next = pollWaiting(route);
+        if (next != null) {
+            lease(next);
+        }
+    }
+
+    private Exchange pollWaiting(Route route) {
+        Exchange next;
+        while ((next = route.waiting.poll()) != null) {
+            next.cancelPoolTimer();
+            if (!next.isDone()) {
+                return next;
+            }
+        }
+        return null;
+    }
+
+    private Route route(URI uri) {
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : (secure ? 443 : 80);
+        String key = (secure ? "https://" : "http://") + uri.getHost() + ":" + port;
+        Route route = routes.get(key);
+        if (route == null) {
+            route = new Route(uri.getHost(), port, secure);
+            routes.put(key, route);
+        }
+        return route;
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Unable to close channel", e);
+            }
+        }
+    }
+
+    /**
+     * Connection pool state for one remote endpoint.
+     */
+    static final class Route {
+        final String host;
+        final int port;
+        final boolean secure;
+        final ArrayDeque<NioHttpConnection> idle = new ArrayDeque<NioHttpConnection>();
+        final ArrayDeque<Exchange> waiting = new ArrayDeque<Exchange>();
+        int open;
+
+        Route(String host, int port, boolean secure) {
+            this.host = host;
+            this.port = port;
+            this.secure = secure;
+        }
+    }
+
+    /**
+     * A timer run by the loop thread.
+     */
+    final class LoopTimer implements Comparable<LoopTimer>, Cancellable {
+        final long deadline;
+        final Runnable task;
+        long sequence;
+        boolean queued;
+        volatile boolean cancelled;
+
+        LoopTimer(long delayMillis, Runnable task) {
+            this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+            this.task = task;
+        }
+
+        /**
+         * Cancels the timer. When called off the loop thread, the timer is accounted for the next
+         * time the loop wakes up, without waking it up just for that.
+         */
+        @Override
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (Thread.currentThread() == loopThread) {
+                timerCancelled(this);
+            } else {
+                pendingTasks.add(new Runnable() {
+                    @Override
+                    public void run() {
+                        timerCancelled(LoopTimer.this);
+                    }
+                });
+            }
+        }
+
+        @Override
+        public int compareTo(LoopTimer other) {
+            long diff = deadline - other.deadline;
+            if (diff != 0) {
+                return diff < 0 ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+        }
+    }
+
+    /**
+     * One request/response exchange. Guarantees the callback is notified exactly once.
+     */
+    final class Exchange implements Cancellable {
+        final HttpTransportRequest request;
+        private final HttpTransportCallback callback;
+        private final AtomicBoolean done = new AtomicBoolean();
+        volatile NioHttpConnection connection;
+        LoopTimer poolTimer;
+
+        Exchange(HttpTransportRequest request, HttpTransportCallback callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+
+        boolean isDone() {
+            return done.get();
+        }
+
+        void complete(final HttpTransportResponse response) {
+            if (done.compareAndSet(false, true)) {
+                dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.completed(response);
+                    }
+                });
+            }
+        }
+
+        void fail(final IOException cause) {
+            if (done.compareAndSet(false, true)) {
+                dispatch(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.failed(cause);
+                    }
+                });
+            }
+        }
+
+        void cancelPoolTimer() {
+            if (poolTimer != null) {
+                poolTimer.cancel();
+                poolTimer = null;
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (done.get()) {
+                return;
+            }
+            runOnLoop(new Runnable() {
+                @Override
+                public void run() {
+                    IOException aborted = new InterruptedIOException("Request aborted");
+                    NioHttpConnection current = connection;
+                    if (current != null) {
+                        // The connection is in an unknown state mid exchange and can't be reused.
+                        current.close(aborted);
+                    } else {
+                        fail(aborted);
+                    }
+                }
+            });
+        }
+    }
+
+    private static IOException shutdownException() {
+        return new InterruptedIOException("The HTTP transport has been shut down");
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String namePrefix) {
+        return new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+     * Creates the exception reported when a connection attempt times out.
+     */
+    static IOException connectTimeout(Route route) {
+        return new ConnectTimeoutException("Connect to " + route.host + ":" + route.port + " timed out");
+    }
+
+    /**
+     * Validates that the transport can honour the given settings.
+     */
+    static void validate(HttpClientSettings settings) {
+        if (settings.getProxyHost() != null && settings.getProxyPort() > 0) {
+            throw new SdkClientException("The NIO HTTP transport does not support proxies");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import java.io.IOException;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.HttpClientFactory;
+import com.amazonaws.http.settings.HttpClientSettings;
+
+/**
+ * Factory class that builds the NIO based, non-blocking {@link AsyncHttpTransport} from the
+ * settings. Each transport runs a single event loop thread and a callback pool sized to the number
+ * of available processors, regardless of how many requests are in flight; host names are resolved
+ * on short-lived threads while connections are being opened.
+ */
+public class NioHttpTransportFactory implements HttpClientFactory<AsyncHttpTransport> {
+
+    @Override
+    public AsyncHttpTransport create(HttpClientSettings settings) {
+        NioHttpTransport.validate(settings);
+        try {
+            return new NioHttpTransport(settings);
+        } catch (IOException e) {
+            throw new SdkClientException("Unable to create the NIO HTTP transport", e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.request.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.amazonaws.Request;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.request.HttpRequestFactory;
+import com.amazonaws.http.settings.HttpClientSettings;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.SdkHttpUtils;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Responsible for creating {@link HttpTransportRequest} objects for the non-blocking transport.
+ * Follows the same URI, parameter and header rules as the Apache request factory; the request
+ * content is read into memory so it can be written without blocking.
+ */
+public class NioHttpRequestFactory implements HttpRequestFactory<HttpTransportRequest> {
+
+    private static final String DEFAULT_CONTENT_TYPE =
+            "application/x-www-form-urlencoded; charset=utf-8";
+
+    @Override
+    public HttpTransportRequest create(final Request<?> request,
+                                       final HttpClientSettings settings) throws IOException {
+        String uri = SdkHttpUtils.appendUri(request.getEndpoint().toString(),
+                                            request.getResourcePath(), true);
+        String encodedParams = SdkHttpUtils.encodeParameters(request);
+
+        /*
+         * For all non-POST requests, and any POST requests that already have a
+         * payload, we put the encoded params directly in the URI, otherwise,
+         * we'll put them in the POST request's payload.
+         */
+        boolean requestHasPayload = request.getContent() != null;
+        boolean requestIsPost = request.getHttpMethod() == HttpMethodName.POST;
+        boolean putParamsInUri = !requestIsPost || requestHasPayload;
+        if (encodedParams != null && putParamsInUri) {
+            uri += "?" + encodedParams;
+        }
+
+        byte[] content = null;
+        if (requestHasPayload) {
+            content = readContent(request.getContent());
+        } else if (requestIsPost && encodedParams != null) {
+            content = encodedParams.getBytes(StringUtils.UTF8);
+        }
+
+        Map<String, String> headers = new LinkedHashMap<String, String>(request.getHeaders());
+        if (!containsHeader(headers, "Content-Type")) {
+            headers.put("Content-Type", DEFAULT_CONTENT_TYPE);
+        }
+        if (settings.useGzip() && !containsHeader(headers, "Accept-Encoding")) {
+            headers.put("Accept-Encoding", "gzip");
+        }
+        return new HttpTransportRequest(request.getHttpMethod(), URI.create(uri), headers, content);
+    }
+
+    /**
+     * Reads the remaining content without closing the stream, so that it can be reset and read
+     * again on retry.
+     */
+    private byte[] readContent(InputStream content) throws IOException {
+        if (content.markSupported()) {
+            content.mark(Integer.MAX_VALUE);
+        }
+        byte[] bytes = IOUtils.toByteArray(content);
+        if (content.markSupported()) {
+            content.reset();
+        }
+        return bytes;
+    }
+
+    private boolean containsHeader(Map<String, String> headers, String name) {
+        for (String header : headers.keySet()) {
+            if (header.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.timers;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.annotation.SdkTestInternalApi;
+import com.amazonaws.annotation.ThreadSafe;
+
+/**
+ * A hashed-wheel timer for the request timeout and client execution timeout features. Scheduling
+ * and cancelling a timeout are O(1): callers only enqueue the timeout, and a single worker thread
+ * moves it into a wheel bucket and fires it when its tick comes around. Timeouts fire up to one
+ * tick late, which is acceptable for aborting requests that run for hundreds of milliseconds or
+ * more.
+ * <p>
+ * A single instance, {@link #getSharedTimer()}, is shared by every client in the process. The
+ * worker thread is started on demand and exits after being idle for the keep alive time, so an
+ * application that does not use timeouts never starts it. The worker only hands expired tasks to
+ * an executor, so a task that blocks, such as aborting an HTTP request, does not delay the
+ * timeouts of other clients.
+ */
+@SdkInternalApi
+@ThreadSafe
+public class HashedWheelTimer {
+
+    private static final Log log = LogFactory.getLog(HashedWheelTimer.class);
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int DEFAULT_TICKS_PER_WHEEL = 512;
+    private static final long DEFAULT_KEEP_ALIVE_MILLIS = 5000;
+
+    private static final HashedWheelTimer SHARED_TIMER = new HashedWheelTimer(
+            "aws-sdk-timeout-timer", DEFAULT_TICK_MILLIS, DEFAULT_TICKS_PER_WHEEL,
+            DEFAULT_KEEP_ALIVE_MILLIS);
+
+    private final String threadName;
+    private final long tickNanos;
+    private final long keepAliveMillis;
+    private final Executor taskExecutor;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final AtomicInteger pendingTimeouts = new AtomicInteger();
+    private final AtomicLong expiredTimeouts = new AtomicLong();
+    private final AtomicBoolean workerRunning = new AtomicBoolean();
+
+    /**
+     * Creates a timer which runs expired tasks on a pool of its own. The pool starts threads on
+     * demand and lets them go after being idle for the keep alive time.
+     *
+     * @param threadName      Name of the worker thread.
+     * @param tickMillis      Duration of one tick of the wheel; the resolution of the timer.
+     * @param ticksPerWheel   Number of buckets in the wheel, rounded up to a power of two.
+     * @param keepAliveMillis How long the worker thread stays alive without pending timeouts.
+     */
+    public HashedWheelTimer(String threadName, long tickMillis, int ticksPerWheel, long keepAliveMillis) {
+        this(threadName, tickMillis, ticksPerWheel, keepAliveMillis,
+             newTaskExecutor(threadName + "-task", keepAliveMillis));
+    }
+
+    /**
+     * @param threadName      Name of the worker thread.
+     * @param tickMillis      Duration of one tick of the wheel; the resolution of the timer.
+     * @param ticksPerWheel   Number of buckets in the wheel, rounded up to a power of two.
+     * @param keepAliveMillis How long the worker thread stays alive without pending timeouts.
+     * @param taskExecutor    Executor that runs the tasks of expired timeouts.
+     */
+    public HashedWheelTimer(String threadName, long tickMillis, int ticksPerWheel, long keepAliveMillis,
+                            Executor taskExecutor) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("ticksPerWheel must be between 1 and 2^30");
+        }
+        this.threadName = threadName;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.keepAliveMillis = keepAliveMillis;
+        this.taskExecutor = taskExecutor;
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return The timer shared by all clients in this process.
+     */
+    public static HashedWheelTimer getSharedTimer() {
+        return SHARED_TIMER;
+    }
+
+    /**
+     * Schedules the task to run once after the given delay.
+     *
+     * @param task        Task to run on the timer thread.
+     * @param delayMillis Delay in milliseconds.
+     * @return Handle to cancel the timeout.
+     */
+    public Timeout newTimeout(Runnable task, long delayMillis) {
+        Timeout timeout = new Timeout(this, task,
+                                      System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        pendingTimeouts.incrementAndGet();
+        newTimeouts.add(timeout);
+        if (!workerRunning.get() && workerRunning.compareAndSet(false, true)) {
+            startWorker();
+        }
+        return timeout;
+    }
+
+    /**
+     * @return Number of timeouts that have been scheduled but have neither expired nor been
+     * cancelled.
+     */
+    public int pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * @return Number of timeouts whose task has been run since the timer was created.
+     */
+    @SdkTestInternalApi
+    public long expiredTimeouts() {
+        return expiredTimeouts.get();
+    }
+
+    /**
+     * @return True if the worker thread is currently running.
+     */
+    @SdkTestInternalApi
+    public boolean isWorkerRunning() {
+        return workerRunning.get();
+    }
+
+    /**
+     * @return How long the worker thread stays alive without pending timeouts.
+     */
+    @SdkTestInternalApi
+    public long getKeepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    /**
+     * Returns an unbounded pool of daemon threads, so that a task which blocks never holds up the
+     * ones expiring after it.
+     */
+    private static Executor newTaskExecutor(final String threadName, long keepAliveMillis) {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, keepAliveMillis, TimeUnit.MILLISECONDS,
+                                      new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    private void startWorker() {
+        Thread thread = new Thread(new Worker(), threadName);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Drives the wheel. Only the worker thread touches the buckets.
+     */
+    private class Worker implements Runnable {
+        private long startNanos;
+        private long tick;
+
+        @Override
+        public void run() {
+            startNanos = System.nanoTime();
+            tick = 0;
+            long idleSince = startNanos;
+            while (true) {
+                long now = waitForNextTick();
+                removeCancelledTimeouts();
+                transferNewTimeouts();
+                expireTimeouts(wheel[(int) (tick & mask)], now);
+                tick++;
+
+                if (pendingTimeouts.get() > 0) {
+                    idleSince = now;
+                } else if (now - idleSince >= TimeUnit.MILLISECONDS.toNanos(keepAliveMillis)) {
+                    removeCancelledTimeouts();
+                    transferNewTimeouts();
+                    workerRunning.set(false);
+                    // A timeout may have been scheduled after the check above but before the
+                    // worker was marked stopped; whoever flips the flag back owns the wheel.
+                    if (pendingTimeouts.get() == 0 || !workerRunning.compareAndSet(false, true)) {
+                        return;
+                    }
+                    idleSince = now;
+                }
+            }
+        }
+
+        private long waitForNextTick() {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            while (true) {
+                long now = System.nanoTime();
+                long sleepMillis = TimeUnit.NANOSECONDS.toMillis(deadline - now + 999999);
+                if (sleepMillis <= 0) {
+                    return now;
+                }
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException ignored) {
+                    // The worker is a daemon that is never interrupted by the SDK; keep ticking.
+                }
+            }
+        }
+
+        private void transferNewTimeouts() {
+            Timeout timeout;
+            while ((timeout = newTimeouts.poll()) != null) {
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                long calculated = (timeout.deadlineNanos - startNanos) / tickNanos;
+                timeout.remainingRounds = (calculated - tick) / wheel.length;
+                long ticks = Math.max(calculated, tick);
+                Bucket bucket = wheel[(int) (ticks & mask)];
+                bucket.add(timeout);
+                timeout.inWheel = true;
+                if (timeout.isCancelled()) {
+                    // Cancelled concurrently and may not have been queued for removal
+                    bucket.remove(timeout);
+                }
+            }
+        }
+
+        private void removeCancelledTimeouts() {
+            Timeout timeout;
+            while ((timeout = cancelledTimeouts.poll()) != null) {
+                if (timeout.bucket != null) {
+                    timeout.bucket.remove(timeout);
+                }
+            }
+        }
+
+        private void expireTimeouts(Bucket bucket, long now) {
+            Timeout timeout = bucket.head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    bucket.remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadlineNanos - now <= 0) {
+                    bucket.remove(timeout);
+                    timeout.expire();
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts that hash to the same tick.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * Handle to a scheduled task.
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadlineNanos;
+        private volatile int state = ST_INIT;
+        private volatile boolean inWheel;
+
+        // Owned by the worker thread
+        private long remainingRounds;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadlineNanos) {
+            this.timer = timer;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancels the timeout so that its task is never run. Has no effect if the task has
+         * already been run.
+         *
+         * @return True if this call cancelled the timeout.
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.pendingTimeouts.decrementAndGet();
+            // Most timeouts are cancelled before the worker picks them up, in which case the
+            // worker simply drops them and there is nothing to remove from the wheel.
+            if (inWheel) {
+                timer.cancelledTimeouts.add(this);
+            }
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pendingTimeouts.decrementAndGet();
+            timer.expiredTimeouts.incrementAndGet();
+            Runnable safeTask = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        log.warn("Timeout task threw an exception", t);
+                    }
+                }
+            };
+            try {
+                timer.taskExecutor.execute(safeTask);
+            } catch (RejectedExecutionException e) {
+                log.warn("Timeout task rejected by the executor, running it on the timer thread", e);
+                safeTask.run();
+            }
+        }
+    }
+}
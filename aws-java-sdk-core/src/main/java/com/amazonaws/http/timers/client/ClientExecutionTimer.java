@@ -14,15 +14,13 @@
  */
 package com.amazonaws.http.timers.client;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.amazonaws.annotation.SdkInternalApi;
 import com.amazonaws.annotation.SdkTestInternalApi;
 import com.amazonaws.annotation.ThreadSafe;
 import com.amazonaws.http.AmazonHttpClient;
-import com.amazonaws.http.timers.TimeoutThreadPoolBuilder;
+import com.amazonaws.http.timers.HashedWheelTimer;
 
 /**
  * Represents a timer to enforce a timeout on the total client execution time. That is the time
@@ -33,7 +31,18 @@ import com.amazonaws.http.timers.TimeoutThreadPoolBuilder;
 @ThreadSafe
 public class ClientExecutionTimer {
 
-    private volatile ScheduledThreadPoolExecutor executor;
+    private final HashedWheelTimer timer;
+
+    private final AtomicLong triggeredTasks = new AtomicLong();
+
+    public ClientExecutionTimer() {
+        this(HashedWheelTimer.getSharedTimer());
+    }
+
+    @SdkTestInternalApi
+    ClientExecutionTimer(HashedWheelTimer timer) {
+        this.timer = timer;
+    }
 
     /**
      * Start the timer with the specified timeout and return a object that can be used to track the
@@ -48,46 +57,40 @@ public class ClientExecutionTimer {
     public ClientExecutionAbortTrackerTask startTimer(int clientExecutionTimeoutMillis) {
         if (isTimeoutDisabled(clientExecutionTimeoutMillis)) {
             return NoOpClientExecutionAbortTrackerTask.INSTANCE;
-        } else if (executor == null) {
-            initializeExecutor();
         }
         return scheduleTimerTask(clientExecutionTimeoutMillis);
     }
 
-    /**
-     * Executor is lazily initialized as it's not compatible with Java 6
-     */
-    private synchronized void initializeExecutor() {
-        if (executor == null) {
-            executor = TimeoutThreadPoolBuilder.buildDefaultTimeoutThreadPool();
-        }
-    }
-
     /**
      * This method is current exposed for testing purposes
-     * 
-     * @return The underlying {@link ScheduledThreadPoolExecutor}
+     *
+     * @return The underlying {@link HashedWheelTimer}
      */
     @SdkTestInternalApi
-    public ScheduledThreadPoolExecutor getExecutor() {
-        return this.executor;
+    public HashedWheelTimer getTimer() {
+        return this.timer;
     }
 
     /**
-     * Shutdown the underlying {@link ScheduledThreadPoolExecutor}. Should be invoked when
-     * {@link AmazonHttpClient} is shutdown
+     * This method is current exposed for testing purposes
+     *
+     * @return Number of timer tasks scheduled by this timer that have been triggered
      */
-    public synchronized void shutdown() {
-        if (executor != null) {
-            executor.shutdown();
-        }
+    @SdkTestInternalApi
+    public long getTriggeredTaskCount() {
+        return triggeredTasks.get();
     }
 
     private ClientExecutionAbortTrackerTask scheduleTimerTask(int clientExecutionTimeoutMillis) {
-        ClientExecutionAbortTask timerTask = new ClientExecutionAbortTaskImpl(Thread.currentThread());
-        ScheduledFuture<?> timerTaskFuture = executor.schedule(timerTask, clientExecutionTimeoutMillis,
-                TimeUnit.MILLISECONDS);
-        return new ClientExecutionAbortTrackerTaskImpl(timerTask, timerTaskFuture);
+        ClientExecutionAbortTask timerTask = new ClientExecutionAbortTaskImpl(Thread.currentThread()) {
+            @Override
+            public void run() {
+                triggeredTasks.incrementAndGet();
+                super.run();
+            }
+        };
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(timerTask, clientExecutionTimeoutMillis);
+        return new ClientExecutionAbortTrackerTaskImpl(timerTask, timeout);
     }
 
     private boolean isTimeoutDisabled(int clientExecutionTimeoutMillis) {
@@ -14,16 +14,14 @@
  */
 package com.amazonaws.http.timers.request;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.http.client.methods.HttpRequestBase;
 
 import com.amazonaws.annotation.SdkInternalApi;
 import com.amazonaws.annotation.SdkTestInternalApi;
 import com.amazonaws.annotation.ThreadSafe;
-import com.amazonaws.http.timers.TimeoutThreadPoolBuilder;
+import com.amazonaws.http.timers.HashedWheelTimer;
 
 /**
  * Represents a timer class to enforce HTTP request timeouts.
@@ -32,7 +30,18 @@ import com.amazonaws.http.timers.TimeoutThreadPoolBuilder;
 @SdkInternalApi
 public class HttpRequestTimer {
 
-    private volatile ScheduledThreadPoolExecutor executor;
+    private final HashedWheelTimer timer;
+
+    private final AtomicLong triggeredTasks = new AtomicLong();
+
+    public HttpRequestTimer() {
+        this(HashedWheelTimer.getSharedTimer());
+    }
+
+    @SdkTestInternalApi
+    HttpRequestTimer(HashedWheelTimer timer) {
+        this.timer = timer;
+    }
 
     /**
      * Start the timer with the specified timeout and return a object that can be used to track the
@@ -49,12 +58,16 @@ public class HttpRequestTimer {
     public HttpRequestAbortTaskTracker startTimer(final HttpRequestBase apacheRequest, final int requestTimeoutMillis) {
         if (isTimeoutDisabled(requestTimeoutMillis)) {
             return NoOpHttpRequestAbortTaskTracker.INSTANCE;
-        } else if (executor == null) {
-            initializeExecutor();
         }
-        HttpRequestAbortTaskImpl timerTask = new HttpRequestAbortTaskImpl(apacheRequest);
-        ScheduledFuture<?> timerTaskFuture = executor.schedule(timerTask, requestTimeoutMillis, TimeUnit.MILLISECONDS);
-        return new HttpRequestAbortTaskTrackerImpl(timerTask, timerTaskFuture);
+        HttpRequestAbortTaskImpl timerTask = new HttpRequestAbortTaskImpl(apacheRequest) {
+            @Override
+            public void run() {
+                triggeredTasks.incrementAndGet();
+                super.run();
+            }
+        };
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(timerTask, requestTimeoutMillis);
+        return new HttpRequestAbortTaskTrackerImpl(timerTask, timeout);
     }
 
     private boolean isTimeoutDisabled(final int requestTimeoutMillis) {
@@ -62,32 +75,23 @@ public class HttpRequestTimer {
     }
 
     /**
-     * Executor is lazily initialized as it's not compatible with Java 6
-     */
-    private synchronized void initializeExecutor() {
-        if (executor == null) {
-            executor = TimeoutThreadPoolBuilder.buildDefaultTimeoutThreadPool();
-        }
-    }
-
-    /**
-     * Shutdown the underlying {@link ScheduledThreadPoolExecutor}. Should be invoked when
-     * {@link AmazonHttpClient} is shutdown
+     * This method is current exposed for testing purposes
+     *
+     * @return The underlying {@link HashedWheelTimer}
      */
-    public synchronized void shutdown() {
-        if (executor != null) {
-            executor.shutdown();
-        }
+    @SdkTestInternalApi
+    public HashedWheelTimer getTimer() {
+        return timer;
     }
 
     /**
      * This method is current exposed for testing purposes
-     * 
-     * @return The underlying {@link ScheduledThreadPoolExecutor}
+     *
+     * @return Number of timer tasks scheduled by this timer that have been triggered
      */
     @SdkTestInternalApi
-    public ScheduledThreadPoolExecutor getExecutor() {
-        return executor;
+    public long getTriggeredTaskCount() {
+        return triggeredTasks.get();
     }
 
 }
@@ -21,9 +21,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import com.amazonaws.regions.Region;
 import com.amazonaws.regions.RegionUtils;
@@ -31,6 +35,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.amazonaws.SDKGlobalConfiguration;
+import com.amazonaws.annotation.SdkInternalApi;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
@@ -40,6 +45,7 @@ import com.amazonaws.regions.Regions;
 import com.amazonaws.util.AWSRequestMetrics;
 import com.amazonaws.util.AWSRequestMetrics.Field;
 import com.amazonaws.util.AWSServiceMetrics;
+import com.amazonaws.util.CapacityManager;
 
 /**
  * Used to control the default AWS SDK metric collection system.
@@ -342,6 +348,12 @@ public enum AwsSdkMetrics {
     }
 
     private static final MetricRegistry registry = new MetricRegistry();
+    /**
+     * Retry capacity pools of the live clients, weakly referenced so that clients that are
+     * garbage collected without being shut down don't linger.
+     */
+    private static final Map<CapacityManager, Boolean> retryCapacities =
+            Collections.synchronizedMap(new WeakHashMap<CapacityManager, Boolean>());
     private static volatile MetricCollector mc;
     /**
      * Used to disallow re-entrancy in enabling the default metric collection system.
@@ -681,6 +693,67 @@ public enum AwsSdkMetrics {
         return registry.predefinedMetrics();
     }
 
+    /**
+     * Registers the retry capacity pool of a client so that it is included in
+     * the retry capacity gauges.
+     */
+    @SdkInternalApi
+    public static void registerRetryCapacity(CapacityManager retryCapacity) {
+        retryCapacities.put(retryCapacity, Boolean.TRUE);
+    }
+
+    /**
+     * Removes the retry capacity pool of a client that has been shut down from
+     * the retry capacity gauges.
+     */
+    @SdkInternalApi
+    public static void unregisterRetryCapacity(CapacityManager retryCapacity) {
+        retryCapacities.remove(retryCapacity);
+    }
+
+    /**
+     * Returns the retry capacity currently available, summed over all the
+     * clients with throttled retries enabled.
+     */
+    public static int getRetryCapacityAvailable() {
+        int available = 0;
+        for (CapacityManager retryCapacity : retryCapacities()) {
+            available += retryCapacity.availableCapacity();
+        }
+        return available;
+    }
+
+    /**
+     * Returns the retry capacity currently consumed, summed over all the
+     * clients with throttled retries enabled.
+     */
+    public static int getRetryCapacityConsumed() {
+        int consumed = 0;
+        for (CapacityManager retryCapacity : retryCapacities()) {
+            consumed += retryCapacity.consumedCapacity();
+        }
+        return consumed;
+    }
+
+    /**
+     * Returns the number of retries that have been skipped because the retry
+     * capacity of their client was exhausted, summed over all the clients with
+     * throttled retries enabled.
+     */
+    public static long getRetryCapacityExhaustedCount() {
+        long exhausted = 0;
+        for (CapacityManager retryCapacity : retryCapacities()) {
+            exhausted += retryCapacity.exhaustedCount();
+        }
+        return exhausted;
+    }
+
+    private static List<CapacityManager> retryCapacities() {
+        synchronized (retryCapacities) {
+            return new ArrayList<CapacityManager>(retryCapacities.keySet());
+        }
+    }
+
     /**
      * Returns the credential provider for the default AWS SDK metric implementation.
      * This method is restricted to calls from the default AWS SDK metric implementation.
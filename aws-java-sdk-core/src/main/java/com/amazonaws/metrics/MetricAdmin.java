@@ -140,4 +140,19 @@ public class MetricAdmin implements MetricAdminMBean {
     public void setSingleMetricNamespace(boolean singleMetricNamespace) {
         AwsSdkMetrics.setSingleMetricNamespace(singleMetricNamespace);
     }
+
+    @Override
+    public int getRetryCapacityAvailable() {
+        return AwsSdkMetrics.getRetryCapacityAvailable();
+    }
+
+    @Override
+    public int getRetryCapacityConsumed() {
+        return AwsSdkMetrics.getRetryCapacityConsumed();
+    }
+
+    @Override
+    public long getRetryCapacityExhaustedCount() {
+        return AwsSdkMetrics.getRetryCapacityExhaustedCount();
+    }
 }
@@ -184,4 +184,22 @@ public interface MetricAdminMBean {
      * Used to set whether a single metric name space is to be used.
      */
     public void setSingleMetricNamespace(boolean singleMetricNamespace);
-}
\ No newline at end of file
+
+    /**
+     * Returns the retry capacity currently available across all clients with
+     * throttled retries enabled.
+     */
+    public int getRetryCapacityAvailable();
+
+    /**
+     * Returns the retry capacity currently consumed across all clients with
+     * throttled retries enabled.
+     */
+    public int getRetryCapacityConsumed();
+
+    /**
+     * Returns the number of retries skipped so far because the retry capacity
+     * of their client was exhausted.
+     */
+    public long getRetryCapacityExhaustedCount();
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.protocol.query;
+
+import com.amazonaws.annotation.SdkInternalApi;
+
+/**
+ * Implemented by requests that can carry their parameters in the
+ * <code>application/x-www-form-urlencoded</code> form written by a
+ * {@link QueryParameterWriter}, so that they don't have to be encoded again
+ * when the request is signed and sent.
+ */
+@SdkInternalApi
+public interface EncodedQueryParameters {
+
+    /**
+     * Adds form encoded parameters after the existing parameters of the
+     * request.
+     */
+    void addEncodedParameters(byte[] encoded);
+
+    /**
+     * Returns all the parameters of the request in their form encoded form,
+     * or null if they are not available that way. The returned array must not
+     * be modified.
+     */
+    byte[] getEncodedParameters();
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.protocol.query;
+
+import com.amazonaws.Request;
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.util.StringUtils;
+
+import org.apache.http.annotation.NotThreadSafe;
+
+import java.util.Arrays;
+
+/**
+ * Writes query protocol parameters straight into an
+ * <code>application/x-www-form-urlencoded</code> byte buffer as a marshaller
+ * visits the fields of a request, without building the intermediate parameter
+ * name strings and parameter map.
+ * <p>
+ * A parameter name may be written in several pieces, e.g.
+ * <code>name("Tags.member.").name(index).name(".Key").value(key)</code>, so
+ * that list indices never have to be concatenated into a new string. The
+ * encoding is the same as the form encoding of the Apache HTTP client, so the
+ * output is byte for byte what {@link com.amazonaws.util.SdkHttpUtils#encodeParameters}
+ * produces for the equivalent parameter map.
+ */
+@SdkInternalApi
+@NotThreadSafe
+public class QueryParameterWriter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * Buffers larger than this are not kept around for reuse by the current
+     * thread, so that one very large request doesn't pin its buffer forever.
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StringUtils.UTF8);
+
+    /** ASCII characters that are written as is; everything else is escaped. */
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static {
+        for (int c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (int c = 'A'; c <= 'Z'; c++) {
+            UNRESERVED[c] = true;
+        }
+        for (int c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['_'] = true;
+        UNRESERVED['-'] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['*'] = true;
+    }
+
+    private static final ThreadLocal<QueryParameterWriter> CURRENT =
+            new ThreadLocal<QueryParameterWriter>() {
+                @Override
+                protected QueryParameterWriter initialValue() {
+                    return new QueryParameterWriter();
+                }
+            };
+
+    private byte[] buffer;
+
+    private int count;
+
+    /** True while the name of a parameter is being written. */
+    private boolean inName;
+
+    /**
+     * True from the moment {@link #forCurrentThread()} hands out this writer
+     * until its content has been copied out.
+     */
+    private boolean inUse;
+
+    public QueryParameterWriter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public QueryParameterWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Returns an empty writer whose buffer is reused by all marshallers
+     * running on the current thread. The writer must not be used anymore once
+     * its content has been copied out with {@link #toByteArray()} or
+     * {@link #writeTo(Request)}. If the writer of the current thread is still
+     * being filled, e.g. because a marshaller was re-entered, a new writer is
+     * returned instead and the one in use is left alone.
+     */
+    public static QueryParameterWriter forCurrentThread() {
+        QueryParameterWriter writer = CURRENT.get();
+        if (writer.inUse || writer.buffer.length > MAX_REUSED_BUFFER_SIZE) {
+            writer = new QueryParameterWriter();
+            CURRENT.set(writer);
+        }
+        writer.reset();
+        writer.inUse = true;
+        return writer;
+    }
+
+    /**
+     * Appends a piece of the name of the current parameter, starting a new
+     * parameter if the previous one has already been given its value.
+     */
+    public QueryParameterWriter name(String piece) {
+        startName();
+        encode(piece);
+        return this;
+    }
+
+    /**
+     * Appends a list or map index to the name of the current parameter.
+     */
+    public QueryParameterWriter name(int index) {
+        startName();
+        if (index < 0) {
+            append('-');
+            index = -index;
+        }
+        int digits = 1;
+        for (int i = index; i >= 10; i /= 10) {
+            digits++;
+        }
+        ensureCapacity(count + digits);
+        for (int pos = count + digits - 1; pos >= count; pos--) {
+            buffer[pos] = (byte) ('0' + index % 10);
+            index /= 10;
+        }
+        count += digits;
+        return this;
+    }
+
+    /**
+     * Completes the current parameter with the given value. A null value
+     * writes the parameter name alone.
+     */
+    public QueryParameterWriter value(String value) {
+        if (!inName) {
+            throw new IllegalStateException("No parameter name has been written for the value");
+        }
+        if (value != null) {
+            append('=');
+            encode(value);
+        }
+        inName = false;
+        return this;
+    }
+
+    /**
+     * Writes a complete parameter.
+     */
+    public QueryParameterWriter parameter(String name, String value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Returns the number of bytes written so far.
+     */
+    public int size() {
+        return count;
+    }
+
+    public void reset() {
+        count = 0;
+        inName = false;
+    }
+
+    /**
+     * Returns a copy of the encoded parameters.
+     */
+    public byte[] toByteArray() {
+        inUse = false;
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Adds the parameters written so far to the given request. A request that
+     * implements {@link EncodedQueryParameters} also keeps them in their
+     * encoded form, so they don't have to be encoded again when it is sent.
+     */
+    public void writeTo(final Request<?> request) {
+        if (inName) {
+            throw new IllegalStateException("The last parameter has no value");
+        }
+        if (count > 0) {
+            if (request instanceof EncodedQueryParameters) {
+                ((EncodedQueryParameters) request).addEncodedParameters(toByteArray());
+            } else {
+                decode(buffer, 0, count, new ParameterSink() {
+                    @Override
+                    public void parameter(String name, String value) {
+                        request.addParameter(name, value);
+                    }
+                });
+            }
+        }
+        inUse = false;
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, count, StringUtils.UTF8);
+    }
+
+    /**
+     * Receives the parameters read back by
+     * {@link QueryParameterWriter#decode(byte[], int, int, ParameterSink)}.
+     */
+    public interface ParameterSink {
+        void parameter(String name, String value);
+    }
+
+    /**
+     * Reads back form encoded parameters, in order.
+     */
+    public static void decode(byte[] encoded, int offset, int length, ParameterSink sink) {
+        final int end = offset + length;
+        byte[] scratch = new byte[Math.min(length, DEFAULT_BUFFER_SIZE)];
+        int start = offset;
+        while (start < end) {
+            int separator = start;
+            int equals = -1;
+            while (separator < end && encoded[separator] != '&') {
+                if (equals < 0 && encoded[separator] == '=') {
+                    equals = separator;
+                }
+                separator++;
+            }
+            if (separator > start) {
+                if (scratch.length < separator - start) {
+                    scratch = new byte[separator - start];
+                }
+                if (equals < 0) {
+                    sink.parameter(decode(encoded, start, separator, scratch), null);
+                } else {
+                    sink.parameter(decode(encoded, start, equals, scratch),
+                                   decode(encoded, equals + 1, separator, scratch));
+                }
+            }
+            start = separator + 1;
+        }
+    }
+
+    private static String decode(byte[] encoded, int start, int end, byte[] scratch) {
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = encoded[i];
+            if (b == '+') {
+                b = ' ';
+            } else if (b == '%' && i + 2 < end) {
+                int high = Character.digit(encoded[i + 1], 16);
+                int low = Character.digit(encoded[i + 2], 16);
+                if (high >= 0 && low >= 0) {
+                    b = (byte) ((high << 4) + low);
+                    i += 2;
+                }
+            }
+            scratch[length++] = b;
+        }
+        return new String(scratch, 0, length, StringUtils.UTF8);
+    }
+
+    private void startName() {
+        if (!inName) {
+            if (count > 0) {
+                append('&');
+            }
+            inName = true;
+        }
+    }
+
+    private void encode(String s) {
+        final int length = s.length();
+        ensureCapacity(count + length);
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                if (UNRESERVED[c]) {
+                    append(c);
+                } else if (c == ' ') {
+                    append('+');
+                } else {
+                    escape(c);
+                }
+            } else if (c < 0x800) {
+                escape(0xC0 | (c >> 6));
+                escape(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                escape(0xF0 | (codePoint >> 18));
+                escape(0x80 | ((codePoint >> 12) & 0x3F));
+                escape(0x80 | ((codePoint >> 6) & 0x3F));
+                escape(0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                // Same replacement as String#getBytes for malformed input
+                escape('?');
+            } else {
+                escape(0xE0 | (c >> 12));
+                escape(0x80 | ((c >> 6) & 0x3F));
+                escape(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void escape(int b) {
+        ensureCapacity(count + 3);
+        buffer[count++] = '%';
+        buffer[count++] = HEX[(b >> 4) & 0x0F];
+        buffer[count++] = HEX[b & 0x0F];
+    }
+
+    private void append(char c) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) c;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length << 1));
+        }
+    }
+}
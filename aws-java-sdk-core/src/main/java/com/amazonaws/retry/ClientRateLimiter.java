@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.annotation.SdkTestInternalApi;
+import com.amazonaws.annotation.ThreadSafe;
+
+/**
+ * Client side rate limiter that adapts the rate at which a client sends requests to the
+ * throttling responses it receives.
+ * <p>
+ * The limiter stays out of the way until the first throttling response. From then on requests
+ * must take a token from a bucket that refills at the current sending rate. Every throttling
+ * response cuts the rate multiplicatively, and every other response grows it back along a cubic
+ * curve that quickly returns to the rate at which throttling last occurred, probes carefully
+ * around it, and then accelerates beyond it (as in TCP CUBIC). The rate is also capped at twice
+ * the rate actually measured, so an idle client does not build up an unbounded allowance.
+ * <p>
+ * Until the first throttling response, reserving a token costs one volatile read. A successful
+ * response costs an atomic increment and a volatile read, and takes the lock only when it is the
+ * first one of a new measurement interval, which is when the measured rate, and with it the
+ * sending rate, is recalculated. Throttling responses always take the lock.
+ */
+@SdkInternalApi
+@ThreadSafe
+public class ClientRateLimiter {
+
+    /**
+     * Multiplicative decrease applied to the sending rate on throttling.
+     */
+    private static final double BETA = 0.7;
+
+    /**
+     * Scales how quickly the cubic curve grows the sending rate back.
+     */
+    private static final double SCALE_CONSTANT = 0.4;
+
+    /**
+     * Weight given to the latest measurement when smoothing the measured sending rate.
+     */
+    private static final double SMOOTHING = 0.8;
+
+    /**
+     * Width of the intervals over which the sending rate is measured.
+     */
+    private static final long MEASUREMENT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final double MIN_FILL_RATE = 0.5;
+    private static final double MIN_CAPACITY = 1;
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long originNanos;
+
+    /**
+     * Becomes true on the first throttling response. Read without locking so that clients that
+     * are never throttled don't pay for the limiter.
+     */
+    private volatile boolean enabled;
+
+    // Token bucket, in tokens and tokens per second; guarded by this
+    private double fillRate = MIN_FILL_RATE;
+    private double maxCapacity = MIN_CAPACITY;
+    private double currentCapacity;
+    private double lastRefill = -1;
+
+    // Cubic state, in requests per second and seconds; guarded by this
+    private double lastMaxRate;
+    private double lastThrottle;
+    private double timeWindow;
+
+    // Measured sending rate; guarded by this
+    private double measuredRate;
+
+    /**
+     * Index of the measurement interval the requests are being counted in. Written while holding
+     * the lock, read without it to detect the end of an interval.
+     */
+    private volatile long lastMeasurement;
+
+    /**
+     * Requests seen since the start of the current measurement interval.
+     */
+    private final AtomicInteger measuredRequests = new AtomicInteger();
+
+    public ClientRateLimiter() {
+        this(System.nanoTime());
+    }
+
+    @SdkTestInternalApi
+    ClientRateLimiter(long originNanos) {
+        this.originNanos = originNanos;
+    }
+
+    /**
+     * Blocks until the next request may be sent.
+     *
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        long pauseNanos = reserve();
+        if (pauseNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+        }
+    }
+
+    /**
+     * Reserves a token for the next request without blocking.
+     *
+     * @return Nanoseconds the caller must wait before sending the request, or zero if it can be
+     * sent immediately.
+     */
+    public long reserve() {
+        return enabled ? reserve(System.nanoTime()) : 0;
+    }
+
+    /**
+     * Grows the sending rate after a request that was not throttled.
+     */
+    public void onSuccess() {
+        onSuccess(System.nanoTime());
+    }
+
+    /**
+     * Cuts the sending rate after a throttling response, enabling the limiter on first use.
+     */
+    public void onThrottle() {
+        onThrottle(System.nanoTime());
+    }
+
+    @SdkTestInternalApi
+    void onSuccess(long nowNanos) {
+        measuredRequests.incrementAndGet();
+        // The cubic curve is only sampled once per measurement interval, when the cap from the
+        // measured rate moves as well
+        if (measurementInterval(nowNanos) > lastMeasurement) {
+            updateSendingRate(false, nowNanos);
+        }
+    }
+
+    @SdkTestInternalApi
+    void onThrottle(long nowNanos) {
+        measuredRequests.incrementAndGet();
+        updateSendingRate(true, nowNanos);
+    }
+
+    @SdkTestInternalApi
+    synchronized long reserve(long nowNanos) {
+        if (!enabled) {
+            return 0;
+        }
+        refill(seconds(nowNanos));
+        // The token is taken even if the bucket is empty, so that concurrent callers queue up
+        // behind each other instead of all waking up for the same token.
+        currentCapacity -= 1;
+        if (currentCapacity >= 0) {
+            return 0;
+        }
+        return (long) (-currentCapacity / fillRate * NANOS_PER_SECOND);
+    }
+
+    private synchronized void updateSendingRate(boolean throttled, long nowNanos) {
+        double now = seconds(nowNanos);
+        updateMeasuredRate(nowNanos);
+
+        double calculatedRate;
+        if (throttled) {
+            double rateToUse = enabled ? Math.min(measuredRate, fillRate) : measuredRate;
+            lastMaxRate = rateToUse;
+            calculateTimeWindow();
+            lastThrottle = now;
+            calculatedRate = rateToUse * BETA;
+            enabled = true;
+        } else {
+            calculateTimeWindow();
+            calculatedRate = SCALE_CONSTANT * Math.pow(now - lastThrottle - timeWindow, 3)
+                             + lastMaxRate;
+        }
+        updateBucketRate(Math.min(calculatedRate, 2 * measuredRate), now);
+    }
+
+    @SdkTestInternalApi
+    synchronized double getFillRate() {
+        return fillRate;
+    }
+
+    @SdkTestInternalApi
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    private double seconds(long nowNanos) {
+        return (nowNanos - originNanos) / NANOS_PER_SECOND;
+    }
+
+    private long measurementInterval(long nowNanos) {
+        return (nowNanos - originNanos) / MEASUREMENT_INTERVAL_NANOS;
+    }
+
+    private void refill(double now) {
+        if (lastRefill >= 0) {
+            currentCapacity = Math.min(maxCapacity, currentCapacity + (now - lastRefill) * fillRate);
+        }
+        lastRefill = now;
+    }
+
+    private void updateBucketRate(double newRate, double now) {
+        refill(now);
+        fillRate = Math.max(newRate, MIN_FILL_RATE);
+        maxCapacity = Math.max(newRate, MIN_CAPACITY);
+        currentCapacity = Math.min(currentCapacity, maxCapacity);
+    }
+
+    /**
+     * Time after the last throttle at which the cubic curve is back at the rate that was
+     * throttled.
+     */
+    private void calculateTimeWindow() {
+        timeWindow = Math.cbrt(lastMaxRate * (1 - BETA) / SCALE_CONSTANT);
+    }
+
+    private void updateMeasuredRate(long nowNanos) {
+        long interval = measurementInterval(nowNanos);
+        if (interval > lastMeasurement) {
+            double elapsed = (interval - lastMeasurement) * MEASUREMENT_INTERVAL_NANOS / NANOS_PER_SECOND;
+            double currentRate = measuredRequests.getAndSet(0) / elapsed;
+            measuredRate = currentRate * SMOOTHING + measuredRate * (1 - SMOOTHING);
+            lastMeasurement = interval;
+        }
+    }
+}
@@ -21,10 +21,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Namespace;
 import javax.xml.stream.events.XMLEvent;
 
 /**
@@ -34,14 +38,50 @@ import javax.xml.stream.events.XMLEvent;
  * response. It also tracks the current position and element depth of the
  * document being parsed and provides utilties for accessing the next XML event
  * from the parser, reading element text, handling attribute XML events, etc.
+ * <p>
+ * A context created from an {@link XMLStreamReader} walks the document with
+ * the reader's cursor: {@link #nextToken()} reports the type of each event
+ * without allocating an event object for it, and {@link #readText()} reads
+ * element text straight from the reader. {@link #nextEvent()} remains
+ * available on such a context for unmarshallers that still work with
+ * {@link XMLEvent}s; the events are then created on demand.
  */
 public class StaxUnmarshallerContext {
 
+    /**
+     * Only used to create events for {@link #nextEvent()} on a context backed
+     * by an {@link XMLStreamReader}. Its create methods don't share state as
+     * long as no location is set on it.
+     */
+    private static final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+    private static final int NO_TOKEN = -1;
+
     private XMLEvent currentEvent;
     private final XMLEventReader eventReader;
 
+    private final XMLStreamReader streamReader;
+    /**
+     * True if the stream reader is positioned on an event that has not been
+     * reported yet, such as the end element that stopped {@link #readText()}.
+     */
+    private boolean positioned;
+    private final List<QName> attributeNames = new ArrayList<QName>();
+    private final List<String> attributeValues = new ArrayList<String>();
+    private int attributeIndex;
+
+    private int currentToken = NO_TOKEN;
+
     public final Stack<String> stack = new Stack<String>();
-    private String stackString = "";
+
+    /**
+     * The current path, e.g. "/a/b/@c", matched in place by the test
+     * expression methods; pathLengths holds its length before each element of
+     * the stack was appended.
+     */
+    private final StringBuilder path = new StringBuilder();
+    private int[] pathLengths = new int[16];
+    private int attributePathStart = -1;
 
     private Map<String, String> metadata = new HashMap<String, String>();
     private List<MetadataExpression> metadataExpressions = new ArrayList<MetadataExpression>();
@@ -56,7 +96,7 @@ public class StaxUnmarshallerContext {
     }
 
     public boolean isInsideResponseHeader() {
-        return currentEvent == null;
+        return currentToken == NO_TOKEN;
     }
 
     /**
@@ -81,6 +121,25 @@ public class StaxUnmarshallerContext {
      */
     public StaxUnmarshallerContext(XMLEventReader eventReader, Map<String, String> headers) {
         this.eventReader = eventReader;
+        this.streamReader = null;
+        this.headers = headers;
+    }
+
+    /**
+     * Constructs a new unmarshaller context that walks the document with the
+     * cursor of the specified stream reader.
+     *
+     * @param streamReader
+     *            The stream reader for this unmarshalling context, positioned
+     *            at the start of the document.
+     * @param headers
+     *            The set of response headers associated with this unmarshaller
+     *            context.
+     */
+    public StaxUnmarshallerContext(XMLStreamReader streamReader, Map<String, String> headers) {
+        this.eventReader = null;
+        this.streamReader = streamReader;
+        this.positioned = true;
         this.headers = headers;
     }
 
@@ -110,6 +169,9 @@ public class StaxUnmarshallerContext {
         if (isInsideResponseHeader()) {
             return getHeader(currentHeader);
         }
+        if (streamReader != null) {
+            return readStreamText();
+        }
         if (currentEvent.isAttribute()) {
             Attribute attribute = (Attribute)currentEvent;
             return attribute.getValue();
@@ -151,7 +213,7 @@ public class StaxUnmarshallerContext {
      */
     public boolean testExpression(String expression) {
         if (expression.equals(".")) return true;
-        return stackString.endsWith(expression);
+        return pathEndsWith(expression, false);
     }
 
     /**
@@ -181,7 +243,7 @@ public class StaxUnmarshallerContext {
 
 
         return (startingStackDepth == getCurrentDepth()
-                && stackString.endsWith("/" + expression));
+                && pathEndsWith(expression, true));
     }
 
     /**
@@ -193,9 +255,67 @@ public class StaxUnmarshallerContext {
      *         yet).
      */
     public boolean isStartOfDocument() throws XMLStreamException {
+        if (streamReader != null) {
+            return positioned && streamReader.getEventType() == XMLStreamConstants.START_DOCUMENT;
+        }
         return eventReader.peek().isStartDocument();
     }
 
+    /**
+     * Advances to the next XML event for the document being parsed and
+     * returns its type. Each attribute of an element is reported as an
+     * {@link XMLStreamConstants#ATTRIBUTE} event of its own, following the
+     * element's {@link XMLStreamConstants#START_ELEMENT} event.
+     * <p>
+     * Unlike {@link #nextEvent()}, this method doesn't allocate an event
+     * object when the context is backed by an {@link XMLStreamReader}.
+     *
+     * @return The type of the next XML event, as one of the
+     *         {@link XMLStreamConstants}.
+     *
+     * @throws XMLStreamException
+     */
+    public int nextToken() throws XMLStreamException {
+        if (streamReader == null) {
+            return nextEvent().getEventType();
+        }
+
+        if (attributeIndex < attributeNames.size()) {
+            setAttributePath(attributeNames.get(attributeIndex++).getLocalPart());
+            return currentToken = XMLStreamConstants.ATTRIBUTE;
+        }
+        clearAttributePath();
+
+        boolean followsStartElement = currentToken == XMLStreamConstants.START_ELEMENT
+                                      || currentToken == XMLStreamConstants.ATTRIBUTE;
+        int token = advance();
+        switch (token) {
+            case XMLStreamConstants.START_ELEMENT:
+                pushElement(streamReader.getLocalName());
+                attributeNames.clear();
+                attributeValues.clear();
+                attributeIndex = 0;
+                for (int i = 0; i < streamReader.getAttributeCount(); i++) {
+                    attributeNames.add(streamReader.getAttributeName(i));
+                    attributeValues.add(streamReader.getAttributeValue(i));
+                }
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                popElement();
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                if (followsStartElement) {
+                    captureMetadata();
+                }
+                break;
+            default:
+                break;
+        }
+        return currentToken = token;
+    }
+
     /**
      * Returns the next XML event for the document being parsed.
      *
@@ -204,11 +324,17 @@ public class StaxUnmarshallerContext {
      * @throws XMLStreamException
      */
     public XMLEvent nextEvent() throws XMLStreamException {
+        if (streamReader != null) {
+            currentEvent = createEvent(nextToken());
+            return currentEvent;
+        }
+
         if (attributeIterator != null && attributeIterator.hasNext()) {
             currentEvent = (XMLEvent)attributeIterator.next();
         } else {
             currentEvent = eventReader.nextEvent();
         }
+        currentToken = currentEvent.getEventType();
 
         if (currentEvent.isStartElement()) {
             attributeIterator = currentEvent.asStartElement().getAttributes();
@@ -283,22 +409,187 @@ public class StaxUnmarshallerContext {
     private void updateContext(XMLEvent event) {
         if (event == null) return;
 
+        if (event.isAttribute()) {
+            setAttributePath(((Attribute) event).getName().getLocalPart());
+            return;
+        }
+        clearAttributePath();
         if (event.isEndElement()) {
-            stack.pop();
-            stackString = "";
-            for (String s : stack) {
-                stackString += "/" + s;
-            }
+            popElement();
         } else if (event.isStartElement()) {
-            stack.push(event.asStartElement().getName().getLocalPart());
-            stackString += "/" + event.asStartElement().getName().getLocalPart();
-        } else if (event.isAttribute()) {
-            Attribute attribute = (Attribute)event;
-            stackString = "";
-            for (String s : stack) {
-                stackString += "/" + s;
+            pushElement(event.asStartElement().getName().getLocalPart());
+        }
+    }
+
+    private void pushElement(String localName) {
+        int depth = stack.size();
+        if (depth == pathLengths.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(pathLengths, 0, grown, 0, depth);
+            pathLengths = grown;
+        }
+        pathLengths[depth] = path.length();
+        path.append('/').append(localName);
+        stack.push(localName);
+    }
+
+    private void popElement() {
+        stack.pop();
+        path.setLength(pathLengths[stack.size()]);
+    }
+
+    private void setAttributePath(String localName) {
+        if (attributePathStart < 0) {
+            attributePathStart = path.length();
+        } else {
+            path.setLength(attributePathStart);
+        }
+        path.append("/@").append(localName);
+    }
+
+    private void clearAttributePath() {
+        if (attributePathStart >= 0) {
+            path.setLength(attributePathStart);
+            attributePathStart = -1;
+        }
+    }
+
+    /**
+     * Returns true if the current path ends with the given expression, which
+     * must also be preceded by a slash if requested.
+     */
+    private boolean pathEndsWith(String expression, boolean precededBySlash) {
+        int length = expression.length();
+        int offset = path.length() - length;
+        if (precededBySlash) {
+            if (offset < 1 || path.charAt(offset - 1) != '/') {
+                return false;
+            }
+        } else if (offset < 0) {
+            return false;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            if (path.charAt(offset + i) != expression.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Moves the stream reader to the next event, unless it is positioned on
+     * one that has not been reported yet.
+     */
+    private int advance() throws XMLStreamException {
+        if (positioned) {
+            positioned = false;
+            return streamReader.getEventType();
+        }
+        return streamReader.next();
+    }
+
+    private String readStreamText() throws XMLStreamException {
+        if (currentToken == XMLStreamConstants.ATTRIBUTE) {
+            return attributeValues.get(attributeIndex - 1);
+        }
+
+        String text = null;
+        StringBuilder sb = null;
+        while (true) {
+            int token = advance();
+            switch (token) {
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (text == null) {
+                        captureMetadata();
+                        text = streamReader.getText();
+                    } else {
+                        if (sb == null) {
+                            sb = new StringBuilder(text);
+                        }
+                        sb.append(streamReader.getText());
+                    }
+                    break;
+                case XMLStreamConstants.COMMENT:
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    // Leave the end element to be reported by the next call to nextToken
+                    positioned = true;
+                    if (sb != null) {
+                        return sb.toString();
+                    }
+                    return text == null ? "" : text;
+                default:
+                    throw new RuntimeException("Encountered unexpected event: " + token);
             }
-            stackString += "/@" + attribute.getName().getLocalPart();
+        }
+    }
+
+    /**
+     * Stores the text the stream reader is positioned on under the key of any
+     * metadata expression matching the current position.
+     */
+    private void captureMetadata() {
+        for (MetadataExpression metadataExpression : metadataExpressions) {
+            if (testExpression(metadataExpression.expression, metadataExpression.targetDepth)) {
+                metadata.put(metadataExpression.key, streamReader.getText());
+            }
+        }
+    }
+
+    /**
+     * Creates an event for the given token from the state of the stream
+     * reader.
+     */
+    private XMLEvent createEvent(int token) {
+        switch (token) {
+            case XMLStreamConstants.START_DOCUMENT:
+                return eventFactory.createStartDocument();
+            case XMLStreamConstants.END_DOCUMENT:
+                return eventFactory.createEndDocument();
+            case XMLStreamConstants.START_ELEMENT:
+                List<Attribute> attributes = new ArrayList<Attribute>(attributeNames.size());
+                for (int i = 0; i < attributeNames.size(); i++) {
+                    attributes.add(eventFactory.createAttribute(attributeNames.get(i),
+                                                                attributeValues.get(i)));
+                }
+                List<Namespace> namespaces = new ArrayList<Namespace>(streamReader.getNamespaceCount());
+                for (int i = 0; i < streamReader.getNamespaceCount(); i++) {
+                    String prefix = streamReader.getNamespacePrefix(i);
+                    String uri = streamReader.getNamespaceURI(i);
+                    namespaces.add(prefix == null ? eventFactory.createNamespace(uri)
+                                                  : eventFactory.createNamespace(prefix, uri));
+                }
+                QName name = streamReader.getName();
+                return eventFactory.createStartElement(name.getPrefix(), name.getNamespaceURI(),
+                                                       name.getLocalPart(), attributes.iterator(),
+                                                       namespaces.iterator());
+            case XMLStreamConstants.END_ELEMENT:
+                QName endName = streamReader.getName();
+                return eventFactory.createEndElement(endName.getPrefix(), endName.getNamespaceURI(),
+                                                     endName.getLocalPart());
+            case XMLStreamConstants.ATTRIBUTE:
+                return eventFactory.createAttribute(attributeNames.get(attributeIndex - 1),
+                                                    attributeValues.get(attributeIndex - 1));
+            case XMLStreamConstants.CHARACTERS:
+                return eventFactory.createCharacters(streamReader.getText());
+            case XMLStreamConstants.CDATA:
+                return eventFactory.createCData(streamReader.getText());
+            case XMLStreamConstants.SPACE:
+                return eventFactory.createIgnorableSpace(streamReader.getText());
+            case XMLStreamConstants.COMMENT:
+                return eventFactory.createComment(streamReader.getText());
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                return eventFactory.createProcessingInstruction(streamReader.getPITarget(),
+                                                                streamReader.getPIData());
+            case XMLStreamConstants.DTD:
+                return eventFactory.createDTD(streamReader.getText());
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                return eventFactory.createEntityReference(streamReader.getLocalName(), null);
+            default:
+                throw new IllegalStateException("Unsupported XML event type: " + token);
         }
     }
 
@@ -142,6 +142,10 @@ public class AWSRequestMetrics {
          */
         HttpClientPoolPendingCount,
         RetryPauseTime,
+        /**
+         * Time a request waited for the adaptive client side rate limiter before being sent.
+         */
+        RateLimiterPauseTime,
         ServiceEndpoint,
         ServiceName,
         StatusCode, // The http status code
@@ -14,16 +14,36 @@
  */
 package com.amazonaws.util;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.annotation.ThreadSafe;
+
 /**
  * Manages capacity of a finite resource.  Capacity can be acquired and
- * released.
+ * released.  Optionally, consumed capacity is also returned to the pool at a
+ * fixed rate over time, so the pool recovers even when nothing releases it.
+ * <p>
+ * Acquiring and releasing capacity is lock-free, so callers never block on
+ * each other even when many threads compete for the last units of capacity.
  */
+@ThreadSafe
 public class CapacityManager {
 
-    private volatile int availableCapacity;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicInteger availableCapacity;
     private final int maxCapacity;
 
-    private final Object lock = new Object();
+    /**
+     * Nanoseconds it takes to refill a single unit of capacity, or zero if capacity is
+     * only returned through {@link #release(int)}.
+     */
+    private final long nanosPerRefill;
+    private final AtomicLong lastRefillNanos;
+
+    private final AtomicLong exhaustedCount = new AtomicLong();
 
     /**
      * Creates a CapacityManager.
@@ -34,8 +54,28 @@ public class CapacityManager {
      *                    passthrough mode in which all acquire calls will return true.
      */
     public CapacityManager(final int maxCapacity) {
+        this(maxCapacity, 0);
+    }
+
+    /**
+     * Creates a CapacityManager that refills consumed capacity over time.
+     *
+     * @param maxCapacity     maximum capacity of this resource.
+     *                        available capacity will initially be set to this value.
+     *                        if a negative value is provided the capacity manager will operate in a
+     *                        no-op passthrough mode in which all acquire calls will return true.
+     * @param refillPerSecond units of capacity returned to the pool every second, up to the
+     *                        maximum capacity. Zero disables time based refill.
+     * @throws IllegalArgumentException if given refill rate is negative
+     */
+    public CapacityManager(final int maxCapacity, final int refillPerSecond) {
+        if (refillPerSecond < 0) {
+            throw new IllegalArgumentException("refill rate cannot be negative");
+        }
         this.maxCapacity = maxCapacity;
-        this.availableCapacity = maxCapacity;
+        this.availableCapacity = new AtomicInteger(maxCapacity);
+        this.nanosPerRefill = refillPerSecond == 0 ? 0 : Math.max(1, NANOS_PER_SECOND / refillPerSecond);
+        this.lastRefillNanos = new AtomicLong(System.nanoTime());
     }
 
     /**
@@ -61,17 +101,20 @@ public class CapacityManager {
             throw new IllegalArgumentException("capacity to acquire cannot be negative");
         }
 
-        if (availableCapacity < 0) {
+        if (maxCapacity < 0) {
             return true;
         }
 
-        synchronized (lock) {
-            if (availableCapacity - capacity >= 0) {
-                availableCapacity -= capacity;
-                return true;
-            } else {
+        refill();
+        for (;;) {
+            int current = availableCapacity.get();
+            if (current - capacity < 0) {
+                exhaustedCount.incrementAndGet();
                 return false;
             }
+            if (availableCapacity.compareAndSet(current, current - capacity)) {
+                return true;
+            }
         }
     }
 
@@ -95,12 +138,8 @@ public class CapacityManager {
             throw new IllegalArgumentException("capacity to release cannot be negative");
         }
 
-        // in the common 'good' case where we have our full capacity available we can
-        // short circuit going any further and avoid unnecessary locking.
-        if (availableCapacity >= 0 && availableCapacity != maxCapacity) {
-            synchronized (lock) {
-                availableCapacity = Math.min((availableCapacity + capacity), maxCapacity);
-            }
+        if (maxCapacity >= 0) {
+            add(capacity);
         }
     }
 
@@ -110,7 +149,11 @@ public class CapacityManager {
      * @return consumed capacity
      */
     public int consumedCapacity() {
-        return (availableCapacity < 0) ? 0 : (maxCapacity - availableCapacity);
+        if (maxCapacity < 0) {
+            return 0;
+        }
+        refill();
+        return maxCapacity - availableCapacity.get();
     }
 
     /**
@@ -119,6 +162,50 @@ public class CapacityManager {
      * @return available capacity
      */
     public int availableCapacity() {
-        return availableCapacity;
+        if (maxCapacity >= 0) {
+            refill();
+        }
+        return availableCapacity.get();
+    }
+
+    /**
+     * Returns the number of acquire calls that failed because there was not
+     * enough capacity available.
+     *
+     * @return number of failed acquire calls
+     */
+    public long exhaustedCount() {
+        return exhaustedCount.get();
+    }
+
+    private void add(int capacity) {
+        for (;;) {
+            int current = availableCapacity.get();
+            // in the common 'good' case where we have our full capacity available we can
+            // short circuit going any further.
+            if (current >= maxCapacity) {
+                return;
+            }
+            int updated = (int) Math.min((long) current + capacity, maxCapacity);
+            if (availableCapacity.compareAndSet(current, updated)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Adds the capacity refilled since the last call back to the pool. Only the thread that
+     * manages to advance the refill clock adds the elapsed units, so each unit is refilled
+     * exactly once.
+     */
+    private void refill() {
+        if (nanosPerRefill == 0) {
+            return;
+        }
+        long last = lastRefillNanos.get();
+        long units = (System.nanoTime() - last) / nanosPerRefill;
+        if (units > 0 && lastRefillNanos.compareAndSet(last, last + units * nanosPerRefill)) {
+            add((int) Math.min(units, maxCapacity));
+        }
     }
 }
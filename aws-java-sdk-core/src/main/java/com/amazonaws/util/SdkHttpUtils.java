@@ -18,7 +18,6 @@ import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +26,8 @@ import java.util.regex.Pattern;
 
 import com.amazonaws.SignableRequest;
 import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.protocol.query.EncodedQueryParameters;
+import com.amazonaws.protocol.query.QueryParameterWriter;
 
 public class SdkHttpUtils {
 
@@ -158,21 +159,29 @@ public class SdkHttpUtils {
      */
     public static String encodeParameters(SignableRequest<?> request) {
 
+        if (request instanceof EncodedQueryParameters) {
+            // Parameters written directly in their encoded form by a query
+            // marshaller don't have to go through the parameter map.
+            byte[] encoded = ((EncodedQueryParameters) request).getEncodedParameters();
+            if (encoded != null) {
+                return new String(encoded, StringUtils.UTF8);
+            }
+        }
+
         final Map<String, List<String>> requestParams = request.getParameters();
 
         if (requestParams.isEmpty()) return null;
 
-        final List<NameValuePair> nameValuePairs = new ArrayList<NameValuePair>();
+        final QueryParameterWriter writer = QueryParameterWriter.forCurrentThread();
 
         for (Entry<String, List<String>> entry : requestParams.entrySet()) {
             String parameterName = entry.getKey();
             for (String value : entry.getValue()) {
-                nameValuePairs
-                    .add(new BasicNameValuePair(parameterName, value));
+                writer.parameter(parameterName, value);
             }
         }
 
-        return URLEncodedUtils.format(nameValuePairs, DEFAULT_ENCODING);
+        return new String(writer.toByteArray(), StringUtils.UTF8);
     }
 
     /**
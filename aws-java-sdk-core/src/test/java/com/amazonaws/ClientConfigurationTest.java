@@ -14,6 +14,8 @@
  */
 package com.amazonaws;
 
+import com.amazonaws.http.client.HttpClientFactory;
+import com.amazonaws.http.nio.client.impl.NioHttpTransportFactory;
 import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.retry.RetryPolicy;
 import com.amazonaws.util.ImmutableMapParameter;
@@ -275,6 +277,8 @@ public class ClientConfigurationTest {
                 field.set(customConfig, new MyCustomDnsResolver());
             } else if (clzz.isAssignableFrom(SecureRandom.class)) {
                 field.set(customConfig, new SecureRandom());
+            } else if (clzz.isAssignableFrom(HttpClientFactory.class)) {
+                field.set(customConfig, new NioHttpTransportFactory());
             } else if (field.getName().equals("headers")) {
                 field.set(customConfig, ImmutableMapParameter.of("foo", "bar"));
             } else if (clzz.isAssignableFrom(ApacheHttpClientConfig.class)) {
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth;
+
+import static com.amazonaws.auth.internal.SignerConstants.LINE_SEPARATOR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.Test;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.SignableRequest;
+import com.amazonaws.auth.internal.AWS4SignerRequestParams;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.util.BinaryUtils;
+import com.amazonaws.util.SdkHttpUtils;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Checks that the signatures of {@link AWS4Signer} are the same as those of
+ * the straightforward implementation it replaced, for requests whose headers
+ * and parameters are repeated, mixed case or padded with white space.
+ */
+public class AWS4SignerEquivalenceTest {
+
+    private static final Date SIGNING_DATE = new Date(1416863450581L);
+
+    private static final AWSCredentials CREDENTIALS =
+            new BasicAWSCredentials("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY");
+
+    private static final AWSCredentials SESSION_CREDENTIALS =
+            new BasicSessionCredentials("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY", "token");
+
+    @Test
+    public void authorizationMatchesLegacySigner() {
+        List<DefaultRequest<Void>> requests = requests();
+        List<DefaultRequest<Void>> legacyRequests = requests();
+
+        for (int i = 0; i < requests.size(); i++) {
+            for (AWSCredentials credentials : Arrays.asList(CREDENTIALS, SESSION_CREDENTIALS)) {
+                DefaultRequest<Void> request = requests.get(i);
+                DefaultRequest<Void> legacyRequest = legacyRequests.get(i);
+                request.getHeaders().remove("Authorization");
+                legacyRequest.getHeaders().remove("Authorization");
+
+                signer(new AWS4Signer()).sign(request, credentials);
+                signer(new LegacyAWS4Signer()).sign(legacyRequest, credentials);
+
+                assertNotNull(request.getHeaders().get("Authorization"));
+                assertEquals("Request " + i, legacyRequest.getHeaders().get("Authorization"),
+                             request.getHeaders().get("Authorization"));
+            }
+        }
+    }
+
+    @Test
+    public void signatureIsTheHmacOfTheLegacyStringToSign() throws Exception {
+        List<DefaultRequest<Void>> requests = requests();
+        List<DefaultRequest<Void>> legacyRequests = requests();
+        byte[] signingKey = signingKey();
+
+        for (int i = 0; i < requests.size(); i++) {
+            LegacyAWS4Signer legacySigner = signer(new LegacyAWS4Signer());
+            legacySigner.sign(legacyRequests.get(i), CREDENTIALS);
+            signer(new AWS4Signer()).sign(requests.get(i), CREDENTIALS);
+
+            String authorization = requests.get(i).getHeaders().get("Authorization");
+            String expected = BinaryUtils.toHex(hmac(signingKey, legacySigner.stringToSign));
+            assertEquals("Request " + i, expected,
+                         authorization.substring(authorization.indexOf("Signature=") + "Signature=".length()));
+        }
+    }
+
+    @Test
+    public void presignedRequestMatchesLegacySigner() {
+        List<DefaultRequest<Void>> requests = requests();
+        List<DefaultRequest<Void>> legacyRequests = requests();
+        Date expiration = new Date(SIGNING_DATE.getTime() + 60 * 1000);
+
+        for (int i = 0; i < requests.size(); i++) {
+            signer(new AWS4Signer()).presignRequest(requests.get(i), CREDENTIALS, expiration);
+            signer(new LegacyAWS4Signer()).presignRequest(legacyRequests.get(i), CREDENTIALS, expiration);
+
+            Map<String, List<String>> parameters = requests.get(i).getParameters();
+            Map<String, List<String>> legacyParameters = legacyRequests.get(i).getParameters();
+            assertNotNull(parameters.get("X-Amz-Signature"));
+            assertEquals("Request " + i, legacyParameters.get("X-Amz-SignedHeaders"),
+                         parameters.get("X-Amz-SignedHeaders"));
+            assertEquals("Request " + i, legacyParameters.get("X-Amz-Signature"),
+                         parameters.get("X-Amz-Signature"));
+        }
+    }
+
+    @Test
+    public void signingOtherRequestsInBetweenDoesNotChangeTheSignature() {
+        List<DefaultRequest<Void>> first = requests();
+        List<DefaultRequest<Void>> second = requests();
+        AWS4Signer signer = signer(new AWS4Signer());
+
+        for (DefaultRequest<Void> request : first) {
+            signer.sign(request, CREDENTIALS);
+        }
+        Collections.reverse(second);
+        for (DefaultRequest<Void> request : second) {
+            signer.sign(request, CREDENTIALS);
+        }
+        Collections.reverse(second);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals("Request " + i, first.get(i).getHeaders().get("Authorization"),
+                         second.get(i).getHeaders().get("Authorization"));
+        }
+    }
+
+    private static <T extends AWS4Signer> T signer(T signer) {
+        signer.setServiceName("service");
+        signer.setRegionName("us-east-1");
+        signer.setOverrideDate(SIGNING_DATE);
+        return signer;
+    }
+
+    /**
+     * Returns new copies of the requests to sign, whose headers and
+     * parameters cover repeated names, mixed case and white space.
+     */
+    private static List<DefaultRequest<Void>> requests() {
+        List<DefaultRequest<Void>> requests = new ArrayList<DefaultRequest<Void>>();
+
+        DefaultRequest<Void> get = request(HttpMethodName.GET, "/path/with spaces/ünïcode");
+        get.addHeader("X-Amz-Meta-Padded", "  leading,   inner   and trailing  ");
+        get.addHeader("x-amz-meta-padded-lower", "tab\tand\nnew line");
+        get.addHeader("X-AMZ-META-UPPER", "UPPER");
+        get.addHeader("X-Amz-Meta-Repeated", "first");
+        get.addHeader("x-amz-meta-repeated", "second");
+        get.addHeader("Connection", "keep-alive");
+        get.addHeader("X-Amz-Meta-Empty", "");
+        get.addHeader("X-Amz-Meta-Null", null);
+        get.addParameter("repeated", "b");
+        get.addParameter("repeated", "a");
+        get.addParameter("repeated", "a");
+        get.addParameter("Mixed", "upper");
+        get.addParameter("mixed", "lower");
+        get.addParameter("spaced", "  value with  spaces ");
+        get.addParameter("empty", "");
+        get.addParameter("null", null);
+        get.addParameter("ünïcode", "välue");
+        requests.add(get);
+
+        DefaultRequest<Void> post = request(HttpMethodName.POST, "/");
+        post.addHeader("Content-Type", "application/x-www-form-urlencoded; charset=utf-8");
+        post.addHeader(" X-Amz-Meta-Spaced Name ", " value ");
+        post.addHeader("X-Amz-Meta-Ünïcode", "Välue");
+        post.addParameter("Action", "SendMessage");
+        post.addParameter("MessageBody", "  body with\twhite space  ");
+        post.addParameter("Attribute.1.Name", "b");
+        post.addParameter("Attribute.1.Name", "a");
+        requests.add(post);
+
+        DefaultRequest<Void> put = request(HttpMethodName.PUT, "/key//with//slashes");
+        put.addHeader("Content-Type", "text/plain");
+        put.addHeader("CONTENT-MD5", "1B2M2Y8AsgTpgAmY7PhCfg==");
+        put.addHeader("x-amz-meta-Camel-Case", "Value");
+        put.addParameter("partNumber", "1");
+        put.addParameter("uploadId", "  id ");
+        put.setContent(new ByteArrayInputStream("content".getBytes(StringUtils.UTF8)));
+        requests.add(put);
+
+        DefaultRequest<Void> bare = request(HttpMethodName.DELETE, "");
+        requests.add(bare);
+
+        return requests;
+    }
+
+    private static DefaultRequest<Void> request(HttpMethodName method, String resourcePath) {
+        DefaultRequest<Void> request = new DefaultRequest<Void>("service");
+        request.setHttpMethod(method);
+        request.setEndpoint(URI.create("https://service.us-east-1.amazonaws.com"));
+        request.setResourcePath(resourcePath);
+        return request;
+    }
+
+    private static byte[] signingKey() throws Exception {
+        byte[] key = ("AWS4" + CREDENTIALS.getAWSSecretKey()).getBytes(StringUtils.UTF8);
+        for (String scope : Arrays.asList("20141124", "us-east-1", "service", "aws4_request")) {
+            key = hmac(key, scope);
+        }
+        return key;
+    }
+
+    private static byte[] hmac(byte[] key, String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(key, "HmacSHA256"));
+        return mac.doFinal(data.getBytes(StringUtils.UTF8));
+    }
+
+    /**
+     * The canonical request, string to sign and header canonicalization of
+     * the signer before they wrote into reused per-thread buffers.
+     */
+    private static class LegacyAWS4Signer extends AWS4Signer {
+
+        private static final List<String> listOfHeadersToIgnoreInLowerCase = Arrays.asList("connection");
+
+        private String stringToSign;
+
+        @Override
+        protected String createCanonicalRequest(SignableRequest<?> request, String contentSha256) {
+            final String path = SdkHttpUtils.appendUri(
+                    request.getEndpoint().getPath(), request.getResourcePath());
+
+            final StringBuilder canonicalRequestBuilder = new StringBuilder(request
+                    .getHttpMethod().toString());
+
+            canonicalRequestBuilder.append(LINE_SEPARATOR)
+                    .append(getCanonicalizedResourcePath(path, doubleUrlEncode))
+                    .append(LINE_SEPARATOR)
+                    .append(getCanonicalizedQueryString(request))
+                    .append(LINE_SEPARATOR)
+                    .append(getCanonicalizedHeaderString(request))
+                    .append(LINE_SEPARATOR)
+                    .append(getSignedHeadersString(request)).append(LINE_SEPARATOR)
+                    .append(contentSha256);
+
+            return canonicalRequestBuilder.toString();
+        }
+
+        @Override
+        protected String createStringToSign(String canonicalRequest,
+                AWS4SignerRequestParams signerParams) {
+            final StringBuilder stringToSignBuilder = new StringBuilder(
+                    signerParams.getSigningAlgorithm());
+            stringToSignBuilder.append(LINE_SEPARATOR)
+                    .append(signerParams.getFormattedSigningDateTime())
+                    .append(LINE_SEPARATOR)
+                    .append(signerParams.getScope())
+                    .append(LINE_SEPARATOR)
+                    .append(BinaryUtils.toHex(hash(canonicalRequest)));
+
+            stringToSign = stringToSignBuilder.toString();
+            return stringToSign;
+        }
+
+        @Override
+        protected String getCanonicalizedHeaderString(SignableRequest<?> request) {
+            final List<String> sortedHeaders = new ArrayList<String>(request.getHeaders()
+                    .keySet());
+            Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
+
+            final Map<String, String> requestHeaders = request.getHeaders();
+            StringBuilder buffer = new StringBuilder();
+            for (String header : sortedHeaders) {
+                if (shouldExcludeHeaderFromSigning(header)) {
+                    continue;
+                }
+                String key = StringUtils.lowerCase(header);
+                String value = requestHeaders.get(header);
+
+                StringUtils.appendCompactedString(buffer, key);
+                buffer.append(":");
+                if (value != null) {
+                    StringUtils.appendCompactedString(buffer, value);
+                }
+
+                buffer.append("\n");
+            }
+
+            return buffer.toString();
+        }
+
+        @Override
+        protected String getSignedHeadersString(SignableRequest<?> request) {
+            final List<String> sortedHeaders = new ArrayList<String>(request
+                    .getHeaders().keySet());
+            Collections.sort(sortedHeaders, String.CASE_INSENSITIVE_ORDER);
+
+            StringBuilder buffer = new StringBuilder();
+            for (String header : sortedHeaders) {
+                if (shouldExcludeHeaderFromSigning(header)) {
+                    continue;
+                }
+                if (buffer.length() > 0)
+                    buffer.append(";");
+                buffer.append(StringUtils.lowerCase(header));
+            }
+
+            return buffer.toString();
+        }
+
+        @Override
+        protected boolean shouldExcludeHeaderFromSigning(String header) {
+            return listOfHeadersToIgnoreInLowerCase.contains(header.toLowerCase());
+        }
+    }
+}
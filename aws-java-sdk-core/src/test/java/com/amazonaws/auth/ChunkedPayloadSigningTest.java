@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.util.IOUtils;
+import com.amazonaws.util.StringUtils;
+
+public class ChunkedPayloadSigningTest {
+
+    private static final int PAYLOAD_LENGTH = 300 * 1024;
+
+    private final AWSCredentials credentials = new BasicAWSCredentials("access", "secret");
+
+    private AWS4Signer signer;
+
+    private CountingInputStream payload;
+
+    private DefaultRequest<Void> request;
+
+    @Before
+    public void setup() {
+        signer = new AWS4Signer();
+        signer.setServiceName("s3");
+        signer.setRegionName("us-east-1");
+        signer.setOverrideDate(new Date(1416863450581L));
+
+        payload = new CountingInputStream(PAYLOAD_LENGTH);
+        request = new DefaultRequest<Void>("Amazon S3");
+        request.setEndpoint(URI.create("https://examplebucket.s3.amazonaws.com"));
+        request.setResourcePath("/examplekey");
+        request.setContent(payload);
+        request.addHandlerContext(HandlerContextKey.CHUNKED_PAYLOAD_SIGNING, Boolean.TRUE);
+    }
+
+    @Test
+    public void payloadIsSignedWhileItStreams() throws IOException {
+        request.addHeader("Content-Length", String.valueOf(PAYLOAD_LENGTH));
+
+        signer.sign(request, credentials);
+
+        assertEquals(0, payload.bytesRead);
+        assertEquals("STREAMING-AWS4-HMAC-SHA256-PAYLOAD", request.getHeaders().get("x-amz-content-sha256"));
+        assertEquals("aws-chunked", request.getHeaders().get("Content-Encoding"));
+        assertEquals(String.valueOf(PAYLOAD_LENGTH), request.getHeaders().get("x-amz-decoded-content-length"));
+        assertTrue(request.getHeaders().get("Authorization").contains("x-amz-decoded-content-length"));
+
+        byte[] encoded = IOUtils.toByteArray(request.getContent());
+        assertEquals(PAYLOAD_LENGTH, payload.bytesRead);
+        assertEquals(AwsChunkedEncodingInputStream.calculateStreamContentLength(PAYLOAD_LENGTH), encoded.length);
+        assertEquals(Long.parseLong(request.getHeaders().get("Content-Length")), encoded.length);
+        assertTrue(new String(encoded, StringUtils.UTF8).startsWith("20000;chunk-signature="));
+    }
+
+    @Test
+    public void payloadOfUnknownLengthIsHashedUpfront() throws IOException {
+        byte[] content = "content".getBytes(StringUtils.UTF8);
+        request.setContent(new ByteArrayInputStream(content));
+        request.addHeader("Content-Encoding", "gzip");
+
+        signer.sign(request, credentials);
+
+        assertFalse(request.getContent() instanceof AwsChunkedEncodingInputStream);
+        assertNull(request.getHeaders().get("x-amz-content-sha256"));
+        assertEquals("gzip", request.getHeaders().get("Content-Encoding"));
+        assertNull(request.getHeaders().get("x-amz-decoded-content-length"));
+        assertEquals("content", IOUtils.toString(request.getContent()));
+    }
+
+    @Test
+    public void payloadIsHashedUpfrontWithoutOptIn() throws IOException {
+        request.addHandlerContext(HandlerContextKey.CHUNKED_PAYLOAD_SIGNING, Boolean.FALSE);
+        request.setContent(new ByteArrayInputStream(new byte[10]));
+
+        signer.sign(request, credentials);
+
+        assertFalse(request.getContent() instanceof AwsChunkedEncodingInputStream);
+        assertNull(request.getHeaders().get("Content-Encoding"));
+    }
+
+    /**
+     * A payload that can't be marked or reset, counting the bytes read from it.
+     */
+    private static class CountingInputStream extends InputStream {
+
+        private final int length;
+
+        private int bytesRead;
+
+        CountingInputStream(int length) {
+            this.length = length;
+        }
+
+        @Override
+        public int read() {
+            return bytesRead < length ? (bytesRead++ & 0x7F) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (bytesRead >= length) {
+                return -1;
+            }
+            int count = Math.min(len, length - bytesRead);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) ((bytesRead + i) & 0x7F);
+            }
+            bytesRead += count;
+            return count;
+        }
+    }
+}
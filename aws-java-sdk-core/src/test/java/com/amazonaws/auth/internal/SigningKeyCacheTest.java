@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class SigningKeyCacheTest {
+
+    private final byte[] signingKey = new byte[] { 1, 2, 3 };
+
+    @Test
+    public void keysAreCachedPerSecretDateRegionAndService() {
+        SigningKeyCache cache = new SigningKeyCache(10);
+        cache.put("secret", 100, "us-east-1", "dynamodb", signingKey);
+
+        assertSame(signingKey, cache.get("secret", 100, "us-east-1", "dynamodb"));
+        assertNull(cache.get("other", 100, "us-east-1", "dynamodb"));
+        assertNull(cache.get("secret", 101, "us-east-1", "dynamodb"));
+        assertNull(cache.get("secret", 100, "us-west-2", "dynamodb"));
+        assertNull(cache.get("secret", 100, "us-east-1", "sqs"));
+    }
+
+    @Test
+    public void oldestKeysAreEvictedWhenFull() {
+        SigningKeyCache cache = new SigningKeyCache(2);
+        cache.put("secret", 1, "us-east-1", "dynamodb", signingKey);
+        cache.put("secret", 2, "us-east-1", "dynamodb", signingKey);
+        cache.put("secret", 2, "us-east-1", "dynamodb", new byte[0]);
+        cache.put("secret", 3, "us-east-1", "dynamodb", signingKey);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("secret", 1, "us-east-1", "dynamodb"));
+        assertSame(signingKey, cache.get("secret", 2, "us-east-1", "dynamodb"));
+        assertSame(signingKey, cache.get("secret", 3, "us-east-1", "dynamodb"));
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.http.exception.HttpRequestTimeoutException;
+import com.amazonaws.http.nio.client.impl.NioHttpTransportFactory;
+import com.amazonaws.http.server.LoopbackHttpServer;
+import com.amazonaws.retry.PredefinedRetryPolicies;
+import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.util.IOUtils;
+
+public class AsyncRequestExecutorTest {
+
+    private static final long TIMEOUT_MILLIS = 10 * 1000;
+
+    private LoopbackHttpServer server;
+
+    private AmazonHttpClient client;
+
+    @Before
+    public void setup() throws IOException {
+        server = new LoopbackHttpServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.shutdown();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void responseIsUnmarshalled() throws Exception {
+        client = client(new ClientConfiguration());
+        RecordingHandler handler = new RecordingHandler();
+
+        Future<Response<String>> future = execute(handler);
+
+        assertEquals("ok", future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).getAwsResponse());
+        handler.await();
+        assertEquals("ok", handler.response.get().getAwsResponse());
+        assertNotNull(server.takeRequest(TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void serverErrorsAreRetriedOnTheSameConnection() throws Exception {
+        client = client(new ClientConfiguration());
+        server.enqueue(500, "");
+        server.enqueue(503, "");
+
+        Future<Response<String>> future = execute(null);
+
+        assertEquals("ok", future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).getAwsResponse());
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(server.takeRequest(TIMEOUT_MILLIS));
+        }
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void errorIsReportedOnceRetriesAreExhausted() throws Exception {
+        client = client(new ClientConfiguration().withMaxErrorRetry(1));
+        server.enqueue(500, "");
+        server.enqueue(500, "");
+        RecordingHandler handler = new RecordingHandler();
+
+        Future<Response<String>> future = execute(handler);
+
+        AmazonServiceException ase = (AmazonServiceException) failure(future);
+        assertEquals(500, ase.getStatusCode());
+        handler.await();
+        assertSame(ase, handler.error.get());
+    }
+
+    @Test
+    public void requestTimesOut() throws Exception {
+        client = client(new ClientConfiguration().withRequestTimeout(200).withMaxErrorRetry(0));
+        server.setResponding(false);
+
+        Throwable failure = failure(execute(null));
+
+        assertTrue(String.valueOf(failure), failure instanceof SdkClientException);
+        assertTrue(String.valueOf(failure.getCause()), failure.getCause() instanceof HttpRequestTimeoutException);
+    }
+
+    @Test
+    public void cancellingTheFutureAbortsTheRequest() throws Exception {
+        client = client(new ClientConfiguration());
+        server.setResponding(false);
+
+        Future<Response<String>> future = execute(null);
+        assertNotNull(server.takeRequest(TIMEOUT_MILLIS));
+
+        assertTrue(future.cancel(true));
+        assertTrue(future.isCancelled());
+        server.setResponding(true);
+        assertEquals("ok", execute(null).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).getAwsResponse());
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    public void connectionIsReusedAcrossExecutions() throws Exception {
+        client = client(new ClientConfiguration());
+
+        execute(null).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        execute(null).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    /**
+     * Returns a client retrying up to three times, or as often as configured, without delay.
+     */
+    private static AmazonHttpClient client(ClientConfiguration config) {
+        return new AmazonHttpClient(config
+                .withAsyncHttpTransportFactory(new NioHttpTransportFactory())
+                .withRetryPolicy(new RetryPolicy(PredefinedRetryPolicies.DEFAULT_RETRY_CONDITION,
+                                                 RetryPolicy.BackoffStrategy.NO_DELAY, 3, true)));
+    }
+
+    private Future<Response<String>> execute(RecordingHandler handler) {
+        Request<?> request = new DefaultRequest<Object>("testsvc");
+        request.setEndpoint(URI.create(server.getEndpoint()));
+        request.setHttpMethod(HttpMethodName.GET);
+        return client.requestExecutionBuilder()
+                .request(request)
+                .errorResponseHandler(new ErrorHandler())
+                .executionContext(new ExecutionContext())
+                .executeAsync(new ContentHandler(), handler);
+    }
+
+    private static Throwable failure(Future<?> future) throws Exception {
+        try {
+            future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            fail("The execution was expected to fail");
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static class ContentHandler implements HttpResponseHandler<String> {
+        @Override
+        public String handle(HttpResponse response) throws Exception {
+            return IOUtils.toString(response.getContent());
+        }
+
+        @Override
+        public boolean needsConnectionLeftOpen() {
+            return false;
+        }
+    }
+
+    private static class ErrorHandler implements HttpResponseHandler<AmazonServiceException> {
+        @Override
+        public AmazonServiceException handle(HttpResponse response) {
+            return new AmazonServiceException(response.getStatusText());
+        }
+
+        @Override
+        public boolean needsConnectionLeftOpen() {
+            return false;
+        }
+    }
+
+    private static class RecordingHandler implements AsyncHandler<AmazonWebServiceRequest, Response<String>> {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Response<String>> response = new AtomicReference<Response<String>>();
+        private final AtomicReference<Exception> error = new AtomicReference<Exception>();
+
+        @Override
+        public void onSuccess(AmazonWebServiceRequest request, Response<String> result) {
+            response.set(result);
+            done.countDown();
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            error.set(exception);
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(done.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        }
+    }
+}
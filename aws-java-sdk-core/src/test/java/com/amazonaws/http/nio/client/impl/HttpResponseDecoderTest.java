@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.amazonaws.http.client.HttpTransportResponse;
+import com.amazonaws.util.StringUtils;
+
+public class HttpResponseDecoderTest {
+
+    @Test
+    public void contentLengthBody_DecodedInOnePass() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(false);
+        assertTrue(decoder.decode(buffer("HTTP/1.1 200 OK\r\nContent-Length: 5\r\n\r\nhello")));
+
+        HttpTransportResponse response = decoder.toResponse();
+        assertEquals(200, response.getStatusCode());
+        assertEquals("OK", response.getStatusText());
+        assertEquals("5", response.getHeader("content-length"));
+        assertArrayEquals(bytes("hello"), response.getContent());
+        assertTrue(decoder.isKeepAlive());
+    }
+
+    @Test
+    public void responseSplitAcrossBuffers_DecodedIncrementally() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(false);
+        String raw = "HTTP/1.1 404 Not Found\r\nContent-Length: 11\r\n\r\nnot found!!";
+        for (int i = 0; i < raw.length() - 1; i++) {
+            assertFalse(decoder.decode(buffer(raw.substring(i, i + 1))));
+        }
+        assertTrue(decoder.decode(buffer(raw.substring(raw.length() - 1))));
+        assertEquals(404, decoder.toResponse().getStatusCode());
+        assertArrayEquals(bytes("not found!!"), decoder.toResponse().getContent());
+    }
+
+    @Test
+    public void chunkedBody_ChunksAndTrailersConsumed() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(false);
+        assertTrue(decoder.decode(buffer("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                                         + "4\r\nWiki\r\n5;ext=1\r\npedia\r\n0\r\nx-trailer: t\r\n\r\n")));
+        assertArrayEquals(bytes("Wikipedia"), decoder.toResponse().getContent());
+    }
+
+    @Test
+    public void interimContinueResponse_Skipped() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(false);
+        assertTrue(decoder.decode(buffer("HTTP/1.1 100 Continue\r\n\r\n"
+                                         + "HTTP/1.1 204 No Content\r\n\r\n")));
+        assertEquals(204, decoder.toResponse().getStatusCode());
+        assertEquals(0, decoder.toResponse().getContent().length);
+    }
+
+    @Test
+    public void headResponse_HasNoBody() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(true);
+        assertTrue(decoder.decode(buffer("HTTP/1.1 200 OK\r\nContent-Length: 42\r\n\r\n")));
+        assertEquals(0, decoder.toResponse().getContent().length);
+    }
+
+    @Test
+    public void bodyWithoutLength_ReadUntilClose() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(false);
+        assertFalse(decoder.decode(buffer("HTTP/1.0 200 OK\r\n\r\npartial")));
+        assertTrue(decoder.endOfStream());
+        assertArrayEquals(bytes("partial"), decoder.toResponse().getContent());
+        assertFalse(decoder.isKeepAlive());
+    }
+
+    @Test(expected = IOException.class)
+    public void connectionClosedMidBody_ThrowsIOException() throws IOException {
+        HttpResponseDecoder decoder = new HttpResponseDecoder(false);
+        decoder.decode(buffer("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nabc"));
+        decoder.endOfStream();
+    }
+
+    @Test(expected = IOException.class)
+    public void malformedStatusLine_ThrowsIOException() throws IOException {
+        new HttpResponseDecoder(false).decode(buffer("garbage\r\n"));
+    }
+
+    private static ByteBuffer buffer(String s) {
+        return ByteBuffer.wrap(bytes(s));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StringUtils.UTF8);
+    }
+}
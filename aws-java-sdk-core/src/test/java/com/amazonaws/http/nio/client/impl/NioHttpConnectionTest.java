@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.server.LoopbackHttpServer;
+import com.amazonaws.http.settings.HttpClientSettings;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Covers how a connection reads responses off the wire and whether it is kept for the next
+ * exchange afterwards.
+ */
+public class NioHttpConnectionTest {
+
+    private LoopbackHttpServer server;
+
+    private AsyncHttpTransport transport;
+
+    @Before
+    public void setup() throws IOException {
+        server = new LoopbackHttpServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (transport != null) {
+            transport.shutdown();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void chunkedResponseIsReadAndConnectionIsReused() throws Exception {
+        transport = transport(new ClientConfiguration());
+        server.enqueueRaw("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n"
+                          + "3\r\nabc\r\n2\r\nde\r\n0\r\n\r\n");
+
+        RecordingCallback chunked = execute(HttpMethodName.GET);
+        RecordingCallback next = execute(HttpMethodName.GET);
+
+        assertEquals("abcde", new String(chunked.response.getContent(), StringUtils.UTF8));
+        assertEquals("ok", new String(next.response.getContent(), StringUtils.UTF8));
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void headResponseHasNoBody() throws Exception {
+        transport = transport(new ClientConfiguration());
+        server.enqueueRaw("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\n");
+
+        RecordingCallback head = execute(HttpMethodName.HEAD);
+        RecordingCallback next = execute(HttpMethodName.GET);
+
+        assertEquals(0, head.response.getContent().length);
+        assertEquals("10", head.response.getHeader("Content-Length"));
+        assertEquals(200, next.response.getStatusCode());
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void connectionIsClosedWhenTheServerAsksToClose() throws Exception {
+        transport = transport(new ClientConfiguration());
+        server.enqueueRaw("HTTP/1.1 200 OK\r\nConnection: close\r\nContent-Length: 2\r\n\r\nok");
+
+        assertEquals(200, execute(HttpMethodName.GET).response.getStatusCode());
+        assertEquals(200, execute(HttpMethodName.GET).response.getStatusCode());
+
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    public void exchangeFailsWhenTheServerClosesWithoutResponding() throws Exception {
+        transport = transport(new ClientConfiguration());
+        server.enqueueRaw("");
+
+        RecordingCallback result = execute(HttpMethodName.GET);
+
+        assertNull(result.response);
+        assertNotNull(result.failure);
+        assertEquals(200, execute(HttpMethodName.GET).response.getStatusCode());
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    public void connectionIdleForTooLongIsNotReused() throws Exception {
+        transport = transport(new ClientConfiguration().withConnectionMaxIdleMillis(1));
+
+        assertEquals(200, execute(HttpMethodName.GET).response.getStatusCode());
+        Thread.sleep(50);
+        assertEquals(200, execute(HttpMethodName.GET).response.getStatusCode());
+
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    private static AsyncHttpTransport transport(ClientConfiguration config) {
+        return new NioHttpTransportFactory().create(HttpClientSettings.adapt(config));
+    }
+
+    private RecordingCallback execute(HttpMethodName method) throws InterruptedException {
+        RecordingCallback result = new RecordingCallback();
+        transport.execute(new HttpTransportRequest(method, URI.create(server.getEndpoint()),
+                                                   Collections.<String, String>emptyMap(), null),
+                          result);
+        return result.await();
+    }
+}
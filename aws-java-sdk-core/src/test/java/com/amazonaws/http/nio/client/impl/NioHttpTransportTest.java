@@ -0,0 +1,220 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.DnsResolver;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.Cancellable;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.server.LoopbackHttpServer;
+import com.amazonaws.http.settings.HttpClientSettings;
+import com.amazonaws.util.StringUtils;
+
+public class NioHttpTransportTest {
+
+    private static final long TIMEOUT_MILLIS = RecordingCallback.TIMEOUT_MILLIS;
+
+    private LoopbackHttpServer server;
+
+    private AsyncHttpTransport transport;
+
+    @Before
+    public void setup() throws IOException {
+        server = new LoopbackHttpServer();
+    }
+
+    @After
+    public void tearDown() {
+        if (transport != null) {
+            transport.shutdown();
+        }
+        server.stop();
+    }
+
+    @Test
+    public void responseIsReturned() throws Exception {
+        transport = transport(new ClientConfiguration());
+        server.enqueue(201, "created");
+
+        RecordingCallback result = execute(server.getEndpoint() + "/path");
+
+        assertNull(result.failure);
+        assertEquals(201, result.response.getStatusCode());
+        assertEquals("created", new String(result.response.getContent(), StringUtils.UTF8));
+        assertEquals("PUT /path HTTP/1.1", server.takeRequest(TIMEOUT_MILLIS));
+    }
+
+    @Test
+    public void connectionIsReused() throws Exception {
+        transport = transport(new ClientConfiguration());
+
+        assertEquals(200, execute(server.getEndpoint()).response.getStatusCode());
+        assertEquals(200, execute(server.getEndpoint()).response.getStatusCode());
+
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void requestsWaitForAPooledConnection() throws Exception {
+        transport = transport(new ClientConfiguration().withMaxConnections(1));
+
+        RecordingCallback[] results = new RecordingCallback[3];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new RecordingCallback();
+            transport.execute(request(server.getEndpoint()), results[i]);
+        }
+
+        for (RecordingCallback result : results) {
+            assertEquals(200, result.await().response.getStatusCode());
+        }
+        assertEquals(1, server.getConnectionCount());
+    }
+
+    @Test
+    public void unansweredRequestTimesOut() throws Exception {
+        transport = transport(new ClientConfiguration().withSocketTimeout(200));
+        server.setResponding(false);
+
+        RecordingCallback result = execute(server.getEndpoint());
+
+        assertTrue(String.valueOf(result.failure), result.failure instanceof SocketTimeoutException);
+    }
+
+    @Test
+    public void abortedRequestFailsAndItsConnectionIsNotReused() throws Exception {
+        transport = transport(new ClientConfiguration());
+        server.setResponding(false);
+
+        RecordingCallback aborted = new RecordingCallback();
+        Cancellable exchange = transport.execute(request(server.getEndpoint()), aborted);
+        assertNotNull(server.takeRequest(TIMEOUT_MILLIS));
+        exchange.cancel();
+        aborted.await();
+
+        assertTrue(String.valueOf(aborted.failure), aborted.failure instanceof InterruptedIOException);
+        server.setResponding(true);
+        assertEquals(200, execute(server.getEndpoint()).response.getStatusCode());
+        assertEquals(2, server.getConnectionCount());
+    }
+
+    @Test
+    public void nextAddressIsTriedWhenConnectionIsRefused() throws Exception {
+        final InetAddress refusing = InetAddress.getByAddress("test-host", new byte[] {127, 0, 0, 2});
+        final InetAddress listening = InetAddress.getByAddress("test-host", new byte[] {127, 0, 0, 1});
+        transport = transport(new ClientConfiguration().withDnsResolver(new DnsResolver() {
+            @Override
+            public InetAddress[] resolve(String host) {
+                return new InetAddress[] {refusing, listening};
+            }
+        }));
+
+        RecordingCallback result = execute("http://test-host:" + server.getPort());
+
+        assertNull(result.failure);
+        assertEquals(200, result.response.getStatusCode());
+    }
+
+    @Test
+    public void unresolvedHostFailsTheRequest() throws Exception {
+        transport = transport(new ClientConfiguration().withDnsResolver(new DnsResolver() {
+            @Override
+            public InetAddress[] resolve(String host) {
+                return new InetAddress[0];
+            }
+        }));
+
+        RecordingCallback result = execute("http://test-host:" + server.getPort());
+
+        assertTrue(String.valueOf(result.failure), result.failure instanceof UnknownHostException);
+    }
+
+    @Test
+    public void slowHostResolutionDoesNotHoldUpOtherRequests() throws Exception {
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch resolve = new CountDownLatch(1);
+        transport = transport(new ClientConfiguration().withDnsResolver(new DnsResolver() {
+            @Override
+            public InetAddress[] resolve(String host) throws UnknownHostException {
+                if ("slow-host".equals(host)) {
+                    resolving.countDown();
+                    try {
+                        resolve.await();
+                    } catch (InterruptedException e) {
+                        throw new UnknownHostException(host);
+                    }
+                }
+                return new InetAddress[] {InetAddress.getByAddress(host, new byte[] {127, 0, 0, 1})};
+            }
+        }));
+
+        RecordingCallback slow = new RecordingCallback();
+        transport.execute(request("http://slow-host:" + server.getPort()), slow);
+        assertTrue(resolving.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        assertEquals(200, execute(server.getEndpoint()).response.getStatusCode());
+        assertFalse(slow.isDone());
+        resolve.countDown();
+        slow.await();
+        assertEquals(200, slow.response.getStatusCode());
+    }
+
+    @Test
+    public void requestsFailOnceShutDown() throws Exception {
+        transport = transport(new ClientConfiguration());
+        transport.shutdown();
+
+        RecordingCallback result = execute(server.getEndpoint());
+
+        assertTrue(String.valueOf(result.failure), result.failure instanceof InterruptedIOException);
+    }
+
+    private static AsyncHttpTransport transport(ClientConfiguration config) {
+        return new NioHttpTransportFactory().create(HttpClientSettings.adapt(config));
+    }
+
+    private RecordingCallback execute(String uri) throws InterruptedException {
+        RecordingCallback result = new RecordingCallback();
+        transport.execute(request(uri), result);
+        return result.await();
+    }
+
+    private static HttpTransportRequest request(String uri) {
+        return new HttpTransportRequest(HttpMethodName.PUT, URI.create(uri),
+                                        Collections.singletonMap("x-amz-test", "value"),
+                                        "content".getBytes(StringUtils.UTF8));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.nio.client.impl;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.amazonaws.http.client.HttpTransportCallback;
+import com.amazonaws.http.client.HttpTransportResponse;
+
+/**
+ * Records the outcome of an exchange for a test to wait for.
+ */
+class RecordingCallback implements HttpTransportCallback {
+
+    static final long TIMEOUT_MILLIS = 10 * 1000;
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    volatile HttpTransportResponse response;
+    volatile IOException failure;
+
+    @Override
+    public void completed(HttpTransportResponse response) {
+        this.response = response;
+        done.countDown();
+    }
+
+    @Override
+    public void failed(IOException cause) {
+        this.failure = cause;
+        done.countDown();
+    }
+
+    boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    RecordingCallback await() throws InterruptedException {
+        assertTrue("No result within the timeout", done.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        return this;
+    }
+}
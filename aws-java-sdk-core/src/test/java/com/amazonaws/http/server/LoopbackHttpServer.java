@@ -0,0 +1,204 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.server;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.util.StringUtils;
+
+/**
+ * A keep-alive HTTP/1.1 server on the loopback address, which answers every request on a
+ * connection in turn with the next queued response, or with a 200 and a body of "ok" when none
+ * is queued. A connection is closed after a response with a "Connection: close" header. The
+ * server can also be told to read requests without ever answering them, and counts the
+ * connections accepted so that tests can tell whether a connection was reused.
+ */
+public class LoopbackHttpServer {
+
+    private final ServerSocket serverSocket;
+    private final Thread acceptThread;
+    private final List<Socket> sockets = new ArrayList<Socket>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final BlockingQueue<String> requests = new LinkedBlockingQueue<String>();
+    private final Queue<String> responses = new ConcurrentLinkedQueue<String>();
+    private volatile boolean responding = true;
+
+    public LoopbackHttpServer() throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0));
+        acceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                acceptConnections();
+            }
+        }, "loopback-http-server-" + getPort());
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public String getEndpoint() {
+        return "http://127.0.0.1:" + getPort();
+    }
+
+    /**
+     * Queues the response to the next request answered.
+     */
+    public void enqueue(int statusCode, String body) {
+        enqueueRaw("HTTP/1.1 " + statusCode + " Status " + statusCode + "\r\n"
+                   + "Content-Length: " + body.length() + "\r\n\r\n" + body);
+    }
+
+    /**
+     * Queues the response to the next request answered as it is written on the wire; an empty
+     * response closes the connection without answering.
+     */
+    public void enqueueRaw(String response) {
+        responses.add(response);
+    }
+
+    /**
+     * Whether to answer the requests read from now on, or leave them hanging.
+     */
+    public void setResponding(boolean responding) {
+        this.responding = responding;
+    }
+
+    /** Returns the number of connections accepted so far. */
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Waits for the next request to arrive and returns its request line, or null if none
+     * arrives within the given time.
+     */
+    public String takeRequest(long timeoutMillis) throws InterruptedException {
+        return requests.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Nothing to do
+                }
+            }
+        }
+    }
+
+    private void acceptConnections() {
+        while (!serverSocket.isClosed()) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                return;
+            }
+            connections.incrementAndGet();
+            synchronized (sockets) {
+                sockets.add(socket);
+            }
+            Thread connectionThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    serve(socket);
+                }
+            }, acceptThread.getName() + "-connection-" + connections.get());
+            connectionThread.setDaemon(true);
+            connectionThread.start();
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            String requestLine;
+            while ((requestLine = readLine(in)) != null) {
+                int contentLength = 0;
+                String header;
+                while ((header = readLine(in)) != null && !header.isEmpty()) {
+                    if (header.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                    }
+                }
+                for (int i = 0; i < contentLength; i++) {
+                    in.read();
+                }
+                requests.add(requestLine);
+                if (responding) {
+                    String response = responses.poll();
+                    if (response == null) {
+                        response = "HTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nok";
+                    }
+                    out.write(response.getBytes(StringUtils.UTF8));
+                    out.flush();
+                    if (response.isEmpty() || response.toLowerCase().contains("\r\nconnection: close\r\n")) {
+                        return;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // The client or the test closed the connection
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                return null;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return new String(line.toByteArray(), StringUtils.UTF8);
+    }
+}
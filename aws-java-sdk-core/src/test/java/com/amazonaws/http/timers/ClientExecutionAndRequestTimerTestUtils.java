@@ -19,7 +19,7 @@
 package com.amazonaws.http.timers;
 
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.never;
@@ -28,8 +28,6 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import com.amazonaws.http.apache.client.impl.ApacheHttpClientFactory;
 import com.amazonaws.http.apache.client.impl.ConnectionManagerAwareHttpClient;
@@ -65,26 +63,36 @@ import com.amazonaws.http.timers.request.HttpRequestTimer;
 public class ClientExecutionAndRequestTimerTestUtils {
 
     /**
-     * Can take a little bit for ScheduledThreadPoolExecutor to update it's internal state
+     * Can take a little bit for the timer to process cancelled timeouts
      */
-    private static final int WAIT_BEFORE_ASSERT_ON_EXECUTOR = 500;
+    private static final int WAIT_BEFORE_ASSERT_ON_TIMER = 500;
 
     /**
-     * Assert that the executor backing {@link ClientExecutionTimer} was never created or used
+     * @return A timer of the test's own, so that asserts on it aren't affected by other tests
+     *         scheduling on the timer shared by all clients
+     */
+    public static HashedWheelTimer newTimer() {
+        return new HashedWheelTimer("test-timeout-timer", 10, 512, 5000);
+    }
+
+    /**
+     * Assert that the {@link HttpRequestTimer} never scheduled a timeout, so its timer never
+     * started a thread. Its timer must be one of the test's own, see {@link #newTimer()}.
      * 
      * @param requestTimer
      */
     public static void assertRequestTimerExecutorNotCreated(HttpRequestTimer requestTimer) {
-        assertNull(requestTimer.getExecutor());
+        assertFalse(requestTimer.getTimer().isWorkerRunning());
     }
 
     /**
-     * Assert that the executor backing {@link ClientExecutionTimer} was never created or used
+     * Assert that the {@link ClientExecutionTimer} never scheduled a timeout, so its timer never
+     * started a thread. Its timer must be one of the test's own, see {@link #newTimer()}.
      * 
      * @param clientExecutionTimer
      */
     public static void assertClientExecutionTimerExecutorNotCreated(ClientExecutionTimer clientExecutionTimer) {
-        assertNull(clientExecutionTimer.getExecutor());
+        assertFalse(clientExecutionTimer.getTimer().isWorkerRunning());
     }
 
     /**
@@ -110,56 +118,57 @@ public class ClientExecutionAndRequestTimerTestUtils {
     }
 
     /**
-     * Waits until a little after the thread pools keep alive time and then asserts that all thre
+     * Waits until a little after the timer's keep alive time and then asserts that its worker
+     * thread has stopped
      * 
-     * @param timerExecutor
-     *            Executor used by timer implementation
-     * @throws InterruptedException
+     * @param timer
+     *            Timer used by timer implementation
      */
-    public static void assertCoreThreadsShutDownAfterBeingIdle(ScheduledThreadPoolExecutor timerExecutor) {
+    public static void assertCoreThreadsShutDownAfterBeingIdle(HashedWheelTimer timer) {
         try {
-            Thread.sleep(timerExecutor.getKeepAliveTime(TimeUnit.MILLISECONDS) + 1000);
+            Thread.sleep(timer.getKeepAliveMillis() + 1000);
         } catch (InterruptedException ignored) {
         }
-        assertEquals(0, timerExecutor.getPoolSize());
+        assertFalse(timer.isWorkerRunning());
     }
 
     /**
-     * If the request completes successfully then the timer task should be canceled and should be
-     * removed from the thread pool to prevent build up of canceled tasks
+     * If the request completes successfully then the timer task should be canceled and should no
+     * longer be pending in the timer
      * 
-     * @param timerExecutor
-     *            Executor used by timer implementation
+     * @param timer
+     *            Timer used by timer implementation
      */
-    public static void assertCanceledTasksRemoved(ScheduledThreadPoolExecutor timerExecutor) {
-        waitBeforeAssertOnExecutor();
-        assertEquals(0, timerExecutor.getQueue().size());
+    public static void assertCanceledTasksRemoved(HashedWheelTimer timer) {
+        waitBeforeAssertOnTimer();
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    /**
+     * Asserts the timer never went off (I.E. no timeout was exceeded and no timer task was
+     * executed)
+     */
+    public static void assertTimerNeverTriggered(HttpRequestTimer requestTimer) {
+        assertNumberOfTasksTriggered(requestTimer, 0);
     }
 
     /**
      * Asserts the timer never went off (I.E. no timeout was exceeded and no timer task was
      * executed)
-     * 
-     * @param timerExecutor
-     *            Executor used by timer implementation
      */
-    public static void assertTimerNeverTriggered(ScheduledThreadPoolExecutor timerExecutor) {
-        assertNumberOfTasksTriggered(timerExecutor, 0);
+    public static void assertTimerNeverTriggered(ClientExecutionTimer clientExecutionTimer) {
+        assertNumberOfTasksTriggered(clientExecutionTimer, 0);
     }
 
     public static void assertNumberOfTasksTriggered(ClientExecutionTimer clientExecutionTimer,
                                                     int expectedNumberOfTasks) {
-        assertNumberOfTasksTriggered(clientExecutionTimer.getExecutor(), expectedNumberOfTasks);
+        waitBeforeAssertOnTimer();
+        assertEquals(expectedNumberOfTasks, clientExecutionTimer.getTriggeredTaskCount());
     }
 
     public static void assertNumberOfTasksTriggered(HttpRequestTimer requestTimer, int expectedNumberOfTasks) {
-        assertNumberOfTasksTriggered(requestTimer.getExecutor(), expectedNumberOfTasks);
-    }
-
-    private static void assertNumberOfTasksTriggered(ScheduledThreadPoolExecutor timerExecutor,
-                                                     int expectedNumberOfTasks) {
-        waitBeforeAssertOnExecutor();
-        assertEquals(expectedNumberOfTasks, timerExecutor.getCompletedTaskCount());
+        waitBeforeAssertOnTimer();
+        assertEquals(expectedNumberOfTasks, requestTimer.getTriggeredTaskCount());
     }
 
     /**
@@ -171,8 +180,19 @@ public class ClientExecutionAndRequestTimerTestUtils {
      *         partially mock
      */
     public static ConnectionManagerAwareHttpClient createRawHttpClientSpy(ClientConfiguration config) {
+        return spy(createRawHttpClient(config));
+    }
+
+    /**
+     * Creates Apache {@link HttpClient}
+     * 
+     * @param config
+     *            {@link ClientConfiguration} for {@link HttpClientFactory}
+     * @return Real implementation of {@link HttpClient}
+     */
+    public static ConnectionManagerAwareHttpClient createRawHttpClient(ClientConfiguration config) {
         HttpClientFactory<ConnectionManagerAwareHttpClient> httpClientFactory = new ApacheHttpClientFactory();
-        return spy(httpClientFactory.create(HttpClientSettings.adapt(config, false)));
+        return httpClientFactory.create(HttpClientSettings.adapt(config, false));
     }
 
     /**
@@ -232,9 +252,9 @@ public class ClientExecutionAndRequestTimerTestUtils {
         }
     }
 
-    private static void waitBeforeAssertOnExecutor() {
+    private static void waitBeforeAssertOnTimer() {
         try {
-            Thread.sleep(WAIT_BEFORE_ASSERT_ON_EXECUTOR);
+            Thread.sleep(WAIT_BEFORE_ASSERT_ON_TIMER);
         } catch (InterruptedException ignored) {
         }
     }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http.timers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class HashedWheelTimerTest {
+
+    private static final long KEEP_ALIVE_MILLIS = 200;
+
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", 10, 8, KEEP_ALIVE_MILLIS);
+
+    @Test
+    public void timeoutExpires_TaskRunAfterDelay() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(countDown(latch), 100);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(1, timer.expiredTimeouts());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    public void timeoutCancelled_TaskNeverRun() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(increment(runs), 50);
+
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, timer.pendingTimeouts());
+        Thread.sleep(200);
+        assertEquals(0, runs.get());
+        assertEquals(0, timer.expiredTimeouts());
+    }
+
+    @Test
+    public void delayLongerThanOneRotation_TaskNotRunEarly() throws InterruptedException {
+        // Eight ticks of 10ms make one 80ms rotation of the wheel
+        final CountDownLatch latch = new CountDownLatch(1);
+        long start = System.nanoTime();
+        timer.newTimeout(countDown(latch), 300);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 300);
+    }
+
+    @Test
+    public void manyTimeouts_OnlyUncancelledOnesRun() throws InterruptedException {
+        final AtomicInteger runs = new AtomicInteger();
+        List<HashedWheelTimer.Timeout> timeouts = new ArrayList<HashedWheelTimer.Timeout>();
+        for (int i = 0; i < 1000; i++) {
+            // Long enough that nothing expires before the cancellations below are made
+            timeouts.add(timer.newTimeout(increment(runs), 200 + i % 200));
+        }
+        for (int i = 0; i < timeouts.size(); i += 2) {
+            timeouts.get(i).cancel();
+        }
+        Thread.sleep(1000);
+        assertEquals(500, runs.get());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    public void idleTimer_WorkerStopsAndRestartsOnDemand() throws InterruptedException {
+        assertFalse(timer.isWorkerRunning());
+        timer.newTimeout(increment(new AtomicInteger()), 10).cancel();
+        assertTrue(timer.isWorkerRunning());
+
+        Thread.sleep(KEEP_ALIVE_MILLIS + 500);
+        assertFalse(timer.isWorkerRunning());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(countDown(latch), 10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void taskThrowsException_TimerKeepsRunning() throws InterruptedException {
+        timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                throw new RuntimeException("boom");
+            }
+        }, 10);
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(countDown(latch), 50);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void taskBlocks_OtherTimeoutsStillRun() throws InterruptedException {
+        final CountDownLatch blocking = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                blocking.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                }
+            }
+        }, 10);
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(countDown(latch), 10);
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static Runnable countDown(final CountDownLatch latch) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+    }
+
+    private static Runnable increment(final AtomicInteger counter) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                counter.incrementAndGet();
+            }
+        };
+    }
+}
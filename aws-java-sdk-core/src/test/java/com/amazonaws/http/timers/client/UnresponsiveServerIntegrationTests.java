@@ -16,7 +16,9 @@ package com.amazonaws.http.timers.client;
 
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.assertClientExecutionTimerExecutorNotCreated;
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.assertNumberOfTasksTriggered;
+import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.createRawHttpClient;
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.interruptCurrentThreadAfterDelay;
+import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.newTimer;
 import static com.amazonaws.http.timers.TimeoutTestConstants.CLIENT_EXECUTION_TIMEOUT;
 import static com.amazonaws.http.timers.TimeoutTestConstants.PRECISION_MULTIPLIER;
 import static com.amazonaws.http.timers.TimeoutTestConstants.TEST_TIMEOUT;
@@ -40,6 +42,7 @@ import com.amazonaws.http.UnresponsiveMockServerTestBase;
 import com.amazonaws.http.exception.HttpRequestTimeoutException;
 import com.amazonaws.http.response.NullErrorResponseHandler;
 import com.amazonaws.http.response.NullResponseHandler;
+import com.amazonaws.http.timers.request.HttpRequestTimer;
 import com.amazonaws.retry.FixedTimeBackoffStrategy;
 import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.retry.RetryPolicy;
@@ -60,7 +63,9 @@ public class UnresponsiveServerIntegrationTests extends UnresponsiveMockServerTe
 
     @Test(timeout = TEST_TIMEOUT)
     public void clientExecutionTimeoutDisabled_SocketTimeoutExceptionIsThrown_NoThreadsCreated() {
-        httpClient = new AmazonHttpClient(new ClientConfiguration().withSocketTimeout(1 * 1000).withMaxErrorRetry(0));
+        ClientConfiguration config = new ClientConfiguration().withSocketTimeout(1 * 1000).withMaxErrorRetry(0);
+        httpClient = new AmazonHttpClient(config, createRawHttpClient(config), null, new HttpRequestTimer(),
+                                          new ClientExecutionTimer(newTimer()));
 
         try {
             httpClient.requestExecutionBuilder().request(newGetRequest()).execute();
@@ -25,13 +25,13 @@ import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.createMockHeadRequest;
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.createRawHttpClientSpy;
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.execute;
-import static org.junit.Assert.assertEquals;
+import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.newTimer;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import com.amazonaws.http.apache.client.impl.ConnectionManagerAwareHttpClient;
 import com.amazonaws.http.response.ErrorDuringUnmarshallingResponseHandler;
@@ -46,6 +46,8 @@ import com.amazonaws.AmazonClientException;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.TestPreConditions;
 import com.amazonaws.http.AmazonHttpClient;
+import com.amazonaws.http.timers.HashedWheelTimer;
+import com.amazonaws.http.timers.client.ClientExecutionTimer;
 import com.amazonaws.http.response.HttpResponseProxy;
 import com.amazonaws.http.response.NullResponseHandler;
 
@@ -70,7 +72,9 @@ public class MockedClientTests {
         HttpResponseProxy responseProxy = createHttpResponseProxySpy();
         doReturn(responseProxy).when(rawHttpClient).execute(any(HttpRequestBase.class), any(HttpContext.class));
 
-        httpClient = new AmazonHttpClient(config, rawHttpClient, null);
+        HashedWheelTimer timer = newTimer();
+        httpClient = new AmazonHttpClient(config, rawHttpClient, null, new HttpRequestTimer(timer),
+                                          new ClientExecutionTimer());
 
         try {
             execute(httpClient, createMockGetRequest());
@@ -80,13 +84,11 @@ public class MockedClientTests {
         }
 
         assertResponseIsBuffered(responseProxy);
-        ScheduledThreadPoolExecutor requestTimerExecutor = httpClient.getHttpRequestTimer().getExecutor();
-        assertTimerNeverTriggered(requestTimerExecutor);
-        assertCanceledTasksRemoved(requestTimerExecutor);
-        // Core threads should be spun up on demand. Since only one task was submitted only one
-        // thread should exist
-        assertEquals(1, requestTimerExecutor.getPoolSize());
-        assertCoreThreadsShutDownAfterBeingIdle(requestTimerExecutor);
+        assertTimerNeverTriggered(httpClient.getHttpRequestTimer());
+        assertCanceledTasksRemoved(timer);
+        // The timer thread is spun up on demand and stops again once there is nothing to time
+        assertTrue(timer.isWorkerRunning());
+        assertCoreThreadsShutDownAfterBeingIdle(timer);
     }
 
     /**
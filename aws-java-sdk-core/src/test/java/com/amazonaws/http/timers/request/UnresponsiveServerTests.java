@@ -15,7 +15,9 @@
 package com.amazonaws.http.timers.request;
 
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.assertRequestTimerExecutorNotCreated;
+import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.createRawHttpClient;
 import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.execute;
+import static com.amazonaws.http.timers.ClientExecutionAndRequestTimerTestUtils.newTimer;
 import static com.amazonaws.http.timers.TimeoutTestConstants.PRECISION_MULTIPLIER;
 import static com.amazonaws.http.timers.TimeoutTestConstants.TEST_TIMEOUT;
 import static org.hamcrest.Matchers.instanceOf;
@@ -34,6 +36,7 @@ import com.amazonaws.http.AmazonHttpClient;
 import com.amazonaws.http.UnresponsiveMockServerTestBase;
 import com.amazonaws.http.exception.HttpRequestTimeoutException;
 import com.amazonaws.http.request.EmptyHttpRequest;
+import com.amazonaws.http.timers.client.ClientExecutionTimer;
 
 import utils.model.EmptyAmazonWebServiceRequest;
 
@@ -57,8 +60,10 @@ public class UnresponsiveServerTests extends UnresponsiveMockServerTestBase {
     @Test(timeout = TEST_TIMEOUT)
     public void requestTimeoutDisabled_ConnectionClosedBySocketTimeout_NoThreadsCreated() {
         final int socketTimeout = 1000;
-        httpClient = new AmazonHttpClient(
-                new ClientConfiguration().withSocketTimeout(socketTimeout).withRequestTimeout(0).withMaxErrorRetry(0));
+        ClientConfiguration config = new ClientConfiguration().withSocketTimeout(socketTimeout)
+                .withRequestTimeout(0).withMaxErrorRetry(0);
+        httpClient = new AmazonHttpClient(config, createRawHttpClient(config), null,
+                                          new HttpRequestTimer(newTimer()), new ClientExecutionTimer());
 
         try {
             execute(httpClient, newGetRequest());
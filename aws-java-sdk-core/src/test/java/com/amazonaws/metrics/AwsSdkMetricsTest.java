@@ -18,6 +18,7 @@
  */
 package com.amazonaws.metrics;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
@@ -33,6 +34,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.CapacityManager;
 
 public class AwsSdkMetricsTest {
     /**
@@ -203,4 +205,24 @@ public class AwsSdkMetricsTest {
         assertNull(AwsSdkMetrics.getRegionName());
     }
 
+    @Test
+    public void retryCapacityGauges_ReflectRegisteredPools() {
+        // Other clients in this JVM may have registered pools too, so only look at deltas
+        int available = AwsSdkMetrics.getRetryCapacityAvailable();
+        int consumed = AwsSdkMetrics.getRetryCapacityConsumed();
+        long exhausted = AwsSdkMetrics.getRetryCapacityExhaustedCount();
+
+        CapacityManager retryCapacity = new CapacityManager(10);
+        AwsSdkMetrics.registerRetryCapacity(retryCapacity);
+        try {
+            assertTrue(retryCapacity.acquire(8));
+            assertFalse(retryCapacity.acquire(5));
+            assertEquals(available + 2, AwsSdkMetrics.getRetryCapacityAvailable());
+            assertEquals(consumed + 8, AwsSdkMetrics.getRetryCapacityConsumed());
+            assertEquals(exhausted + 1, AwsSdkMetrics.getRetryCapacityExhaustedCount());
+        } finally {
+            AwsSdkMetrics.unregisterRetryCapacity(retryCapacity);
+        }
+        assertEquals(consumed, AwsSdkMetrics.getRetryCapacityConsumed());
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.protocol.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.http.NameValuePair;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.Test;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.util.SdkHttpUtils;
+import com.amazonaws.util.StringUtils;
+
+public class QueryParameterWriterTest {
+
+    private static final String[] VALUES = {
+            "", "plain", "with space", "a+b=c&d", "~!*'();:@$,/?#[]%",
+            "café", "日本語", "😀", "broken\ud83d", "\u0000\u007f"
+    };
+
+    @Test
+    public void encodingMatchesApacheFormEncoding() {
+        QueryParameterWriter writer = new QueryParameterWriter(4);
+        List<NameValuePair> pairs = new ArrayList<NameValuePair>();
+        for (int i = 0; i < VALUES.length; i++) {
+            writer.name("Entry.member.").name(i + 1).name(".Value").value(VALUES[i]);
+            pairs.add(new BasicNameValuePair("Entry.member." + (i + 1) + ".Value", VALUES[i]));
+        }
+        writer.parameter("NoValue", null);
+        pairs.add(new BasicNameValuePair("NoValue", null));
+
+        assertEquals(URLEncodedUtils.format(pairs, "UTF-8"), writer.toString());
+    }
+
+    @Test
+    public void decodeReadsBackWrittenParameters() {
+        QueryParameterWriter writer = new QueryParameterWriter();
+        for (String value : VALUES) {
+            // Unpaired surrogates can't survive the round trip
+            if (!value.startsWith("broken")) {
+                writer.parameter("Key " + value, value);
+            }
+        }
+        final List<String> decoded = new ArrayList<String>();
+        byte[] bytes = writer.toByteArray();
+        QueryParameterWriter.decode(bytes, 0, bytes.length, new QueryParameterWriter.ParameterSink() {
+            @Override
+            public void parameter(String name, String value) {
+                decoded.add(name);
+                decoded.add(value);
+            }
+        });
+
+        List<String> expected = new ArrayList<String>();
+        for (String value : VALUES) {
+            if (!value.startsWith("broken")) {
+                expected.add("Key " + value);
+                expected.add(value);
+            }
+        }
+        assertEquals(expected, decoded);
+    }
+
+    @Test
+    public void encodedParametersAreSentWithoutDecoding() {
+        DefaultRequest<Object> request = new DefaultRequest<Object>("test");
+        QueryParameterWriter writer = QueryParameterWriter.forCurrentThread();
+        writer.parameter("Action", "SendMessageBatch");
+        writer.name("Entries.member.").name(1).name(".Body").value("hello world");
+        writer.writeTo(request);
+
+        assertNotNull(request.getEncodedParameters());
+        assertEquals("Action=SendMessageBatch&Entries.member.1.Body=hello+world",
+                     SdkHttpUtils.encodeParameters(request));
+        assertNotNull(request.getEncodedParameters());
+    }
+
+    @Test
+    public void encodedParametersAreDecodedIntoTheParameterMap() {
+        DefaultRequest<Object> request = new DefaultRequest<Object>("test");
+        QueryParameterWriter writer = QueryParameterWriter.forCurrentThread();
+        writer.parameter("QueueUrl", "https://sqs/123/queue");
+        writer.parameter("Action", "SendMessage");
+        writer.writeTo(request);
+
+        assertEquals(Arrays.asList("https://sqs/123/queue"),
+                     request.getParameters().remove("QueueUrl"));
+        assertNull(request.getEncodedParameters());
+        request.addParameter("Action", "Other");
+        assertEquals(Arrays.asList("SendMessage", "Other"), request.getParameters().get("Action"));
+        assertEquals("Action=SendMessage&Action=Other", SdkHttpUtils.encodeParameters(request));
+    }
+
+    @Test
+    public void writerInUseIsNotHandedOutAgain() {
+        QueryParameterWriter outer = QueryParameterWriter.forCurrentThread();
+        outer.parameter("Action", "Outer");
+
+        QueryParameterWriter inner = QueryParameterWriter.forCurrentThread();
+        assertNotSame(outer, inner);
+        inner.parameter("Action", "Inner");
+        assertEquals("Action=Inner", new String(inner.toByteArray(), StringUtils.UTF8));
+
+        outer.parameter("Version", "1");
+        assertEquals("Action=Outer&Version=1", new String(outer.toByteArray(), StringUtils.UTF8));
+        assertSame(inner, QueryParameterWriter.forCurrentThread());
+    }
+
+    @Test
+    public void parameterMapCanBeEncodedWhileAMarshallerIsWriting() {
+        DefaultRequest<Object> request = new DefaultRequest<Object>("test");
+        request.addParameter("Action", "Nested");
+        QueryParameterWriter writer = QueryParameterWriter.forCurrentThread();
+        writer.parameter("Action", "Outer");
+
+        assertEquals("Action=Nested", SdkHttpUtils.encodeParameters(request));
+        writer.parameter("Version", "1");
+        assertEquals("Action=Outer&Version=1", new String(writer.toByteArray(), StringUtils.UTF8));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.retry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClientRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private ClientRateLimiter limiter;
+
+    @Before
+    public void setup() {
+        limiter = new ClientRateLimiter(0);
+    }
+
+    @Test
+    public void neverThrottled_RequestsAreNotPaced() {
+        for (int i = 0; i < 100; i++) {
+            limiter.onSuccess(i * SECOND / 100);
+            assertEquals(0, limiter.reserve(i * SECOND / 100));
+        }
+        assertFalse(limiter.isEnabled());
+    }
+
+    @Test
+    public void throttle_CutsRateBelowMeasuredRate() {
+        // 20 requests per second for two seconds, then a throttle
+        long now = sendAtRate(20, 2 * SECOND, 0);
+        limiter.onThrottle(now);
+
+        assertTrue(limiter.isEnabled());
+        double rate = limiter.getFillRate();
+        assertTrue("rate " + rate, rate < 20 && rate > 10);
+    }
+
+    @Test
+    public void throttledLimiter_PacesRequestsAtFillRate() {
+        long now = sendAtRate(20, 2 * SECOND, 0);
+        limiter.onThrottle(now);
+        double rate = limiter.getFillRate();
+
+        // A burst of requests at the same instant queues up one token interval apart
+        long previousPause = -1;
+        for (int i = 0; i < 5; i++) {
+            long pause = limiter.reserve(now);
+            assertTrue(pause > previousPause);
+            previousPause = pause;
+        }
+        assertEquals(4 * SECOND / rate, previousPause, SECOND / rate);
+    }
+
+    @Test
+    public void successesAfterThrottle_GrowRateBackBeyondThrottledRate() {
+        long now = sendAtRate(20, 2 * SECOND, 0);
+        limiter.onThrottle(now);
+        double throttledRate = limiter.getFillRate();
+
+        now = sendAtRate(40, 10 * SECOND, now);
+        assertTrue("rate " + limiter.getFillRate(), limiter.getFillRate() > throttledRate / 0.7);
+    }
+
+    @Test
+    public void successesWithinMeasurementInterval_DoNotChangeRate() {
+        long now = sendAtRate(20, 2 * SECOND, 0);
+        limiter.onThrottle(now);
+        now = sendAtRate(20, 2 * SECOND, now);
+
+        // Align to the start of a measurement interval, which takes the first success
+        now = (now / (SECOND / 2) + 1) * (SECOND / 2);
+        limiter.onSuccess(now);
+        double rate = limiter.getFillRate();
+        for (int i = 1; i < 10; i++) {
+            limiter.onSuccess(now + i * SECOND / 20);
+            assertEquals(rate, limiter.getFillRate(), 0.0);
+        }
+        limiter.onSuccess(now + SECOND / 2);
+        assertTrue("rate " + limiter.getFillRate(), limiter.getFillRate() != rate);
+    }
+
+    @Test
+    public void repeatedThrottles_CutRateDownToFloor() {
+        long now = sendAtRate(20, 2 * SECOND, 0);
+        double rate = Double.MAX_VALUE;
+        for (int i = 0; i < 20; i++) {
+            limiter.onThrottle(now);
+            assertTrue(limiter.getFillRate() <= rate);
+            rate = limiter.getFillRate();
+            now += SECOND / 20;
+        }
+        assertEquals(0.5, limiter.getFillRate(), 0.0);
+    }
+
+    /**
+     * Reports successful requests sent evenly at the given rate for the given duration.
+     *
+     * @return The time after the last request.
+     */
+    private long sendAtRate(int perSecond, long durationNanos, long startNanos) {
+        long interval = SECOND / perSecond;
+        long now = startNanos;
+        for (; now < startNanos + durationNanos; now += interval) {
+            limiter.reserve(now);
+            limiter.onSuccess(now);
+        }
+        return now;
+    }
+}
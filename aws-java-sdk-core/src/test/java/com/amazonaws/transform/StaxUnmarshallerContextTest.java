@@ -0,0 +1,139 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.transform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.events.XMLEvent;
+
+import org.junit.Test;
+
+public class StaxUnmarshallerContextTest {
+
+    private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+    private static final String XML =
+            "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2016-11-15/\">\n" +
+            "  <requestId>request-id</requestId>\n" +
+            "  <reservationSet>\n" +
+            "    <item>\n" +
+            "      <instanceId>i-1234</instanceId>\n" +
+            "      <tagSet><item key=\"Name\">web &amp; <![CDATA[db]]></item></tagSet>\n" +
+            "    </item>\n" +
+            "  </reservationSet>\n" +
+            "</DescribeInstancesResponse>";
+
+    private static final String[] EXPRESSIONS = {
+            "requestId", "reservationSet/item", "instanceId", "tagSet/item", "item/@key", "@key",
+            "Set/item"
+    };
+
+    private static StaxUnmarshallerContext eventContext() throws Exception {
+        return new StaxUnmarshallerContext(
+                xmlInputFactory.createXMLEventReader(new StringReader(XML)), null);
+    }
+
+    private static StaxUnmarshallerContext cursorContext() throws Exception {
+        return new StaxUnmarshallerContext(
+                xmlInputFactory.createXMLStreamReader(new StringReader(XML)), null);
+    }
+
+    @Test
+    public void cursorContext_MatchesEventContextPositions() throws Exception {
+        assertEquals(walk(eventContext()), walk(cursorContext()));
+    }
+
+    @Test
+    public void cursorContext_ReadsElementAndAttributeText() throws Exception {
+        StaxUnmarshallerContext context = cursorContext();
+        assertTrue(context.isStartOfDocument());
+        List<String> texts = new ArrayList<String>();
+        int token;
+        while ((token = context.nextToken()) != XMLStreamConstants.END_DOCUMENT) {
+            assertFalse(context.isStartOfDocument());
+            if (token == XMLStreamConstants.START_ELEMENT || token == XMLStreamConstants.ATTRIBUTE) {
+                if (context.testExpression("instanceId", 4)
+                    || context.testExpression("tagSet/item", 4)
+                    || context.testExpression("tagSet/item/@key", 4)) {
+                    texts.add(context.readText());
+                }
+            }
+        }
+        // The attribute follows its element even when the element text was read first
+        assertEquals("[i-1234, web & db, Name]", texts.toString());
+        assertEquals(0, context.getCurrentDepth());
+    }
+
+    @Test
+    public void cursorContext_CapturesMetadata() throws Exception {
+        StaxUnmarshallerContext context = cursorContext();
+        context.registerMetadataExpression("requestId", 2, "id");
+        new VoidStaxUnmarshaller<Object>().unmarshall(context);
+        assertEquals("request-id", context.getMetadata().get("id"));
+    }
+
+    @Test
+    public void cursorContext_CreatesEventsOnDemand() throws Exception {
+        StaxUnmarshallerContext events = eventContext();
+        StaxUnmarshallerContext cursor = cursorContext();
+        while (true) {
+            XMLEvent expected = events.nextEvent();
+            XMLEvent actual = cursor.nextEvent();
+            assertEquals(expected.getEventType(), actual.getEventType());
+            if (expected.isStartElement()) {
+                assertEquals(expected.asStartElement().getName(), actual.asStartElement().getName());
+            } else if (expected.isEndElement()) {
+                assertEquals(expected.asEndElement().getName(), actual.asEndElement().getName());
+            }
+            if (expected.isEndDocument()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Walks the whole document, recording the type, depth and matching
+     * expressions of every token.
+     */
+    private static List<String> walk(StaxUnmarshallerContext context) throws Exception {
+        List<String> positions = new ArrayList<String>();
+        int token;
+        do {
+            token = context.nextToken();
+            StringBuilder position = new StringBuilder();
+            position.append(token).append(':').append(context.getCurrentDepth());
+            for (String expression : EXPRESSIONS) {
+                if (context.testExpression(expression)) {
+                    position.append(' ').append(expression);
+                }
+                for (int depth = 1; depth < 5; depth++) {
+                    if (context.testExpression(expression, depth)) {
+                        position.append(' ').append(expression).append('@').append(depth);
+                    }
+                }
+            }
+            positions.add(position.toString());
+        } while (token != XMLStreamConstants.END_DOCUMENT);
+        return positions;
+    }
+}
@@ -15,6 +15,11 @@
 
 package com.amazonaws.util;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -69,4 +74,68 @@ public class CapacityManagerTest {
         Assert.assertEquals(mgr.consumedCapacity(), 0);
     }
 
+    /**
+     * Tests that failed acquisitions are counted.
+     */
+    @Test
+    public void exhaustedCount() {
+        CapacityManager mgr = new CapacityManager(10);
+        Assert.assertTrue(mgr.acquire(10));
+        Assert.assertFalse(mgr.acquire());
+        Assert.assertFalse(mgr.acquire(5));
+        Assert.assertEquals(mgr.exhaustedCount(), 2);
+    }
+
+    /**
+     * Tests that consumed capacity is returned to the pool over time when a
+     * refill rate is given, but never beyond the maximum capacity.
+     */
+    @Test
+    public void refillOverTime() throws InterruptedException {
+        CapacityManager mgr = new CapacityManager(10, 100);
+        Assert.assertTrue(mgr.acquire(10));
+        Assert.assertFalse(mgr.acquire(1));
+        Thread.sleep(50);
+        Assert.assertTrue(mgr.acquire(1));
+        Thread.sleep(200);
+        Assert.assertEquals(mgr.availableCapacity(), 10);
+    }
+
+    /**
+     * Tests that concurrent acquisitions never hand out more capacity than is
+     * available.
+     */
+    @Test
+    public void concurrentAcquire() throws InterruptedException {
+        final CapacityManager mgr = new CapacityManager(1000);
+        final AtomicInteger acquired = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 500; j++) {
+                        if (mgr.acquire()) {
+                            acquired.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(acquired.get(), 1000);
+        Assert.assertEquals(mgr.availableCapacity(), 0);
+        Assert.assertEquals(mgr.exhaustedCount(), 3000);
+    }
 }
@@ -381,6 +381,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<BatchGetItemResult> batchGetItemAsync(final BatchGetItemRequest request,
             final com.amazonaws.handlers.AsyncHandler<BatchGetItemRequest, BatchGetItemResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return batchGetItemNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<BatchGetItemResult>() {
             @Override
             public BatchGetItemResult call() throws Exception {
@@ -458,6 +461,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<BatchWriteItemResult> batchWriteItemAsync(final BatchWriteItemRequest request,
             final com.amazonaws.handlers.AsyncHandler<BatchWriteItemRequest, BatchWriteItemResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return batchWriteItemNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<BatchWriteItemResult>() {
             @Override
             public BatchWriteItemResult call() throws Exception {
@@ -570,6 +576,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<DeleteItemResult> deleteItemAsync(final DeleteItemRequest request,
             final com.amazonaws.handlers.AsyncHandler<DeleteItemRequest, DeleteItemResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return deleteItemNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<DeleteItemResult>() {
             @Override
             public DeleteItemResult call() throws Exception {
@@ -786,6 +795,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<GetItemResult> getItemAsync(final GetItemRequest request,
             final com.amazonaws.handlers.AsyncHandler<GetItemRequest, GetItemResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return getItemNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<GetItemResult>() {
             @Override
             public GetItemResult call() throws Exception {
@@ -981,6 +993,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<PutItemResult> putItemAsync(final PutItemRequest request,
             final com.amazonaws.handlers.AsyncHandler<PutItemRequest, PutItemResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return putItemNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<PutItemResult>() {
             @Override
             public PutItemResult call() throws Exception {
@@ -1057,6 +1072,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<QueryResult> queryAsync(final QueryRequest request,
             final com.amazonaws.handlers.AsyncHandler<QueryRequest, QueryResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return queryNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<QueryResult>() {
             @Override
             public QueryResult call() throws Exception {
@@ -1089,6 +1107,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<ScanResult> scanAsync(final ScanRequest request,
             final com.amazonaws.handlers.AsyncHandler<ScanRequest, ScanResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return scanNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<ScanResult>() {
             @Override
             public ScanResult call() throws Exception {
@@ -1188,6 +1209,9 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient implements A
     public java.util.concurrent.Future<UpdateItemResult> updateItemAsync(final UpdateItemRequest request,
             final com.amazonaws.handlers.AsyncHandler<UpdateItemRequest, UpdateItemResult> asyncHandler) {
 
+        if (isNonBlocking()) {
+            return updateItemNonBlocking(request, asyncHandler);
+        }
         return executorService.submit(new java.util.concurrent.Callable<UpdateItemResult>() {
             @Override
             public UpdateItemResult call() throws Exception {
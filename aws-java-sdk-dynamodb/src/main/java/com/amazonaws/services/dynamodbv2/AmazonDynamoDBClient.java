@@ -524,6 +524,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the BatchGetItem operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<BatchGetItemResult> batchGetItemNonBlocking(BatchGetItemRequest batchGetItemRequest,
+            com.amazonaws.handlers.AsyncHandler<BatchGetItemRequest, BatchGetItemResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<BatchGetItemResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new BatchGetItemResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(batchGetItemRequest, new BatchGetItemRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public BatchGetItemResult batchGetItem(java.util.Map<String, KeysAndAttributes> requestItems, String returnConsumedCapacity) {
         return batchGetItem(new BatchGetItemRequest().withRequestItems(requestItems).withReturnConsumedCapacity(returnConsumedCapacity));
@@ -677,6 +692,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the BatchWriteItem operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<BatchWriteItemResult> batchWriteItemNonBlocking(BatchWriteItemRequest batchWriteItemRequest,
+            com.amazonaws.handlers.AsyncHandler<BatchWriteItemRequest, BatchWriteItemResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<BatchWriteItemResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new BatchWriteItemResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(batchWriteItemRequest, new BatchWriteItemRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public BatchWriteItemResult batchWriteItem(java.util.Map<String, java.util.List<WriteRequest>> requestItems) {
         return batchWriteItem(new BatchWriteItemRequest().withRequestItems(requestItems));
@@ -828,6 +858,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the DeleteItem operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<DeleteItemResult> deleteItemNonBlocking(DeleteItemRequest deleteItemRequest,
+            com.amazonaws.handlers.AsyncHandler<DeleteItemRequest, DeleteItemResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<DeleteItemResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new DeleteItemResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(deleteItemRequest, new DeleteItemRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public DeleteItemResult deleteItem(String tableName, java.util.Map<String, AttributeValue> key) {
         return deleteItem(new DeleteItemRequest().withTableName(tableName).withKey(key));
@@ -1167,6 +1212,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the GetItem operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<GetItemResult> getItemNonBlocking(GetItemRequest getItemRequest,
+            com.amazonaws.handlers.AsyncHandler<GetItemRequest, GetItemResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<GetItemResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new GetItemResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(getItemRequest, new GetItemRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public GetItemResult getItem(String tableName, java.util.Map<String, AttributeValue> key) {
         return getItem(new GetItemRequest().withTableName(tableName).withKey(key));
@@ -1325,6 +1385,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the PutItem operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<PutItemResult> putItemNonBlocking(PutItemRequest putItemRequest,
+            com.amazonaws.handlers.AsyncHandler<PutItemRequest, PutItemResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<PutItemResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new PutItemResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(putItemRequest, new PutItemRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public PutItemResult putItem(String tableName, java.util.Map<String, AttributeValue> item) {
         return putItem(new PutItemRequest().withTableName(tableName).withItem(item));
@@ -1411,6 +1486,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the Query operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<QueryResult> queryNonBlocking(QueryRequest queryRequest,
+            com.amazonaws.handlers.AsyncHandler<QueryRequest, QueryResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<QueryResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new QueryResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(queryRequest, new QueryRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     /**
      * <p>
      * The <i>Scan</i> operation returns one or more items and item attributes by accessing every item in a table or a
@@ -1482,6 +1572,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the Scan operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<ScanResult> scanNonBlocking(ScanRequest scanRequest,
+            com.amazonaws.handlers.AsyncHandler<ScanRequest, ScanResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<ScanResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new ScanResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(scanRequest, new ScanRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public ScanResult scan(String tableName, java.util.List<String> attributesToGet) {
         return scan(new ScanRequest().withTableName(tableName).withAttributesToGet(attributesToGet));
@@ -1560,6 +1665,21 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
         }
     }
 
+    /**
+     * Executes the UpdateItem operation on the non-blocking transport.
+     *
+     * @see #invokeNonBlocking
+     */
+    java.util.concurrent.Future<UpdateItemResult> updateItemNonBlocking(UpdateItemRequest updateItemRequest,
+            com.amazonaws.handlers.AsyncHandler<UpdateItemRequest, UpdateItemResult> asyncHandler) {
+        HttpResponseHandler<AmazonWebServiceResponse<UpdateItemResult>> responseHandler = protocolFactory.createResponseHandler(new JsonOperationMetadata()
+                .withPayloadJson(true).withHasStreamingSuccessResponse(false), new UpdateItemResultJsonUnmarshaller());
+        HttpResponseHandler<AmazonServiceException> errorResponseHandler = protocolFactory.createErrorResponseHandler(new JsonErrorResponseMetadata());
+
+        return invokeNonBlocking(updateItemRequest, new UpdateItemRequestMarshaller(protocolFactory), responseHandler, errorResponseHandler, awsCredentialsProvider,
+                asyncHandler);
+    }
+
     @Override
     public UpdateItemResult updateItem(String tableName, java.util.Map<String, AttributeValue> key, java.util.Map<String, AttributeValueUpdate> attributeUpdates) {
         return updateItem(new UpdateItemRequest().withTableName(tableName).withKey(key).withAttributeUpdates(attributeUpdates));
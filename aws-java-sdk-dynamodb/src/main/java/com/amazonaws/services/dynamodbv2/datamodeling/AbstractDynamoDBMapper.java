@@ -14,6 +14,7 @@
  */
 package com.amazonaws.services.dynamodbv2.datamodeling;
 
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.BatchLoadListener;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
@@ -22,8 +23,10 @@ import com.amazonaws.services.s3.model.Region;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Abstract implementation of {@code IDynamoDBMapper}. Convenient method forms pass through to the
@@ -181,6 +184,22 @@ public class AbstractDynamoDBMapper implements IDynamoDBMapper {
         throw new UnsupportedOperationException("operation not supported in " + getClass());
     }
 
+    @Override
+    public List<FailedBatch> parallelBatchSave(Iterator<? extends Object> objectsToSave,
+                                               ExecutorService executor,
+                                               int maxBatchesInFlight) {
+        return parallelBatchWrite(objectsToSave, Collections.emptyList().iterator(), executor, maxBatchesInFlight, config);
+    }
+
+    @Override
+    public List<FailedBatch> parallelBatchWrite(Iterator<? extends Object> objectsToWrite,
+                                                Iterator<? extends Object> objectsToDelete,
+                                                ExecutorService executor,
+                                                int maxBatchesInFlight,
+                                                DynamoDBMapperConfig config) {
+        throw new UnsupportedOperationException("operation not supported in " + getClass());
+    }
+
     @Override
     public Map<String, List<Object>> batchLoad(Iterable<? extends Object> itemsToGet) {
         return batchLoad(itemsToGet, config);
@@ -201,6 +220,23 @@ public class AbstractDynamoDBMapper implements IDynamoDBMapper {
         throw new UnsupportedOperationException("operation not supported in " + getClass());
     }
 
+    @Override
+    public void parallelBatchLoad(Iterator<? extends Object> itemsToGet,
+                                  BatchLoadListener listener,
+                                  ExecutorService executor,
+                                  int maxBatchesInFlight,
+                                  DynamoDBMapperConfig config) {
+        throw new UnsupportedOperationException("operation not supported in " + getClass());
+    }
+
+    @Override
+    public Map<String, List<Object>> parallelBatchLoad(Map<Class<?>, List<KeyPair>> itemsToGet,
+                                                       ExecutorService executor,
+                                                       int maxBatchesInFlight,
+                                                       DynamoDBMapperConfig config) {
+        throw new UnsupportedOperationException("operation not supported in " + getClass());
+    }
+
     @Override
     public <T> PaginatedScanList<T> scan(Class<T> clazz, DynamoDBScanExpression scanExpression) {
         return scan(clazz, scanExpression, config);
@@ -228,6 +264,16 @@ public class AbstractDynamoDBMapper implements IDynamoDBMapper {
         throw new UnsupportedOperationException("operation not supported in " + getClass());
     }
 
+    @Override
+    public <T> ParallelScanIterator<T> parallelScanIterator(Class<T> clazz,
+                                                            DynamoDBScanExpression scanExpression,
+                                                            int totalSegments,
+                                                            ExecutorService executor,
+                                                            double maxReadCapacityPerSecond,
+                                                            DynamoDBMapperConfig config) {
+        throw new UnsupportedOperationException("operation not supported in " + getClass());
+    }
+
     @Override
     public <T> ScanResultPage<T> scanPage(Class<T> clazz, DynamoDBScanExpression scanExpression) {
         return scanPage(clazz, scanExpression, config);
@@ -24,12 +24,20 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -61,7 +69,6 @@ import com.amazonaws.services.dynamodbv2.model.DeleteRequest;
 import com.amazonaws.services.dynamodbv2.model.DeleteTableRequest;
 import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
-import com.amazonaws.services.dynamodbv2.model.GetItemResult;
 import com.amazonaws.services.dynamodbv2.model.KeySchemaElement;
 import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
@@ -77,6 +84,7 @@ import com.amazonaws.services.dynamodbv2.model.Select;
 import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
 import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
 import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
 import com.amazonaws.services.s3.model.Region;
 import com.amazonaws.util.VersionInfoUtils;
 
@@ -202,6 +210,9 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
 
     /** The max number of items allowed in a BatchWrite request */
     static final int MAX_ITEMS_PER_BATCH = 25;
+
+    /** The max number of keys allowed in a BatchGetItem request */
+    static final int MAX_KEYS_PER_BATCH_GET = 100;
     /**
      * This retry count is applicable only when every batch get item request
      * results in no data retrieved from server and the un processed keys is
@@ -411,9 +422,19 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         rq.setTableName(tableName);
         rq.setConsistentRead(config.getConsistentReads() == ConsistentReads.CONSISTENT);
 
-
-        GetItemResult item = db.getItem(applyUserAgent(rq));
-        Map<String, AttributeValue> itemAttributes = item.getItem();
+        final GetItemRequest request = applyUserAgent(rq);
+        final ItemCache itemCache = config.getItemCache();
+        Map<String, AttributeValue> itemAttributes;
+        if ( itemCache == null || config.getConsistentReads() == ConsistentReads.CONSISTENT ) {
+            itemAttributes = db.getItem(request).getItem();
+        } else {
+            itemAttributes = itemCache.get(tableName, key, new ItemCache.ItemLoader() {
+                @Override
+                public Map<String, AttributeValue> load() {
+                    return db.getItem(request).getItem();
+                }
+            });
+        }
         if ( itemAttributes == null ) {
             return null;
         }
@@ -503,8 +524,15 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
          * CLOBBER is configured, or part of the primary key of the object needs
          * to be auto-generated.
          */
-        boolean forcePut = (finalConfig.getSaveBehavior() == SaveBehavior.CLOBBER)
-                || anyKeyGeneratable(model, object, finalConfig.getSaveBehavior());
+        final boolean keyGeneratable = anyKeyGeneratable(model, object, finalConfig.getSaveBehavior());
+        boolean forcePut = (finalConfig.getSaveBehavior() == SaveBehavior.CLOBBER) || keyGeneratable;
+
+        /*
+         * A newly generated key can't be cached, otherwise the item must be
+         * invalidated once saved.
+         */
+        final Map<String, AttributeValue> cachedKey = (finalConfig.getItemCache() == null || keyGeneratable)
+                ? null : model.convertKey(object);
 
         SaveObjectHandler saveObjectHandler;
 
@@ -619,7 +647,11 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
             };
         }
 
-        saveObjectHandler.execute();
+        try {
+            saveObjectHandler.execute();
+        } finally {
+            invalidateCachedItem(finalConfig, tableName, cachedKey);
+        }
     }
 
     /**
@@ -1075,7 +1107,11 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
                             deleteExpression.getConditionalOperator());
 
         }
-        db.deleteItem(applyUserAgent(req));
+        try {
+            db.deleteItem(applyUserAgent(req));
+        } finally {
+            invalidateCachedItem(config, tableName, key);
+        }
     }
 
     @Override
@@ -1090,67 +1126,124 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
 
         List<ValueUpdate> inMemoryUpdates = new LinkedList<ValueUpdate>();
         for ( Object toWrite : objectsToWrite ) {
-            Class<Object> clazz = (Class<Object>)toWrite.getClass();
-            String tableName = getTableName(clazz, toWrite, config);
+            String tableName = getTableName(toWrite.getClass(), toWrite, config);
+            requestItems.add(tableName, toPutRequest(toWrite, tableName, inMemoryUpdates, config));
+        }
 
-            Map<String, AttributeValue> attributeValues = new HashMap<String, AttributeValue>();
+        for ( Object toDelete : objectsToDelete ) {
+            String tableName = getTableName(toDelete.getClass(), toDelete, config);
+            requestItems.add(tableName, toDeleteRequest(toDelete, config));
+        }
 
-            // Look at every getter and construct a value object for it
-            final DynamoDBMapperTableModel<Object> model = getTableModel(clazz, config);
-            for ( final DynamoDBMapperFieldModel<Object,Object> field : model.fields() ) {
-                AttributeValue currentValue = null;
-                if ( canGenerate(model, toWrite, config.getSaveBehavior(), field) && !field.versioned() ) {
-                    currentValue = field.convert(field.generate(field.get(toWrite)));
-                    inMemoryUpdates.add(new ValueUpdate(field, currentValue, toWrite));
-                } else {
-                    currentValue = field.convert(field.get(toWrite));
-                }
-                if ( currentValue != null ) {
-                    attributeValues.put(field.name(), currentValue);
+        // Break into chunks of 25 items and make service requests to DynamoDB
+        try {
+            for (final StringListMap<WriteRequest> batch : requestItems.subMaps(MAX_ITEMS_PER_BATCH, true)) {
+                List<FailedBatch> failedBatches = writeOneBatch(batch, config.getBatchWriteRetryStrategy());
+                if (failedBatches != null) {
+                    totalFailedBatches.addAll(failedBatches);
+
+                    // If contains throttling exception, we do a backoff
+                    if (containsThrottlingException(failedBatches)) {
+                        pause(config.getBatchWriteRetryStrategy().getDelayBeforeRetryUnprocessedItems(
+                                Collections.unmodifiableMap(batch), 0));
+                    }
                 }
             }
+        } finally {
+            invalidateCachedItems(config, requestItems);
+        }
 
-            if ( !requestItems.containsKey(tableName) ) {
-                requestItems.put(tableName, new LinkedList<WriteRequest>());
-            }
+        // Once the entire batch is processed, update assigned keys in memory
+        for ( ValueUpdate update : inMemoryUpdates ) {
+            update.apply();
+        }
 
-            AttributeTransformer.Parameters<?> parameters =
-                toParameters(attributeValues, clazz, tableName, config);
+        return totalFailedBatches;
+    }
 
-            requestItems.add(tableName, new WriteRequest(new PutRequest(transformAttributes(parameters))));
+    @Override
+    public List<FailedBatch> parallelBatchWrite(Iterator<? extends Object> objectsToWrite,
+                                                Iterator<? extends Object> objectsToDelete,
+                                                ExecutorService executor,
+                                                int maxBatchesInFlight,
+                                                DynamoDBMapperConfig config) {
+        if (maxBatchesInFlight < 1) {
+            throw new IllegalArgumentException("maxBatchesInFlight must be at least 1");
         }
+        config = mergeConfig(config);
+        return new ParallelBatchWriter(objectsToWrite, objectsToDelete, executor, maxBatchesInFlight, config).write();
+    }
 
-        for ( Object toDelete : objectsToDelete ) {
-            Class<Object> clazz = (Class<Object>)toDelete.getClass();
+    /**
+     * Converts the object to save into a put request, collecting the values
+     * to assign to it once written.
+     */
+    private WriteRequest toPutRequest(Object toWrite, String tableName, List<ValueUpdate> inMemoryUpdates,
+                                      DynamoDBMapperConfig config) {
+        Class<Object> clazz = (Class<Object>)toWrite.getClass();
+
+        Map<String, AttributeValue> attributeValues = new HashMap<String, AttributeValue>();
+
+        // Look at every getter and construct a value object for it
+        final DynamoDBMapperTableModel<Object> model = getTableModel(clazz, config);
+        for ( final DynamoDBMapperFieldModel<Object,Object> field : model.fields() ) {
+            AttributeValue currentValue = null;
+            if ( canGenerate(model, toWrite, config.getSaveBehavior(), field) && !field.versioned() ) {
+                currentValue = field.convert(field.generate(field.get(toWrite)));
+                inMemoryUpdates.add(new ValueUpdate(field, currentValue, toWrite));
+            } else {
+                currentValue = field.convert(field.get(toWrite));
+            }
+            if ( currentValue != null ) {
+                attributeValues.put(field.name(), currentValue);
+            }
+        }
 
-            String tableName = getTableName(clazz, toDelete, config);
-            final DynamoDBMapperTableModel<Object> model = getTableModel(clazz, config);
+        AttributeTransformer.Parameters<?> parameters =
+            toParameters(attributeValues, clazz, tableName, config);
 
-            Map<String, AttributeValue> key = model.convertKey(toDelete);
+        return new WriteRequest(new PutRequest(transformAttributes(parameters)));
+    }
 
-            requestItems.add(tableName, new WriteRequest(new DeleteRequest(key)));
+    /**
+     * Converts the object to delete into a delete request.
+     */
+    private WriteRequest toDeleteRequest(Object toDelete, DynamoDBMapperConfig config) {
+        Class<Object> clazz = (Class<Object>)toDelete.getClass();
+        final DynamoDBMapperTableModel<Object> model = getTableModel(clazz, config);
+        return new WriteRequest(new DeleteRequest(model.convertKey(toDelete)));
+    }
+
+    /**
+     * Invalidates the item with the specified key in the item cache, if any.
+     */
+    private static void invalidateCachedItem(DynamoDBMapperConfig config, String tableName,
+                                             Map<String, AttributeValue> key) {
+        final ItemCache itemCache = config.getItemCache();
+        if ( itemCache != null && key != null ) {
+            itemCache.invalidate(tableName, key);
         }
+    }
 
-        // Break into chunks of 25 items and make service requests to DynamoDB
-        for (final StringListMap<WriteRequest> batch : requestItems.subMaps(MAX_ITEMS_PER_BATCH, true)) {
-            List<FailedBatch> failedBatches = writeOneBatch(batch, config.getBatchWriteRetryStrategy());
-            if (failedBatches != null) {
-                totalFailedBatches.addAll(failedBatches);
-
-                // If contains throttling exception, we do a backoff
-                if (containsThrottlingException(failedBatches)) {
-                    pause(config.getBatchWriteRetryStrategy().getDelayBeforeRetryUnprocessedItems(
-                            Collections.unmodifiableMap(batch), 0));
+    /**
+     * Invalidates the items put or deleted by the requests in the item cache,
+     * if any.
+     */
+    private static void invalidateCachedItems(DynamoDBMapperConfig config,
+                                              Map<String, List<WriteRequest>> requestItems) {
+        final ItemCache itemCache = config.getItemCache();
+        if ( itemCache == null ) {
+            return;
+        }
+        for ( final Map.Entry<String, List<WriteRequest>> entry : requestItems.entrySet() ) {
+            for ( final WriteRequest request : entry.getValue() ) {
+                if ( request.getPutRequest() != null ) {
+                    itemCache.invalidateItem(entry.getKey(), request.getPutRequest().getItem());
+                } else if ( request.getDeleteRequest() != null ) {
+                    itemCache.invalidate(entry.getKey(), request.getDeleteRequest().getKey());
                 }
             }
         }
-
-        // Once the entire batch is processed, update assigned keys in memory
-        for ( ValueUpdate update : inMemoryUpdates ) {
-            update.apply();
-        }
-
-        return totalFailedBatches;
     }
 
     /**
@@ -1250,6 +1343,225 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         return failedBatch;
     }
 
+    /**
+     * Pipelines the BatchWriteItem requests of a parallel batch write: the
+     * objects are converted as batches are needed, up to the given number of
+     * batches are in flight on the executor, and the unprocessed items of the
+     * completed batches are re-packed into full batches with the next objects.
+     */
+    private final class ParallelBatchWriter {
+        private final Iterator<? extends Object> objectsToWrite, objectsToDelete;
+        private final CompletionService<WriteBatch> completionService;
+        private final int maxBatchesInFlight;
+        private final DynamoDBMapperConfig config;
+        private final BatchWriteRetryStrategy batchWriteRetryStrategy;
+
+        private final List<Future<WriteBatch>> inFlight = new LinkedList<Future<WriteBatch>>();
+        private final LinkedList<PendingWrite> unprocessed = new LinkedList<PendingWrite>();
+        private final LinkedList<WriteBatch> dividedBatches = new LinkedList<WriteBatch>();
+        private final List<FailedBatch> failedBatches = new LinkedList<FailedBatch>();
+
+        private ParallelBatchWriter(Iterator<? extends Object> objectsToWrite,
+                                    Iterator<? extends Object> objectsToDelete,
+                                    ExecutorService executor,
+                                    int maxBatchesInFlight,
+                                    DynamoDBMapperConfig config) {
+            this.objectsToWrite = objectsToWrite;
+            this.objectsToDelete = objectsToDelete;
+            this.completionService = new ExecutorCompletionService<WriteBatch>(executor);
+            this.maxBatchesInFlight = maxBatchesInFlight;
+            this.config = config;
+            this.batchWriteRetryStrategy = config.getBatchWriteRetryStrategy();
+        }
+
+        private List<FailedBatch> write() {
+            try {
+                while (true) {
+                    if (inFlight.size() >= maxBatchesInFlight) {
+                        complete(take());
+                        continue;
+                    }
+                    final WriteBatch batch = nextBatch();
+                    if (batch != null) {
+                        inFlight.add(completionService.submit(batch));
+                    } else if (inFlight.isEmpty()) {
+                        return failedBatches;
+                    } else {
+                        complete(take());
+                    }
+                }
+            } finally {
+                for (final Future<WriteBatch> future : inFlight) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Returns the next batch to send, or null if there is none yet. Items
+         * left unprocessed go first; a batch with fewer than 25 of them is only
+         * sent once no other batch in flight could add to them.
+         */
+        private WriteBatch nextBatch() {
+            if (!dividedBatches.isEmpty()) {
+                return dividedBatches.removeFirst();
+            }
+            final boolean drained = !objectsToWrite.hasNext() && !objectsToDelete.hasNext();
+            if (drained && (unprocessed.isEmpty() ||
+                    unprocessed.size() < MAX_ITEMS_PER_BATCH && !inFlight.isEmpty())) {
+                return null;
+            }
+            final WriteBatch batch = new WriteBatch();
+            while (batch.size() < MAX_ITEMS_PER_BATCH && !unprocessed.isEmpty()) {
+                batch.add(unprocessed.removeFirst());
+            }
+            while (batch.size() < MAX_ITEMS_PER_BATCH && objectsToWrite.hasNext()) {
+                final Object toWrite = objectsToWrite.next();
+                final String tableName = getTableName(toWrite.getClass(), toWrite, config);
+                batch.add(new PendingWrite(tableName,
+                        toPutRequest(toWrite, tableName, batch.inMemoryUpdates, config), 0));
+            }
+            while (batch.size() < MAX_ITEMS_PER_BATCH && objectsToDelete.hasNext()) {
+                final Object toDelete = objectsToDelete.next();
+                final String tableName = getTableName(toDelete.getClass(), toDelete, config);
+                batch.add(new PendingWrite(tableName, toDeleteRequest(toDelete, config), 0));
+            }
+            return batch;
+        }
+
+        private WriteBatch take() {
+            try {
+                final Future<WriteBatch> future = completionService.take();
+                inFlight.remove(future);
+                return future.get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new SdkClientException("Parallel batch write interrupted by other thread.", ie);
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException)ee.getCause();
+                } else if (ee.getCause() instanceof Error) {
+                    throw (Error)ee.getCause();
+                }
+                throw new SdkClientException(ee.getCause());
+            }
+        }
+
+        /**
+         * Divides the batch if the request was too large, as writeOneBatch
+         * does, and queues its unprocessed items to be retried.
+         */
+        private void complete(WriteBatch batch) {
+            for ( ValueUpdate update : batch.inMemoryUpdates ) {
+                update.apply();
+            }
+            if (batch.failedBatch != null) {
+                if (batch.failedBatch.isRequestEntityTooLarge() && batch.size() > 1) {
+                    final WriteBatch first = new WriteBatch(), second = new WriteBatch();
+                    for (int i = 0; i < batch.size(); i++) {
+                        (i % 2 == 0 ? first : second).add(batch.pendingWrites.get(i));
+                    }
+                    dividedBatches.add(first);
+                    dividedBatches.add(second);
+                } else {
+                    failedBatches.add(batch.failedBatch);
+                }
+            } else if (batch.unprocessedItems != null && !batch.unprocessedItems.isEmpty()) {
+                final int maxRetries = batchWriteRetryStrategy.getMaxRetryOnUnprocessedItems(
+                        Collections.unmodifiableMap(batch.requestItems));
+                final StringListMap<WriteRequest> exhausted = new StringListMap<WriteRequest>();
+                for (final Entry<String, List<WriteRequest>> entry : batch.unprocessedItems.entrySet()) {
+                    for (final WriteRequest request : entry.getValue()) {
+                        final int retries = batch.retriesOf(entry.getKey(), request);
+                        if (maxRetries >= 0 && retries >= maxRetries) {
+                            exhausted.add(entry.getKey(), request);
+                        } else {
+                            unprocessed.add(new PendingWrite(entry.getKey(), request, retries + 1));
+                        }
+                    }
+                }
+                if (!exhausted.isEmpty()) {
+                    final FailedBatch failedBatch = new FailedBatch();
+                    failedBatch.setUnprocessedItems(exhausted);
+                    failedBatch.setException(null);
+                    failedBatches.add(failedBatch);
+                }
+            }
+        }
+
+        /**
+         * One BatchWriteItem request, which backs off before a retry of
+         * unprocessed items and after throttling, holding its place in flight.
+         */
+        private final class WriteBatch implements Callable<WriteBatch> {
+            private final List<PendingWrite> pendingWrites = new ArrayList<PendingWrite>(MAX_ITEMS_PER_BATCH);
+            private final StringListMap<WriteRequest> requestItems = new StringListMap<WriteRequest>();
+            private final List<ValueUpdate> inMemoryUpdates = new LinkedList<ValueUpdate>();
+            private int retries;
+
+            private Map<String, List<WriteRequest>> unprocessedItems;
+            private FailedBatch failedBatch;
+
+            private void add(PendingWrite pendingWrite) {
+                pendingWrites.add(pendingWrite);
+                requestItems.add(pendingWrite.tableName, pendingWrite.request);
+                retries = Math.max(retries, pendingWrite.retries);
+            }
+
+            private int size() {
+                return pendingWrites.size();
+            }
+
+            private int retriesOf(String tableName, WriteRequest request) {
+                for (final PendingWrite pendingWrite : pendingWrites) {
+                    if (pendingWrite.tableName.equals(tableName) && pendingWrite.request.equals(request)) {
+                        return pendingWrite.retries;
+                    }
+                }
+                return retries;
+            }
+
+            @Override
+            public WriteBatch call() {
+                if (retries > 0) {
+                    pause(batchWriteRetryStrategy.getDelayBeforeRetryUnprocessedItems(
+                            Collections.unmodifiableMap(requestItems), retries - 1));
+                }
+                try {
+                    unprocessedItems = db.batchWriteItem(applyBatchOperationUserAgent(
+                            new BatchWriteItemRequest().withRequestItems(requestItems))).getUnprocessedItems();
+                } catch (Exception e) {
+                    failedBatch = new FailedBatch();
+                    failedBatch.setUnprocessedItems(requestItems);
+                    failedBatch.setException(e);
+                    if (failedBatch.isThrottling()) {
+                        pause(batchWriteRetryStrategy.getDelayBeforeRetryUnprocessedItems(
+                                Collections.unmodifiableMap(requestItems), 0));
+                    }
+                } finally {
+                    invalidateCachedItems(config, requestItems);
+                }
+                return this;
+            }
+        }
+    }
+
+    /**
+     * A write request of a parallel batch write with the number of times it
+     * has been retried.
+     */
+    private static final class PendingWrite {
+        private final String tableName;
+        private final WriteRequest request;
+        private final int retries;
+
+        private PendingWrite(String tableName, WriteRequest request, int retries) {
+            this.tableName = tableName;
+            this.request = request;
+            this.retries = retries;
+        }
+    }
+
     @Override
     public Map<String, List<Object>> batchLoad(Iterable<? extends Object> itemsToGet, DynamoDBMapperConfig config) {
         config = mergeConfig(config);
@@ -1312,6 +1624,266 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         return batchLoad(keys, config);
     }
 
+    @Override
+    public void parallelBatchLoad(Iterator<? extends Object> itemsToGet,
+                                  BatchLoadListener listener,
+                                  ExecutorService executor,
+                                  int maxBatchesInFlight,
+                                  DynamoDBMapperConfig config) {
+        if (maxBatchesInFlight < 1) {
+            throw new IllegalArgumentException("maxBatchesInFlight must be at least 1");
+        }
+        config = mergeConfig(config);
+        new ParallelBatchLoader(itemsToGet, listener, executor, maxBatchesInFlight, config).load();
+    }
+
+    @Override
+    public Map<String, List<Object>> parallelBatchLoad(Map<Class<?>, List<KeyPair>> itemsToGet,
+                                                       ExecutorService executor,
+                                                       int maxBatchesInFlight,
+                                                       DynamoDBMapperConfig config) {
+        config = mergeConfig(config);
+        List<Object> keys = new ArrayList<Object>();
+        if ( itemsToGet != null ) {
+            for ( Class<?> clazz : itemsToGet.keySet() ) {
+                if ( itemsToGet.get(clazz) != null ) {
+                    final DynamoDBMapperTableModel model = getTableModel(clazz, config);
+                    for ( KeyPair keyPair : itemsToGet.get(clazz) ) {
+                        keys.add(model.createKey(keyPair.getHashKey(), keyPair.getRangeKey()));
+                    }
+                }
+            }
+        }
+        final Map<String, List<Object>> resultSet = new HashMap<String, List<Object>>();
+        parallelBatchLoad(keys.iterator(), new BatchLoadListener() {
+            @Override
+            public void itemLoaded(String tableName, Object item) {
+                List<Object> objects = resultSet.get(tableName);
+                if ( objects == null ) {
+                    resultSet.put(tableName, (objects = new LinkedList<Object>()));
+                }
+                objects.add(item);
+            }
+        }, executor, maxBatchesInFlight, config);
+        return resultSet;
+    }
+
+    /**
+     * Pipelines the BatchGetItem requests of a parallel batch load: the keys
+     * are converted as batches are needed, up to the given number of batches
+     * are in flight on the executor, and the unprocessed keys of the completed
+     * batches are re-packed into full batches with the next keys.
+     */
+    private final class ParallelBatchLoader {
+        private final Iterator<? extends Object> itemsToGet;
+        private final BatchLoadListener listener;
+        private final CompletionService<GetBatch> completionService;
+        private final int maxBatchesInFlight;
+        private final DynamoDBMapperConfig config;
+        private final BatchLoadRetryStrategy batchLoadStrategy;
+        private final boolean consistentReads;
+
+        private final Map<String, Class<?>> classesByTableName = new ConcurrentHashMap<String, Class<?>>();
+        private final List<Future<GetBatch>> inFlight = new LinkedList<Future<GetBatch>>();
+        private final LinkedList<PendingKey> unprocessed = new LinkedList<PendingKey>();
+
+        private ParallelBatchLoader(Iterator<? extends Object> itemsToGet,
+                                    BatchLoadListener listener,
+                                    ExecutorService executor,
+                                    int maxBatchesInFlight,
+                                    DynamoDBMapperConfig config) {
+            this.itemsToGet = itemsToGet;
+            this.listener = listener;
+            this.completionService = new ExecutorCompletionService<GetBatch>(executor);
+            this.maxBatchesInFlight = maxBatchesInFlight;
+            this.config = config;
+            this.batchLoadStrategy = config.getBatchLoadRetryStrategy();
+            this.consistentReads = (config.getConsistentReads() == ConsistentReads.CONSISTENT);
+        }
+
+        private void load() {
+            try {
+                while (true) {
+                    if (inFlight.size() >= maxBatchesInFlight) {
+                        complete(take());
+                        continue;
+                    }
+                    final GetBatch batch = nextBatch();
+                    if (batch != null) {
+                        inFlight.add(completionService.submit(batch));
+                    } else if (inFlight.isEmpty()) {
+                        return;
+                    } else {
+                        complete(take());
+                    }
+                }
+            } finally {
+                for (final Future<GetBatch> future : inFlight) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Returns the next batch to send, or null if there is none yet. Keys
+         * left unprocessed go first; a batch with fewer than 100 of them is
+         * only sent once no other batch in flight could add to them.
+         */
+        private GetBatch nextBatch() {
+            final boolean drained = !itemsToGet.hasNext();
+            if (drained && (unprocessed.isEmpty() ||
+                    unprocessed.size() < MAX_KEYS_PER_BATCH_GET && !inFlight.isEmpty())) {
+                return null;
+            }
+            final GetBatch batch = new GetBatch();
+            while (batch.size() < MAX_KEYS_PER_BATCH_GET && !unprocessed.isEmpty()) {
+                batch.add(unprocessed.removeFirst());
+            }
+            while (batch.size() < MAX_KEYS_PER_BATCH_GET && itemsToGet.hasNext()) {
+                final Object keyObject = itemsToGet.next();
+                final Class<Object> clazz = (Class<Object>)keyObject.getClass();
+                final DynamoDBMapperTableModel<Object> model = getTableModel(clazz, config);
+                final String tableName = getTableName(clazz, keyObject, config);
+                classesByTableName.put(tableName, clazz);
+                batch.add(new PendingKey(tableName, model.convertKey(keyObject), 0, 0));
+            }
+            return batch;
+        }
+
+        private GetBatch take() {
+            try {
+                final Future<GetBatch> future = completionService.take();
+                inFlight.remove(future);
+                return future.get();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new SdkClientException("Parallel batch load interrupted by other thread.", ie);
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException)ee.getCause();
+                } else if (ee.getCause() instanceof Error) {
+                    throw (Error)ee.getCause();
+                }
+                throw new SdkClientException(ee.getCause());
+            }
+        }
+
+        /**
+         * Passes the loaded items on to the listener and queues the
+         * unprocessed keys to be retried, for as long as the retry strategy
+         * allows, as processBatchGetRequest does.
+         */
+        private void complete(GetBatch batch) {
+            for (final Entry<String, List<Object>> entry : batch.loaded.entrySet()) {
+                for (final Object item : entry.getValue()) {
+                    listener.itemLoaded(entry.getKey(), item);
+                }
+            }
+            final Map<String, KeysAndAttributes> unprocessedKeys = batch.result.getUnprocessedKeys();
+            if (unprocessedKeys == null || unprocessedKeys.isEmpty()) {
+                return;
+            }
+            final BatchLoadContext batchLoadContext = new BatchLoadContext(batch.request);
+            batchLoadContext.setBatchGetItemResult(batch.result);
+            batchLoadContext.setRetriesAttempted(batch.retries);
+            if (!batchLoadStrategy.shouldRetry(batchLoadContext)) {
+                // We still need to throw Amazon Client Exception when none of the requested keys are processed
+                if (batch.request.getRequestItems().size() == unprocessedKeys.size()) {
+                    throw new SdkClientException(
+                        "Batch Get Item request to server hasn't received any data. Please try again later");
+                }
+                return;
+            }
+            batchLoadContext.setRetriesAttempted(batch.retries + 1);
+            final long delay = batchLoadStrategy.getDelayBeforeNextRetry(batchLoadContext);
+            for (final Entry<String, KeysAndAttributes> entry : unprocessedKeys.entrySet()) {
+                for (final Map<String, AttributeValue> key : entry.getValue().getKeys()) {
+                    final int retries = batch.retriesOf(entry.getKey(), key);
+                    unprocessed.add(new PendingKey(entry.getKey(), key, retries + 1, delay));
+                }
+            }
+        }
+
+        /**
+         * One BatchGetItem request, which backs off before a retry of
+         * unprocessed keys, holding its place in flight, and converts the
+         * items it loads.
+         */
+        private final class GetBatch implements Callable<GetBatch> {
+            private final List<PendingKey> pendingKeys = new ArrayList<PendingKey>(MAX_KEYS_PER_BATCH_GET);
+            private final BatchGetItemRequest request = new BatchGetItemRequest()
+                .withRequestItems(new HashMap<String, KeysAndAttributes>())
+                .withRequestMetricCollector(config.getRequestMetricCollector());
+            private int retries;
+            private long delay;
+
+            private BatchGetItemResult result;
+            private final Map<String, List<Object>> loaded = new HashMap<String, List<Object>>();
+
+            private void add(PendingKey pendingKey) {
+                pendingKeys.add(pendingKey);
+                KeysAndAttributes keys = request.getRequestItems().get(pendingKey.tableName);
+                if (keys == null) {
+                    keys = new KeysAndAttributes().withConsistentRead(consistentReads).withKeys(
+                            new LinkedList<Map<String, AttributeValue>>());
+                    request.getRequestItems().put(pendingKey.tableName, keys);
+                }
+                keys.getKeys().add(pendingKey.key);
+                retries = Math.max(retries, pendingKey.retries);
+                delay = Math.max(delay, pendingKey.delay);
+            }
+
+            private int size() {
+                return pendingKeys.size();
+            }
+
+            private int retriesOf(String tableName, Map<String, AttributeValue> key) {
+                for (final PendingKey pendingKey : pendingKeys) {
+                    if (pendingKey.tableName.equals(tableName) && pendingKey.key.equals(key)) {
+                        return pendingKey.retries;
+                    }
+                }
+                return retries;
+            }
+
+            @Override
+            public GetBatch call() {
+                pause(delay);
+                result = db.batchGetItem(applyBatchOperationUserAgent(request));
+                final Map<String, List<Map<String, AttributeValue>>> responses = result.getResponses();
+                for ( String tableName : responses.keySet() ) {
+                    final List<Object> objects = new ArrayList<Object>(responses.get(tableName).size());
+                    final Class<?> clazz = classesByTableName.get(tableName);
+                    for ( Map<String, AttributeValue> item : responses.get(tableName) ) {
+                        AttributeTransformer.Parameters<?> parameters =
+                            toParameters(item, clazz, tableName, config);
+                        objects.add(privateMarshallIntoObject(parameters));
+                    }
+                    loaded.put(tableName, objects);
+                }
+                return this;
+            }
+        }
+    }
+
+    /**
+     * A key of a parallel batch load with the number of times it has been
+     * retried and the delay before retrying it.
+     */
+    private static final class PendingKey {
+        private final String tableName;
+        private final Map<String, AttributeValue> key;
+        private final int retries;
+        private final long delay;
+
+        private PendingKey(String tableName, Map<String, AttributeValue> key, int retries, long delay) {
+            this.tableName = tableName;
+            this.key = key;
+            this.retries = retries;
+            this.delay = delay;
+        }
+    }
+
     /**
      * @param config never null
      */
@@ -1468,6 +2040,21 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         return new PaginatedParallelScanList<T>(this, clazz, db, parallelScanTask, config.getPaginationLoadingStrategy(), config);
     }
 
+    @Override
+    public <T> ParallelScanIterator<T> parallelScanIterator(Class<T> clazz,
+                                                            DynamoDBScanExpression scanExpression,
+                                                            int totalSegments,
+                                                            ExecutorService executor,
+                                                            double maxReadCapacityPerSecond,
+                                                            DynamoDBMapperConfig config) {
+        config = mergeConfig(config);
+
+        // Create hard copies of the original scan request with difference segment number.
+        List<ScanRequest> parallelScanRequests = createParallelScanRequestsFromExpression(clazz, scanExpression, totalSegments, config);
+
+        return new ParallelScanIterator<T>(this, db, clazz, parallelScanRequests, executor, maxReadCapacityPerSecond, config);
+    }
+
     @Override
     public <T> ScanResultPage<T> scanPage(Class<T> clazz,
                                           DynamoDBScanExpression scanExpression,
@@ -2228,6 +2815,26 @@ public class DynamoDBMapper extends AbstractDynamoDBMapper {
         }
     }
 
+    /**
+     * Receives the items of a parallel batch load as they are loaded.
+     *
+     * @see DynamoDBMapper#parallelBatchLoad(Iterator, BatchLoadListener, ExecutorService, int,
+     *      DynamoDBMapperConfig)
+     */
+    public interface BatchLoadListener {
+        /**
+         * Called, on the thread running the parallel batch load, for each item
+         * loaded.
+         *
+         * @param tableName
+         *            The name of the table the item was loaded from.
+         * @param item
+         *            The loaded object, of the user defined type annotated as
+         *            mapping that table.
+         */
+        void itemLoaded(String tableName, Object item);
+    }
+
     /**
      * Used for batch operations where request data is grouped by table name.
      */
@@ -17,6 +17,7 @@ package com.amazonaws.services.dynamodbv2.datamodeling;
 import com.amazonaws.metrics.RequestMetricCollector;
 import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
 import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
 
 import java.util.List;
 import java.util.Map;
@@ -90,6 +91,7 @@ public class DynamoDBMapperConfig {
         private BatchWriteRetryStrategy batchWriteRetryStrategy;
         private BatchLoadRetryStrategy batchLoadRetryStrategy;
         private DynamoDBTypeConverterFactory typeConverterFactory;
+        private ItemCache itemCache;
 
         /**
          * Creates a new builder initialized with the {@link #DEFAULT} values.
@@ -128,6 +130,7 @@ public class DynamoDBMapperConfig {
             if (o.batchWriteRetryStrategy != null) batchWriteRetryStrategy = o.batchWriteRetryStrategy;
             if (o.batchLoadRetryStrategy != null) batchLoadRetryStrategy = o.batchLoadRetryStrategy;
             if (o.typeConverterFactory != null) typeConverterFactory = o.typeConverterFactory;
+            if (o.itemCache != null) itemCache = o.itemCache;
             return this;
         }
 
@@ -423,6 +426,43 @@ public class DynamoDBMapperConfig {
             return this;
         }
 
+        /**
+         * @return the current item cache
+         */
+        public final ItemCache getItemCache() {
+            return itemCache;
+        }
+
+        /**
+         * @param value the new item cache
+         */
+        public final void setItemCache(ItemCache value) {
+            this.itemCache = value;
+        }
+
+        /**
+         * The item cache for eventually consistent loads.
+         * <p>Loads are served from the cache when possible, and the items
+         * written or deleted through the mapper are invalidated in it; the
+         * same cache may also be shared with the document API
+         * {@code Table}.</p>
+         * <pre class="brush: java">
+         * DynamoDBMapperConfig config = DynamoDBMapperConfig.builder()
+         *     .withItemCache(ItemCache.builder()
+         *         .withMaximumWeight(10000)
+         *         .withTimeToLive(1, TimeUnit.MINUTES)
+         *         .build())
+         *     .build();
+         * </pre>
+         * @param value the new item cache
+         * @return this builder
+         * @see ItemCache
+         */
+        public final Builder withItemCache(ItemCache value) {
+            setItemCache(value);
+            return this;
+        }
+
         /**
          * Builds a new {@code DynamoDBMapperConfig} object.
          *
@@ -895,6 +935,7 @@ public class DynamoDBMapperConfig {
     private final BatchWriteRetryStrategy batchWriteRetryStrategy;
     private final BatchLoadRetryStrategy batchLoadRetryStrategy;
     private final DynamoDBTypeConverterFactory typeConverterFactory;
+    private final ItemCache itemCache;
 
     /**
      * Internal constructor; builds from the builder.
@@ -911,6 +952,7 @@ public class DynamoDBMapperConfig {
         this.batchWriteRetryStrategy = builder.batchWriteRetryStrategy;
         this.batchLoadRetryStrategy = builder.batchLoadRetryStrategy;
         this.typeConverterFactory = builder.typeConverterFactory;
+        this.itemCache = builder.itemCache;
     }
 
     /**
@@ -1022,6 +1064,7 @@ public class DynamoDBMapperConfig {
         this.batchWriteRetryStrategy = batchWriteRetryStrategy;
         this.batchLoadRetryStrategy = batchLoadRetryStrategy;
         this.typeConverterFactory = null;
+        this.itemCache = null;
     }
 
     /**
@@ -1220,4 +1263,11 @@ public class DynamoDBMapperConfig {
         return typeConverterFactory;
     }
 
+    /**
+     * @return the item cache, or null if loads are not cached
+     */
+    public final ItemCache getItemCache() {
+        return itemCache;
+    }
+
 }
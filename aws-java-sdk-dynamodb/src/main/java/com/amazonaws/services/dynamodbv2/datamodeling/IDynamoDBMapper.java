@@ -15,6 +15,7 @@
 package com.amazonaws.services.dynamodbv2.datamodeling;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.BatchLoadListener;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.SaveBehavior;
@@ -27,8 +28,10 @@ import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
 import com.amazonaws.services.s3.model.Region;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Interface for DynamoDBMapper.
@@ -325,6 +328,52 @@ public interface IDynamoDBMapper {
                                  Iterable<? extends Object> objectsToDelete,
                                  DynamoDBMapperConfig config);
 
+    /**
+     * Saves the objects given using concurrent calls to the
+     * {@link AmazonDynamoDB#batchWriteItem(BatchWriteItemRequest)} API.
+     *
+     * @see IDynamoDBMapper#parallelBatchWrite(Iterator, Iterator, ExecutorService, int,
+     *      DynamoDBMapperConfig)
+     */
+    List<FailedBatch> parallelBatchSave(Iterator<? extends Object> objectsToSave,
+                                        ExecutorService executor,
+                                        int maxBatchesInFlight);
+
+    /**
+     * Saves and deletes the objects given using concurrent calls to the
+     * {@link AmazonDynamoDB#batchWriteItem(BatchWriteItemRequest)} API, with the same
+     * restrictions as {@link #batchWrite(Iterable, Iterable, DynamoDBMapperConfig)}.
+     * <p>
+     * The objects are read from the iterators and converted only as batches are needed, so that
+     * they need not all be held in memory, and up to maxBatchesInFlight batches are written at
+     * once on the executor given. The UnprocessedItems returned by any batch are re-packed with
+     * the next objects into full batches of 25 items, and retried as allowed by the
+     * BatchWriteRetryStrategy of the config. As batches complete in any order, the iterators
+     * should not contain more than one write to the same item.
+     * </p>
+     *
+     * @param objectsToWrite
+     *            The objects to save to DynamoDB. <b>No version checks are performed</b>.
+     * @param objectsToDelete
+     *            The objects to delete from DynamoDB. <b>No version checks are performed</b>.
+     * @param executor
+     *            The executor to send the batches on; it is not shut down by this method.
+     * @param maxBatchesInFlight
+     *            The maximum number of batches to write at once.
+     * @param config
+     *            Only {@link DynamoDBMapperConfig#getTableNameOverride()} and
+     *            {@link DynamoDBMapperConfig#getBatchWriteRetryStrategy()} are considered.
+     * @return A list of failed batches which includes the unprocessed items and the exceptions
+     *         causing the failure.
+     * @see DynamoDBMapperConfig#getTableNameOverride()
+     * @see DynamoDBMapperConfig#getBatchWriteRetryStrategy()
+     */
+    List<FailedBatch> parallelBatchWrite(Iterator<? extends Object> objectsToWrite,
+                                         Iterator<? extends Object> objectsToDelete,
+                                         ExecutorService executor,
+                                         int maxBatchesInFlight,
+                                         DynamoDBMapperConfig config);
+
     /**
      * Retrieves multiple items from multiple tables using their primary keys.
      *
@@ -382,6 +431,65 @@ public interface IDynamoDBMapper {
      */
     Map<String, List<Object>> batchLoad(Map<Class<?>, List<KeyPair>> itemsToGet, DynamoDBMapperConfig config);
 
+    /**
+     * Retrieves multiple items from multiple tables using their primary keys, with concurrent calls
+     * to the {@link AmazonDynamoDB#batchGetItem(BatchGetItemRequest)} API, passing each item to the
+     * listener as soon as the batch that loaded it completes.
+     * <p>
+     * The key objects are read from the iterator and converted only as batches are needed, and up
+     * to maxBatchesInFlight batches of up to 100 keys are loaded at once on the executor given.
+     * The UnprocessedKeys returned by any batch are re-packed with the next keys into full batches,
+     * and retried as allowed by the BatchLoadRetryStrategy of the config. Items are passed to the
+     * listener on the calling thread, in no particular order.
+     * </p>
+     *
+     * @param itemsToGet
+     *            Key objects, corresponding to the class to fetch, with their primary key values
+     *            set.
+     * @param listener
+     *            Receives the loaded objects.
+     * @param executor
+     *            The executor to send the batches on; it is not shut down by this method.
+     * @param maxBatchesInFlight
+     *            The maximum number of batches to load at once.
+     * @param config
+     *            Only {@link DynamoDBMapperConfig#getTableNameOverride()},
+     *            {@link DynamoDBMapperConfig#getConsistentReads()} and
+     *            {@link DynamoDBMapperConfig#getBatchLoadRetryStrategy()} are considered.
+     */
+    void parallelBatchLoad(Iterator<? extends Object> itemsToGet,
+                           BatchLoadListener listener,
+                           ExecutorService executor,
+                           int maxBatchesInFlight,
+                           DynamoDBMapperConfig config);
+
+    /**
+     * Retrieves multiple items from multiple tables using their primary keys, with concurrent calls
+     * to the {@link AmazonDynamoDB#batchGetItem(BatchGetItemRequest)} API. Valid only for tables
+     * with a single hash key, or a single hash and range key.
+     *
+     * @param itemsToGet
+     *            Map from class to load to list of primary key attributes.
+     * @param executor
+     *            The executor to send the batches on; it is not shut down by this method.
+     * @param maxBatchesInFlight
+     *            The maximum number of batches to load at once.
+     * @param config
+     *            Only {@link DynamoDBMapperConfig#getTableNameOverride()},
+     *            {@link DynamoDBMapperConfig#getConsistentReads()} and
+     *            {@link DynamoDBMapperConfig#getBatchLoadRetryStrategy()} are considered.
+     * @return A map of the loaded objects. Each key in the map is the name of a DynamoDB table.
+     *         Each value in the map is a list of objects that have been loaded from that table. All
+     *         objects for each table can be cast to the associated user defined type that is
+     *         annotated as mapping that table.
+     * @see #parallelBatchLoad(Iterator, BatchLoadListener, ExecutorService, int,
+     *      DynamoDBMapperConfig)
+     */
+    Map<String, List<Object>> parallelBatchLoad(Map<Class<?>, List<KeyPair>> itemsToGet,
+                                                ExecutorService executor,
+                                                int maxBatchesInFlight,
+                                                DynamoDBMapperConfig config);
+
     /**
      * Scans through an Amazon DynamoDB table and returns the matching results as an unmodifiable
      * list of instantiated objects, using the default configuration.
@@ -470,6 +578,48 @@ public interface IDynamoDBMapper {
                                                   int totalSegments,
                                                   DynamoDBMapperConfig config);
 
+    /**
+     * Scans through an Amazon DynamoDB table on logically partitioned segments in parallel, and
+     * returns an iterator over the matching results that scans the pages of each segment only as
+     * fast as they are iterated over. Unlike {@link #parallelScan(Class, DynamoDBScanExpression,
+     * int, DynamoDBMapperConfig)}, the results are never collected in memory: no segment has more
+     * than one page scanned ahead of the one being iterated over, and a segment waiting for the
+     * consumer does not hold a thread of the executor.
+     * <p>
+     * The iterator should be closed if it is not iterated to the end, so that the scans in flight
+     * are cancelled.
+     *
+     * @param <T>
+     *            The type of the objects being returned.
+     * @param clazz
+     *            The class annotated with DynamoDB annotations describing how to store the object
+     *            data in Amazon DynamoDB.
+     * @param scanExpression
+     *            Details on how to run the scan, including any filters to apply to limit results.
+     * @param totalSegments
+     *            Number of total parallel scan segments. <b>Range: </b>1 - 4096
+     * @param executor
+     *            The executor to scan the segments on; it is not shut down by the iterator.
+     * @param maxReadCapacityPerSecond
+     *            The average number of read capacity units the scan may consume per second across
+     *            all segments, or zero for no limit. The first page of every segment is scanned
+     *            right away, and the scans after them are delayed until the capacity consumed so far
+     *            averages out to this rate; a delayed scan holds its executor thread while it waits.
+     *            The consumed capacity is requested on each scan unless the scan expression
+     *            specifies otherwise.
+     * @param config
+     *            The configuration to use for this scan, which overrides the default provided at
+     *            object construction.
+     * @return An iterator over the objects constructed from the results of the scan operation.
+     * @see ParallelScanIterator
+     */
+    <T> ParallelScanIterator<T> parallelScanIterator(Class<T> clazz,
+                                                     DynamoDBScanExpression scanExpression,
+                                                     int totalSegments,
+                                                     ExecutorService executor,
+                                                     double maxReadCapacityPerSecond,
+                                                     DynamoDBMapperConfig config);
+
     /**
      * Scans through an Amazon DynamoDB table and returns a single page of matching results. The
      * table to scan is determined by looking at the annotations on the specified class, which
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterates over the items of a parallel scan as its segments are scanned,
+ * without holding more than a couple of pages of each segment in memory.
+ * <p>
+ * Each segment scans its next page on the given executor as soon as the
+ * iterator starts on its current one, and no sooner, so a slow consumer slows
+ * down every segment instead of letting them race ahead; a segment never
+ * occupies a thread while it waits for the consumer. The scan can further be
+ * capped to an average number of read capacity units consumed per second
+ * across all segments, in which case a segment whose next scan is delayed
+ * does hold its thread until the delay is over.
+ * <p>
+ * Items come from the segments in the order their pages are scanned.
+ * Iterators that are not iterated to the end should be closed, so that the
+ * scans still in flight are cancelled.
+ *
+ * @see DynamoDBMapper#parallelScanIterator(Class, DynamoDBScanExpression, int, ExecutorService, double,
+ *      DynamoDBMapperConfig)
+ */
+public class ParallelScanIterator<T> implements Iterator<T>, Closeable {
+
+    private final DynamoDBMapper mapper;
+    private final AmazonDynamoDB dynamo;
+    private final Class<T> clazz;
+    private final DynamoDBMapperConfig config;
+    private final ExecutorService executorService;
+    private final ReadCapacityLimiter limiter;
+
+    /**
+     * The scanned pages not yet iterated over; at most one per segment.
+     */
+    private final BlockingQueue<SegmentPage> pages = new LinkedBlockingQueue<SegmentPage>();
+
+    /**
+     * The scans in flight, by segment.
+     */
+    private final List<Future<?>> segmentScanFutureTasks;
+
+    /**
+     * The number of segments with pages left to scan or to iterate over.
+     */
+    private int remainingSegments;
+
+    private Iterator<T> current;
+
+    private boolean closed;
+
+    ParallelScanIterator(DynamoDBMapper mapper,
+                         AmazonDynamoDB dynamo,
+                         Class<T> clazz,
+                         List<ScanRequest> parallelScanRequests,
+                         ExecutorService executorService,
+                         double maxReadCapacityPerSecond,
+                         DynamoDBMapperConfig config) {
+        this.mapper = mapper;
+        this.dynamo = dynamo;
+        this.clazz = clazz;
+        this.config = config;
+        this.executorService = executorService;
+        this.limiter = maxReadCapacityPerSecond > 0 ? new ReadCapacityLimiter(maxReadCapacityPerSecond) : null;
+        this.segmentScanFutureTasks = new ArrayList<Future<?>>(parallelScanRequests.size());
+        this.remainingSegments = parallelScanRequests.size();
+
+        for (int segment = 0; segment < parallelScanRequests.size(); segment++) {
+            final ScanRequest segmentScanRequest = parallelScanRequests.get(segment);
+            if (limiter != null && segmentScanRequest.getReturnConsumedCapacity() == null) {
+                segmentScanRequest.setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+            }
+            segmentScanFutureTasks.add(null);
+            scanNextPage(segment, segmentScanRequest);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+            if (closed || remainingSegments == 0) {
+                return false;
+            }
+            current = nextPage().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("ParallelScanIterator is read-only.");
+    }
+
+    /**
+     * Cancels the scans still in flight; the iterator has no more items
+     * afterwards.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            current = null;
+            for (final Future<?> future : segmentScanFutureTasks) {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            }
+            pages.clear();
+        }
+    }
+
+    /**
+     * Takes the next scanned page of any segment, and starts scanning the
+     * page after it.
+     */
+    private List<T> nextPage() {
+        final SegmentPage page;
+        try {
+            page = pages.take();
+        } catch (InterruptedException ie) {
+            close();
+            Thread.currentThread().interrupt();
+            throw new SdkClientException("Parallel scan interrupted by other thread.", ie);
+        }
+        segmentScanFutureTasks.set(page.segment, null);
+        if (page.exception != null) {
+            close();
+            if (page.exception instanceof AmazonClientException) {
+                throw (AmazonClientException)page.exception;
+            }
+            throw new SdkClientException("Error during the scan on segment #" + page.segment + ".", page.exception);
+        }
+        if (page.scanRequest.getExclusiveStartKey() == null) {
+            remainingSegments--;
+        } else {
+            scanNextPage(page.segment, page.scanRequest);
+        }
+        return page.items;
+    }
+
+    private void scanNextPage(final int segment, final ScanRequest segmentScanRequest) {
+        segmentScanFutureTasks.set(segment, executorService.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+                final SegmentPage page = new SegmentPage(segment, segmentScanRequest);
+                try {
+                    if (limiter != null) {
+                        limiter.acquire();
+                    }
+                    final ScanResult scanResult = dynamo.scan(DynamoDBMapper.applyUserAgent(segmentScanRequest));
+                    if (limiter != null && scanResult.getConsumedCapacity() != null &&
+                            scanResult.getConsumedCapacity().getCapacityUnits() != null) {
+                        limiter.consumed(scanResult.getConsumedCapacity().getCapacityUnits());
+                    }
+                    page.items = mapper.marshallIntoObjects(mapper.toParameters(
+                        scanResult.getItems(), clazz, segmentScanRequest.getTableName(), config));
+                    segmentScanRequest.setExclusiveStartKey(scanResult.getLastEvaluatedKey());
+                } catch (Exception e) {
+                    page.exception = e;
+                }
+                pages.add(page);
+                return null;
+            }
+        }));
+    }
+
+    /**
+     * A scanned page of a segment, or the exception scanning it.
+     */
+    private final class SegmentPage {
+        private final int segment;
+        private final ScanRequest scanRequest;
+        private List<T> items;
+        private Exception exception;
+
+        private SegmentPage(int segment, ScanRequest scanRequest) {
+            this.segment = segment;
+            this.scanRequest = scanRequest;
+        }
+    }
+
+    /**
+     * Spaces the scan requests of all segments so that the read capacity they
+     * consume averages out to at most the given number of units per second;
+     * as the capacity a page consumes is only known once it is scanned, it is
+     * paid for by the requests after it. The cap is therefore an average, not
+     * a ceiling: the segments all start at the same time, so the scan opens
+     * with a burst of one page per segment, and only the requests after it
+     * are delayed. The delay is slept on the segment's executor thread.
+     */
+    private static final class ReadCapacityLimiter {
+        private final double nanosPerUnit;
+        private long nextRequestNanos = System.nanoTime();
+
+        private ReadCapacityLimiter(double maxReadCapacityPerSecond) {
+            this.nanosPerUnit = TimeUnit.SECONDS.toNanos(1) / maxReadCapacityPerSecond;
+        }
+
+        private void acquire() throws InterruptedException {
+            final long delay;
+            synchronized (this) {
+                delay = nextRequestNanos - System.nanoTime();
+            }
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+        }
+
+        private synchronized void consumed(double units) {
+            nextRequestNanos = Math.max(nextRequestNanos, System.nanoTime()) + (long)(units * nanosPerUnit);
+        }
+    }
+}
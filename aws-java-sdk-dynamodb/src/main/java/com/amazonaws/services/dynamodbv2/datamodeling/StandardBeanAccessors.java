@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel.Reflect;
+import com.amazonaws.services.dynamodbv2.datamodeling.StandardBeanProperties.MethodReflect;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.Method;
+
+/**
+ * Builds the get/set operations of a bean property from its getter and
+ * setter, looked up once when the bean is first mapped and made accessible,
+ * so that every later {@link Method#invoke} skips the language access checks.
+ * This also lets the mapper reach public getters and setters of classes that
+ * are not public.
+ * <p>
+ * Methods that cannot be made accessible, because a security manager denies
+ * it or their module is not open, are invoked with the usual access checks,
+ * as is every method if the {@value #DISABLE_ACCESSIBLE_ACCESSORS_PROPERTY}
+ * system property is set to true.
+ */
+@SdkInternalApi
+final class StandardBeanAccessors {
+    private static final Log log = LogFactory.getLog(StandardBeanAccessors.class);
+
+    /**
+     * System property that disables accessible accessors when set to true.
+     */
+    static final String DISABLE_ACCESSIBLE_ACCESSORS_PROPERTY =
+        "com.amazonaws.sdk.dynamodb.disableAccessibleAccessors";
+
+    private static final boolean DISABLED = isDisabled();
+
+    private StandardBeanAccessors() {
+    }
+
+    /**
+     * Returns the get/set operations for the given getter and optional
+     * setter, made accessible, or null if they can only be invoked with the
+     * usual access checks.
+     */
+    static <T,V> Reflect<T,V> reflectOf(Method getter, Method setter) {
+        if (DISABLED) {
+            return null;
+        }
+        try {
+            getter.setAccessible(true);
+            if (setter != null) {
+                setter.setAccessible(true);
+            }
+        } catch (final RuntimeException e) {
+            log.debug("Unable to make " + getter + " accessible, invoking it with access checks", e);
+            return null;
+        }
+        return new MethodReflect<T,V>(getter, setter);
+    }
+
+    private static boolean isDisabled() {
+        try {
+            return Boolean.getBoolean(DISABLE_ACCESSIBLE_ACCESSORS_PROPERTY);
+        } catch (final SecurityException e) {
+            return false;
+        }
+    }
+
+}
@@ -113,8 +113,12 @@ final class StandardBeanProperties {
     static final class MethodReflect<T,V> implements Reflect<T,V> {
         private final Method getter, setter;
 
-        private MethodReflect(Method getter) {
-            this.setter = setterOf(getter);
+        MethodReflect(Method getter) {
+            this(getter, setterOf(getter));
+        }
+
+        MethodReflect(Method getter, Method setter) {
+            this.setter = setter;
             this.getter = getter;
         }
 
@@ -154,8 +158,8 @@ final class StandardBeanProperties {
         private final Reflect<T,T> declaring;
         private final Class<T> targetType;
 
-        private DeclaringReflect(Method getter, Reflect<T,T> declaring, Class<T> targetType) {
-            this.reflect = new MethodReflect<T,V>(getter);
+        private DeclaringReflect(Reflect<T,V> reflect, Reflect<T,T> declaring, Class<T> targetType) {
+            this.reflect = reflect;
             this.declaring = declaring;
             this.targetType = targetType;
         }
@@ -203,13 +207,18 @@ final class StandardBeanProperties {
                 if (canMap(method, inherited)) {
                     final FieldMap<V> annotations = StandardAnnotationMaps.<V>of(method, null);
                     if (!annotations.ignored()) {
-                        final Reflect<T,V> reflect = new MethodReflect<T,V>(method);
+                        final Reflect<T,V> reflect = reflectOf(method);
                         putOrFlatten(annotations, reflect, method);
                     }
                 }
             }
         }
 
+        private Reflect<T,V> reflectOf(Method getter) {
+            final Reflect<T,V> reflect = StandardBeanAccessors.<T,V>reflectOf(getter, MethodReflect.setterOf(getter));
+            return reflect == null ? new MethodReflect<T,V>(getter) : reflect;
+        }
+
         private void putOrFlatten(FieldMap<V> annotations, Reflect<T,V> reflect, Method getter) {
             if (annotations.flattened()) {
                 flatten((Class<T>)annotations.targetType(), annotations.attributes(), (Reflect<T,T>)reflect);
@@ -230,7 +239,7 @@ final class StandardBeanProperties {
                     }
                     final FieldMap<V> annotations = StandardAnnotationMaps.<V>of(method, name);
                     if (!annotations.ignored()) {
-                        final Reflect<T,V> reflect = new DeclaringReflect<T,V>(method, declaring, targetType);
+                        final Reflect<T,V> reflect = new DeclaringReflect<T,V>(reflectOf(method), declaring, targetType);
                         putOrFlatten(annotations, reflect, method);
                     }
                 }
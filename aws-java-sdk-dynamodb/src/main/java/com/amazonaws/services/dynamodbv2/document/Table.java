@@ -56,6 +56,7 @@ import com.amazonaws.services.dynamodbv2.model.TableDescription;
 import com.amazonaws.services.dynamodbv2.model.TableStatus;
 import com.amazonaws.services.dynamodbv2.model.UpdateTableRequest;
 import com.amazonaws.services.dynamodbv2.model.UpdateTableResult;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
 import com.amazonaws.services.dynamodbv2.xspec.DeleteItemExpressionSpec;
 import com.amazonaws.services.dynamodbv2.xspec.GetItemExpressionSpec;
 import com.amazonaws.services.dynamodbv2.xspec.QueryExpressionSpec;
@@ -73,6 +74,7 @@ public class Table implements PutItemApi, GetItemApi, QueryApi, ScanApi,
     private final String tableName;
     private final AmazonDynamoDB client;
     private volatile TableDescription tableDescription;
+    private final ItemCache itemCache;
 
     private final PutItemImpl putItemDelegate;
     private final GetItemImpl getItemDelegate;
@@ -88,6 +90,20 @@ public class Table implements PutItemApi, GetItemApi, QueryApi, ScanApi,
 
     public Table(AmazonDynamoDB client, String tableName,
             TableDescription tableDescription) {
+        this(client, tableName, tableDescription, null);
+    }
+
+    /**
+     * Constructs a table which serves eventually consistent item reads,
+     * without projection, from the specified item cache, and invalidates
+     * the items put, updated or deleted through it.
+     *
+     * @param itemCache
+     *            the item cache, or null to not cache items
+     * @see ItemCache
+     */
+    public Table(AmazonDynamoDB client, String tableName,
+            TableDescription tableDescription, ItemCache itemCache) {
         if (client == null)
             throw new IllegalArgumentException("client must be specified");
         if (tableName == null || tableName.trim().length() == 0)
@@ -95,6 +111,7 @@ public class Table implements PutItemApi, GetItemApi, QueryApi, ScanApi,
         this.client = client;
         this.tableName = tableName;
         this.tableDescription = tableDescription;
+        this.itemCache = itemCache;
 
         this.putItemDelegate = new PutItemImpl(client, this);
         this.getItemDelegate = new GetItemImpl(client, this);
@@ -109,6 +126,13 @@ public class Table implements PutItemApi, GetItemApi, QueryApi, ScanApi,
         return tableName;
     }
 
+    /**
+     * Returns the item cache of this table; or null if items are not cached.
+     */
+    public ItemCache getItemCache() {
+        return itemCache;
+    }
+
     /**
      * Returns the table description; or null if the table description has not
      * yet been described via {@link #describe()}.  No network call.
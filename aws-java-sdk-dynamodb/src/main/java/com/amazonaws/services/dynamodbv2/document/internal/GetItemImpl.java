@@ -24,8 +24,10 @@ import com.amazonaws.services.dynamodbv2.document.PrimaryKey;
 import com.amazonaws.services.dynamodbv2.document.Table;
 import com.amazonaws.services.dynamodbv2.document.api.GetItemApi;
 import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
 import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
 
 /**
  * The implementation for <code>GetItemApi</code>.
@@ -74,8 +76,34 @@ public class GetItemImpl extends AbstractImpl implements GetItemApi {
                 .withKey(InternalUtils.toAttributeValueMap(spec.getKeyComponents()))
                 .withExpressionAttributeNames(spec.getNameMap());
 
-        GetItemResult result = getClient().getItem(req);
-        return new GetItemOutcome(result);
+        final ItemCache itemCache = getTable().getItemCache();
+        if (itemCache == null || !isCacheable(req)) {
+            GetItemResult result = getClient().getItem(req);
+            return new GetItemOutcome(result);
+        }
+        final GetItemRequest request = req;
+        final GetItemResult[] loaded = new GetItemResult[1];
+        Map<String, AttributeValue> item = itemCache.get(tableName, req.getKey(),
+            new ItemCache.ItemLoader() {
+                @Override
+                public Map<String, AttributeValue> load() {
+                    loaded[0] = getClient().getItem(request);
+                    return loaded[0].getItem();
+                }
+            });
+        // Keep the actual result, such as the consumed capacity, on a miss
+        return new GetItemOutcome(loaded[0] == null
+                ? new GetItemResult().withItem(item) : loaded[0]);
+    }
+
+    /**
+     * Returns true if the request reads the entire item with eventual
+     * consistency, and can therefore be served from the item cache.
+     */
+    private static boolean isCacheable(GetItemRequest req) {
+        return req.getProjectionExpression() == null
+            && (req.getAttributesToGet() == null || req.getAttributesToGet().isEmpty())
+            && !Boolean.TRUE.equals(req.getConsistentRead());
     }
 
     @Override
@@ -27,6 +27,7 @@ import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
 import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
 import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
 
 /**
  * The implementation for <code>PutItemApi</code>.
@@ -82,7 +83,14 @@ public class PutItemImpl extends AbstractImpl implements PutItemApi {
             .withExpressionAttributeNames(spec.getNameMap())
             .withExpressionAttributeValues(attrValMap)
             ;
-        PutItemResult result = getClient().putItem(req);
+        PutItemResult result;
+        try {
+            result = getClient().putItem(req);
+        } finally {
+            final ItemCache itemCache = getTable().getItemCache();
+            if (itemCache != null)
+                itemCache.invalidateItem(tableName, attributes);
+        }
         return new PutItemOutcome(result);
     }
 }
@@ -27,6 +27,8 @@ import com.amazonaws.services.dynamodbv2.document.api.UpdateItemApi;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
 import com.amazonaws.services.dynamodbv2.model.ExpectedAttributeValue;
 import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
 
 /**
  * The implementation for <code>UpdateItemApi</code>.
@@ -99,7 +101,15 @@ public class UpdateItemImpl implements UpdateItemApi {
         request.setExpressionAttributeNames(spec.getNameMap());
         request.setExpressionAttributeValues(
             InternalUtils.fromSimpleMap(spec.getValueMap()));
-        return new UpdateItemOutcome(client.updateItem(request));
+        final UpdateItemResult result;
+        try {
+            result = client.updateItem(request);
+        } finally {
+            final ItemCache itemCache = table.getItemCache();
+            if (itemCache != null)
+                itemCache.invalidate(table.getTableName(), request.getKey());
+        }
+        return new UpdateItemOutcome(result);
     }
 
     @Override
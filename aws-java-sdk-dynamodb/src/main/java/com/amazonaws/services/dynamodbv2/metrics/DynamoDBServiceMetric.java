@@ -0,0 +1,30 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.metrics;
+
+import com.amazonaws.metrics.ServiceMetricType;
+
+/**
+ * DynamoDB specific service metric type.
+ */
+public enum DynamoDBServiceMetric implements ServiceMetricType {
+    /** Time taken to serve an item from the item cache. */
+    DynamoDBItemCacheHit,
+    /** Time taken to load an item that was not in the item cache. */
+    DynamoDBItemCacheMiss,
+    ;
+
+    @Override public String getServiceName() { return "Amazon DynamoDB"; }
+}
@@ -0,0 +1,657 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.annotation.SdkTestInternalApi;
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.ServiceLatencyProvider;
+import com.amazonaws.metrics.ServiceMetricCollector;
+import com.amazonaws.services.dynamodbv2.metrics.DynamoDBServiceMetric;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * An in-process, read-through item cache keyed by table name and primary key.
+ * <p>
+ * The cache is shared by the {@code DynamoDBMapper}, through
+ * {@code DynamoDBMapperConfig.Builder#withItemCache}, and by the document API,
+ * through the {@code Table} constructor which accepts a cache. Eventually
+ * consistent single item reads are served from the cache; the cache is
+ * invalidated by writes made through the same mapper or table, but not by
+ * writes made by any other client, so entries may be stale for up to the time
+ * to live of their table.
+ * <pre class="brush: java">
+ * ItemCache cache = ItemCache.builder()
+ *     .withMaximumWeight(64 * 1024 * 1024)
+ *     .withWeigher(ItemCache.Weigher.ITEM_SIZE)
+ *     .withTimeToLive(1, TimeUnit.MINUTES)
+ *     .withTimeToLive("Sessions", 5, TimeUnit.SECONDS)
+ *     .build();
+ * </pre>
+ * <p>
+ * Concurrent misses on the same key are coalesced so that only one request is
+ * made to DynamoDB; the other readers wait for and share its result. Items
+ * which do not exist are cached as well, so repeated reads of a missing key
+ * are also served from the cache.
+ * <p>
+ * Hits and misses are counted locally, see {@link #getHitCount()} and
+ * {@link #getMissCount()}, and reported to the {@link AwsSdkMetrics} service
+ * metric collector as {@link DynamoDBServiceMetric} latency samples.
+ * <p>
+ * The returned item maps are copies, but the attribute values in them are
+ * shared with the cache and must not be modified.
+ */
+@ThreadSafe
+public class ItemCache {
+
+    static {
+        AwsSdkMetrics.addAll(Arrays.asList(DynamoDBServiceMetric.values()));
+    }
+
+    /**
+     * The default time to live of the cached items.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * The default maximum weight of the cache.
+     */
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 10000;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Loads an item which was not found in the cache.
+     */
+    public static interface ItemLoader {
+        /**
+         * Returns the item attributes; or null if the item does not exist.
+         */
+        Map<String, AttributeValue> load();
+    }
+
+    /**
+     * Computes the weight of a cached item, which is compared against the
+     * maximum weight of the cache to decide when to evict.
+     */
+    public static interface Weigher {
+        /**
+         * Returns the weight of the item; the item may be null when the item
+         * does not exist in the table.
+         */
+        int weigh(String tableName, Map<String, AttributeValue> item);
+
+        /**
+         * Weighs every item as one, bounding the cache by number of entries.
+         */
+        static final Weigher ENTRIES = new Weigher() {
+            @Override
+            public int weigh(String tableName, Map<String, AttributeValue> item) {
+                return 1;
+            }
+        };
+
+        /**
+         * Weighs every item by its approximate size in bytes, as computed by
+         * DynamoDB for the item size limit, bounding the cache by memory.
+         */
+        static final Weigher ITEM_SIZE = new Weigher() {
+            @Override
+            public int weigh(String tableName, Map<String, AttributeValue> item) {
+                return item == null ? 1 : Math.max(1, sizeOf(item));
+            }
+        };
+    }
+
+    /**
+     * Creates a new builder for the item cache.
+     */
+    public static final Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link ItemCache}.
+     */
+    public static class Builder {
+        private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+        private Weigher weigher = Weigher.ENTRIES;
+        private long timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_TIME_TO_LIVE_MILLIS);
+        private final Map<String, Long> tableTimeToLiveNanos = new HashMap<String, Long>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the maximum total weight of the cached items; the least
+         * recently used items are evicted once it is exceeded.
+         * @param value the maximum weight
+         * @return this builder
+         */
+        public Builder withMaximumWeight(long value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException("maximumWeight must be positive");
+            }
+            this.maximumWeight = value;
+            return this;
+        }
+
+        /**
+         * Sets how items are weighed; defaults to {@link Weigher#ENTRIES}.
+         * @param value the weigher
+         * @return this builder
+         */
+        public Builder withWeigher(Weigher value) {
+            if (value == null) {
+                throw new IllegalArgumentException("weigher must be specified");
+            }
+            this.weigher = value;
+            return this;
+        }
+
+        /**
+         * Sets how long items are cached for, unless overridden for their
+         * table; defaults to {@link #DEFAULT_TIME_TO_LIVE_MILLIS}.
+         * @param duration the time to live, or zero to cache no table by default
+         * @param unit the time unit of the duration
+         * @return this builder
+         */
+        public Builder withTimeToLive(long duration, TimeUnit unit) {
+            this.timeToLiveNanos = toNanos(duration, unit);
+            return this;
+        }
+
+        /**
+         * Sets how long items of the specified table are cached for.
+         * @param tableName the table name
+         * @param duration the time to live, or zero to not cache the table
+         * @param unit the time unit of the duration
+         * @return this builder
+         */
+        public Builder withTimeToLive(String tableName, long duration, TimeUnit unit) {
+            if (tableName == null) {
+                throw new IllegalArgumentException("tableName must be specified");
+            }
+            this.tableTimeToLiveNanos.put(tableName, toNanos(duration, unit));
+            return this;
+        }
+
+        /**
+         * Builds a new, empty item cache.
+         */
+        public ItemCache build() {
+            return new ItemCache(this);
+        }
+
+        private static long toNanos(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("timeToLive must not be negative");
+            }
+            return unit.toNanos(duration);
+        }
+    }
+
+    private final Segment[] segments;
+    private final Weigher weigher;
+    private final long timeToLiveNanos;
+    private final Map<String, Long> tableTimeToLiveNanos;
+
+    /**
+     * The key attribute names of each table, as learned from the reads, so
+     * that an item which is put can be invalidated by its key.
+     */
+    private final ConcurrentMap<String, Set<String>> keyNames =
+            new ConcurrentHashMap<String, Set<String>>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private ItemCache(Builder builder) {
+        this.weigher = builder.weigher;
+        this.timeToLiveNanos = builder.timeToLiveNanos;
+        this.tableTimeToLiveNanos = new HashMap<String, Long>(builder.tableTimeToLiveNanos);
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 <= builder.maximumWeight) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((builder.maximumWeight + count - 1) / count);
+        }
+    }
+
+    /**
+     * Returns the item with the specified key, from the cache if present and
+     * not expired, otherwise from the loader, in which case the loaded item is
+     * cached. If the same key is already being loaded by another thread, waits
+     * for and returns that result instead.
+     *
+     * @param tableName the table name
+     * @param key the primary key attributes of the item
+     * @param loader loads the item on a miss
+     * @return the item attributes; or null if the item does not exist
+     */
+    public Map<String, AttributeValue> get(String tableName,
+            Map<String, AttributeValue> key, ItemLoader loader) {
+        return get(tableName, key, loader, System.nanoTime());
+    }
+
+    /**
+     * Returns the item as of the given time; a loaded item expires one time to
+     * live after the read started, which errs on the side of staleness.
+     */
+    @SdkTestInternalApi
+    Map<String, AttributeValue> get(String tableName,
+            Map<String, AttributeValue> key, ItemLoader loader, long nowNanos) {
+        final long ttl = getTimeToLiveNanos(tableName);
+        if (ttl == 0) {
+            return loader.load();
+        }
+        learnKeyNames(tableName, key.keySet());
+
+        final CacheKey cacheKey = new CacheKey(tableName, key);
+        final Segment segment = segmentFor(cacheKey);
+        final Loading loading;
+        final boolean owner;
+        synchronized (segment) {
+            final CachedItem entry = segment.get(cacheKey);
+            if (entry != null) {
+                if (entry.expiresAtNanos - nowNanos > 0) {
+                    collect(DynamoDBServiceMetric.DynamoDBItemCacheHit, null);
+                    return copyOf(entry.item);
+                }
+                segment.remove(cacheKey);
+            }
+            Loading inFlight = segment.loading.get(cacheKey);
+            if (inFlight == null) {
+                inFlight = new Loading();
+                segment.loading.put(cacheKey, inFlight);
+                owner = true;
+            } else {
+                owner = false;
+            }
+            loading = inFlight;
+        }
+
+        if (!owner) {
+            // Counted as it joins the load, as it makes no request of its own
+            collect(DynamoDBServiceMetric.DynamoDBItemCacheHit, null);
+            return copyOf(loading.await());
+        }
+
+        final ServiceLatencyProvider latency = startLatency(DynamoDBServiceMetric.DynamoDBItemCacheMiss);
+        final Map<String, AttributeValue> item;
+        try {
+            item = loader.load();
+        } catch (RuntimeException e) {
+            abandon(segment, cacheKey, loading);
+            loading.fail(e);
+            throw e;
+        } catch (Error e) {
+            abandon(segment, cacheKey, loading);
+            loading.fail(e);
+            throw e;
+        } finally {
+            collect(DynamoDBServiceMetric.DynamoDBItemCacheMiss, latency);
+        }
+
+        synchronized (segment) {
+            // Only cache the item if it has not been invalidated meanwhile
+            if (segment.loading.get(cacheKey) == loading) {
+                segment.loading.remove(cacheKey);
+                final int weight = weigher.weigh(tableName, item);
+                if (weight <= segment.maximumWeight) {
+                    segment.put(cacheKey, new CachedItem(item, weight, nowNanos + ttl));
+                }
+            }
+        }
+        loading.complete(item);
+        return copyOf(item);
+    }
+
+    /**
+     * Removes the item with the specified key from the cache. Any load of the
+     * same key which is in progress is not cached once it completes.
+     *
+     * @param tableName the table name
+     * @param key the primary key attributes of the item
+     */
+    public void invalidate(String tableName, Map<String, AttributeValue> key) {
+        final CacheKey cacheKey = new CacheKey(tableName, key);
+        final Segment segment = segmentFor(cacheKey);
+        synchronized (segment) {
+            segment.remove(cacheKey);
+            segment.loading.remove(cacheKey);
+        }
+    }
+
+    /**
+     * Removes the specified item from the cache, using the key attribute
+     * names of its table. Does nothing if no item of the table was ever read
+     * through this cache, as none can then be cached.
+     *
+     * @param tableName the table name
+     * @param item the item attributes, including its primary key
+     */
+    public void invalidateItem(String tableName, Map<String, AttributeValue> item) {
+        final Set<String> names = keyNames.get(tableName);
+        if (names == null || item == null) {
+            return;
+        }
+        final Map<String, AttributeValue> key = new HashMap<String, AttributeValue>(names.size() * 2);
+        for (final String name : names) {
+            final AttributeValue value = item.get(name);
+            if (value == null) {
+                return;
+            }
+            key.put(name, value);
+        }
+        invalidate(tableName, key);
+    }
+
+    /**
+     * Removes all items from the cache.
+     */
+    public void invalidateAll() {
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+                segment.weight = 0;
+                segment.loading.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of items currently cached, including expired ones
+     * which have not yet been removed.
+     */
+    public long size() {
+        long size = 0;
+        for (final Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of reads served without a request to DynamoDB.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the number of reads which loaded the item from DynamoDB.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the number of items evicted to stay within the maximum weight.
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Returns the time to live of the items of the specified table.
+     */
+    final long getTimeToLiveNanos(String tableName) {
+        final Long ttl = tableTimeToLiveNanos.get(tableName);
+        return ttl == null ? timeToLiveNanos : ttl;
+    }
+
+    private void learnKeyNames(String tableName, Set<String> names) {
+        final Set<String> known = keyNames.get(tableName);
+        if (known == null || !known.equals(names)) {
+            keyNames.put(tableName, new LinkedHashSet<String>(names));
+        }
+    }
+
+    private Segment segmentFor(CacheKey cacheKey) {
+        int h = cacheKey.hashCode;
+        h ^= (h >>> 20) ^ (h >>> 12);
+        h ^= (h >>> 7) ^ (h >>> 4);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static void abandon(Segment segment, CacheKey cacheKey, Loading loading) {
+        synchronized (segment) {
+            if (segment.loading.get(cacheKey) == loading) {
+                segment.loading.remove(cacheKey);
+            }
+        }
+    }
+
+    private static ServiceLatencyProvider startLatency(DynamoDBServiceMetric type) {
+        final ServiceMetricCollector collector = AwsSdkMetrics.getServiceMetricCollector();
+        return collector.isEnabled() ? new ServiceLatencyProvider(type) : null;
+    }
+
+    /**
+     * Counts the hit or miss and reports it to the service metric collector;
+     * a hit is reported without a latency provider already started.
+     */
+    private void collect(DynamoDBServiceMetric type, ServiceLatencyProvider latency) {
+        (type == DynamoDBServiceMetric.DynamoDBItemCacheHit ? hitCount : missCount).incrementAndGet();
+        if (latency == null) {
+            latency = startLatency(type);
+        }
+        if (latency != null) {
+            AwsSdkMetrics.getServiceMetricCollector().collectLatency(latency.endTiming());
+        }
+    }
+
+    private static Map<String, AttributeValue> copyOf(Map<String, AttributeValue> item) {
+        return item == null ? null : new HashMap<String, AttributeValue>(item);
+    }
+
+    /**
+     * Returns the approximate size of the item in bytes.
+     */
+    static int sizeOf(Map<String, AttributeValue> item) {
+        int size = 0;
+        for (final Map.Entry<String, AttributeValue> attribute : item.entrySet()) {
+            size += sizeOf(attribute.getKey()) + sizeOf(attribute.getValue());
+        }
+        return size;
+    }
+
+    private static int sizeOf(AttributeValue value) {
+        if (value.getS() != null) {
+            return sizeOf(value.getS());
+        } else if (value.getN() != null) {
+            return value.getN().length();
+        } else if (value.getB() != null) {
+            return value.getB().remaining();
+        } else if (value.getSS() != null) {
+            int size = 0;
+            for (final String s : value.getSS()) {
+                size += sizeOf(s);
+            }
+            return size;
+        } else if (value.getNS() != null) {
+            int size = 0;
+            for (final String n : value.getNS()) {
+                size += n.length();
+            }
+            return size;
+        } else if (value.getBS() != null) {
+            int size = 0;
+            for (final ByteBuffer b : value.getBS()) {
+                size += b.remaining();
+            }
+            return size;
+        } else if (value.getM() != null) {
+            return 3 + sizeOf(value.getM());
+        } else if (value.getL() != null) {
+            return 3 + sizeOf(value.getL());
+        }
+        return 1;
+    }
+
+    private static int sizeOf(List<AttributeValue> values) {
+        int size = 0;
+        for (final AttributeValue value : values) {
+            size += 1 + sizeOf(value);
+        }
+        return size;
+    }
+
+    private static int sizeOf(String s) {
+        return s.getBytes(StringUtils.UTF8).length;
+    }
+
+    /**
+     * The cache key; the table name and primary key attributes.
+     */
+    private static final class CacheKey {
+        private final String tableName;
+        private final Map<String, AttributeValue> key;
+        private final int hashCode;
+
+        private CacheKey(String tableName, Map<String, AttributeValue> key) {
+            this.tableName = tableName;
+            this.key = new HashMap<String, AttributeValue>(key);
+            this.hashCode = 31 * tableName.hashCode() + this.key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            final CacheKey other = (CacheKey)o;
+            return hashCode == other.hashCode && tableName.equals(other.tableName) && key.equals(other.key);
+        }
+    }
+
+    /**
+     * A cached item; the item is null if it does not exist in the table.
+     */
+    private static final class CachedItem {
+        private final Map<String, AttributeValue> item;
+        private final int weight;
+        private final long expiresAtNanos;
+
+        private CachedItem(Map<String, AttributeValue> item, int weight, long expiresAtNanos) {
+            this.item = item;
+            this.weight = weight;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * A load in progress, which other readers of the same key wait for.
+     */
+    private static final class Loading {
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Map<String, AttributeValue> item;
+        private Throwable failure;
+
+        private void complete(Map<String, AttributeValue> item) {
+            this.item = item;
+            done.countDown();
+        }
+
+        private void fail(Throwable failure) {
+            this.failure = failure;
+            done.countDown();
+        }
+
+        private Map<String, AttributeValue> await() {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SdkClientException("Item cache load interrupted by other thread.", e);
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException)failure;
+            } else if (failure instanceof Error) {
+                throw (Error)failure;
+            }
+            return item;
+        }
+    }
+
+    /**
+     * A segment of the cache; an access ordered map of the cached items,
+     * bounded by weight, and the loads in progress. Guarded by itself.
+     */
+    @SuppressWarnings("serial")
+    private final class Segment extends LinkedHashMap<CacheKey, CachedItem> {
+        private final Map<CacheKey, Loading> loading = new HashMap<CacheKey, Loading>();
+        private final long maximumWeight;
+        private long weight;
+
+        private Segment(long maximumWeight) {
+            super(16, 0.75f, true);
+            this.maximumWeight = maximumWeight;
+        }
+
+        @Override
+        public CachedItem put(CacheKey cacheKey, CachedItem entry) {
+            final CachedItem previous = super.put(cacheKey, entry);
+            weight += entry.weight - (previous == null ? 0 : previous.weight);
+            final Iterator<CachedItem> eldest = values().iterator();
+            while (weight > maximumWeight && eldest.hasNext()) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictionCount.incrementAndGet();
+            }
+            return previous;
+        }
+
+        @Override
+        public CachedItem remove(Object cacheKey) {
+            final CachedItem removed = super.remove(cacheKey);
+            if (removed != null) {
+                weight -= removed.weight;
+            }
+            return removed;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.http.client.AsyncHttpTransport;
+import com.amazonaws.http.client.Cancellable;
+import com.amazonaws.http.client.HttpClientFactory;
+import com.amazonaws.http.client.HttpTransportCallback;
+import com.amazonaws.http.client.HttpTransportRequest;
+import com.amazonaws.http.client.HttpTransportResponse;
+import com.amazonaws.http.settings.HttpClientSettings;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
+import com.amazonaws.util.StringUtils;
+
+public class AmazonDynamoDBAsyncClientTest {
+
+    private final QueuingExecutorService executor = new QueuingExecutorService();
+
+    private final FakeTransport transport = new FakeTransport();
+
+    private AmazonDynamoDBAsyncClient client;
+
+    @Before
+    public void setup() {
+        client = new AmazonDynamoDBAsyncClient(new BasicAWSCredentials("access", "secret"),
+                new ClientConfiguration().withAsyncHttpTransportFactory(new HttpClientFactory<AsyncHttpTransport>() {
+                    @Override
+                    public AsyncHttpTransport create(HttpClientSettings settings) {
+                        return transport;
+                    }
+                }), executor);
+        client.setEndpoint("http://localhost");
+    }
+
+    @After
+    public void tearDown() {
+        client.shutdown();
+    }
+
+    @Test
+    public void itemIsReadOverTheTransport() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        GetItemRequest request = new GetItemRequest("table", Collections.singletonMap("hash", new AttributeValue("1")));
+
+        Future<GetItemResult> future = client.getItemAsync(request, handler);
+        transport.respond(200, "{\"Item\":{\"hash\":{\"S\":\"1\"},\"value\":{\"N\":\"2\"}}}");
+
+        GetItemResult result = future.get(1, TimeUnit.SECONDS);
+        assertEquals("2", result.getItem().get("value").getN());
+        assertSame(request, handler.request);
+        assertSame(result, handler.result);
+        assertEquals("DynamoDB_20120810.GetItem", transport.request.getHeaders().get("X-Amz-Target"));
+        assertNotNull(transport.request.getHeaders().get("Authorization"));
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    public void serviceErrorIsReportedToTheFutureAndHandler() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+
+        Future<GetItemResult> future = client.getItemAsync(new GetItemRequest(), handler);
+        transport.respond(400, "{\"__type\":\"com.amazonaws.dynamodb.v20120810#ResourceNotFoundException\","
+                               + "\"message\":\"Requested resource not found\"}");
+
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("The request was expected to fail");
+        } catch (ExecutionException expected) {
+            assertTrue(String.valueOf(expected.getCause()), expected.getCause() instanceof ResourceNotFoundException);
+            assertSame(expected.getCause(), handler.error);
+        }
+    }
+
+    @Test
+    public void cancellingTheFutureAbortsTheExchange() {
+        Future<GetItemResult> future = client.getItemAsync(new GetItemRequest());
+
+        assertTrue(future.cancel(true));
+        assertTrue(transport.cancelled);
+    }
+
+    @Test
+    public void otherOperationsRunOnTheExecutor() {
+        client.describeTableAsync("table");
+
+        assertEquals(1, executor.tasks.size());
+        assertEquals(null, transport.request);
+    }
+
+    @Test
+    public void itemOperationsRunOnTheExecutorWithoutTransport() {
+        AmazonDynamoDBAsyncClient blocking = new AmazonDynamoDBAsyncClient(
+                new BasicAWSCredentials("access", "secret"), new ClientConfiguration(), executor);
+        try {
+            blocking.getItemAsync(new GetItemRequest());
+        } finally {
+            blocking.shutdown();
+        }
+
+        assertEquals(1, executor.tasks.size());
+    }
+
+    private static class RecordingHandler implements AsyncHandler<GetItemRequest, GetItemResult> {
+        private volatile GetItemRequest request;
+        private volatile GetItemResult result;
+        private volatile Exception error;
+
+        @Override
+        public void onSuccess(GetItemRequest request, GetItemResult result) {
+            this.request = request;
+            this.result = result;
+        }
+
+        @Override
+        public void onError(Exception exception) {
+            this.error = exception;
+        }
+    }
+
+    /**
+     * A transport that holds on to the exchange until the test responds to it, and runs scheduled
+     * tasks right away.
+     */
+    private static final class FakeTransport implements AsyncHttpTransport {
+        private volatile HttpTransportRequest request;
+        private volatile HttpTransportCallback callback;
+        private volatile boolean cancelled;
+
+        @Override
+        public Cancellable execute(HttpTransportRequest request, HttpTransportCallback callback) {
+            this.request = request;
+            this.callback = callback;
+            return new Cancellable() {
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            };
+        }
+
+        @Override
+        public Cancellable schedule(Runnable task, long delayMillis) {
+            task.run();
+            return new Cancellable() {
+                @Override
+                public void cancel() {
+                }
+            };
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        void respond(int statusCode, String body) {
+            callback.completed(new HttpTransportResponse(statusCode, "Status " + statusCode,
+                    Collections.<String, String>emptyMap(), body.getBytes(StringUtils.UTF8)));
+        }
+    }
+
+    /** A pool that is too busy to ever start the tasks submitted to it. */
+    private static final class QueuingExecutorService extends AbstractExecutorService {
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.SaveBehavior;
+import com.amazonaws.services.dynamodbv2.util.ItemCache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+/**
+ * Tests the {@link DynamoDBMapper} loads through an {@link ItemCache}.
+ */
+public class DynamoDBMapperItemCacheTest {
+
+    private final InMemoryDynamoDB db = new InMemoryDynamoDB();
+    private final ItemCache cache = ItemCache.builder().build();
+    private final DynamoDBMapper mapper = new DynamoDBMapper(db,
+        DynamoDBMapperConfig.builder().withItemCache(cache).build());
+
+    @Test
+    public void testLoadReadsThrough() {
+        mapper.save(new TestItem("1", "a"));
+        assertEquals("a", mapper.load(TestItem.class, "1").getValue());
+        assertEquals("a", mapper.load(new TestItem("1", null)).getValue());
+        assertEquals(1, db.gets.get());
+        assertEquals(1, cache.getHitCount());
+
+        assertNull(mapper.load(TestItem.class, "2"));
+        assertNull(mapper.load(TestItem.class, "2"));
+        assertEquals(2, db.gets.get());
+    }
+
+    @Test
+    public void testConsistentLoadBypassesCache() {
+        mapper.save(new TestItem("1", "a"));
+        final DynamoDBMapperConfig consistent = ConsistentReads.CONSISTENT.config();
+        mapper.load(TestItem.class, "1", consistent);
+        mapper.load(TestItem.class, "1", consistent);
+        assertEquals(2, db.gets.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSaveAndDeleteInvalidate() {
+        mapper.save(new TestItem("1", "a"));
+        assertEquals("a", mapper.load(TestItem.class, "1").getValue());
+        mapper.save(new TestItem("1", "b"));
+        assertEquals("b", mapper.load(TestItem.class, "1").getValue());
+        mapper.save(new TestItem("1", "c"), SaveBehavior.CLOBBER.config());
+        assertEquals("c", mapper.load(TestItem.class, "1").getValue());
+        mapper.delete(new TestItem("1", null));
+        assertNull(mapper.load(TestItem.class, "1"));
+        assertEquals(4, db.gets.get());
+    }
+
+    @Test
+    public void testBatchWriteInvalidates() {
+        mapper.batchSave(new TestItem("1", "a"), new TestItem("2", "a"));
+        assertEquals("a", mapper.load(TestItem.class, "1").getValue());
+        assertEquals("a", mapper.load(TestItem.class, "2").getValue());
+        mapper.batchWrite(Arrays.asList(new TestItem("1", "b")), Arrays.asList(new TestItem("2", null)));
+        assertEquals("b", mapper.load(TestItem.class, "1").getValue());
+        assertNull(mapper.load(TestItem.class, "2"));
+        assertEquals(4, db.gets.get());
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.BatchLoadRetryStrategy;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.BatchWriteRetryStrategy;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.AttributeValueUpdate;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.DeleteItemResult;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single table keyed by the "hash" attribute, which counts the requests
+ * made of it and can be told to leave items of batch requests unprocessed,
+ * reject large batch requests or fail. Shared by the tests of the mapper and
+ * of the item cache.
+ * <p>
+ * Scans return the configured number of pages of generated items for each
+ * segment, regardless of the items put; the hash of an item is its segment,
+ * page and position in the page, joined by dashes.
+ */
+public class InMemoryDynamoDB extends AbstractAmazonDynamoDB {
+
+    public static final String TABLE_NAME = "tableName";
+
+    private final Map<Map<String, AttributeValue>, Map<String, AttributeValue>> items =
+        new ConcurrentHashMap<Map<String, AttributeValue>, Map<String, AttributeValue>>();
+    private final Set<String> deferred = Collections.synchronizedSet(new HashSet<String>());
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /** The single item reads. */
+    public final AtomicInteger gets = new AtomicInteger();
+    /** The batch read and write requests. */
+    public final AtomicInteger requests = new AtomicInteger();
+    /** The most batch requests handled at once. */
+    public final AtomicInteger maxInFlight = new AtomicInteger();
+    /** The most keys or items in a batch request. */
+    public final AtomicInteger maxRequestSize = new AtomicInteger();
+    /** A permit for every scan request handled. */
+    public final Semaphore scans = new Semaphore(0);
+
+    /** The keys or items of each batch request to leave unprocessed. */
+    public volatile int unprocessedPerRequest;
+    /** Whether to leave the same keys or items unprocessed again, or only once. */
+    public volatile boolean deferAlways;
+    /** Batch write requests with more items fail as too large. */
+    public volatile int maxItemsPerRequest = Integer.MAX_VALUE;
+    /** Thrown by batch write and scan requests. */
+    public volatile RuntimeException exception;
+    /** The pages of each scan segment, and the items of each page. */
+    public volatile int scanPages, itemsPerPage;
+    /** The consumed capacity asked for by the last scan request. */
+    public volatile String returnConsumedCapacity;
+
+    /**
+     * Returns a mapper which retries unprocessed batch keys and items up to the
+     * given number of times, without delay.
+     */
+    public static DynamoDBMapper mapper(InMemoryDynamoDB db, final int maxRetry) {
+        return new DynamoDBMapper(db, new DynamoDBMapperConfig.Builder()
+            .withBatchWriteRetryStrategy(new BatchWriteRetryStrategy() {
+                @Override
+                public int getMaxRetryOnUnprocessedItems(Map<String, List<WriteRequest>> batchWriteItemInput) {
+                    return maxRetry;
+                }
+                @Override
+                public long getDelayBeforeRetryUnprocessedItems(Map<String, List<WriteRequest>> unprocessedItems,
+                                                                int retriesAttempted) {
+                    return 0;
+                }
+            })
+            .withBatchLoadRetryStrategy(new BatchLoadRetryStrategy() {
+                @Override
+                public boolean shouldRetry(BatchLoadContext batchLoadContext) {
+                    return batchLoadContext.getRetriesAttempted() < maxRetry;
+                }
+                @Override
+                public long getDelayBeforeNextRetry(BatchLoadContext batchLoadContext) {
+                    return 0;
+                }
+            }).build());
+    }
+
+    public static Map<String, AttributeValue> key(String hash) {
+        return Collections.singletonMap("hash", new AttributeValue(hash));
+    }
+
+    /**
+     * Puts an item with only a hash key for each number in the given range.
+     */
+    public void putHashes(int from, int to) {
+        for (int i = from; i < to; i++) {
+            put(key(String.valueOf(i)));
+        }
+    }
+
+    public boolean contains(String hash) {
+        return items.containsKey(key(hash));
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public GetItemResult getItem(GetItemRequest request) {
+        gets.incrementAndGet();
+        return new GetItemResult().withItem(items.get(request.getKey()));
+    }
+
+    @Override
+    public PutItemResult putItem(PutItemRequest request) {
+        put(request.getItem());
+        return new PutItemResult();
+    }
+
+    @Override
+    public UpdateItemResult updateItem(UpdateItemRequest request) {
+        final Map<String, AttributeValue> item = new HashMap<String, AttributeValue>(request.getKey());
+        if (items.containsKey(request.getKey())) {
+            item.putAll(items.get(request.getKey()));
+        }
+        for (final Map.Entry<String, AttributeValueUpdate> update : request.getAttributeUpdates().entrySet()) {
+            if (update.getValue().getValue() != null) {
+                item.put(update.getKey(), update.getValue().getValue());
+            } else {
+                item.remove(update.getKey());
+            }
+        }
+        put(item);
+        return new UpdateItemResult().withAttributes(item);
+    }
+
+    @Override
+    public DeleteItemResult deleteItem(DeleteItemRequest request) {
+        items.remove(request.getKey());
+        return new DeleteItemResult();
+    }
+
+    @Override
+    public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+        final List<WriteRequest> writes = request.getRequestItems().get(TABLE_NAME);
+        startRequest(writes.size());
+        try {
+            if (exception != null) {
+                throw exception;
+            } else if (writes.size() > maxItemsPerRequest) {
+                final AmazonServiceException e = new AmazonServiceException("too large");
+                e.setStatusCode(413);
+                e.setErrorCode("Request entity too large");
+                throw e;
+            }
+            final List<WriteRequest> unprocessed = new ArrayList<WriteRequest>();
+            for (final WriteRequest write : writes) {
+                final Map<String, AttributeValue> key = write.getPutRequest() != null
+                    ? write.getPutRequest().getItem()
+                    : write.getDeleteRequest().getKey();
+                if (defer(unprocessed.size(), key)) {
+                    unprocessed.add(write);
+                } else if (write.getPutRequest() != null) {
+                    put(key);
+                } else {
+                    items.remove(key);
+                }
+            }
+            final Map<String, List<WriteRequest>> unprocessedItems = new HashMap<String, List<WriteRequest>>();
+            if (!unprocessed.isEmpty()) {
+                unprocessedItems.put(TABLE_NAME, unprocessed);
+            }
+            return new BatchWriteItemResult().withUnprocessedItems(unprocessedItems);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public BatchGetItemResult batchGetItem(BatchGetItemRequest request) {
+        final KeysAndAttributes keys = request.getRequestItems().get(TABLE_NAME);
+        startRequest(keys.getKeys().size());
+        try {
+            final List<Map<String, AttributeValue>> found = new ArrayList<Map<String, AttributeValue>>();
+            final List<Map<String, AttributeValue>> unprocessed = new ArrayList<Map<String, AttributeValue>>();
+            for (final Map<String, AttributeValue> key : keys.getKeys()) {
+                if (defer(unprocessed.size(), key)) {
+                    unprocessed.add(key);
+                } else if (items.containsKey(key)) {
+                    found.add(items.get(key));
+                }
+            }
+            final Map<String, KeysAndAttributes> unprocessedKeys = new HashMap<String, KeysAndAttributes>();
+            if (!unprocessed.isEmpty()) {
+                unprocessedKeys.put(TABLE_NAME, new KeysAndAttributes().withKeys(unprocessed));
+            }
+            return new BatchGetItemResult()
+                .withResponses(Collections.singletonMap(TABLE_NAME, found))
+                .withUnprocessedKeys(unprocessedKeys);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public ScanResult scan(ScanRequest request) {
+        try {
+            returnConsumedCapacity = request.getReturnConsumedCapacity();
+            if (exception != null) {
+                throw exception;
+            }
+            final int page = request.getExclusiveStartKey() == null ? 0
+                : Integer.parseInt(request.getExclusiveStartKey().get("hash").getS().split("-")[1]) + 1;
+            final List<Map<String, AttributeValue>> pageItems = new ArrayList<Map<String, AttributeValue>>();
+            for (int i = 0; i < itemsPerPage; i++) {
+                pageItems.add(key(request.getSegment() + "-" + page + "-" + i));
+            }
+            return new ScanResult()
+                .withItems(pageItems)
+                .withConsumedCapacity(new ConsumedCapacity().withCapacityUnits((double)itemsPerPage))
+                .withLastEvaluatedKey(page + 1 < scanPages ? pageItems.get(pageItems.size() - 1) : null);
+        } finally {
+            scans.release();
+        }
+    }
+
+    /**
+     * Counts a batch request of the given size, which is then kept in flight
+     * for a few milliseconds so that concurrent requests overlap.
+     */
+    private void startRequest(int size) {
+        requests.incrementAndGet();
+        synchronized (maxRequestSize) {
+            maxRequestSize.set(Math.max(maxRequestSize.get(), size));
+        }
+        final int current = inFlight.incrementAndGet();
+        synchronized (maxInFlight) {
+            maxInFlight.set(Math.max(maxInFlight.get(), current));
+        }
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            inFlight.decrementAndGet();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean defer(int unprocessed, Map<String, AttributeValue> item) {
+        return unprocessed < unprocessedPerRequest && (deferAlways || deferred.add(item.get("hash").getS()));
+    }
+
+    private void put(Map<String, AttributeValue> item) {
+        items.put(Collections.singletonMap("hash", item.get("hash")), item);
+    }
+}
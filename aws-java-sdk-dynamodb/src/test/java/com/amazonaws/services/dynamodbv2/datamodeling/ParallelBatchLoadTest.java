@@ -0,0 +1,121 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB.TABLE_NAME;
+import static com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB.mapper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.BatchLoadListener;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link DynamoDBMapper#parallelBatchLoad} against an in-memory table.
+ */
+public class ParallelBatchLoadTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoadsAllItems() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.putHashes(0, 1000);
+        final Set<String> loaded = new HashSet<String>();
+        mapper(db, 10).parallelBatchLoad(keys(0, 1000).iterator(), new BatchLoadListener() {
+            @Override
+            public void itemLoaded(String tableName, Object item) {
+                assertEquals(TABLE_NAME, tableName);
+                assertTrue(loaded.add(((TestItem)item).getHash()));
+            }
+        }, executor, 4, null);
+        assertEquals(1000, loaded.size());
+        assertEquals(10, db.requests.get());
+        assertTrue(db.maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void testLoadsKeyPairs() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.putHashes(0, 250);
+        final List<KeyPair> keyPairs = new ArrayList<KeyPair>();
+        for (int i = 0; i < 250; i++) {
+            keyPairs.add(new KeyPair().withHashKey(String.valueOf(i)));
+        }
+        final Map<Class<?>, List<KeyPair>> itemsToGet = new HashMap<Class<?>, List<KeyPair>>();
+        itemsToGet.put(TestItem.class, keyPairs);
+        final Map<String, List<Object>> resultSet = mapper(db, 10).parallelBatchLoad(itemsToGet, executor, 4, null);
+        assertEquals(250, resultSet.get(TABLE_NAME).size());
+        assertEquals(3, db.requests.get());
+    }
+
+    @Test
+    public void testRepacksUnprocessedKeys() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.putHashes(0, 1000);
+        db.unprocessedPerRequest = 20;
+        final AtomicInteger loaded = new AtomicInteger();
+        mapper(db, 10).parallelBatchLoad(keys(0, 1000).iterator(), new BatchLoadListener() {
+            @Override
+            public void itemLoaded(String tableName, Object item) {
+                loaded.incrementAndGet();
+            }
+        }, executor, 4, null);
+        assertEquals(1000, loaded.get());
+        // Sending the 200 unprocessed keys on their own would take 10 more
+        // requests than the 10 needed for the first send of every key
+        assertTrue(db.requests.get() <= 14);
+        assertEquals(100, db.maxRequestSize.get());
+    }
+
+    @Test(expected = SdkClientException.class)
+    public void testNoKeysProcessed() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.unprocessedPerRequest = 100;
+        db.deferAlways = true;
+        mapper(db, 2).parallelBatchLoad(keys(0, 100).iterator(), new BatchLoadListener() {
+            @Override
+            public void itemLoaded(String tableName, Object item) {
+            }
+        }, executor, 4, null);
+    }
+
+    private static List<TestItem> keys(int from, int to) {
+        final List<TestItem> keys = new ArrayList<TestItem>();
+        for (int i = from; i < to; i++) {
+            keys.add(new TestItem(String.valueOf(i)));
+        }
+        return keys;
+    }
+
+}
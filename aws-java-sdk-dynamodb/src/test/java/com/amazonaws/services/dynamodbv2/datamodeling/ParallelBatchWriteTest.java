@@ -0,0 +1,134 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB.TABLE_NAME;
+import static com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB.mapper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper.FailedBatch;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tests {@link DynamoDBMapper#parallelBatchWrite} against an in-memory table.
+ */
+public class ParallelBatchWriteTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWritesAllItems() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        final List<FailedBatch> failedBatches = mapper(db, 10).parallelBatchSave(items(0, 1000), executor, 4);
+        assertEquals(0, failedBatches.size());
+        assertEquals(1000, db.size());
+        assertEquals(40, db.requests.get());
+        assertTrue(db.maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void testWritesAndDeletes() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        final DynamoDBMapper mapper = mapper(db, 10);
+        mapper.parallelBatchSave(items(0, 100), executor, 4);
+        final List<FailedBatch> failedBatches = mapper.parallelBatchWrite(
+            items(100, 150), items(0, 50), executor, 4, null);
+        assertEquals(0, failedBatches.size());
+        assertEquals(100, db.size());
+        assertTrue(db.contains("50") && db.contains("149") && !db.contains("49"));
+    }
+
+    @Test
+    public void testRepacksUnprocessedItems() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.unprocessedPerRequest = 5;
+        final List<FailedBatch> failedBatches = mapper(db, 10).parallelBatchSave(items(0, 1000), executor, 4);
+        assertEquals(0, failedBatches.size());
+        assertEquals(1000, db.size());
+        // Sending the 200 unprocessed items on their own would take 40 more
+        // requests than the 40 needed for the first send of every item
+        assertTrue(db.requests.get() <= 52);
+        assertEquals(25, db.maxRequestSize.get());
+    }
+
+    @Test
+    public void testUnprocessedItemsExceedMaxRetry() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.unprocessedPerRequest = 25;
+        db.deferAlways = true;
+        final List<FailedBatch> failedBatches = mapper(db, 2).parallelBatchSave(items(0, 25), executor, 4);
+        assertEquals(3, db.requests.get());
+        assertEquals(1, failedBatches.size());
+        assertEquals(25, failedBatches.get(0).getUnprocessedItems().get(TABLE_NAME).size());
+        assertNull(failedBatches.get(0).getException());
+    }
+
+    @Test
+    public void testDividesRequestsTooLarge() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.maxItemsPerRequest = 10;
+        final List<FailedBatch> failedBatches = mapper(db, 10).parallelBatchSave(items(0, 100), executor, 4);
+        assertEquals(0, failedBatches.size());
+        assertEquals(100, db.size());
+    }
+
+    @Test
+    public void testException() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.exception = new RuntimeException("BOOM");
+        final List<FailedBatch> failedBatches = mapper(db, 10).parallelBatchSave(items(0, 30), executor, 4);
+        assertEquals(2, failedBatches.size());
+        assertSame(db.exception, failedBatches.get(0).getException());
+        assertEquals(30, failedBatches.get(0).getUnprocessedItems().get(TABLE_NAME).size() +
+            failedBatches.get(1).getUnprocessedItems().get(TABLE_NAME).size());
+    }
+
+    /**
+     * Returns an iterator that creates the items as they are read.
+     */
+    private static Iterator<TestItem> items(final int from, final int to) {
+        return new Iterator<TestItem>() {
+            private int next = from;
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+            @Override
+            public TestItem next() {
+                return new TestItem(String.valueOf(next++));
+            }
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
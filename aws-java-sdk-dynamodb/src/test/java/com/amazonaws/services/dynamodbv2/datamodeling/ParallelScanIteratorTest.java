@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests {@link DynamoDBMapper#parallelScanIterator} against an in-memory table.
+ */
+public class ParallelScanIteratorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static InMemoryDynamoDB db(int scanPages, int itemsPerPage) {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        db.scanPages = scanPages;
+        db.itemsPerPage = itemsPerPage;
+        return db;
+    }
+
+    @Test
+    public void testIteratesAllSegments() {
+        final InMemoryDynamoDB db = db(5, 10);
+        final ParallelScanIterator<TestItem> iterator = new DynamoDBMapper(db).parallelScanIterator(
+            TestItem.class, new DynamoDBScanExpression(), 8, executor, 0, null);
+        final Set<String> hashes = new HashSet<String>();
+        while (iterator.hasNext()) {
+            assertTrue(hashes.add(iterator.next().getHash()));
+        }
+        assertEquals(8 * 5 * 10, hashes.size());
+        assertEquals(8 * 5, db.scans.availablePermits());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testScansNoMoreThanOnePageAhead() throws Exception {
+        final InMemoryDynamoDB db = db(5, 10);
+        final ParallelScanIterator<TestItem> iterator = new DynamoDBMapper(db).parallelScanIterator(
+            TestItem.class, new DynamoDBScanExpression(), 4, executor, 0, null);
+        for (int i = 0; i < 10; i++) {
+            iterator.next();
+        }
+        // Every scan is submitted by the thread iterating, so once the first
+        // page of each segment and the next page of the one iterated over are
+        // scanned, no other scan is in flight
+        assertTrue(db.scans.tryAcquire(4 + 1, 10, TimeUnit.SECONDS));
+        assertEquals(0, db.scans.availablePermits());
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testLimitsReadCapacity() {
+        final InMemoryDynamoDB db = db(5, 10);
+        final long start = System.nanoTime();
+        final ParallelScanIterator<TestItem> iterator = new DynamoDBMapper(db).parallelScanIterator(
+            TestItem.class, new DynamoDBScanExpression(), 4, executor, 200, null);
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        final long millis = (System.nanoTime() - start) / 1000000;
+        assertEquals(4 * 5 * 10, count);
+        assertEquals(ReturnConsumedCapacity.TOTAL.toString(), db.returnConsumedCapacity);
+        // 20 pages of 10 units each at 200 units per second, less the last
+        // page of each segment which is not waited for
+        assertTrue("took " + millis + "ms", millis >= 700);
+    }
+
+    @Test
+    public void testRethrowsSegmentException() {
+        final InMemoryDynamoDB db = db(5, 10);
+        db.exception = new AmazonServiceException("BOOM");
+        final ParallelScanIterator<TestItem> iterator = new DynamoDBMapper(db).parallelScanIterator(
+            TestItem.class, new DynamoDBScanExpression(), 4, executor, 0, null);
+        try {
+            iterator.hasNext();
+            fail("expected AmazonServiceException");
+        } catch (AmazonServiceException e) {
+            assertSame(db.exception, e);
+        }
+        assertFalse(iterator.hasNext());
+    }
+
+}
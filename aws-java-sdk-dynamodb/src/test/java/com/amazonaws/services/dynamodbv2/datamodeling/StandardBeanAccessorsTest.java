@@ -0,0 +1,288 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperFieldModel.Reflect;
+import com.amazonaws.services.dynamodbv2.datamodeling.StandardBeanProperties.BeanMap;
+import com.amazonaws.services.dynamodbv2.datamodeling.StandardBeanProperties.MethodReflect;
+import com.amazonaws.services.dynamodbv2.pojos.PackagePrivateBean;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ReflectPermission;
+import java.security.Permission;
+import java.util.Date;
+
+/**
+ * Tests that accessible accessors get and set like reflection does, and fall
+ * back to it when the methods cannot be made accessible.
+ */
+public class StandardBeanAccessorsTest {
+
+    @Test
+    public void testPrimitives() throws Exception {
+        final Values values = new Values();
+        assertRoundTrip(values, "getBool", true);
+        assertRoundTrip(values, "getB", (byte)1);
+        assertRoundTrip(values, "getC", 'c');
+        assertRoundTrip(values, "getS", (short)2);
+        assertRoundTrip(values, "getI", 3);
+        assertRoundTrip(values, "getL", 4L);
+        assertRoundTrip(values, "getF", 5.0F);
+        assertRoundTrip(values, "getD", 6.0D);
+    }
+
+    @Test
+    public void testObjects() throws Exception {
+        final Values values = new Values();
+        assertRoundTrip(values, "getBoxed", 7L);
+        assertRoundTrip(values, "getString", "eight");
+        assertRoundTrip(values, "getDate", new Date(9L));
+        assertRoundTrip(values, "getBytes", new byte[] {10});
+        assertRoundTrip(values, "getString", null);
+    }
+
+    @Test
+    public void testNullToPrimitive() throws Exception {
+        final Reflect<Object,Object> reflect = accessible("getI");
+        try {
+            reflect.set(new Values(), null);
+            fail("expected DynamoDBMappingException");
+        } catch (final DynamoDBMappingException e) {
+            assertTrue(e.getMessage().contains("with value null"));
+        }
+    }
+
+    @Test
+    public void testWrongType() throws Exception {
+        final Reflect<Object,Object> reflect = accessible("getString");
+        try {
+            reflect.set(new Values(), 1);
+            fail("expected DynamoDBMappingException");
+        } catch (final DynamoDBMappingException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testNoSetter() throws Exception {
+        final Method getter = Values.class.getMethod("getReadOnly");
+        final Reflect<Object,Object> reflect = StandardBeanAccessors.reflectOf(getter, null);
+        assertTrue(getter.isAccessible());
+        final Values values = new Values();
+        values.setString("val");
+        assertEquals("val", reflect.get(values));
+        try {
+            reflect.set(values, "other");
+            fail("expected DynamoDBMappingException");
+        } catch (final DynamoDBMappingException e) {
+            assertEquals("val", values.getString());
+        }
+    }
+
+    @Test
+    public void testNotPublic() throws Exception {
+        final Object bean = PackagePrivateBean.newInstance();
+        final Method getter = bean.getClass().getMethod("getValue");
+        try {
+            new MethodReflect<Object,Object>(getter).get(bean);
+            fail("expected DynamoDBMappingException");
+        } catch (final DynamoDBMappingException e) {
+            assertTrue(e.getCause() instanceof IllegalAccessException);
+        }
+        final Reflect<Object,Object> reflect = StandardBeanAccessors.reflectOf(getter, MethodReflect.setterOf(getter));
+        reflect.set(bean, "val");
+        assertEquals("val", reflect.get(bean));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNotPublicMapped() throws Exception {
+        final Object bean = PackagePrivateBean.newInstance();
+        final BeanMap<Object,Object> map = new BeanMap<Object,Object>((Class<Object>)bean.getClass(), false);
+        map.get("value").reflect().set(bean, "val");
+        assertEquals("val", map.get("value").reflect().get(bean));
+    }
+
+    @Test
+    public void testBridgeGetter() throws Exception {
+        Method bridge = null;
+        for (final Method method : Covariant.class.getMethods()) {
+            if (method.getName().equals("getValue") && method.isBridge()) {
+                bridge = method;
+            }
+        }
+        assertNotNull(bridge);
+        final Reflect<Object,Object> reflect = StandardBeanAccessors.reflectOf(bridge, MethodReflect.setterOf(bridge));
+        final Covariant covariant = new Covariant();
+        reflect.set(covariant, 1);
+        // The bridge still dispatches to the override
+        assertEquals(Long.valueOf(1L), reflect.get(covariant));
+    }
+
+    @Test
+    public void testCovariantGetter() throws Exception {
+        final BeanMap<Covariant,Object> map = new BeanMap<Covariant,Object>(Covariant.class, true);
+        assertEquals(1, map.size());
+        final Covariant covariant = new Covariant();
+        covariant.setValue(2);
+        assertEquals(Long.valueOf(2L), map.get("value").reflect().get(covariant));
+        // There is no setter taking the covariant type
+        try {
+            map.get("value").reflect().set(covariant, 3L);
+            fail("expected DynamoDBMappingException");
+        } catch (final DynamoDBMappingException e) {
+            assertEquals(2, covariant.getValue().intValue());
+        }
+    }
+
+    @Test
+    public void testSecurityManagerDenial() throws Exception {
+        final SecurityManager previous = System.getSecurityManager();
+        try {
+            System.setSecurityManager(new DenyAccessChecksSecurityManager());
+        } catch (final UnsupportedOperationException e) {
+            return; // security managers are disallowed on this JVM
+        }
+        try {
+            final Method getter = Values.class.getMethod("getString");
+            assertNull(StandardBeanAccessors.reflectOf(getter, MethodReflect.setterOf(getter)));
+            assertFalse(getter.isAccessible());
+            final BeanMap<Values,Object> map = new BeanMap<Values,Object>(Values.class, false);
+            final Values values = new Values();
+            map.get("string").reflect().set(values, "val");
+            assertEquals("val", map.get("string").reflect().get(values));
+        } finally {
+            System.setSecurityManager(previous);
+        }
+    }
+
+    @Test
+    public void testFlattened() {
+        final BeanMap<Outer,Object> map = new BeanMap<Outer,Object>(Outer.class, false);
+        final Outer outer = new Outer();
+        assertNull(map.get("InnerVal").reflect().get(outer));
+        map.get("InnerVal").reflect().set(outer, "val");
+        assertEquals("val", outer.getInner().getVal());
+        assertEquals("val", map.get("InnerVal").reflect().get(outer));
+    }
+
+    private static void assertRoundTrip(Values values, String getter, Object value) throws Exception {
+        final Reflect<Object,Object> reflect = accessible(getter);
+        reflect.set(values, value);
+        if (value instanceof byte[]) {
+            assertArrayEquals((byte[])value, (byte[])reflect.get(values));
+        } else {
+            assertEquals(value, reflect.get(values));
+        }
+    }
+
+    private static Reflect<Object,Object> accessible(String name) throws Exception {
+        final Method getter = Values.class.getMethod(name);
+        final Method setter = MethodReflect.setterOf(getter);
+        final Reflect<Object,Object> reflect = StandardBeanAccessors.reflectOf(getter, setter);
+        assertNotNull(reflect);
+        assertTrue(getter.isAccessible());
+        assertTrue(setter.isAccessible());
+        return reflect;
+    }
+
+    /**
+     * Denies making methods accessible, and allows everything else.
+     */
+    private static final class DenyAccessChecksSecurityManager extends SecurityManager {
+        @Override
+        public void checkPermission(Permission perm) {
+            if (perm instanceof ReflectPermission && "suppressAccessChecks".equals(perm.getName())) {
+                throw new SecurityException("denied " + perm);
+            }
+        }
+    }
+
+    public static class Values {
+        private boolean bool;
+        private byte b;
+        private char c;
+        private short s;
+        private int i;
+        private long l;
+        private float f;
+        private double d;
+        private Long boxed;
+        private String string;
+        private Date date;
+        private byte[] bytes;
+
+        public boolean getBool() { return bool; }
+        public void setBool(boolean bool) { this.bool = bool; }
+        public byte getB() { return b; }
+        public void setB(byte b) { this.b = b; }
+        public char getC() { return c; }
+        public void setC(char c) { this.c = c; }
+        public short getS() { return s; }
+        public void setS(short s) { this.s = s; }
+        public int getI() { return i; }
+        public void setI(int i) { this.i = i; }
+        public long getL() { return l; }
+        public void setL(long l) { this.l = l; }
+        public float getF() { return f; }
+        public void setF(float f) { this.f = f; }
+        public double getD() { return d; }
+        public void setD(double d) { this.d = d; }
+        public Long getBoxed() { return boxed; }
+        public void setBoxed(Long boxed) { this.boxed = boxed; }
+        public String getString() { return string; }
+        public void setString(String string) { this.string = string; }
+        public Date getDate() { return date; }
+        public void setDate(Date date) { this.date = date; }
+        public byte[] getBytes() { return bytes; }
+        public void setBytes(byte[] bytes) { this.bytes = bytes; }
+        public String getReadOnly() { return string; }
+    }
+
+    public static class Base {
+        private Number value;
+        public Number getValue() { return value; }
+        public void setValue(Number value) { this.value = value; }
+    }
+
+    public static class Covariant extends Base {
+        @Override
+        public Long getValue() { return super.getValue() == null ? null : super.getValue().longValue(); }
+    }
+
+    public static class Inner {
+        private String val;
+        public String getVal() { return val; }
+        public void setVal(String val) { this.val = val; }
+    }
+
+    public static class Outer {
+        private Inner inner;
+        @DynamoDBFlattened(attributes={@DynamoDBAttribute(mappedBy="val", attributeName="InnerVal")})
+        public Inner getInner() { return inner; }
+        public void setInner(Inner inner) { this.inner = inner; }
+    }
+
+}
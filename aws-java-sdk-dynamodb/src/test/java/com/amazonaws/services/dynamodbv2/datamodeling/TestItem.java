@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.datamodeling;
+
+/**
+ * An item of the {@link InMemoryDynamoDB} table.
+ */
+@DynamoDBTable(tableName = InMemoryDynamoDB.TABLE_NAME)
+public class TestItem {
+    private String hash;
+    private String value;
+
+    public TestItem() {
+    }
+
+    public TestItem(String hash) {
+        this.hash = hash;
+    }
+
+    public TestItem(String hash, String value) {
+        this.hash = hash;
+        this.value = value;
+    }
+
+    @DynamoDBHashKey
+    public String getHash() {
+        return hash;
+    }
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getValue() {
+        return value;
+    }
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
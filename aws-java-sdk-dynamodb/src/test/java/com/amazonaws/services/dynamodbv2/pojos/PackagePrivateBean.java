@@ -0,0 +1,42 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.pojos;
+
+/**
+ * Creates beans of a class that is not visible outside this package, although
+ * its getter and setter are public.
+ */
+public final class PackagePrivateBean {
+
+    private PackagePrivateBean() {
+    }
+
+    public static Object newInstance() {
+        return new Bean();
+    }
+
+    static class Bean {
+
+        private String value;
+
+        public String getValue() {
+            return this.value;
+        }
+
+        public void setValue(final String value) {
+            this.value = value;
+        }
+    }
+}
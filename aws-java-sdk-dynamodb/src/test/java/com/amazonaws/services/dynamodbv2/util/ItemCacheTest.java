@@ -0,0 +1,257 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at:
+ *
+ *    http://aws.amazon.com/apache2.0
+ *
+ * This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.amazonaws.services.dynamodbv2.util;
+
+import static com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB.TABLE_NAME;
+import static com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB.key;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.InMemoryDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.AttributeUpdate;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.spec.GetItemSpec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ItemCache}, directly and through the document API.
+ */
+public class ItemCacheTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testServesHitsFromCache() {
+        final ItemCache cache = ItemCache.builder().build();
+        final CountingLoader loader = new CountingLoader(item("1", "a"));
+        assertEquals("a", cache.get(TABLE_NAME, key("1"), loader).get("value").getS());
+        assertEquals("a", cache.get(TABLE_NAME, key("1"), loader).get("value").getS());
+        assertEquals(1, loader.loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testCachesMissingItems() {
+        final ItemCache cache = ItemCache.builder().build();
+        final CountingLoader loader = new CountingLoader(null);
+        assertNull(cache.get(TABLE_NAME, key("1"), loader));
+        assertNull(cache.get(TABLE_NAME, key("1"), loader));
+        assertEquals(1, loader.loads.get());
+    }
+
+    @Test
+    public void testExpiresByTableTimeToLive() {
+        final ItemCache cache = ItemCache.builder()
+            .withTimeToLive(TABLE_NAME, 50, TimeUnit.MILLISECONDS)
+            .build();
+        final CountingLoader loader = new CountingLoader(item("1", "a"));
+        final long now = System.nanoTime();
+        cache.get(TABLE_NAME, key("1"), loader, now);
+        cache.get("otherTable", key("1"), loader, now);
+        cache.get(TABLE_NAME, key("1"), loader, now + TimeUnit.MILLISECONDS.toNanos(49));
+        assertEquals(2, loader.loads.get());
+        cache.get(TABLE_NAME, key("1"), loader, now + TimeUnit.MILLISECONDS.toNanos(50));
+        cache.get("otherTable", key("1"), loader, now + TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(3, loader.loads.get());
+    }
+
+    @Test
+    public void testZeroTimeToLiveBypassesCache() {
+        final ItemCache cache = ItemCache.builder()
+            .withTimeToLive(TABLE_NAME, 0, TimeUnit.SECONDS)
+            .build();
+        final CountingLoader loader = new CountingLoader(item("1", "a"));
+        cache.get(TABLE_NAME, key("1"), loader);
+        cache.get(TABLE_NAME, key("1"), loader);
+        assertEquals(2, loader.loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByWeight() {
+        final ItemCache cache = ItemCache.builder()
+            .withMaximumWeight(2)
+            .build();
+        final CountingLoader loader = new CountingLoader(item("1", "a"));
+        cache.get(TABLE_NAME, key("1"), loader);
+        cache.get(TABLE_NAME, key("2"), loader);
+        cache.get(TABLE_NAME, key("1"), loader);
+        cache.get(TABLE_NAME, key("3"), loader);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.get(TABLE_NAME, key("1"), loader);
+        assertEquals(3, loader.loads.get());
+    }
+
+    @Test
+    public void testWeighsByItemSize() {
+        final Map<String, AttributeValue> item = item("1", "abcdefghij");
+        // "hash" + "1" + "value" + "abcdefghij"
+        assertEquals(20, ItemCache.Weigher.ITEM_SIZE.weigh(TABLE_NAME, item));
+        final ItemCache cache = ItemCache.builder()
+            .withWeigher(ItemCache.Weigher.ITEM_SIZE)
+            .withMaximumWeight(19)
+            .build();
+        cache.get(TABLE_NAME, key("1"), new CountingLoader(item));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCoalescesConcurrentMisses() throws Exception {
+        final ItemCache cache = ItemCache.builder().build();
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader(item("1", "a")) {
+            @Override
+            public Map<String, AttributeValue> load() {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.load();
+            }
+        };
+        final Callable<Map<String, AttributeValue>> read = new Callable<Map<String, AttributeValue>>() {
+            @Override
+            public Map<String, AttributeValue> call() {
+                return cache.get(TABLE_NAME, key("1"), loader);
+            }
+        };
+        final List<Future<Map<String, AttributeValue>>> reads = new ArrayList<Future<Map<String, AttributeValue>>>();
+        reads.add(executor.submit(read));
+        assertTrue(loading.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 8; i++) {
+            reads.add(executor.submit(read));
+        }
+        // The other readers are counted as hits as they join the load
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (cache.getHitCount() < 7 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        assertEquals(7, cache.getHitCount());
+        release.countDown();
+        for (final Future<Map<String, AttributeValue>> result : reads) {
+            assertEquals("a", result.get().get("value").getS());
+        }
+        assertEquals(1, loader.loads.get());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testInvalidationDuringLoadIsNotCached() {
+        final ItemCache cache = ItemCache.builder().build();
+        final CountingLoader loader = new CountingLoader(item("1", "a")) {
+            @Override
+            public Map<String, AttributeValue> load() {
+                cache.invalidate(TABLE_NAME, key("1"));
+                return super.load();
+            }
+        };
+        cache.get(TABLE_NAME, key("1"), loader);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidatesItemByLearnedKey() {
+        final ItemCache cache = ItemCache.builder().build();
+        final CountingLoader loader = new CountingLoader(item("1", "a"));
+        cache.invalidateItem(TABLE_NAME, item("1", "b"));
+        cache.get(TABLE_NAME, key("1"), loader);
+        cache.invalidateItem(TABLE_NAME, item("2", "b"));
+        assertEquals(1, cache.size());
+        cache.invalidateItem(TABLE_NAME, item("1", "b"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDocumentTableReadsThroughAndInvalidates() {
+        final InMemoryDynamoDB db = new InMemoryDynamoDB();
+        final ItemCache cache = ItemCache.builder().build();
+        final Table table = new Table(db, TABLE_NAME, null, cache);
+        final Table uncached = new Table(db, TABLE_NAME);
+        assertSame(cache, table.getItemCache());
+
+        table.putItem(new Item().withString("hash", "1").withString("value", "a"));
+        assertEquals("a", table.getItem("hash", "1").getString("value"));
+        assertEquals("a", table.getItem("hash", "1").getString("value"));
+        assertEquals(1, db.gets.get());
+
+        // A write through another table is not seen until invalidated
+        uncached.putItem(new Item().withString("hash", "1").withString("value", "b"));
+        assertEquals("a", table.getItem("hash", "1").getString("value"));
+
+        table.updateItem("hash", "1", new AttributeUpdate("value").put("c"));
+        assertEquals("c", table.getItem("hash", "1").getString("value"));
+
+        table.putItem(new Item().withString("hash", "1").withString("value", "d"));
+        assertEquals("d", table.getItem("hash", "1").getString("value"));
+
+        table.deleteItem("hash", "1");
+        assertNull(table.getItem("hash", "1"));
+        assertEquals(4, db.gets.get());
+
+        // Consistent reads and projections are not cached
+        table.getItem(new GetItemSpec().withPrimaryKey("hash", "1").withConsistentRead(true));
+        table.getItem("hash", "1", "value", null);
+        assertEquals(6, db.gets.get());
+    }
+
+    private static Map<String, AttributeValue> item(String hash, String value) {
+        final Map<String, AttributeValue> item = new HashMap<String, AttributeValue>(key(hash));
+        item.put("value", new AttributeValue(value));
+        return item;
+    }
+
+    private static class CountingLoader implements ItemCache.ItemLoader {
+        private final AtomicInteger loads = new AtomicInteger();
+        private final Map<String, AttributeValue> item;
+
+        private CountingLoader(Map<String, AttributeValue> item) {
+            this.item = item;
+        }
+
+        @Override
+        public Map<String, AttributeValue> load() {
+            loads.incrementAndGet();
+            return item;
+        }
+    }
+}
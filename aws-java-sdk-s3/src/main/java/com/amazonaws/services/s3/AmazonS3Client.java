@@ -816,7 +816,8 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
         if (listObjectsRequest.getMaxKeys() != null && listObjectsRequest.getMaxKeys().intValue() >= 0) request.addParameter("max-keys", listObjectsRequest.getMaxKeys().toString());
         request.addParameter("encoding-type", shouldSDKDecodeResponse ? Constants.URL_ENCODING : listObjectsRequest.getEncodingType());
 
-        return invoke(request, new Unmarshallers.ListObjectsUnmarshaller(shouldSDKDecodeResponse), listObjectsRequest.getBucketName(), null);
+        return invoke(request, new Unmarshallers.ListObjectsUnmarshaller(shouldSDKDecodeResponse,
+                listObjectsRequest.getObjectSummaryListener()), listObjectsRequest.getBucketName(), null);
     }
 
     @Override
@@ -879,6 +880,7 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
             emptyListing.setMaxKeys(previousObjectListing.getMaxKeys());
             emptyListing.setPrefix(previousObjectListing.getPrefix());
             emptyListing.setEncodingType(previousObjectListing.getEncodingType());
+            emptyListing.setObjectSummaryListener(previousObjectListing.getObjectSummaryListener());
             emptyListing.setTruncated(false);
 
             return emptyListing;
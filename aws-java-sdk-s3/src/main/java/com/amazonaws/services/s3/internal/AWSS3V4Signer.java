@@ -31,14 +31,14 @@ import com.amazonaws.util.BinaryUtils;
 import java.io.IOException;
 import java.io.InputStream;
 
+import static com.amazonaws.auth.internal.SignerConstants.STREAMING_AWS4_HMAC_SHA256_PAYLOAD;
 import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_CONTENT_SHA256;
+import static com.amazonaws.auth.internal.SignerConstants.X_AMZ_DECODED_CONTENT_LENGTH;
 
 /**
  * AWS4 signer implementation for AWS S3
  */
 public class AWSS3V4Signer extends AWS4Signer {
-    private static final String CONTENT_SHA_256 = "STREAMING-AWS4-HMAC-SHA256-PAYLOAD";
-
     /** Sent to S3 in lieu of a payload hash when unsigned payloads are enabled */
     private static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
 
@@ -106,14 +106,14 @@ public class AWSS3V4Signer extends AWS4Signer {
                                 "Cannot get the content-length of the request content.", e);
                     }
                 }
-                request.addHeader("x-amz-decoded-content-length",
+                request.addHeader(X_AMZ_DECODED_CONTENT_LENGTH,
                                   Long.toString(originalContentLength));
                 // Make sure "Content-Length" header is not empty so that HttpClient
                 // won't cache the stream again to recover Content-Length
                 request.addHeader(Headers.CONTENT_LENGTH, Long.toString(
                         AwsChunkedEncodingInputStream
                                 .calculateStreamContentLength(originalContentLength)));
-                return CONTENT_SHA_256;
+                return STREAMING_AWS4_HMAC_SHA256_PAYLOAD;
             } else {
                 return super.calculateContentHash(request);
             }
@@ -234,7 +234,7 @@ public class MultiFileOutputStream extends OutputStream implements OnFileDelete
     }
 
     public void cleanup() {
-        for (int i=0; i < getNumFilesWritten(); i++) {
+        for (int i=1; i <= getNumFilesWritten(); i++) {
             File f = getFile(i);
             if (f.exists()) {
                 if (!f.delete()) {
@@ -28,7 +28,6 @@ import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.transfer.exception.FileLockException;
 import com.amazonaws.util.BinaryUtils;
 import com.amazonaws.util.DateUtils;
-import com.amazonaws.util.Md5Utils;
 import com.amazonaws.util.SdkHttpUtils;
 import com.amazonaws.util.StringUtils;
 import com.amazonaws.util.ValidationUtils;
@@ -36,16 +35,16 @@ import com.amazonaws.util.ValidationUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.SocketException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -69,6 +68,9 @@ public class ServiceUtils {
 
     private static final SkipMd5CheckStrategy skipMd5CheckStrategy = SkipMd5CheckStrategy.INSTANCE;
 
+    /** Size of the buffer through which object data is written to a file. */
+    private static final int DOWNLOAD_BUFFER_SIZE = 128 * KB;
+
     @Deprecated
     protected static final DateUtils dateUtils = new DateUtils();
 
@@ -290,7 +292,8 @@ public class ServiceUtils {
             throw new FileLockException("Fail to lock " + dstfile
                     + " for appendData=" + appendData);
         }
-        OutputStream outputStream = null;
+        FileChannel channel = null;
+        MessageDigest digest = null;
         try {
             final long actualLen = dstfile.length();
             if (appendData && actualLen != expectedFileLength) {
@@ -300,37 +303,47 @@ public class ServiceUtils {
                             + expectedFileLength + " but actual length is "
                             + actualLen + " for file " + dstfile);
             }
-            outputStream = new BufferedOutputStream(new FileOutputStream(
-                    dstfile, appendData));
-            byte[] buffer = new byte[1024*10];
+            if (performIntegrityCheck) {
+                // Hash the data as it is written rather than reading the
+                // whole file back afterwards; only data already in a file
+                // being appended to has to be read.
+                digest = newIntegrityCheckDigest(s3Object, dstfile, appendData ? actualLen : 0);
+            }
+            channel = new FileOutputStream(dstfile, appendData).getChannel();
+            byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
             int bytesRead;
             while ((bytesRead = s3Object.getObjectContent().read(buffer)) > -1) {
-                outputStream.write(buffer, 0, bytesRead);
+                byteBuffer.clear();
+                byteBuffer.limit(bytesRead);
+                if (digest != null) {
+                    digest.update(byteBuffer);
+                    byteBuffer.rewind();
+                }
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
             }
         } catch (IOException e) {
             s3Object.getObjectContent().abort();
             throw new SdkClientException(
                     "Unable to store object contents to disk: " + e.getMessage(), e);
         } finally {
-            closeQuietly(outputStream, LOG);
+            closeQuietly(channel, LOG);
             FileLocks.unlock(dstfile);
             closeQuietly(s3Object.getObjectContent(), LOG);
         }
 
-        if (performIntegrityCheck) {
-            byte[] clientSideHash = null;
+        if (digest != null) {
+            byte[] clientSideHash = digest.digest();
             byte[] serverSideHash = null;
             try {
-                final ObjectMetadata metadata = s3Object.getObjectMetadata();
-                if (!skipMd5CheckStrategy.skipClientSideValidationPerGetResponse(metadata)) {
-                    clientSideHash = Md5Utils.computeMD5Hash(new FileInputStream(dstfile));
-                    serverSideHash = BinaryUtils.fromHex(metadata.getETag());
-                }
+                serverSideHash = BinaryUtils.fromHex(s3Object.getObjectMetadata().getETag());
             } catch (Exception e) {
                 LOG.warn("Unable to calculate MD5 hash to validate download: " + e.getMessage(), e);
             }
 
-            if (clientSideHash != null && serverSideHash != null && !Arrays.equals(clientSideHash, serverSideHash)) {
+            if (serverSideHash != null && !Arrays.equals(clientSideHash, serverSideHash)) {
                 throw new SdkClientException("Unable to verify integrity of data download.  " +
                         "Client calculated content hash didn't match hash calculated by Amazon S3.  " +
                         "The data stored in '" + dstfile.getAbsolutePath() + "' may be corrupt.");
@@ -338,6 +351,56 @@ public class ServiceUtils {
         }
     }
 
+    /**
+     * Returns a digest to validate the downloaded object's data against its
+     * ETag, already updated with the given number of bytes at the start of
+     * the destination file, or null if the download can't be validated.
+     */
+    private static MessageDigest newIntegrityCheckDigest(S3Object s3Object, File dstfile,
+            long existingLength) {
+        try {
+            if (skipMd5CheckStrategy.skipClientSideValidationPerGetResponse(s3Object.getObjectMetadata())) {
+                return null;
+            }
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            if (existingLength > 0) {
+                updateDigest(digest, dstfile, existingLength);
+            }
+            return digest;
+        } catch (Exception e) {
+            LOG.warn("Unable to calculate MD5 hash to validate download: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Updates the digest with the given number of bytes from the start of the
+     * file, read through a file channel.
+     */
+    private static void updateDigest(MessageDigest digest, File file, long length) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(DOWNLOAD_BUFFER_SIZE);
+            long remaining = length;
+            while (remaining > 0) {
+                buffer.clear();
+                if (remaining < buffer.capacity()) {
+                    buffer.limit((int) remaining);
+                }
+                int bytesRead = channel.read(buffer);
+                if (bytesRead == -1) {
+                    break;
+                }
+                buffer.flip();
+                digest.update(buffer);
+                remaining -= bytesRead;
+            }
+        } finally {
+            closeQuietly(in, LOG);
+        }
+    }
+
     /**
      * Creates the parent directory for a file if it doesn't already exist.
      * @param file
@@ -450,15 +513,17 @@ public class ServiceUtils {
             throw new FileLockException("Fail to lock " + destinationFile);
         }
 
-        BufferedInputStream in = null;
-        BufferedOutputStream out = null;
+        FileChannel in = null;
+        FileChannel out = null;
         try {
-            in = new BufferedInputStream(new FileInputStream(sourceFile));
-            out = new BufferedOutputStream(new FileOutputStream(destinationFile, true));
-            byte[] buffer = new byte[4 * KB];
-            int length;
-            while ((length = in.read(buffer)) > 0) {
-                out.write(buffer, 0, length);
+            in = new FileInputStream(sourceFile).getChannel();
+            out = new FileOutputStream(destinationFile, true).getChannel();
+            // Let the file system copy the data where it can, rather than
+            // pulling it through a buffer on the heap.
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
             }
         } catch (IOException e) {
             throw new SdkClientException("Unable to append file " + sourceFile.getAbsolutePath()
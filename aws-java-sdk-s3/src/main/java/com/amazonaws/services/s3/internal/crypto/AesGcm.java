@@ -14,16 +14,20 @@
  */
 package com.amazonaws.services.s3.internal.crypto;
 
+import java.lang.reflect.Constructor;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.Provider;
+import java.security.spec.AlgorithmParameterSpec;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 
+import org.apache.commons.logging.LogFactory;
+
 class AesGcm extends ContentCryptoScheme {
     @Override String getKeyGeneratorAlgorithm() { return "AES"; }
     @Override String getCipherAlgorithm() { return "AES/GCM/NoPadding"; }
@@ -42,6 +46,34 @@ class AesGcm extends ContentCryptoScheme {
      */
     @Override String getSpecificCipherProvider() { return "BC"; }
 
+    /**
+     * Encryption is done via the JVM's own AES/GCM implementation whenever
+     * one is available (Java 8+), since it is typically backed by the AES-NI
+     * and carry-less multiplication instructions and is an order of magnitude
+     * faster than Bouncy Castle. The output is byte-for-byte identical.
+     * <p>
+     * Decryption always stays with Bouncy Castle, as the JVM's implementation
+     * buffers the entire ciphertext in memory until the tag is verified.
+     */
+    @Override
+    CipherLite createCipherLite(SecretKey cek, byte[] iv, int cipherMode,
+            Provider securityProvider) {
+        if (cipherMode == Cipher.ENCRYPT_MODE && JceAesGcm.isAvailable) {
+            try {
+                Cipher cipher = Cipher.getInstance(getCipherAlgorithm(),
+                        JceAesGcm.provider);
+                cipher.init(cipherMode, cek, JceAesGcm.newParameterSpec(
+                        getTagLengthInBits(), iv));
+                return newCipherLite(cipher, cek, cipherMode);
+            } catch (Exception e) {
+                LogFactory.getLog(AesGcm.class).debug(
+                        "Falling back to " + getSpecificCipherProvider()
+                        + " for AES/GCM encryption", e);
+            }
+        }
+        return super.createCipherLite(cek, iv, cipherMode, securityProvider);
+    }
+
     @Override
     CipherLite createAuxillaryCipher(SecretKey cek, byte[] ivOrig,
             int cipherMode, Provider securityProvider, long startingBytePos)
@@ -56,4 +88,38 @@ class AesGcm extends ContentCryptoScheme {
     protected CipherLite newCipherLite(Cipher cipher,  SecretKey cek, int cipherMode) {
         return new GCMCipherLite(cipher, cek, cipherMode);
     }
+
+    /**
+     * Lazily checks if the JVM has its own AES/GCM implementation, which
+     * requires the Java 7+ GCMParameterSpec to be initialized.
+     */
+    private static final class JceAesGcm {
+        static final Provider provider;
+        static final Constructor<?> parameterSpecConstructor;
+        static final boolean isAvailable;
+
+        static {
+            Provider p = null;
+            Constructor<?> ctor = null;
+            try {
+                ctor = Class.forName("javax.crypto.spec.GCMParameterSpec")
+                        .getConstructor(int.class, byte[].class);
+                p = Cipher.getInstance(AES_GCM.getCipherAlgorithm())
+                        .getProvider();
+                if (CryptoRuntime.BOUNCY_CASTLE_PROVIDER.equals(p.getName()))
+                    p = null;   // no point; that's what we'd fall back to
+            } catch (Exception e) {
+                p = null;
+            }
+            provider = p;
+            parameterSpecConstructor = ctor;
+            isAvailable = p != null;
+        }
+
+        static AlgorithmParameterSpec newParameterSpec(int tagLengthInBits,
+                byte[] iv) throws Exception {
+            return (AlgorithmParameterSpec) parameterSpecConstructor
+                    .newInstance(tagLengthInBits, iv);
+        }
+    }
 }
\ No newline at end of file
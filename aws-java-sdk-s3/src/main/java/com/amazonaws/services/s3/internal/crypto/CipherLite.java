@@ -26,6 +26,7 @@ import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.NullCipher;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 
 /**
  * Functions like a {@link Cipher} but provides only a subset of all the
@@ -297,6 +298,31 @@ class CipherLite {
         return cipher.update(input, inputOffset, inputLen);
     }
 
+    /**
+     * Same as {@link #update(byte[], int, int)} except that the result is
+     * stored in the given output buffer instead of a new one, so that a
+     * caller processing a long stream can reuse the same buffer from chunk
+     * to chunk.
+     *
+     * @param output
+     *            the buffer for the result, which must be at least
+     *            {@link #getOutputSize(int)} bytes long for the given input
+     *            length
+     *
+     * @return the number of bytes stored in <code>output</code>
+     *
+     * @exception IllegalStateException
+     *                if the underlying cipher is in a wrong state, or if the
+     *                given output buffer is too small to hold the result
+     */
+    int update(byte[] input, int inputOffset, int inputLen, byte[] output) {
+        try {
+            return cipher.update(input, inputOffset, inputLen, output);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Returns the algorithm name of the underlying cipher.
      */
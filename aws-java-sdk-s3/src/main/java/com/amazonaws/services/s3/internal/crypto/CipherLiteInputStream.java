@@ -215,7 +215,6 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
         abortIfNeeded();
         if (eof)
             return -1;
-        bufout = null;
         int len = in.read(bufin);
         if (len == -1) {
             eof = true;
@@ -239,9 +238,13 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
             }
             return -1;
         }
-        bufout = cipherLite.update(bufin, 0, len);
+        // Reuse the output buffer across chunks; it only needs to grow when
+        // the cipher asks for more room than the previous chunk did.
+        int outputSize = cipherLite.getOutputSize(len);
+        if (bufout == null || bufout.length < outputSize)
+            bufout = new byte[outputSize];
         curr_pos = 0;
-        return max_pos = (bufout == null ? 0 : bufout.length);
+        return max_pos = cipherLite.update(bufin, 0, len, bufout);
     }
 
     void renewCipherLite() {
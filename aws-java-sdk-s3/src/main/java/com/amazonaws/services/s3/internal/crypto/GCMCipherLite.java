@@ -93,7 +93,17 @@ final class GCMCipherLite extends CipherLite {
             if (securityViolated)
                 throw new SecurityException();
             // final bytes can only be null for decryption
-            return finalBytes == null ? null : finalBytes.clone();
+            if (finalBytes == null)
+                return null;
+            if (Cipher.ENCRYPT_MODE == getCipherMode()
+            &&  currentCount == outputByteCount) {
+                // The auxiliary cipher has already re-encrypted all the data
+                // of the final bytes, which happens when it doesn't hold back
+                // the trailing partial block, so only the tag is left
+                return Arrays.copyOfRange(finalBytes,
+                        finalBytes.length - tagLen, finalBytes.length);
+            }
+            return finalBytes.clone();
         }
         doneFinal = true;
         finalBytes = super.doFinal();
@@ -184,6 +194,48 @@ final class GCMCipherLite extends CipherLite {
         return out;
     }
 
+    /**
+     * Same as {@link #update(byte[], int, int)} except that the result is
+     * stored in the given output buffer.
+     */
+    @Override
+    int update(byte[] input, int inputOffset, int inputLen, byte[] output) {
+        int outLen;
+        if (aux == null) {
+            outLen = super.update(input, inputOffset, inputLen, output);
+            outputByteCount += checkMax(outLen);
+            invisiblyProcessed = outLen == 0 && inputLen > 0;
+        } else {
+            outLen = aux.update(input, inputOffset, inputLen, output);
+            if (outLen == 0)
+                return 0;    // possible even for encryption
+            currentCount += outLen;
+            if (currentCount == outputByteCount) {
+                aux = null; // flip back to the original GCM cipher
+            } else if (currentCount > outputByteCount) {
+                if (Cipher.ENCRYPT_MODE == getCipherMode()) {
+                    throw new IllegalStateException("currentCount=" + currentCount
+                        + " > outputByteCount=" + outputByteCount);
+                }
+                // For decryption, this is possible since AES/CTR doesn't know
+                // about the tag at the end
+                int finalBytesLen = (finalBytes == null ? 0 : finalBytes.length);
+                long diff = outputByteCount - (currentCount - outLen) - finalBytesLen;
+                currentCount = outputByteCount - finalBytesLen;
+                aux = null; // flip back to the original GCM cipher
+                return (int)diff;
+            }
+        }
+        return outLen;
+    }
+
+    @Override
+    int getOutputSize(int inputLen) {
+        return aux == null
+             ? super.getOutputSize(inputLen)
+             : aux.getOutputSize(inputLen);
+    }
+
     /**
      * Returns the input delta but only if it will not result in exceeding the
      * limit of the maximum number of bytes that can be processed by AES/GCM.
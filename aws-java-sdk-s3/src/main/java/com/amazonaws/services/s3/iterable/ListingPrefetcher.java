@@ -0,0 +1,194 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.iterable;
+
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.SdkClientException;
+
+/**
+ * Fetches the pages of a listing in the background, ahead of their
+ * consumption. At most one page is fetched at a time, as each page continues
+ * from the marker of the one before it, and fetching pauses once the given
+ * number of pages have been fetched but not yet taken. A consumer that stops
+ * taking pages therefore leaves no task behind once the pages in hand have
+ * been fetched.
+ *
+ * @param <L>
+ *            The type of a page of the listing.
+ */
+abstract class ListingPrefetcher<L> implements Runnable {
+
+    private final ExecutorService executorService;
+    /** The maximum number of pages fetched but not yet taken. */
+    private final int depth;
+    /** Guarded by this. */
+    private final LinkedList<L> pages = new LinkedList<L>();
+    /** The last page fetched, or null if none has been. Guarded by this. */
+    private L lastPage;
+    /** True if a page is being fetched. Guarded by this. */
+    private boolean fetching;
+    /** True if the last page of the listing has been fetched. Guarded by this. */
+    private boolean done;
+    /** The failure to fetch the next page, if any. Guarded by this. */
+    private Throwable failure;
+
+    /**
+     * @param executorService
+     *            The executor to fetch pages on.
+     * @param depth
+     *            The maximum number of pages fetched but not yet taken; values
+     *            less than one are treated as one.
+     */
+    ListingPrefetcher(ExecutorService executorService, int depth) {
+        this.executorService = executorService;
+        this.depth = Math.max(depth, 1);
+    }
+
+    /** Fetches the first page of the listing. */
+    protected abstract L fetchFirstPage();
+
+    /** Fetches the page of the listing following the given page. */
+    protected abstract L fetchNextPage(L previousPage);
+
+    /** Returns true if there are more pages after the given page. */
+    protected abstract boolean isTruncated(L page);
+
+    /**
+     * Starts fetching pages in the background, if not already started.
+     */
+    synchronized void start() {
+        fetchAheadIfNecessary();
+    }
+
+    /**
+     * Returns the next page of the listing, waiting for it to be fetched if
+     * necessary, or null if all the pages have been taken.
+     *
+     * @throws AbortedException
+     *             if the current thread is interrupted while waiting
+     */
+    synchronized L take() {
+        fetchAheadIfNecessary();
+        while (pages.isEmpty() && !done && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                // don't want to re-interrupt so it won't cause SDK stream to be
+                // closed in case the thread is reused for a different request
+                throw new AbortedException(e);
+            }
+        }
+        if (!pages.isEmpty()) {
+            L page = pages.removeFirst();
+            fetchAheadIfNecessary();
+            return page;
+        }
+        if (failure == null)
+            return null;
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        if (failure instanceof Error)
+            throw (Error) failure;
+        throw new SdkClientException("Unable to fetch the next page of the listing", failure);
+    }
+
+    /**
+     * Returns true if {@link #take()} would return without waiting, because
+     * the next page has been fetched, all the pages have been, or fetching
+     * failed.
+     */
+    synchronized boolean isReady() {
+        return !pages.isEmpty() || done || failure != null;
+    }
+
+    /**
+     * Fetches the next page of the listing; run on the executor.
+     */
+    @Override
+    public void run() {
+        final L previousPage;
+        synchronized (this) {
+            previousPage = lastPage;
+        }
+        L page;
+        try {
+            page = previousPage == null
+                 ? fetchFirstPage()
+                 : fetchNextPage(previousPage);
+        } catch (Throwable t) {
+            synchronized (this) {
+                failure = t;
+                fetching = false;
+                notifyAll();
+            }
+            return;
+        }
+        synchronized (this) {
+            pages.addLast(page);
+            lastPage = page;
+            done = !isTruncated(page);
+            fetching = false;
+            fetchAheadIfNecessary();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Submits the fetch of the next page unless one is in progress, there are
+     * no more pages, or enough pages have been fetched ahead. Must be called
+     * while holding the lock of this object.
+     */
+    private void fetchAheadIfNecessary() {
+        if (fetching || done || failure != null || pages.size() >= depth)
+            return;
+        fetching = true;
+        try {
+            executorService.execute(this);
+        } catch (RejectedExecutionException e) {
+            fetching = false;
+            failure = e;
+        }
+    }
+
+    /**
+     * Returns the executor used to fetch pages when none is specified: a
+     * shared pool of daemon threads that are created on demand and retired
+     * once idle.
+     */
+    static ExecutorService defaultExecutorService() {
+        return DefaultExecutorServiceHolder.EXECUTOR_SERVICE;
+    }
+
+    private static final class DefaultExecutorServiceHolder {
+        private static final ExecutorService EXECUTOR_SERVICE =
+            Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger threadCount = new AtomicInteger(1);
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r);
+                    thread.setName("s3-listing-prefetch-worker-" + threadCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    }
+}
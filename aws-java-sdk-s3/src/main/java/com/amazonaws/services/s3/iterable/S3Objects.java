@@ -14,7 +14,13 @@
  */
 package com.amazonaws.services.s3.iterable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
@@ -34,13 +40,34 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
  * The list of {@link S3ObjectSummary}s will be fetched lazily, a page at a
  * time, as they are needed. The size of the page can be controlled with the
  * {@link S3Objects#withBatchSize(int)} method.
+ * <p>
+ * By default the next page is only requested once the current one has been
+ * consumed. {@link S3Objects#withPrefetchDepth(int)} requests the following
+ * pages in the background instead, while the current one is being consumed.
+ * To run several listings at once, the key space can be split across
+ * {@link S3Objects#withPrefixes(AmazonS3, String, String...) several prefixes},
+ * or {@link S3Objects#withDelimiterSplit(String) on a delimiter}, in which case
+ * up to {@link S3Objects#withListingParallelism(int)} of the resulting
+ * listings are fetched concurrently. Either way the summaries are returned in
+ * the same order as a serial listing would return them.
  */
 public class S3Objects implements Iterable<S3ObjectSummary> {
 
+    /**
+     * The default maximum number of listings fetched concurrently when the key
+     * space is split.
+     */
+    public static final int DEFAULT_LISTING_PARALLELISM = 8;
+
     private AmazonS3 s3;
     private String prefix = null;
+    private List<String> prefixes = null;
     private String bucketName;
     private Integer batchSize = null;
+    private int prefetchDepth = 0;
+    private String splitDelimiter = null;
+    private int listingParallelism = DEFAULT_LISTING_PARALLELISM;
+    private ExecutorService executorService = null;
 
     private S3Objects(AmazonS3 s3, String bucketName) {
         this.s3 = s3;
@@ -79,6 +106,30 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
         return objects;
     }
 
+    /**
+     * Constructs an iterable that covers the objects in an Amazon S3 bucket
+     * where the key begins with any of the given prefixes. The prefixes are
+     * listed concurrently, up to the
+     * {@link S3Objects#withListingParallelism(int) listing parallelism}, and
+     * the summaries are returned prefix by prefix in the given order. Keys
+     * matching more than one of the prefixes are returned once per prefix.
+     *
+     * @param s3
+     *            The Amazon S3 client.
+     * @param bucketName
+     *            The bucket name.
+     * @param prefixes
+     *            The prefixes, which should be given in key order for the
+     *            summaries to be returned in key order.
+     * @return An iterator for object summaries.
+     */
+    public static S3Objects withPrefixes(AmazonS3 s3, String bucketName, String... prefixes) {
+        S3Objects objects = new S3Objects(s3, bucketName);
+        objects.prefixes = Collections.unmodifiableList(
+                new ArrayList<String>(Arrays.asList(prefixes)));
+        return objects;
+    }
+
     /**
      * Sets the batch size, i.e., how many {@link S3ObjectSummary}s will be
      * fetched at once.
@@ -91,6 +142,68 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
         return this;
     }
 
+    /**
+     * Sets the number of pages to fetch in the background ahead of the page
+     * being consumed, or zero (the default) to fetch each page only once the
+     * previous one has been consumed. Each page continues from the one before
+     * it, so the pages of a single listing are still fetched one at a time.
+     *
+     * @param prefetchDepth
+     *            How many pages to fetch ahead.
+     */
+    public S3Objects withPrefetchDepth(int prefetchDepth) {
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("The prefetch depth must not be negative");
+        }
+        this.prefetchDepth = prefetchDepth;
+        return this;
+    }
+
+    /**
+     * Splits the listing on the given delimiter so that it can be fetched in
+     * parallel. The objects directly under the prefix, and the common prefixes
+     * up to the next occurrence of the delimiter, are listed with the
+     * delimiter in the background, a page at a time; the objects under each of
+     * the common prefixes are listed as soon as its page arrives,
+     * concurrently, up to the
+     * {@link S3Objects#withListingParallelism(int) listing parallelism}.
+     *
+     * @param delimiter
+     *            The delimiter to split the key space on, such as "/".
+     */
+    public S3Objects withDelimiterSplit(String delimiter) {
+        this.splitDelimiter = delimiter;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of listings fetched concurrently when the key
+     * space is split across several prefixes. Defaults to
+     * {@link #DEFAULT_LISTING_PARALLELISM}.
+     *
+     * @param listingParallelism
+     *            How many listings to fetch at once.
+     */
+    public S3Objects withListingParallelism(int listingParallelism) {
+        if (listingParallelism < 1) {
+            throw new IllegalArgumentException("The listing parallelism must be positive");
+        }
+        this.listingParallelism = listingParallelism;
+        return this;
+    }
+
+    /**
+     * Sets the executor used to fetch pages in the background. By default a
+     * shared pool of daemon threads is used.
+     *
+     * @param executorService
+     *            The executor to fetch pages on.
+     */
+    public S3Objects withExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     public Integer getBatchSize() {
         return batchSize;
     }
@@ -99,6 +212,26 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
         return prefix;
     }
 
+    public List<String> getPrefixes() {
+        return prefixes;
+    }
+
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public String getDelimiterSplit() {
+        return splitDelimiter;
+    }
+
+    public int getListingParallelism() {
+        return listingParallelism;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
     public String getBucketName() {
         return bucketName;
     }
@@ -149,9 +282,235 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
 
     }
 
+    /**
+     * Iterates over the summaries of one or more listings that are fetched
+     * in the background, the first of them being the one consumed.
+     */
+    private class PrefetchingS3ObjectIterator implements Iterator<S3ObjectSummary> {
+
+        private final ExecutorService es = getExecutorService() == null
+                ? ListingPrefetcher.defaultExecutorService()
+                : getExecutorService();
+
+        /** The listings not yet started, in key order; null until split. */
+        private LinkedList<ListingPrefetcher<ObjectListing>> pendingListings = null;
+
+        /** The listings started, in key order. */
+        private final LinkedList<ListingPrefetcher<ObjectListing>> startedListings =
+                new LinkedList<ListingPrefetcher<ObjectListing>>();
+
+        /** The base prefixes still to be split on the delimiter, in order. */
+        private final LinkedList<String> unsplitPrefixes = new LinkedList<String>();
+
+        /**
+         * The listing with the delimiter of the base prefix being split, or
+         * null if none is.
+         */
+        private DelimitedListing splitListing = null;
+
+        private Iterator<S3ObjectSummary> currentIterator =
+                Collections.<S3ObjectSummary>emptyList().iterator();
+
+        @Override
+        public boolean hasNext() {
+            prepareCurrentPage();
+            return currentIterator.hasNext();
+        }
+
+        @Override
+        public S3ObjectSummary next() {
+            prepareCurrentPage();
+            return currentIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void prepareCurrentPage() {
+            if ( pendingListings == null ) {
+                pendingListings = splitListings();
+            }
+            while ( !currentIterator.hasNext() ) {
+                // Only wait for the delimiter listing when there is nothing
+                // else to consume in the meantime
+                splitPages(startedListings.isEmpty() && pendingListings.isEmpty());
+                while ( startedListings.size() < getListingParallelism() && !pendingListings.isEmpty() ) {
+                    ListingPrefetcher<ObjectListing> listing = pendingListings.removeFirst();
+                    listing.start();
+                    startedListings.addLast(listing);
+                }
+                if ( startedListings.isEmpty() ) {
+                    return;
+                }
+                ObjectListing page = startedListings.getFirst().take();
+                if ( page == null ) {
+                    startedListings.removeFirst();
+                } else {
+                    currentIterator = page.getObjectSummaries().iterator();
+                }
+            }
+        }
+
+        private LinkedList<ListingPrefetcher<ObjectListing>> splitListings() {
+            List<String> basePrefixes = getPrefixes() == null
+                    ? Collections.singletonList(getPrefix())
+                    : getPrefixes();
+            LinkedList<ListingPrefetcher<ObjectListing>> listings =
+                    new LinkedList<ListingPrefetcher<ObjectListing>>();
+            if ( getDelimiterSplit() == null ) {
+                for ( String basePrefix : basePrefixes ) {
+                    listings.add(new PrefixListing(es, basePrefix));
+                }
+            } else {
+                unsplitPrefixes.addAll(basePrefixes);
+            }
+            return listings;
+        }
+
+        /**
+         * Adds the listings of the pages of the delimiter listings that have
+         * been fetched so far, starting the delimiter listing of the next base
+         * prefix once the previous one is exhausted.
+         *
+         * @param wait
+         *            True to wait until at least one listing has been added,
+         *            or there is nothing left to split.
+         */
+        private void splitPages(boolean wait) {
+            while ( splitListing != null || !unsplitPrefixes.isEmpty() ) {
+                if ( splitListing == null ) {
+                    splitListing = new DelimitedListing(es, unsplitPrefixes.removeFirst());
+                    splitListing.start();
+                }
+                if ( !wait && !splitListing.isReady() ) {
+                    return;
+                }
+                ObjectListing page = splitListing.take();
+                if ( page == null ) {
+                    splitListing = null;
+                } else if ( splitPage(page) && wait ) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Adds a listing for each common prefix of a page listed with the split
+         * delimiter, and for each run of the objects directly under the base
+         * prefix, in key order.
+         *
+         * @return True if any listing was added.
+         */
+        private boolean splitPage(ObjectListing page) {
+            List<S3ObjectSummary> directSummaries = page.getObjectSummaries();
+            int next = 0;
+            for ( String commonPrefix : page.getCommonPrefixes() ) {
+                int from = next;
+                while ( next < directSummaries.size()
+                        && directSummaries.get(next).getKey().compareTo(commonPrefix) < 0 ) {
+                    next++;
+                }
+                if ( next > from ) {
+                    pendingListings.add(new FixedListing(es, directSummaries.subList(from, next)));
+                }
+                pendingListings.add(new PrefixListing(es, commonPrefix));
+            }
+            if ( next < directSummaries.size() ) {
+                pendingListings.add(new FixedListing(es, directSummaries.subList(next, directSummaries.size())));
+            }
+            return !page.getCommonPrefixes().isEmpty() || !directSummaries.isEmpty();
+        }
+    }
+
+    /**
+     * Fetches the pages of the objects directly under a base prefix, and of
+     * its common prefixes up to the split delimiter, in the background.
+     */
+    private class DelimitedListing extends PrefixListing {
+
+        private DelimitedListing(ExecutorService es, String listingPrefix) {
+            super(es, listingPrefix);
+        }
+
+        @Override
+        protected ObjectListing fetchFirstPage() {
+            ListObjectsRequest req = new ListObjectsRequest();
+            req.setBucketName(getBucketName());
+            req.setPrefix(listingPrefix);
+            req.setDelimiter(getDelimiterSplit());
+            req.setMaxKeys(getBatchSize());
+            return getS3().listObjects(req);
+        }
+    }
+
+    /**
+     * Fetches the pages of the objects under a prefix in the background.
+     */
+    private class PrefixListing extends ListingPrefetcher<ObjectListing> {
+
+        protected final String listingPrefix;
+
+        private PrefixListing(ExecutorService es, String listingPrefix) {
+            super(es, getPrefetchDepth());
+            this.listingPrefix = listingPrefix;
+        }
+
+        @Override
+        protected ObjectListing fetchFirstPage() {
+            ListObjectsRequest req = new ListObjectsRequest();
+            req.setBucketName(getBucketName());
+            req.setPrefix(listingPrefix);
+            req.setMaxKeys(getBatchSize());
+            return getS3().listObjects(req);
+        }
+
+        @Override
+        protected ObjectListing fetchNextPage(ObjectListing previousPage) {
+            return getS3().listNextBatchOfObjects(previousPage);
+        }
+
+        @Override
+        protected boolean isTruncated(ObjectListing page) {
+            return page.isTruncated();
+        }
+    }
+
+    /**
+     * A single page of summaries that have already been listed.
+     */
+    private static class FixedListing extends ListingPrefetcher<ObjectListing> {
+
+        private final ObjectListing listing = new ObjectListing();
+
+        private FixedListing(ExecutorService es, List<S3ObjectSummary> summaries) {
+            super(es, 1);
+            listing.getObjectSummaries().addAll(summaries);
+        }
+
+        @Override
+        protected ObjectListing fetchFirstPage() {
+            return listing;
+        }
+
+        @Override
+        protected ObjectListing fetchNextPage(ObjectListing previousPage) {
+            throw new IllegalStateException();
+        }
+
+        @Override
+        protected boolean isTruncated(ObjectListing page) {
+            return false;
+        }
+    }
+
     @Override
     public Iterator<S3ObjectSummary> iterator() {
-        return new S3ObjectIterator();
+        if ( getPrefixes() == null && getDelimiterSplit() == null && getPrefetchDepth() == 0 ) {
+            return new S3ObjectIterator();
+        }
+        return new PrefetchingS3ObjectIterator();
     }
 
 }
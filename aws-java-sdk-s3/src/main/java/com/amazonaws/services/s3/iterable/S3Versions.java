@@ -15,6 +15,7 @@
 package com.amazonaws.services.s3.iterable;
 
 import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.ListVersionsRequest;
@@ -33,7 +34,9 @@ import com.amazonaws.services.s3.model.VersionListing;
  * <p>
  * The list of {@link S3VersionSummary}s will be fetched lazily, a page at a
  * time, as they are needed. The size of the page can be controlled with the
- * {@link S3Versions#withBatchSize(int)} method.
+ * {@link S3Versions#withBatchSize(int)} method, and the following pages can be
+ * fetched in the background while the current one is being consumed with the
+ * {@link S3Versions#withPrefetchDepth(int)} method.
  */
 public class S3Versions implements Iterable<S3VersionSummary> {
 
@@ -42,6 +45,8 @@ public class S3Versions implements Iterable<S3VersionSummary> {
     private String prefix;
     private String key;
     private Integer batchSize;
+    private int prefetchDepth = 0;
+    private ExecutorService executorService;
 
     private S3Versions(AmazonS3 s3, String bucketName) {
         this.s3 = s3;
@@ -111,10 +116,46 @@ public class S3Versions implements Iterable<S3VersionSummary> {
         return this;
     }
 
+    /**
+     * Sets the number of pages to fetch in the background ahead of the page
+     * being consumed, or zero (the default) to fetch each page only once the
+     * previous one has been consumed.
+     *
+     * @param prefetchDepth
+     *            How many pages to fetch ahead.
+     */
+    public S3Versions withPrefetchDepth(int prefetchDepth) {
+        if (prefetchDepth < 0) {
+            throw new IllegalArgumentException("The prefetch depth must not be negative");
+        }
+        this.prefetchDepth = prefetchDepth;
+        return this;
+    }
+
+    /**
+     * Sets the executor used to fetch pages in the background. By default a
+     * shared pool of daemon threads is used.
+     *
+     * @param executorService
+     *            The executor to fetch pages on.
+     */
+    public S3Versions withExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     public Integer getBatchSize() {
         return batchSize;
     }
 
+    public int getPrefetchDepth() {
+        return prefetchDepth;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
     public String getPrefix() {
         return prefix;
     }
@@ -136,6 +177,8 @@ public class S3Versions implements Iterable<S3VersionSummary> {
         private VersionListing currentListing = null;
         private Iterator<S3VersionSummary> currentIterator = null;
         private S3VersionSummary nextSummary = null;
+        private final ListingPrefetcher<VersionListing> prefetcher =
+                getPrefetchDepth() > 0 ? new VersionPrefetcher() : null;
 
         @Override
         public boolean hasNext() {
@@ -170,18 +213,10 @@ public class S3Versions implements Iterable<S3VersionSummary> {
             while (currentListing == null
                     || (!currentIterator.hasNext() && currentListing
                             .isTruncated())) {
-                if (currentListing == null) {
-                    ListVersionsRequest req = new ListVersionsRequest();
-                    req.setBucketName(getBucketName());
-
-                    if (getKey() != null) {
-                        req.setPrefix(getKey());
-                    } else {
-                        req.setPrefix(getPrefix());
-                    }
-
-                    req.setMaxResults(getBatchSize());
-                    currentListing = getS3().listVersions(req);
+                if (prefetcher != null) {
+                    currentListing = prefetcher.take();
+                } else if (currentListing == null) {
+                    currentListing = getS3().listVersions(newListVersionsRequest());
                 } else {
                     currentListing = getS3().listNextBatchOfVersions(
                             currentListing);
@@ -197,6 +232,48 @@ public class S3Versions implements Iterable<S3VersionSummary> {
 
     }
 
+    private ListVersionsRequest newListVersionsRequest() {
+        ListVersionsRequest req = new ListVersionsRequest();
+        req.setBucketName(getBucketName());
+
+        if (getKey() != null) {
+            req.setPrefix(getKey());
+        } else {
+            req.setPrefix(getPrefix());
+        }
+
+        req.setMaxResults(getBatchSize());
+        return req;
+    }
+
+    /**
+     * Fetches the pages of versions in the background.
+     */
+    private class VersionPrefetcher extends ListingPrefetcher<VersionListing> {
+
+        private VersionPrefetcher() {
+            super(getExecutorService() == null
+                    ? ListingPrefetcher.defaultExecutorService()
+                    : getExecutorService(),
+                  getPrefetchDepth());
+        }
+
+        @Override
+        protected VersionListing fetchFirstPage() {
+            return getS3().listVersions(newListVersionsRequest());
+        }
+
+        @Override
+        protected VersionListing fetchNextPage(VersionListing previousPage) {
+            return getS3().listNextBatchOfVersions(previousPage);
+        }
+
+        @Override
+        protected boolean isTruncated(VersionListing page) {
+            return page.isTruncated();
+        }
+    }
+
     @Override
     public Iterator<S3VersionSummary> iterator() {
         return new VersionIterator();
@@ -77,7 +77,8 @@ public class ListNextBatchOfObjectsRequest extends AmazonWebServiceRequest imple
                 previousObjectListing.getNextMarker(),
                 previousObjectListing.getDelimiter(),
                 Integer.valueOf(previousObjectListing.getMaxKeys()))
-                .withEncodingType(previousObjectListing.getEncodingType());
+                .withEncodingType(previousObjectListing.getEncodingType())
+                .withObjectSummaryListener(previousObjectListing.getObjectSummaryListener());
     }
 
 }
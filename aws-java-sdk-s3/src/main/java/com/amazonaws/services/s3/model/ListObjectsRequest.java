@@ -116,6 +116,11 @@ public class ListObjectsRequest extends AmazonWebServiceRequest implements Seria
      */
     private String encodingType;
 
+    /**
+     * Optional listener to receive the object summaries as they are parsed,
+     * instead of having them collected into the returned listing.
+     */
+    private transient S3ObjectSummaryListener objectSummaryListener;
 
     /**
      * Constructs a new {@link ListObjectsRequest} object.
@@ -469,4 +474,51 @@ public class ListObjectsRequest extends AmazonWebServiceRequest implements Seria
         return this;
     }
 
+    /**
+     * Gets the optional listener to receive the object summaries of the
+     * listing as they are parsed from the response.
+     *
+     * @return The listener to receive the object summaries, or null if they
+     *         are collected into the returned listing.
+     *
+     * @see ListObjectsRequest#setObjectSummaryListener(S3ObjectSummaryListener)
+     */
+    public S3ObjectSummaryListener getObjectSummaryListener() {
+        return objectSummaryListener;
+    }
+
+    /**
+     * Sets the optional listener to receive the object summaries of the
+     * listing as they are parsed from the response. When a listener is set,
+     * the object summaries of the returned {@link ObjectListing} are left
+     * empty, while its next marker, common prefixes and other fields are
+     * populated as usual. The listener is kept by the returned listing and
+     * also receives the object summaries of the next batches listed with
+     * {@link com.amazonaws.services.s3.AmazonS3#listNextBatchOfObjects(ObjectListing)}.
+     *
+     * @param objectSummaryListener
+     *            The listener to receive the object summaries, or null to
+     *            collect them into the returned listing.
+     */
+    public void setObjectSummaryListener(S3ObjectSummaryListener objectSummaryListener) {
+        this.objectSummaryListener = objectSummaryListener;
+    }
+
+    /**
+     * Sets the optional listener to receive the object summaries of the
+     * listing as they are parsed from the response.
+     * Returns this {@link ListObjectsRequest}, enabling additional method calls
+     * to be chained together.
+     *
+     * @param objectSummaryListener
+     *            The listener to receive the object summaries, or null to
+     *            collect them into the returned listing.
+     *
+     * @see ListObjectsRequest#setObjectSummaryListener(S3ObjectSummaryListener)
+     */
+    public ListObjectsRequest withObjectSummaryListener(S3ObjectSummaryListener objectSummaryListener) {
+        setObjectSummaryListener(objectSummaryListener);
+        return this;
+    }
+
 }
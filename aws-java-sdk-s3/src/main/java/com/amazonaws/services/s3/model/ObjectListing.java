@@ -93,6 +93,13 @@ public class ObjectListing implements Serializable {
      */
     private String encodingType;
 
+    /**
+     * The objectSummaryListener parameter originally specified by the caller
+     * when this object listing was returned. Not serialized, like the one of
+     * the request.
+     */
+    private transient S3ObjectSummaryListener objectSummaryListener;
+
 
     /**
      * Gets the list of object summaries describing the objects stored in the
@@ -383,4 +390,29 @@ public class ObjectListing implements Serializable {
         this.encodingType = encodingType;
     }
 
+    /**
+     * Gets the listener that received the object summaries of this listing
+     * as they were parsed, which is also used for the next batch of objects.
+     *
+     * @return The listener that received the object summaries, or null if
+     *         they were collected into this listing.
+     *
+     * @see ListObjectsRequest#setObjectSummaryListener(S3ObjectSummaryListener)
+     */
+    public S3ObjectSummaryListener getObjectSummaryListener() {
+        return objectSummaryListener;
+    }
+
+    /**
+     * For internal use only. Sets the listener that received the object
+     * summaries of this listing as they were parsed.
+     *
+     * @param objectSummaryListener
+     *            The listener that received the object summaries, or null if
+     *            they were collected into this listing.
+     */
+    public void setObjectSummaryListener(S3ObjectSummaryListener objectSummaryListener) {
+        this.objectSummaryListener = objectSummaryListener;
+    }
+
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.model;
+
+/**
+ * Receives the object summaries of a bucket listing as they are parsed from
+ * the response, instead of having them collected into the
+ * {@link ObjectListing}, so that each page of a large listing can be processed
+ * without holding all its summaries in memory.
+ *
+ * @see ListObjectsRequest#setObjectSummaryListener(S3ObjectSummaryListener)
+ */
+public interface S3ObjectSummaryListener {
+
+    /**
+     * Called for each object summary of a listing, in the order in which they
+     * are listed, on the thread that sent the request. An exception thrown by
+     * this method fails the request.
+     *
+     * @param summary
+     *            The summary of the next object in the listing.
+     */
+    void objectSummaryListed(S3ObjectSummary summary);
+}
@@ -60,14 +60,22 @@ public class Unmarshallers {
             Unmarshaller<ObjectListing, InputStream> {
 
         private final boolean shouldSDKDecodeResponse;
+        private final S3ObjectSummaryListener objectSummaryListener;
 
         public ListObjectsUnmarshaller(final boolean shouldSDKDecodeResponse) {
+            this(shouldSDKDecodeResponse, null);
+        }
+
+        public ListObjectsUnmarshaller(final boolean shouldSDKDecodeResponse,
+                final S3ObjectSummaryListener objectSummaryListener) {
             this.shouldSDKDecodeResponse = shouldSDKDecodeResponse;
+            this.objectSummaryListener = objectSummaryListener;
         }
 
         public ObjectListing unmarshall(InputStream in) throws Exception {
             return new XmlResponsesSaxParser()
-                    .parseListBucketObjectsResponse(in, shouldSDKDecodeResponse).getObjectListing();
+                    .parseListBucketObjectsResponse(in, shouldSDKDecodeResponse, objectSummaryListener)
+                    .getObjectListing();
         }
     }
 
@@ -19,10 +19,7 @@ package com.amazonaws.services.s3.model.transform;
 
 import com.amazonaws.services.s3.model.*;
 
-import static com.amazonaws.util.StringUtils.UTF8;
-
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -168,52 +165,12 @@ public class XmlResponsesSaxParser {
                 log.debug("Sanitizing XML document destined for handler " + handler.getClass());
             }
 
-            InputStream sanitizedInputStream = null;
-
-            try {
-
-                /*
-                 * Read object listing XML document from input stream provided into a
-                 * string buffer, so we can replace troublesome characters before
-                 * sending the document to the XML parser.
-                 */
-                StringBuilder listingDocBuffer = new StringBuilder();
-                BufferedReader br = new BufferedReader(
-                    new InputStreamReader(inputStream, Constants.DEFAULT_ENCODING));
-
-                char[] buf = new char[8192];
-                int read = -1;
-                while ((read = br.read(buf)) != -1) {
-                    listingDocBuffer.append(buf, 0, read);
-                }
-                br.close();
-
-                /*
-                 * Replace any carriage return (\r) characters with explicit XML
-                 * character entities, to prevent the SAX parser from
-                 * misinterpreting 0x0D characters as 0x0A and being unable to
-                 * parse the XML.
-                 */
-                String listingDoc = listingDocBuffer.toString().replaceAll("\r", "&#013;");
-
-                sanitizedInputStream = new ByteArrayInputStream(
-                    listingDoc.getBytes(UTF8));
-
-            } catch (IOException e) {
-                throw e;
-
-            } catch (Throwable t) {
-                try {
-                    inputStream.close();
-                } catch (IOException e) {
-                    if (log.isErrorEnabled()) {
-                        log.error("Unable to close response InputStream after failure sanitizing XML document", e);
-                    }
-                }
-                throw new SdkClientException("Failed to sanitize XML document destined for handler "
-                    + handler.getClass(), t);
-            }
-            return sanitizedInputStream;
+            /*
+             * Replace any carriage return (\r) characters with explicit XML
+             * character entities as the document is parsed, rather than
+             * reading the whole document into memory first.
+             */
+            return new XmlSanitizingInputStream(inputStream);
         }
     }
 
@@ -294,7 +251,27 @@ public class XmlResponsesSaxParser {
      */
     public ListBucketHandler parseListBucketObjectsResponse(InputStream inputStream, final boolean shouldSDKDecodeResponse)
             throws IOException {
-        ListBucketHandler handler = new ListBucketHandler(shouldSDKDecodeResponse);
+        return parseListBucketObjectsResponse(inputStream, shouldSDKDecodeResponse, null);
+    }
+
+    /**
+     * Parses a ListBucket response XML document from an input stream, passing
+     * each object summary to the given listener as it is parsed instead of
+     * adding it to the object listing.
+     *
+     * @param inputStream
+     *            XML data input stream.
+     * @param objectSummaryListener
+     *            The listener to receive the object summaries, or null to
+     *            collect them into the object listing.
+     * @return the XML handler object populated with data parsed from the XML
+     *         stream.
+     * @throws SdkClientException
+     */
+    public ListBucketHandler parseListBucketObjectsResponse(InputStream inputStream,
+            final boolean shouldSDKDecodeResponse, S3ObjectSummaryListener objectSummaryListener)
+            throws IOException {
+        ListBucketHandler handler = new ListBucketHandler(shouldSDKDecodeResponse, objectSummaryListener);
         parseXmlInputStream(handler, sanitizeXmlDocument(handler, inputStream));
 
         return handler;
@@ -557,13 +534,22 @@ public class XmlResponsesSaxParser {
     public static class ListBucketHandler extends AbstractHandler {
         private final ObjectListing objectListing = new ObjectListing();
         private final boolean shouldSDKDecodeResponse;
+        private final S3ObjectSummaryListener objectSummaryListener;
 
         private S3ObjectSummary currentObject = null;
         private Owner currentOwner = null;
         private String lastKey = null;
+        private String lastSummaryKey = null;
 
         public ListBucketHandler(final boolean shouldSDKDecodeResponse) {
+            this(shouldSDKDecodeResponse, null);
+        }
+
+        public ListBucketHandler(final boolean shouldSDKDecodeResponse,
+                final S3ObjectSummaryListener objectSummaryListener) {
             this.shouldSDKDecodeResponse = shouldSDKDecodeResponse;
+            this.objectSummaryListener = objectSummaryListener;
+            objectListing.setObjectSummaryListener(objectSummaryListener);
         }
 
         public ObjectListing getObjectListing() {
@@ -605,10 +591,10 @@ public class XmlResponsesSaxParser {
                         && objectListing.getNextMarker() == null) {
 
                         String nextMarker = null;
-                        if (!objectListing.getObjectSummaries().isEmpty()) {
-                            nextMarker = objectListing.getObjectSummaries()
-                                .get(objectListing.getObjectSummaries().size() - 1)
-                                .getKey();
+                        if (lastSummaryKey != null) {
+                            // Not looked up in the object summaries, which
+                            // an object summary listener leaves empty
+                            nextMarker = lastSummaryKey;
 
                         } else if (!objectListing.getCommonPrefixes().isEmpty()) {
                             nextMarker = objectListing.getCommonPrefixes()
@@ -669,7 +655,12 @@ public class XmlResponsesSaxParser {
                     }
 
                 } else if (name.equals("Contents")) {
-                    objectListing.getObjectSummaries().add(currentObject);
+                    lastSummaryKey = currentObject.getKey();
+                    if (objectSummaryListener == null) {
+                        objectListing.getObjectSummaries().add(currentObject);
+                    } else {
+                        objectSummaryListener.objectSummaryListed(currentObject);
+                    }
                     currentObject = null;
                 }
             }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.model.transform;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Replaces every carriage return (\r) in a UTF-8 encoded XML document with an
+ * explicit XML character entity as the document is read, to prevent the SAX
+ * parser from misinterpreting 0x0D characters as 0x0A and being unable to
+ * parse the XML. A 0x0D byte never occurs within the encoding of any other
+ * character in UTF-8, so the bytes can be filtered without decoding them.
+ */
+final class XmlSanitizingInputStream extends FilterInputStream {
+    private static final byte[] ESCAPED_CARRIAGE_RETURN = {
+        '&', '#', '0', '1', '3', ';'
+    };
+
+    private final byte[] buffer = new byte[8192];
+    /** The position of the next unfiltered byte in the buffer. */
+    private int position;
+    /** The number of bytes read into the buffer. */
+    private int limit;
+    /**
+     * The position of the next byte of a character entity that is being
+     * output, or the length of the entity if none is.
+     */
+    private int escapePosition = ESCAPED_CARRIAGE_RETURN.length;
+
+    XmlSanitizingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int read = read(b, 0, 1);
+        return read == -1 ? -1 : (b[0] & 0xFF);
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            if (escapePosition < ESCAPED_CARRIAGE_RETURN.length) {
+                b[off + count++] = ESCAPED_CARRIAGE_RETURN[escapePosition++];
+                continue;
+            }
+            if (position == limit) {
+                // Hand back what has been filtered rather than block for more
+                if (count > 0) {
+                    break;
+                }
+                int read = in.read(buffer, 0, buffer.length);
+                if (read == -1) {
+                    return -1;
+                }
+                position = 0;
+                limit = read;
+                continue;
+            }
+            byte c = buffer[position++];
+            if (c == '\r') {
+                escapePosition = 0;
+            } else {
+                b[off + count++] = c;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] skipped = new byte[(int) Math.min(n, buffer.length)];
+        long remaining = n;
+        while (remaining > 0) {
+            int read = read(skipped, 0, (int) Math.min(remaining, skipped.length));
+            if (read == -1) {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (limit - position)
+                + (ESCAPED_CARRIAGE_RETURN.length - escapePosition);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
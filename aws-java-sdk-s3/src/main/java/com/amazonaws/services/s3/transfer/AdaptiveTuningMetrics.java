@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+/**
+ * The decisions made by the adaptive tuning of multipart uploads of a
+ * {@link TransferManager}, and the measurements they were based on. All values
+ * are those in effect at the time of the call, and are zero until the first
+ * adaptively tuned upload has started.
+ *
+ * @see TransferManagerConfiguration#setAdaptiveUploadConcurrency(int)
+ * @see TransferManager#getAdaptiveTuningMetrics()
+ */
+public interface AdaptiveTuningMetrics {
+
+    /**
+     * Returns the size in bytes of the parts that adaptively tuned uploads
+     * currently start.
+     */
+    public long getPartSize();
+
+    /**
+     * Returns the number of parts each adaptively tuned upload currently may
+     * have in flight at once.
+     */
+    public int getConcurrency();
+
+    /**
+     * Returns the aggregate throughput of part uploads, in bytes per second,
+     * measured over the last completed measurement window.
+     */
+    public long getThroughput();
+
+    /**
+     * Returns the number of times the part size has been increased because
+     * parts finished too quickly to amortize the cost of each request.
+     */
+    public long getPartSizeIncreaseCount();
+
+    /**
+     * Returns the number of times the part size has been decreased because
+     * parts took so long that retrying one would be costly.
+     */
+    public long getPartSizeDecreaseCount();
+
+    /**
+     * Returns the number of times the number of parts in flight has been
+     * increased to probe for more throughput.
+     */
+    public long getConcurrencyIncreaseCount();
+
+    /**
+     * Returns the number of times the number of parts in flight has been
+     * decreased, either because the last increase did not raise the
+     * throughput or because part requests were retried.
+     */
+    public long getConcurrencyDecreaseCount();
+
+    /**
+     * Returns the number of part request retries that have been observed.
+     */
+    public long getRetryCount();
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult;
+
+/**
+ * Represents an asynchronous deletion of many objects from an Amazon S3
+ * bucket, which are deleted in batches of multi-object delete requests.
+ * <p>
+ * The progress of a bulk delete is measured in objects rather than bytes: the
+ * bytes transferred reported by {@link #getProgress()} are the number of
+ * objects deleted so far. Its progress listeners are told of the objects
+ * deleted through
+ * {@link com.amazonaws.event.ProgressEventType#TRANSFER_OBJECTS_DELETED_EVENT}
+ * events, whose bytes are the number of objects.
+ * </p>
+ * <p>
+ * See {@link TransferManager} for more information about creating transfers.
+ * </p>
+ *
+ * @see TransferManager#deleteObjects(String, Iterable)
+ * @see TransferManager#deleteObjectsWithPrefix(String, String)
+ */
+public interface BulkDelete extends Transfer {
+
+    /**
+     * Waits for the bulk delete to complete and returns the result of this
+     * request. The objects that could not be deleted are not reported as
+     * errors, but returned as the failed batches of the result. Be prepared to
+     * handle errors when calling this method. Any other errors that occurred
+     * during the asynchronous deletion, such as failing to list the objects to
+     * delete, will be re-thrown through this method.
+     *
+     * @return The result of this bulk delete.
+     *
+     * @throws AmazonClientException
+     *             If any errors were encountered in the client while making the
+     *             request or handling the response.
+     * @throws AmazonServiceException
+     *             If any errors occurred in Amazon S3 while processing the
+     *             request.
+     * @throws InterruptedException
+     *             If this thread is interrupted while waiting for the bulk
+     *             delete to complete.
+     */
+    public BulkDeleteResult waitForBulkDeleteResult() throws AmazonClientException,
+            AmazonServiceException, InterruptedException;
+}
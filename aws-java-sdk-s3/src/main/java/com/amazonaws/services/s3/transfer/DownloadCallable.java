@@ -17,8 +17,10 @@ package com.amazonaws.services.s3.transfer;
 import java.io.File;
 import java.io.RandomAccessFile;
 import java.net.SocketException;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
@@ -44,9 +46,11 @@ import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.transfer.Transfer.TransferState;
 import com.amazonaws.services.s3.transfer.exception.FileLockException;
 import com.amazonaws.services.s3.transfer.internal.AbstractTransfer;
+import com.amazonaws.services.s3.transfer.internal.CompleteRangedDownload;
 import com.amazonaws.services.s3.transfer.internal.DownloadImpl;
 import com.amazonaws.services.s3.transfer.internal.DownloadMonitor;
 import com.amazonaws.services.s3.transfer.internal.DownloadPartCallable;
+import com.amazonaws.services.s3.transfer.internal.DownloadRangeCallable;
 import com.amazonaws.services.s3.transfer.internal.CompleteMultipartDownload;
 import com.amazonaws.util.IOUtils;
 
@@ -66,7 +70,10 @@ final class DownloadCallable implements Callable<File> {
     /** The thread pool in which parts are downloaded downloaded. */
     private final ExecutorService executor;
     private final List<Future<File>> futureFiles;
+    private final List<Future<Long>> futureRanges;
     private final boolean isDownloadParallel;
+    /** The size of each byte range of a ranged parallel download; zero for other downloads. */
+    private final long downloadRangeSize;
     private Integer lastFullyMergedPartNumber;
     private final boolean resumeOnRetry;
 
@@ -78,7 +85,8 @@ final class DownloadCallable implements Callable<File> {
             long expectedFileLength, long timeout,
             ScheduledExecutorService timedExecutor,
             ExecutorService executor,
-            Integer lastFullyDownloadedPartNumber, boolean isDownloadParallel, boolean resumeOnRetry)
+            Integer lastFullyDownloadedPartNumber, boolean isDownloadParallel, boolean resumeOnRetry,
+            long downloadRangeSize)
     {
         if (s3 == null || latch == null || req == null || dstfile == null || download == null)
             throw new IllegalArgumentException();
@@ -94,9 +102,11 @@ final class DownloadCallable implements Callable<File> {
         this.timedExecutor = timedExecutor;
         this.executor = executor;
         this.futureFiles = new ArrayList<Future<File>>();
+        this.futureRanges = new ArrayList<Future<Long>>();
         this.lastFullyMergedPartNumber = lastFullyDownloadedPartNumber;
         this.isDownloadParallel = isDownloadParallel;
         this.resumeOnRetry = resumeOnRetry;
+        this.downloadRangeSize = downloadRangeSize;
     }
 
     /**
@@ -129,7 +139,9 @@ final class DownloadCallable implements Callable<File> {
             download.setState(TransferState.InProgress);
             ServiceUtils.createParentDirectoryIfNecessary(dstfile);
 
-            if (isDownloadParallel) {
+            if (downloadRangeSize > 0) {
+                downloadRangesInParallel();
+            } else if (isDownloadParallel) {
                 downloadInParallel(ServiceUtils.getPartCount(req, s3));
             } else {
                 S3Object s3Object = retryableDownloadS3ObjectToFile(dstfile,
@@ -142,6 +154,9 @@ final class DownloadCallable implements Callable<File> {
             for (Future<File> f : futureFiles) {
                 f.cancel(true);
             }
+            for (Future<Long> f : futureRanges) {
+                f.cancel(true);
+            }
             // Downloads aren't allowed to move from canceled to failed
             if (download.getState() != TransferState.Canceled) {
                 download.setState(TransferState.Failed);
@@ -177,18 +192,8 @@ final class DownloadCallable implements Callable<File> {
         }
 
         for (int i = lastFullyMergedPartNumber + 1; i <= partCount; i++) {
-            GetObjectRequest getPartRequest = new GetObjectRequest(req.getBucketName(), req.getKey(),
-                    req.getVersionId()).withUnmodifiedSinceConstraint(req.getUnmodifiedSinceConstraint())
-                            .withModifiedSinceConstraint(req.getModifiedSinceConstraint())
-                            .withResponseHeaders(req.getResponseHeaders()).withSSECustomerKey(req.getSSECustomerKey())
-                            .withGeneralProgressListener(req.getGeneralProgressListener());
-
-            getPartRequest.setMatchingETagConstraints(req.getMatchingETagConstraints());
-            getPartRequest.setNonmatchingETagConstraints(req.getNonmatchingETagConstraints());
-            getPartRequest.setRequesterPays(req.isRequesterPays());
-
             futureFiles.add(
-                    executor.submit(new DownloadPartCallable(s3, getPartRequest.withPartNumber(i), dstfile)));
+                    executor.submit(new DownloadPartCallable(s3, newSubRequest().withPartNumber(i), dstfile)));
         }
 
         truncateDestinationFileIfNecessary();
@@ -196,6 +201,99 @@ final class DownloadCallable implements Callable<File> {
         ((DownloadMonitor) download.getMonitor()).setFuture(future);
     }
 
+    /**
+     * Downloads the object as byte ranges of {@link #downloadRangeSize}
+     * fetched in parallel, each written straight to its offset in the
+     * destination file. Ranges already written by a paused download are
+     * skipped.
+     */
+    private void downloadRangesInParallel() throws Exception {
+        if (lastFullyMergedPartNumber == null) {
+            lastFullyMergedPartNumber = 0;
+        }
+
+        final long objectLength = download.getObjectMetadata().getContentLength();
+        final long rangeCount = (objectLength + downloadRangeSize - 1) / downloadRangeSize;
+        final List<String> matchingETags = req.getMatchingETagConstraints();
+        final boolean pinETag = matchingETags == null || matchingETags.isEmpty();
+
+        final FileChannel destination = openDestinationForRanges(objectLength);
+        try {
+            for (long i = lastFullyMergedPartNumber; i < rangeCount; i++) {
+                long firstByte = i * downloadRangeSize;
+                long lastByte = Math.min(firstByte + downloadRangeSize, objectLength) - 1;
+                GetObjectRequest getRangeRequest = newSubRequest().withRange(firstByte, lastByte);
+                if (pinETag) {
+                    // Fail rather than mix the bytes of two versions if the object changes meanwhile
+                    getRangeRequest.setMatchingETagConstraints(
+                            Collections.singletonList(download.getObjectMetadata().getETag()));
+                }
+                futureRanges.add(executor.submit(new DownloadRangeCallable(s3, getRangeRequest, destination)));
+            }
+        } catch (Exception e) {
+            IOUtils.closeQuietly(destination, LOG);
+            throw e;
+        }
+
+        Future<File> future = executor.submit(new CompleteRangedDownload(futureRanges, destination, dstfile,
+                download, lastFullyMergedPartNumber + 1));
+        ((DownloadMonitor) download.getMonitor()).setFuture(future);
+    }
+
+    /**
+     * Opens the destination file of a ranged download and sizes it to the
+     * object, after checking that the ranges a paused download reported as
+     * written are still there.
+     */
+    private FileChannel openDestinationForRanges(long objectLength) {
+        RandomAccessFile raf = null;
+        if (!FileLocks.lock(dstfile)) {
+            throw new FileLockException("Fail to lock " + dstfile);
+        }
+
+        try {
+            raf = new RandomAccessFile(dstfile, "rw");
+            if (lastFullyMergedPartNumber > 0) {
+                long bytesWritten = Math.min(lastFullyMergedPartNumber * downloadRangeSize, objectLength);
+                if (raf.length() < bytesWritten) {
+                    throw new SdkClientException(
+                            "File " + dstfile.getAbsolutePath() + " has been modified since last pause.");
+                }
+                download.getProgress().updateProgress(bytesWritten);
+            }
+            raf.setLength(objectLength);
+            FileChannel channel = raf.getChannel();
+            raf = null;
+            return channel;
+        } catch (SdkClientException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SdkClientException("Unable to open " + dstfile + " for a ranged download: "
+                    + e.getMessage(), e);
+        } finally {
+            IOUtils.closeQuietly(raf, LOG);
+            FileLocks.unlock(dstfile);
+        }
+    }
+
+    /**
+     * Returns a request for a part or a range of the object to download,
+     * carrying over everything but the part number and range of the original
+     * request.
+     */
+    private GetObjectRequest newSubRequest() {
+        GetObjectRequest subRequest = new GetObjectRequest(req.getBucketName(), req.getKey(),
+                req.getVersionId()).withUnmodifiedSinceConstraint(req.getUnmodifiedSinceConstraint())
+                        .withModifiedSinceConstraint(req.getModifiedSinceConstraint())
+                        .withResponseHeaders(req.getResponseHeaders()).withSSECustomerKey(req.getSSECustomerKey())
+                        .withGeneralProgressListener(req.getGeneralProgressListener());
+
+        subRequest.setMatchingETagConstraints(req.getMatchingETagConstraints());
+        subRequest.setNonmatchingETagConstraints(req.getNonmatchingETagConstraints());
+        subRequest.setRequesterPays(req.isRequesterPays());
+        return subRequest;
+    }
+
     /**
      * If only partial part object is merged into the dstFile(due to pause
      * operation), adjust the file length so that the part starts writing from
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+/**
+ * Multiple object copy of an entire virtual directory from one Amazon S3
+ * location to another.
+ *
+ * @see TransferManager#copyDirectory(String, String, String, String)
+ * @see TransferManager#syncDirectory(String, String, String, String)
+ */
+public interface MultipleCopy extends Transfer {
+
+    /**
+     * Returns the name of the bucket from which objects are copied.
+     */
+    public String getSourceBucketName();
+
+    /**
+     * Returns the key prefix of the virtual directory being copied.
+     */
+    public String getSourceKeyPrefix();
+
+    /**
+     * Returns the name of the bucket to which objects are copied.
+     */
+    public String getDestinationBucketName();
+
+    /**
+     * Returns the key prefix of the virtual directory objects are copied to.
+     */
+    public String getDestinationKeyPrefix();
+
+    /**
+     * Cancels all outstanding copies, and stops any copies of objects still
+     * being listed from being started. Objects already copied are left at the
+     * destination.
+     */
+    public void abort();
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.internal.TransferStateChangeListener;
+
+/**
+ * State change listener for a single sub-transfer of a directory transfer
+ * that is still being listed. Forwards every state change to the listener
+ * shared by all the sub-transfers, and frees the sub-transfer's slot in the
+ * directory transfer's queue once it reaches a final state.
+ */
+final class QueuedSubTransferStateChangeListener implements TransferStateChangeListener {
+    private final TransferStateChangeListener delegate;
+    private final Semaphore queueSlots;
+    private final AtomicBoolean slotReleased = new AtomicBoolean(false);
+
+    public QueuedSubTransferStateChangeListener(TransferStateChangeListener delegate,
+            Semaphore queueSlots) {
+        this.delegate = delegate;
+        this.queueSlots = queueSlots;
+    }
+
+    @Override
+    public void transferStateChanged(Transfer transfer, TransferState state) {
+        try {
+            delegate.transferStateChanged(transfer, state);
+        } finally {
+            if ( isFinal(state) && slotReleased.compareAndSet(false, true) ) {
+                queueSlots.release();
+            }
+        }
+    }
+
+    private static boolean isFinal(TransferState state) {
+        return state == TransferState.Completed || state == TransferState.Failed
+                || state == TransferState.Canceled;
+    }
+}
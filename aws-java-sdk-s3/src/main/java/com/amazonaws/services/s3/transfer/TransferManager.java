@@ -29,8 +29,10 @@ import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.internal.FileLocks;
 import com.amazonaws.services.s3.internal.Mimetypes;
 import com.amazonaws.services.s3.internal.ServiceUtils;
+import com.amazonaws.services.s3.iterable.S3Objects;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
@@ -43,10 +45,16 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.Transfer.TransferState;
 import com.amazonaws.services.s3.transfer.exception.FileLockException;
+import com.amazonaws.services.s3.transfer.internal.AdaptiveUploadTuner;
+import com.amazonaws.services.s3.transfer.internal.BulkDeleteCallable;
+import com.amazonaws.services.s3.transfer.internal.BulkDeleteImpl;
+import com.amazonaws.services.s3.transfer.internal.BulkDeleteMonitor;
+import com.amazonaws.services.s3.transfer.internal.BulkDeleteProgressUpdatingListener;
 import com.amazonaws.services.s3.transfer.internal.CopyCallable;
 import com.amazonaws.services.s3.transfer.internal.CopyImpl;
 import com.amazonaws.services.s3.transfer.internal.CopyMonitor;
 import com.amazonaws.services.s3.transfer.internal.DownloadImpl;
+import com.amazonaws.services.s3.transfer.internal.MultipleCopyImpl;
 import com.amazonaws.services.s3.transfer.internal.DownloadMonitor;
 import com.amazonaws.services.s3.transfer.internal.MultipleFileDownloadImpl;
 import com.amazonaws.services.s3.transfer.internal.MultipleFileTransferMonitor;
@@ -67,18 +75,24 @@ import org.apache.commons.logging.LogFactory;
 import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static com.amazonaws.event.SDKProgressPublisher.publishRequestBytesTransferred;
 import static com.amazonaws.services.s3.internal.ServiceUtils.APPEND_MODE;
 import static com.amazonaws.services.s3.internal.ServiceUtils.OVERWRITE_MODE;
 
@@ -154,6 +168,12 @@ public class TransferManager {
      */
     private final ScheduledExecutorService timedThreadPool = new ScheduledThreadPoolExecutor(1, daemonThreadFactory);
 
+    /**
+     * Threads that list directories for directory transfers which start their
+     * sub-transfers while listing is still in progress.
+     */
+    private final ExecutorService listingThreadPool = Executors.newCachedThreadPool(listingThreadFactory);
+
     private static final Log log = LogFactory.getLog(TransferManager.class);
 
     private final boolean shutDownThreadPools;
@@ -164,6 +184,9 @@ public class TransferManager {
      */
     private final boolean isImmutable;
 
+    /** Tunes multipart uploads when adaptive tuning is enabled. */
+    private final AdaptiveUploadTuner adaptiveUploadTuner = new AdaptiveUploadTuner();
+
     /**
      * Constructs a new <code>TransferManager</code> and Amazon S3 client using
      * the credentials from <code>DefaultAWSCredentialsProviderChain</code>
@@ -340,6 +363,20 @@ public class TransferManager {
         return s3;
     }
 
+    /**
+     * Returns the part size and number of parts in flight currently chosen by
+     * the adaptive tuning of multipart uploads, along with the measurements
+     * and decisions that led to them.
+     *
+     * @return The metrics of the adaptive tuning of this
+     *         <code>TransferManager</code>'s uploads.
+     *
+     * @see TransferManagerConfiguration#setAdaptiveUploadConcurrency(int)
+     */
+    public AdaptiveTuningMetrics getAdaptiveTuningMetrics() {
+        return adaptiveUploadTuner;
+    }
+
     /**
      * <p>
      * Schedules a new transfer to upload data to Amazon S3. This method is
@@ -355,6 +392,10 @@ public class TransferManager {
      * contents in memory and upload the options as a traditional, single part
      * upload. Because the entire stream contents must be buffered in memory,
      * this can be very expensive, and should be avoided whenever possible.
+     * Alternatively, enable
+     * {@link TransferManagerConfiguration#setStreamingUploadConcurrency(int)
+     * streaming uploads} to upload such streams as a multipart upload using
+     * a bounded number of part sized buffers.
      * </p>
      * <p>
      * Use the returned <code>Upload</code> object to query the progress of the
@@ -638,7 +679,7 @@ public class TransferManager {
          */
         UploadCallable uploadCallable = new UploadCallable(this, executorService,
                                                            upload, putObjectRequest, listenerChain, multipartUploadId,
-                                                           transferProgress);
+                                                           transferProgress, adaptiveUploadTuner);
         UploadMonitor watcher = UploadMonitor.create(this, upload, executorService,
                                                      uploadCallable, putObjectRequest, listenerChain);
         upload.setMonitor(watcher);
@@ -974,7 +1015,7 @@ public class TransferManager {
     {
         return doDownload(getObjectRequest, file, stateListener, s3progressListener,
                 resumeExistingDownload, timeoutMillis, lastFullyDownloadedPart,
-                lastModifiedTimeRecordedDuringPause, false);
+                lastModifiedTimeRecordedDuringPause, false, null);
     }
 
     /**
@@ -991,6 +1032,30 @@ public class TransferManager {
             final Integer lastFullyDownloadedPart,
             final long lastModifiedTimeRecordedDuringPause,
             final boolean resumeOnRetry)
+    {
+        return doDownload(getObjectRequest, file, stateListener, s3progressListener,
+                resumeExistingDownload, timeoutMillis, lastFullyDownloadedPart,
+                lastModifiedTimeRecordedDuringPause, resumeOnRetry, null);
+    }
+
+    /**
+     * Same as public interface, but adds a state listener so that callers can
+     * be notified of state changes to the download.
+     *
+     * @param downloadRangeSizeDuringPause
+     *            The range size of the paused ranged download being resumed,
+     *            or null if the paused download was not a ranged one.
+     * @see TransferManager#download(GetObjectRequest, File)
+     */
+    private Download doDownload(final GetObjectRequest getObjectRequest,
+            final File file, final TransferStateChangeListener stateListener,
+            final S3ProgressListener s3progressListener,
+            final boolean resumeExistingDownload,
+            final long timeoutMillis,
+            final Integer lastFullyDownloadedPart,
+            final long lastModifiedTimeRecordedDuringPause,
+            final boolean resumeOnRetry,
+            final Long downloadRangeSizeDuringPause)
     {
         assertParameterNotNull(getObjectRequest,
                 "A valid GetObjectRequest must be provided to initiate download");
@@ -1035,13 +1100,24 @@ public class TransferManager {
         }
 
         final long origStartingByte = startingByte;
-        final boolean isDownloadParallel =
-                TransferManagerUtils.isDownloadParallelizable(s3, getObjectRequest, ServiceUtils.getPartCount(getObjectRequest, s3))
+        // A resumed download keeps the mode it was paused in, since the
+        // progress it recorded is only meaningful in that mode
+        final boolean isResumedRangedDownload = resumeExistingDownload && downloadRangeSizeDuringPause != null;
+        final long downloadRangeSize = isResumedRangedDownload
+                ? downloadRangeSizeDuringPause
+                : configuration.getDownloadRangeSize();
+        final boolean isDownloadRanged =
+                (isResumedRangedDownload || (!resumeExistingDownload && !configuration.isDisableParallelDownloads()))
+                        && TransferManagerUtils.isDownloadRangeable(s3, getObjectRequest,
+                                objectMetadata.getContentLength(), downloadRangeSize);
+        final boolean isDownloadParallel = !isDownloadRanged && !isResumedRangedDownload
+                && TransferManagerUtils.isDownloadParallelizable(s3, getObjectRequest, ServiceUtils.getPartCount(getObjectRequest, s3))
                         && !configuration.isDisableParallelDownloads();
 
         // We still pass the unfiltered listener chain into DownloadImpl
         final DownloadImpl download = new DownloadImpl(description, transferProgress, listenerChain, null,
-                stateListener, getObjectRequest, file, objectMetadata, isDownloadParallel);
+                stateListener, getObjectRequest, file, objectMetadata, isDownloadParallel || isDownloadRanged,
+                isDownloadRanged ? Long.valueOf(downloadRangeSize) : null);
 
         long totalBytesToDownload = lastByte - startingByte + 1;
         transferProgress.setTotalBytesToTransfer(totalBytesToDownload);
@@ -1056,7 +1132,7 @@ public class TransferManager {
         // In addition, we only set the range if the download was *NOT*
         // determined to be parallelizable above. One of the conditions for
         // parallel downloads is that getRange() returns null so preserve that.
-        if (totalBytesToDownload > 0 && !isDownloadParallel) {
+        if (totalBytesToDownload > 0 && !isDownloadParallel && !isDownloadRanged) {
             getObjectRequest.withRange(startingByte, lastByte);
         }
 
@@ -1068,7 +1144,7 @@ public class TransferManager {
                         + " with key " + getObjectRequest.getKey() + " is modified on Amazon S3 since the last pause.");
             }
 
-            if (!isDownloadParallel) {
+            if (!isDownloadParallel && !isDownloadRanged) {
                 if (!FileLocks.lock(file)) {
                     throw new FileLockException("Fail to lock " + file + " for resume download");
                 }
@@ -1102,7 +1178,8 @@ public class TransferManager {
             new DownloadCallable(s3, latch,
                 getObjectRequest, resumeExistingDownload,
                 download, file, origStartingByte, fileLength, timeoutMillis, timedThreadPool,
-                executorService, lastFullyDownloadedPart, isDownloadParallel, resumeOnRetry));
+                executorService, lastFullyDownloadedPart, isDownloadParallel, resumeOnRetry,
+                isDownloadRanged ? downloadRangeSize : 0));
         download.setMonitor(new DownloadMonitor(download, future));
         latch.countDown();
         return download;
@@ -1147,6 +1224,9 @@ public class TransferManager {
             boolean resumeOnRetry) {
         if ( keyPrefix == null )
             keyPrefix = "";
+        if ( configuration.getDirectoryTransferQueueSize() > 0 ) {
+            return downloadDirectoryWhileListing(bucketName, keyPrefix, destinationDirectory, resumeOnRetry);
+        }
         List<S3ObjectSummary> objectSummaries = new LinkedList<S3ObjectSummary>();
         Stack<String> commonPrefixes = new Stack<String>();
         commonPrefixes.add(keyPrefix);
@@ -1170,8 +1250,7 @@ public class TransferManager {
                     // Skip any files that are also virtual directories, since
                     // we can't save both a directory and a file of the same
                     // name.
-                    if ( !s.getKey().equals(prefix)
-                            && !listObjectsResponse.getCommonPrefixes().contains(s.getKey() + DEFAULT_DELIMITER) ) {
+                    if ( !isVirtualDirectory(s, prefix, listObjectsResponse) ) {
                         objectSummaries.add(s);
                         totalSize += s.getSize();
                     } else {
@@ -1209,12 +1288,7 @@ public class TransferManager {
                 new MultipleFileTransferStateChangeListener(latch, multipleFileDownload);
 
         for ( S3ObjectSummary summary : objectSummaries ) {
-            // TODO: non-standard delimiters
-            File f = new File(destinationDirectory, summary.getKey());
-            File parentFile = f.getParentFile();
-            if ( !parentFile.exists() && !parentFile.mkdirs() ) {
-                throw new RuntimeException("Couldn't create parent directories for " + f.getAbsolutePath());
-            }
+            File f = newDirectoryDownloadFile(destinationDirectory, summary);
 
             // All the single-file downloads share the same
             // MultipleFileTransferProgressUpdatingListener and
@@ -1240,6 +1314,140 @@ public class TransferManager {
         return multipleFileDownload;
     }
 
+    /**
+     * Downloads the virtual directory like
+     * {@link #downloadDirectory(String, String, File, boolean)}, but lists it
+     * in the background and starts downloading each object as soon as it is
+     * listed, with at most the configured directory transfer queue size of
+     * downloads outstanding at once.
+     */
+    private MultipleFileDownload downloadDirectoryWhileListing(final String bucketName, final String keyPrefix,
+            final File destinationDirectory, final boolean resumeOnRetry) {
+        /* This is the hook for adding additional progress listeners */
+        ProgressListenerChain additionalListeners = new ProgressListenerChain();
+
+        final TransferProgress transferProgress = new TransferProgress();
+        transferProgress.setTotalBytesToTransfer(0);
+        final ProgressListener listener = new MultipleFileTransferProgressUpdatingListener(
+                transferProgress, additionalListeners);
+
+        final Collection<DownloadImpl> downloads = new ConcurrentLinkedQueue<DownloadImpl>();
+
+        String description = "Downloading from " + bucketName + "/" + keyPrefix;
+        final MultipleFileDownloadImpl multipleFileDownload = new MultipleFileDownloadImpl(description, transferProgress,
+                additionalListeners, keyPrefix, bucketName, downloads);
+        multipleFileDownload.setMonitor(new MultipleFileTransferMonitor(multipleFileDownload, downloads));
+        multipleFileDownload.startQueuingSubTransfers();
+
+        // Downloads report their state as soon as they start; the monitor
+        // knows the directory transfer isn't done while listing continues.
+        final MultipleFileTransferStateChangeListener transferListener =
+                new MultipleFileTransferStateChangeListener(new CountDownLatch(0), multipleFileDownload);
+        final Semaphore queueSlots = new Semaphore(configuration.getDirectoryTransferQueueSize());
+
+        listingThreadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                Exception failure = null;
+                try {
+                    listAndDownload(bucketName, keyPrefix, destinationDirectory, resumeOnRetry,
+                            multipleFileDownload, downloads, transferProgress, listener,
+                            transferListener, queueSlots);
+                } catch (Exception e) {
+                    log.debug("Unable to list " + bucketName + "/" + keyPrefix + " for download", e);
+                    failure = e;
+                }
+                multipleFileDownload.finishQueuingSubTransfers(failure);
+            }
+        });
+        return multipleFileDownload;
+    }
+
+    /**
+     * Lists the virtual directory depth first, starting a download for each
+     * object found once a slot in the queue is free.
+     */
+    private void listAndDownload(String bucketName, String keyPrefix, File destinationDirectory,
+            boolean resumeOnRetry, MultipleFileDownloadImpl multipleFileDownload,
+            Collection<DownloadImpl> downloads, TransferProgress transferProgress,
+            ProgressListener listener, TransferStateChangeListener transferListener,
+            Semaphore queueSlots) throws Exception {
+        Stack<String> commonPrefixes = new Stack<String>();
+        commonPrefixes.add(keyPrefix);
+        long totalSize = 0;
+        do {
+            String prefix = commonPrefixes.pop();
+            ObjectListing listObjectsResponse = null;
+
+            do {
+                if ( listObjectsResponse == null ) {
+                    ListObjectsRequest listObjectsRequest = new ListObjectsRequest().withBucketName(bucketName)
+                            .withDelimiter(DEFAULT_DELIMITER).withPrefix(prefix);
+                    listObjectsResponse = s3.listObjects(listObjectsRequest);
+                } else {
+                    listObjectsResponse = s3.listNextBatchOfObjects(listObjectsResponse);
+                }
+
+                for ( S3ObjectSummary summary : listObjectsResponse.getObjectSummaries() ) {
+                    if ( isVirtualDirectory(summary, prefix, listObjectsResponse) ) {
+                        log.debug("Skipping download for object " + summary.getKey()
+                                + " since it is also a virtual directory");
+                        continue;
+                    }
+                    totalSize += summary.getSize();
+                    transferProgress.setTotalBytesToTransfer(totalSize);
+
+                    queueSlots.acquire();
+                    if ( multipleFileDownload.isQueuingCanceled() ) {
+                        return;
+                    }
+                    File f = newDirectoryDownloadFile(destinationDirectory, summary);
+                    GetObjectRequest req = new GetObjectRequest(summary.getBucketName(), summary.getKey())
+                            .<GetObjectRequest>withGeneralProgressListener(
+                                                    listener);
+                    DownloadImpl download = (DownloadImpl) doDownload(
+                                    req,
+                                    f,
+                                    new QueuedSubTransferStateChangeListener(transferListener, queueSlots),
+                                    null, false, 0,
+                                    null, 0L, resumeOnRetry);
+                    downloads.add(download);
+                    // An abort may have missed a download added while it ran
+                    if ( multipleFileDownload.isQueuingCanceled() ) {
+                        download.abort();
+                        return;
+                    }
+                }
+
+                commonPrefixes.addAll(listObjectsResponse.getCommonPrefixes());
+            } while ( listObjectsResponse.isTruncated() );
+        } while ( !commonPrefixes.isEmpty() );
+    }
+
+    /**
+     * Returns true if the listed object is the virtual directory being listed
+     * or shares its name with one of its virtual subdirectories, since we
+     * can't save both a directory and a file of the same name.
+     */
+    private static boolean isVirtualDirectory(S3ObjectSummary summary, String prefix, ObjectListing listing) {
+        return summary.getKey().equals(prefix)
+                || listing.getCommonPrefixes().contains(summary.getKey() + DEFAULT_DELIMITER);
+    }
+
+    /**
+     * Returns the file to download the listed object to, creating its parent
+     * directories as needed.
+     */
+    private static File newDirectoryDownloadFile(File destinationDirectory, S3ObjectSummary summary) {
+        // TODO: non-standard delimiters
+        File f = new File(destinationDirectory, summary.getKey());
+        File parentFile = f.getParentFile();
+        if ( !parentFile.exists() && !parentFile.mkdirs() ) {
+            throw new RuntimeException("Couldn't create parent directories for " + f.getAbsolutePath());
+        }
+        return f;
+    }
+
     /**
      * Uploads all files in the directory given to the bucket named, optionally
      * recursing for all subdirectories.
@@ -1310,6 +1518,11 @@ public class TransferManager {
             throw new IllegalArgumentException("Must provide a directory to upload");
         }
 
+        if ( configuration.getDirectoryTransferQueueSize() > 0 ) {
+            return uploadDirectoryWhileListing(bucketName, virtualDirectoryKeyPrefix, directory,
+                    includeSubdirectories, metadataProvider);
+        }
+
         List<File> files = new LinkedList<File>();
         listFiles(directory, files, includeSubdirectories);
 
@@ -1391,11 +1604,7 @@ public class TransferManager {
             throw new IllegalArgumentException("Must provide a common base directory for uploaded files");
         }
 
-        if (virtualDirectoryKeyPrefix == null || virtualDirectoryKeyPrefix.length() == 0) {
-            virtualDirectoryKeyPrefix = "";
-        } else if ( !virtualDirectoryKeyPrefix.endsWith("/") ) {
-            virtualDirectoryKeyPrefix = virtualDirectoryKeyPrefix + "/";
-        }
+        virtualDirectoryKeyPrefix = normalizeVirtualDirectoryKeyPrefix(virtualDirectoryKeyPrefix);
 
         /* This is the hook for adding additional progress listeners */
         ProgressListenerChain additionalListeners = new ProgressListenerChain();
@@ -1417,16 +1626,7 @@ public class TransferManager {
         if (files == null || files.isEmpty()) {
             multipleFileUpload.setState(TransferState.Completed);
         } else {
-            /*
-             * If the absolute path for the common/base directory does NOT end
-             * in a separator (which is the case for anything but root
-             * directories), then we know there's still a separator between the
-             * base directory and the rest of the file's path, so we increment
-             * the starting position by one.
-             */
-            int startingPosition = directory.getAbsolutePath().length();
-            if (!(directory.getAbsolutePath().endsWith(File.separator)))
-                startingPosition++;
+            int startingPosition = relativePathStart(directory);
 
             long totalSize = 0;
             for (File f : files) {
@@ -1434,28 +1634,13 @@ public class TransferManager {
                 if (f.isFile()) {
                     totalSize += f.length();
 
-                    String key = f.getAbsolutePath()
-                            .substring(startingPosition)
-                            .replaceAll("\\\\", "/");
-
-                    ObjectMetadata metadata = new ObjectMetadata();
-
-                    // Invoke the callback if it's present.
-                    // The callback allows the user to customize the metadata
-                    // for each file being uploaded.
-                    if (metadataProvider != null) {
-                        metadataProvider.provideObjectMetadata(f, metadata);
-                    }
-
                     // All the single-file uploads share the same
                     // MultipleFileTransferProgressUpdatingListener and
                     // MultipleFileTransferStateChangeListener
                     uploads.add((UploadImpl) doUpload(
-                            new PutObjectRequest(bucketName,
-                                    virtualDirectoryKeyPrefix + key, f)
-                                    .withMetadata(metadata)
-                                    .<PutObjectRequest> withGeneralProgressListener(
-                                            listener), transferListener, null, null));
+                            newDirectoryUploadRequest(bucketName, virtualDirectoryKeyPrefix,
+                                    startingPosition, f, metadataProvider, listener),
+                            transferListener, null, null));
                 }
             }
             progress.setTotalBytesToTransfer(totalSize);
@@ -1467,6 +1652,148 @@ public class TransferManager {
         return multipleFileUpload;
     }
 
+    /**
+     * Uploads the directory like
+     * {@link #uploadDirectory(String, String, File, boolean, ObjectMetadataProvider)},
+     * but walks it in the background and starts uploading each file as soon
+     * as it is found, with at most the configured directory transfer queue
+     * size of uploads outstanding at once.
+     */
+    private MultipleFileUpload uploadDirectoryWhileListing(final String bucketName, String virtualDirectoryKeyPrefix,
+            final File directory, final boolean includeSubdirectories, final ObjectMetadataProvider metadataProvider) {
+        final String keyPrefix = normalizeVirtualDirectoryKeyPrefix(virtualDirectoryKeyPrefix);
+
+        /* This is the hook for adding additional progress listeners */
+        ProgressListenerChain additionalListeners = new ProgressListenerChain();
+        final TransferProgress progress = new TransferProgress();
+        progress.setTotalBytesToTransfer(0);
+        final ProgressListener listener = new MultipleFileTransferProgressUpdatingListener(
+                progress, additionalListeners);
+
+        final Collection<UploadImpl> uploads = new ConcurrentLinkedQueue<UploadImpl>();
+        final MultipleFileUploadImpl multipleFileUpload = new MultipleFileUploadImpl("Uploading etc", progress, additionalListeners, keyPrefix, bucketName, uploads);
+        multipleFileUpload.setMonitor(new MultipleFileTransferMonitor(multipleFileUpload, uploads));
+        multipleFileUpload.startQueuingSubTransfers();
+
+        // Uploads report their state as soon as they start; the monitor
+        // knows the directory transfer isn't done while listing continues.
+        final MultipleFileTransferStateChangeListener transferListener =
+            new MultipleFileTransferStateChangeListener(new CountDownLatch(0), multipleFileUpload);
+        final Semaphore queueSlots = new Semaphore(configuration.getDirectoryTransferQueueSize());
+
+        listingThreadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                Exception failure = null;
+                try {
+                    listAndUpload(bucketName, keyPrefix, directory, includeSubdirectories,
+                            metadataProvider, uploads, progress, listener, transferListener,
+                            queueSlots);
+                } catch (Exception e) {
+                    log.debug("Unable to list " + directory + " for upload", e);
+                    failure = e;
+                }
+                multipleFileUpload.finishQueuingSubTransfers(failure);
+            }
+        });
+        return multipleFileUpload;
+    }
+
+    /**
+     * Walks the directory depth first, starting an upload for each file found
+     * once a slot in the queue is free.
+     */
+    private void listAndUpload(String bucketName, String virtualDirectoryKeyPrefix, File directory,
+            boolean includeSubdirectories, ObjectMetadataProvider metadataProvider,
+            Collection<UploadImpl> uploads, TransferProgress progress, ProgressListener listener,
+            TransferStateChangeListener transferListener, Semaphore queueSlots) throws Exception {
+        int startingPosition = relativePathStart(directory);
+        Stack<File> directories = new Stack<File>();
+        directories.add(directory);
+        long totalSize = 0;
+        do {
+            File[] found = directories.pop().listFiles();
+            if ( found == null ) {
+                continue;
+            }
+            for ( File f : found ) {
+                if ( f.isDirectory() ) {
+                    if ( includeSubdirectories ) {
+                        directories.add(f);
+                    }
+                } else if ( f.isFile() ) {
+                    totalSize += f.length();
+                    progress.setTotalBytesToTransfer(totalSize);
+
+                    queueSlots.acquire();
+                    uploads.add((UploadImpl) doUpload(
+                            newDirectoryUploadRequest(bucketName, virtualDirectoryKeyPrefix,
+                                    startingPosition, f, metadataProvider, listener),
+                            new QueuedSubTransferStateChangeListener(transferListener, queueSlots),
+                            null, null));
+                }
+            }
+        } while ( !directories.isEmpty() );
+    }
+
+    /**
+     * Returns the key prefix of a virtual directory, ending in a delimiter
+     * unless it is the root of the bucket.
+     */
+    private static String normalizeVirtualDirectoryKeyPrefix(String virtualDirectoryKeyPrefix) {
+        if (virtualDirectoryKeyPrefix == null || virtualDirectoryKeyPrefix.length() == 0) {
+            return "";
+        } else if ( !virtualDirectoryKeyPrefix.endsWith("/") ) {
+            return virtualDirectoryKeyPrefix + "/";
+        }
+        return virtualDirectoryKeyPrefix;
+    }
+
+    /**
+     * Returns the position in the absolute path of a file under the given
+     * directory at which its path relative to the directory starts.
+     */
+    private static int relativePathStart(File directory) {
+        /*
+         * If the absolute path for the common/base directory does NOT end
+         * in a separator (which is the case for anything but root
+         * directories), then we know there's still a separator between the
+         * base directory and the rest of the file's path, so we increment
+         * the starting position by one.
+         */
+        int startingPosition = directory.getAbsolutePath().length();
+        if (!(directory.getAbsolutePath().endsWith(File.separator)))
+            startingPosition++;
+        return startingPosition;
+    }
+
+    /**
+     * Returns the request to upload a file of a directory upload, keyed by its
+     * path relative to the directory.
+     */
+    private static PutObjectRequest newDirectoryUploadRequest(String bucketName,
+            String virtualDirectoryKeyPrefix, int startingPosition, File f,
+            ObjectMetadataProvider metadataProvider, ProgressListener listener) {
+        String key = f.getAbsolutePath()
+                .substring(startingPosition)
+                .replaceAll("\\\\", "/");
+
+        ObjectMetadata metadata = new ObjectMetadata();
+
+        // Invoke the callback if it's present.
+        // The callback allows the user to customize the metadata
+        // for each file being uploaded.
+        if (metadataProvider != null) {
+            metadataProvider.provideObjectMetadata(f, metadata);
+        }
+
+        return new PutObjectRequest(bucketName,
+                virtualDirectoryKeyPrefix + key, f)
+                .withMetadata(metadata)
+                .<PutObjectRequest> withGeneralProgressListener(
+                        listener);
+    }
+
     /**
      * Lists files in the directory given and adds them to the result list
      * passed in, optionally adding subdirectories recursively.
@@ -1556,6 +1883,7 @@ public class TransferManager {
         if (shutDownThreadPools) {
             executorService.shutdownNow();
             timedThreadPool.shutdownNow();
+            listingThreadPool.shutdownNow();
         }
 
         if (shutDownS3Client) {
@@ -1574,6 +1902,7 @@ public class TransferManager {
         if (shutDownThreadPools) {
             executorService.shutdown();
             timedThreadPool.shutdown();
+            listingThreadPool.shutdown();
         }
     }
 
@@ -1607,6 +1936,21 @@ public class TransferManager {
         }
     };
 
+    /**
+     * Daemon thread factory for the threads that list directories for
+     * directory transfers.
+     */
+    private static final ThreadFactory listingThreadFactory = new ThreadFactory() {
+        final AtomicInteger threadCount = new AtomicInteger( 0 );
+        public Thread newThread(Runnable r) {
+            int threadNumber = threadCount.incrementAndGet();
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            thread.setName("S3TransferManagerListingThread-" + threadNumber);
+            return thread;
+        }
+    };
+
     /**
      * <p>
      * Schedules a new transfer to copy data from one Amazon S3 location to
@@ -1781,18 +2125,28 @@ public class TransferManager {
                                "The destination object key must be specified when a copy request is initiated.");
         assertParameterNotNull(srcS3, "The srcS3 parameter is mandatory");
 
-        String description =
-                "Copying object from " + copyObjectRequest.getSourceBucketName() + "/" +
-                copyObjectRequest.getSourceKey() + " to " +
-                copyObjectRequest.getDestinationBucketName() + "/" +
-                copyObjectRequest.getDestinationKey();
-
         GetObjectMetadataRequest getObjectMetadataRequest = new GetObjectMetadataRequest(
                 copyObjectRequest.getSourceBucketName(), copyObjectRequest.getSourceKey())
                 .withSSECustomerKey(copyObjectRequest.getSourceSSECustomerKey());
 
         ObjectMetadata metadata = srcS3.getObjectMetadata(getObjectMetadataRequest);
 
+        return doCopy(copyObjectRequest, metadata, null, stateChangeListener);
+    }
+
+    /**
+     * Schedules the copy of an object whose metadata is already known, or of
+     * which only the content length is known if a client with which to look
+     * up the rest of its metadata is given.
+     */
+    private CopyImpl doCopy(final CopyObjectRequest copyObjectRequest, ObjectMetadata metadata,
+                            final AmazonS3 srcS3, final TransferStateChangeListener stateChangeListener) {
+        String description =
+                "Copying object from " + copyObjectRequest.getSourceBucketName() + "/" +
+                copyObjectRequest.getSourceKey() + " to " +
+                copyObjectRequest.getDestinationBucketName() + "/" +
+                copyObjectRequest.getDestinationKey();
+
         TransferProgress transferProgress = new TransferProgress();
         transferProgress.setTotalBytesToTransfer(metadata.getContentLength());
 
@@ -1801,7 +2155,7 @@ public class TransferManager {
         CopyImpl copy = new CopyImpl(description, transferProgress, listenerChain,
                                      stateChangeListener);
         CopyCallable copyCallable = new CopyCallable(this, executorService, copy, copyObjectRequest,
-                                                     metadata, listenerChain);
+                                                     metadata, srcS3, listenerChain);
         CopyMonitor watcher = CopyMonitor
                 .create(this, copy, executorService, copyCallable, copyObjectRequest,
                         listenerChain);
@@ -1809,6 +2163,416 @@ public class TransferManager {
         return copy;
     }
 
+    /**
+     * <p>
+     * Copies all objects in the virtual directory designated by the source key
+     * prefix to the virtual directory designated by the destination key
+     * prefix, which may be in another bucket. All virtual subdirectories are
+     * copied recursively, and the key of each copy is the destination key
+     * prefix followed by the part of the source key after the source key
+     * prefix. A key prefix that does not end in "/" is treated as if it did,
+     * so a source prefix of "data" copies the objects under "data/" but not
+     * those under "data-backup/". The destination must not be within the
+     * source directory when both are in the same bucket. The objects are
+     * copied by Amazon S3 itself, in parts for objects larger than the
+     * multipart copy threshold, so no object data passes through this client.
+     * </p>
+     * <p>
+     * This method is non-blocking and returns as soon as the source starts
+     * being listed in the background. Each object is copied as soon as it is
+     * listed, with at most
+     * {@link TransferManagerConfiguration#getDirectoryTransferQueueSize()}
+     * copies, or 100 if that is zero, outstanding at once. Since the size of
+     * the directory is not known until listing finishes, the total bytes to
+     * transfer reported by the returned transfer's progress grows as objects
+     * are listed, and the bytes of each object are counted once its copy
+     * completes.
+     * </p>
+     *
+     * @param sourceBucketName
+     *            The bucket containing the virtual directory to copy.
+     * @param sourceKeyPrefix
+     *            The key prefix of the virtual directory to copy, or null for
+     *            the entire bucket.
+     * @param destinationBucketName
+     *            The bucket to copy the objects to.
+     * @param destinationKeyPrefix
+     *            The key prefix of the virtual directory to copy the objects
+     *            to, or null for the root of the bucket.
+     * @return A new <code>MultipleCopy</code> object to use to check the state
+     *         of the copy.
+     */
+    public MultipleCopy copyDirectory(String sourceBucketName, String sourceKeyPrefix,
+            String destinationBucketName, String destinationKeyPrefix) {
+        return doCopyDirectory(sourceBucketName, sourceKeyPrefix, destinationBucketName,
+                destinationKeyPrefix, s3, false);
+    }
+
+    /**
+     * Copies a virtual directory like
+     * {@link #copyDirectory(String, String, String, String)}, listing the
+     * source with a client for the region of the source bucket.
+     *
+     * @param sourceBucketName
+     *            The bucket containing the virtual directory to copy.
+     * @param sourceKeyPrefix
+     *            The key prefix of the virtual directory to copy, or null for
+     *            the entire bucket.
+     * @param destinationBucketName
+     *            The bucket to copy the objects to.
+     * @param destinationKeyPrefix
+     *            The key prefix of the virtual directory to copy the objects
+     *            to, or null for the root of the bucket.
+     * @param srcS3
+     *            An AmazonS3 client constructed for the region in which the
+     *            source bucket is located.
+     * @return A new <code>MultipleCopy</code> object to use to check the state
+     *         of the copy.
+     */
+    public MultipleCopy copyDirectory(String sourceBucketName, String sourceKeyPrefix,
+            String destinationBucketName, String destinationKeyPrefix, AmazonS3 srcS3) {
+        return doCopyDirectory(sourceBucketName, sourceKeyPrefix, destinationBucketName,
+                destinationKeyPrefix, srcS3, false);
+    }
+
+    /**
+     * <p>
+     * Copies the objects in the virtual directory designated by the source key
+     * prefix that are missing or out of date in the virtual directory
+     * designated by the destination key prefix, like
+     * {@link #copyDirectory(String, String, String, String)}. The destination
+     * is listed alongside the source, and an object is considered up to date
+     * if its copy has the same size and ETag. Since the ETag of an object
+     * uploaded or copied in parts is not the MD5 digest of its content, when
+     * either ETag is that of a multipart object the copy is instead considered
+     * up to date if it has the same size and was last modified no earlier than
+     * the source object.
+     * </p>
+     * <p>
+     * Objects in the destination that are not in the source are left in
+     * place.
+     * </p>
+     *
+     * @param sourceBucketName
+     *            The bucket containing the virtual directory to copy.
+     * @param sourceKeyPrefix
+     *            The key prefix of the virtual directory to copy, or null for
+     *            the entire bucket.
+     * @param destinationBucketName
+     *            The bucket to copy the objects to.
+     * @param destinationKeyPrefix
+     *            The key prefix of the virtual directory to copy the objects
+     *            to, or null for the root of the bucket.
+     * @return A new <code>MultipleCopy</code> object to use to check the state
+     *         of the copy.
+     */
+    public MultipleCopy syncDirectory(String sourceBucketName, String sourceKeyPrefix,
+            String destinationBucketName, String destinationKeyPrefix) {
+        return doCopyDirectory(sourceBucketName, sourceKeyPrefix, destinationBucketName,
+                destinationKeyPrefix, s3, true);
+    }
+
+    /**
+     * Synchronizes a virtual directory like
+     * {@link #syncDirectory(String, String, String, String)}, listing the
+     * source with a client for the region of the source bucket.
+     *
+     * @param sourceBucketName
+     *            The bucket containing the virtual directory to copy.
+     * @param sourceKeyPrefix
+     *            The key prefix of the virtual directory to copy, or null for
+     *            the entire bucket.
+     * @param destinationBucketName
+     *            The bucket to copy the objects to.
+     * @param destinationKeyPrefix
+     *            The key prefix of the virtual directory to copy the objects
+     *            to, or null for the root of the bucket.
+     * @param srcS3
+     *            An AmazonS3 client constructed for the region in which the
+     *            source bucket is located.
+     * @return A new <code>MultipleCopy</code> object to use to check the state
+     *         of the copy.
+     */
+    public MultipleCopy syncDirectory(String sourceBucketName, String sourceKeyPrefix,
+            String destinationBucketName, String destinationKeyPrefix, AmazonS3 srcS3) {
+        return doCopyDirectory(sourceBucketName, sourceKeyPrefix, destinationBucketName,
+                destinationKeyPrefix, srcS3, true);
+    }
+
+    private MultipleCopy doCopyDirectory(final String sourceBucketName, String sourceKeyPrefix,
+            final String destinationBucketName, String destinationKeyPrefix,
+            final AmazonS3 srcS3, final boolean skipUpToDate) {
+        assertParameterNotNull(sourceBucketName,
+                "The source bucket name must be specified when a directory copy is initiated.");
+        assertParameterNotNull(destinationBucketName,
+                "The destination bucket name must be specified when a directory copy is initiated.");
+        assertParameterNotNull(srcS3, "The srcS3 parameter is mandatory");
+        // Compare and list whole virtual directories, so that "data" neither
+        // contains "data-backup/" nor picks up the objects under it
+        final String sourcePrefix = normalizeVirtualDirectoryKeyPrefix(sourceKeyPrefix);
+        final String destinationPrefix = normalizeVirtualDirectoryKeyPrefix(destinationKeyPrefix);
+        if ( sourceBucketName.equals(destinationBucketName) && destinationPrefix.startsWith(sourcePrefix) ) {
+            throw new IllegalArgumentException(
+                    "The destination of a directory copy must not be within the directory being copied");
+        }
+
+        /* This is the hook for adding additional progress listeners */
+        ProgressListenerChain additionalListeners = new ProgressListenerChain();
+
+        final TransferProgress transferProgress = new TransferProgress();
+        transferProgress.setTotalBytesToTransfer(0);
+        final ProgressListener listener = new MultipleFileTransferProgressUpdatingListener(
+                transferProgress, additionalListeners);
+
+        final Collection<CopyImpl> copies = new ConcurrentLinkedQueue<CopyImpl>();
+
+        String description = (skipUpToDate ? "Synchronizing " : "Copying ")
+                + sourceBucketName + "/" + sourcePrefix + " to "
+                + destinationBucketName + "/" + destinationPrefix;
+        final MultipleCopyImpl multipleCopy = new MultipleCopyImpl(description, transferProgress,
+                additionalListeners, sourceBucketName, sourcePrefix, destinationBucketName,
+                destinationPrefix, copies);
+        multipleCopy.setMonitor(new MultipleFileTransferMonitor(multipleCopy, copies));
+        multipleCopy.startQueuingSubTransfers();
+
+        final MultipleFileTransferStateChangeListener transferListener =
+                new MultipleFileTransferStateChangeListener(new CountDownLatch(0), multipleCopy);
+        int queueSize = configuration.getDirectoryTransferQueueSize();
+        final Semaphore queueSlots = new Semaphore(queueSize > 0
+                ? queueSize : TransferManagerConfiguration.DEFAULT_DIRECTORY_COPY_QUEUE_SIZE);
+
+        listingThreadPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                Exception failure = null;
+                try {
+                    listAndCopy(sourceBucketName, sourcePrefix, destinationBucketName,
+                            destinationPrefix, srcS3, skipUpToDate, multipleCopy, copies,
+                            transferProgress, listener, transferListener, queueSlots);
+                } catch (Exception e) {
+                    log.debug("Unable to list " + sourceBucketName + "/" + sourcePrefix + " for copy", e);
+                    failure = e;
+                }
+                multipleCopy.finishQueuingSubTransfers(failure);
+            }
+        });
+        return multipleCopy;
+    }
+
+    /**
+     * Lists the source virtual directory, and the destination one alongside
+     * it if up to date objects are to be skipped, starting a copy for each
+     * source object to be copied once a slot in the queue is free.
+     */
+    private void listAndCopy(String sourceBucketName, String sourcePrefix,
+            String destinationBucketName, String destinationPrefix, AmazonS3 srcS3,
+            boolean skipUpToDate, MultipleCopyImpl multipleCopy, Collection<CopyImpl> copies,
+            TransferProgress transferProgress,
+            final ProgressListener listener, final TransferStateChangeListener transferListener,
+            final Semaphore queueSlots) throws Exception {
+        Iterator<S3ObjectSummary> sources = S3Objects.withPrefix(srcS3, sourceBucketName, sourcePrefix)
+                .withPrefetchDepth(1).iterator();
+        Iterator<S3ObjectSummary> destinations = null;
+        S3ObjectSummary destination = null;
+        if ( skipUpToDate ) {
+            destinations = S3Objects.withPrefix(s3, destinationBucketName, destinationPrefix)
+                    .withPrefetchDepth(1).iterator();
+            destination = destinations.hasNext() ? destinations.next() : null;
+        }
+        long totalSize = 0;
+        while ( sources.hasNext() ) {
+            S3ObjectSummary source = sources.next();
+            String destinationKey = destinationPrefix + source.getKey().substring(sourcePrefix.length());
+            if ( destinations != null ) {
+                // Both listings are in key order, and the keys of either
+                // share their prefix, so the destination listing only ever
+                // needs to move forward.
+                while ( destination != null && destination.getKey().compareTo(destinationKey) < 0 ) {
+                    destination = destinations.hasNext() ? destinations.next() : null;
+                }
+                if ( destination != null && destination.getKey().equals(destinationKey)
+                        && isUpToDate(source, destination) ) {
+                    log.debug("Skipping copy of object " + source.getKey()
+                            + " since it is up to date at " + destinationKey);
+                    continue;
+                }
+            }
+            totalSize += source.getSize();
+            transferProgress.setTotalBytesToTransfer(totalSize);
+
+            queueSlots.acquire();
+            if ( multipleCopy.isQueuingCanceled() ) {
+                return;
+            }
+            CopyObjectRequest req = new CopyObjectRequest(sourceBucketName, source.getKey(),
+                    destinationBucketName, destinationKey);
+            appendSingleObjectUserAgent(req);
+            // A copy in parts looks up the content type and encryption
+            // metadata it carries over itself, on the transfer thread pool,
+            // so that listing isn't held up by a request per object.
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(source.getSize());
+            final long size = source.getSize();
+            final TransferStateChangeListener queuedListener =
+                    new QueuedSubTransferStateChangeListener(transferListener, queueSlots);
+            CopyImpl copy = doCopy(req, metadata, srcS3, new TransferStateChangeListener() {
+                @Override
+                public void transferStateChanged(Transfer transfer, TransferState state) {
+                    // Amazon S3 reports no progress within a copy
+                    if ( state == TransferState.Completed ) {
+                        publishRequestBytesTransferred(listener, size);
+                    }
+                    queuedListener.transferStateChanged(transfer, state);
+                }
+            });
+            copies.add(copy);
+            // An abort may have missed a copy added while it ran
+            if ( multipleCopy.isQueuingCanceled() ) {
+                copy.abort();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the copy of the source object at the destination is up
+     * to date.
+     */
+    static boolean isUpToDate(S3ObjectSummary source, S3ObjectSummary destination) {
+        if ( source.getSize() != destination.getSize() ) {
+            return false;
+        }
+        String sourceETag = source.getETag();
+        String destinationETag = destination.getETag();
+        if ( sourceETag != null && sourceETag.equals(destinationETag) ) {
+            return true;
+        }
+        if ( isMultipartETag(sourceETag) || isMultipartETag(destinationETag) ) {
+            return source.getLastModified() != null && destination.getLastModified() != null
+                    && !destination.getLastModified().before(source.getLastModified());
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the ETag is that of an object uploaded in parts, rather
+     * than the MD5 digest of its content.
+     */
+    private static boolean isMultipartETag(String eTag) {
+        return eTag != null && eTag.indexOf('-') >= 0;
+    }
+
+    /**
+     * <p>
+     * Schedules the deletion of the given objects from an Amazon S3 bucket.
+     * This method is non-blocking and returns immediately (i.e. before the
+     * objects have been deleted).
+     * </p>
+     * <p>
+     * The keys are consumed as the deletion proceeds, so they can be produced
+     * lazily, for example straight from a listing, and are deleted in batches
+     * of quiet multi-object delete requests of up to 1000 keys each. Up to
+     * {@link TransferManagerConfiguration#getBulkDeleteConcurrency()} of these
+     * requests are in flight at once. Keys that fail to be deleted with a
+     * retryable error code, such as <code>SlowDown</code>, are retried on
+     * their own. The keys that still could not be deleted, and the batches
+     * whose request failed as a whole, don't stop the deletion; they are
+     * returned as the
+     * {@link com.amazonaws.services.s3.transfer.model.BulkDeleteResult#getFailedBatches()
+     * failed batches} of the result.
+     * </p>
+     * <p>
+     * Use the returned <code>BulkDelete</code> object to check if the deletion
+     * is complete. Its progress counts objects rather than bytes; if the keys
+     * are given as a {@link Collection}, its size is the total to transfer.
+     * </p>
+     *
+     * @param bucketName
+     *            The name of the bucket to delete the objects from.
+     * @param keys
+     *            The keys, and optionally the versions, of the objects to
+     *            delete.
+     * @return A new <code>BulkDelete</code> object to use to check the state of
+     *         the deletion.
+     */
+    public BulkDelete deleteObjects(String bucketName, Iterable<KeyVersion> keys) {
+        assertParameterNotNull(bucketName,
+                "The bucket name must be specified when a bulk delete is initiated.");
+        assertParameterNotNull(keys,
+                "The keys must be specified when a bulk delete is initiated.");
+
+        TransferProgress transferProgress = new TransferProgress();
+        if (keys instanceof Collection) {
+            transferProgress.setTotalBytesToTransfer(((Collection<?>) keys).size());
+        }
+        return doDeleteObjects("Deleting objects from " + bucketName,
+                bucketName, keys, transferProgress);
+    }
+
+    /**
+     * <p>
+     * Schedules the deletion of all the objects in an Amazon S3 bucket whose
+     * keys begin with the given prefix. This method is non-blocking and returns
+     * immediately (i.e. before the objects have been deleted).
+     * </p>
+     * <p>
+     * The prefix is listed as the deletion proceeds, one page ahead of the
+     * batches being deleted, which are deleted as described in
+     * {@link #deleteObjects(String, Iterable)}.
+     * </p>
+     *
+     * @param bucketName
+     *            The name of the bucket to delete the objects from.
+     * @param prefix
+     *            The prefix of the keys of the objects to delete, or null to
+     *            delete all the objects in the bucket.
+     * @return A new <code>BulkDelete</code> object to use to check the state of
+     *         the deletion.
+     */
+    public BulkDelete deleteObjectsWithPrefix(String bucketName, String prefix) {
+        assertParameterNotNull(bucketName,
+                "The bucket name must be specified when a bulk delete is initiated.");
+
+        final S3Objects objects = S3Objects.withPrefix(s3, bucketName, prefix)
+                .withPrefetchDepth(1);
+        Iterable<KeyVersion> keys = new Iterable<KeyVersion>() {
+            public Iterator<KeyVersion> iterator() {
+                final Iterator<S3ObjectSummary> summaries = objects.iterator();
+                return new Iterator<KeyVersion>() {
+                    public boolean hasNext() {
+                        return summaries.hasNext();
+                    }
+
+                    public KeyVersion next() {
+                        return new KeyVersion(summaries.next().getKey());
+                    }
+
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+        };
+        return doDeleteObjects("Deleting objects from " + bucketName + "/"
+                + (prefix == null ? "" : prefix), bucketName, keys,
+                new TransferProgress());
+    }
+
+    private BulkDelete doDeleteObjects(String description, String bucketName,
+            Iterable<KeyVersion> keys, TransferProgress transferProgress) {
+        ProgressListenerChain listenerChain = new ProgressListenerChain(
+                new BulkDeleteProgressUpdatingListener(transferProgress));
+        BulkDeleteImpl bulkDelete = new BulkDeleteImpl(description,
+                transferProgress, listenerChain, null);
+        BulkDeleteCallable bulkDeleteCallable = new BulkDeleteCallable(s3,
+                executorService, bulkDelete, bucketName, keys,
+                configuration.getBulkDeleteConcurrency(), listenerChain);
+        BulkDeleteMonitor watcher = BulkDeleteMonitor.create(bulkDelete,
+                executorService, bulkDeleteCallable, listenerChain);
+        bulkDelete.setMonitor(watcher);
+        return bulkDelete;
+    }
+
     /**
      * Resumes an upload operation. This upload operation uses the same
      * configuration {@link TransferManagerConfiguration} as the original
@@ -1874,7 +2638,8 @@ public class TransferManager {
         return doDownload(request, new File(persistableDownload.getFile()), null, null,
                 APPEND_MODE, 0,
                 persistableDownload.getLastFullyDownloadedPartNumber(),
-                persistableDownload.getlastModifiedTime());
+                persistableDownload.getlastModifiedTime(), false,
+                persistableDownload.getDownloadRangeSize());
     }
 
     /**
@@ -54,6 +54,18 @@ public final class TransferManagerBuilder {
 
     private Long multipartCopyPartSize;
 
+    private Long downloadRangeSize;
+
+    private Integer streamingUploadConcurrency;
+
+    private Integer directoryTransferQueueSize;
+
+    private Integer encryptedUploadConcurrency;
+
+    private Integer bulkDeleteConcurrency;
+
+    private Integer adaptiveUploadConcurrency;
+
     /**
      * @return Create new instance of builder with all defaults set.
      */
@@ -319,6 +331,210 @@ public final class TransferManagerBuilder {
         return this;
     }
 
+    /**
+     * @return The download range size currently configured in the builder.
+     */
+    public final Long getDownloadRangeSize() {
+        return downloadRangeSize;
+    }
+
+    /**
+     * Sets the size in bytes of each byte range fetched by a ranged parallel download. When set,
+     * objects larger than this size are downloaded with concurrent ranged GET requests whose data
+     * is written directly to its offset in the destination file. Zero, the default, disables
+     * ranged downloads.
+     *
+     * @param downloadRangeSize Size of each range of a ranged parallel download
+     * @see TransferManagerConfiguration#setDownloadRangeSize(long)
+     */
+    public final void setDownloadRangeSize(Long downloadRangeSize) {
+        this.downloadRangeSize = downloadRangeSize;
+    }
+
+    /**
+     * Sets the size in bytes of each byte range fetched by a ranged parallel download. When set,
+     * objects larger than this size are downloaded with concurrent ranged GET requests whose data
+     * is written directly to its offset in the destination file. Zero, the default, disables
+     * ranged downloads.
+     *
+     * @param downloadRangeSize Size of each range of a ranged parallel download
+     * @return This object for method chaining.
+     * @see TransferManagerConfiguration#setDownloadRangeSize(long)
+     */
+    public final TransferManagerBuilder withDownloadRangeSize(Long downloadRangeSize) {
+        setDownloadRangeSize(downloadRangeSize);
+        return this;
+    }
+
+    /**
+     * @return The streaming upload concurrency currently configured in the builder.
+     */
+    public final Integer getStreamingUploadConcurrency() {
+        return streamingUploadConcurrency;
+    }
+
+    /**
+     * Sets the number of part buffers used to upload streams of unknown length as concurrent
+     * multipart upload parts. Each buffer holds one part of the minimum upload part size, so memory
+     * use is bounded by the part size times this value. Zero, the default, disables streaming
+     * uploads.
+     *
+     * @param streamingUploadConcurrency Number of parts of a streaming upload buffered at once
+     * @see TransferManagerConfiguration#setStreamingUploadConcurrency(int)
+     */
+    public final void setStreamingUploadConcurrency(Integer streamingUploadConcurrency) {
+        this.streamingUploadConcurrency = streamingUploadConcurrency;
+    }
+
+    /**
+     * Sets the number of part buffers used to upload streams of unknown length as concurrent
+     * multipart upload parts. Each buffer holds one part of the minimum upload part size, so memory
+     * use is bounded by the part size times this value. Zero, the default, disables streaming
+     * uploads.
+     *
+     * @param streamingUploadConcurrency Number of parts of a streaming upload buffered at once
+     * @return This object for method chaining.
+     * @see TransferManagerConfiguration#setStreamingUploadConcurrency(int)
+     */
+    public final TransferManagerBuilder withStreamingUploadConcurrency(Integer streamingUploadConcurrency) {
+        setStreamingUploadConcurrency(streamingUploadConcurrency);
+        return this;
+    }
+
+    /**
+     * @return The directory transfer queue size currently configured in the builder.
+     */
+    public final Integer getDirectoryTransferQueueSize() {
+        return directoryTransferQueueSize;
+    }
+
+    /**
+     * Sets the number of sub-transfers a directory upload or download may have queued or in
+     * progress while it is still listing the directory. When set, directory transfers start
+     * transferring objects or files as soon as they are listed instead of listing the whole
+     * directory first. Zero, the default, lists the entire directory before starting any transfer.
+     *
+     * @param directoryTransferQueueSize Number of outstanding sub-transfers while listing
+     * @see TransferManagerConfiguration#setDirectoryTransferQueueSize(int)
+     */
+    public final void setDirectoryTransferQueueSize(Integer directoryTransferQueueSize) {
+        this.directoryTransferQueueSize = directoryTransferQueueSize;
+    }
+
+    /**
+     * Sets the number of sub-transfers a directory upload or download may have queued or in
+     * progress while it is still listing the directory. When set, directory transfers start
+     * transferring objects or files as soon as they are listed instead of listing the whole
+     * directory first. Zero, the default, lists the entire directory before starting any transfer.
+     *
+     * @param directoryTransferQueueSize Number of outstanding sub-transfers while listing
+     * @return This object for method chaining.
+     * @see TransferManagerConfiguration#setDirectoryTransferQueueSize(int)
+     */
+    public final TransferManagerBuilder withDirectoryTransferQueueSize(Integer directoryTransferQueueSize) {
+        setDirectoryTransferQueueSize(directoryTransferQueueSize);
+        return this;
+    }
+
+    /**
+     * @return The encrypted upload concurrency currently configured in the builder.
+     */
+    public final Integer getEncryptedUploadConcurrency() {
+        return encryptedUploadConcurrency;
+    }
+
+    /**
+     * Sets the number of parts of an upload through the Amazon S3 encryption client that may be
+     * encrypted ahead and in flight at once. When set, encrypted parts are still encrypted in
+     * order but uploaded concurrently from temporary files. Zero, the default, uploads encrypted
+     * parts one at a time.
+     *
+     * @param encryptedUploadConcurrency Number of encrypted parts in flight at once
+     * @see TransferManagerConfiguration#setEncryptedUploadConcurrency(int)
+     */
+    public final void setEncryptedUploadConcurrency(Integer encryptedUploadConcurrency) {
+        this.encryptedUploadConcurrency = encryptedUploadConcurrency;
+    }
+
+    /**
+     * Sets the number of parts of an upload through the Amazon S3 encryption client that may be
+     * encrypted ahead and in flight at once. When set, encrypted parts are still encrypted in
+     * order but uploaded concurrently from temporary files. Zero, the default, uploads encrypted
+     * parts one at a time.
+     *
+     * @param encryptedUploadConcurrency Number of encrypted parts in flight at once
+     * @return This object for method chaining.
+     * @see TransferManagerConfiguration#setEncryptedUploadConcurrency(int)
+     */
+    public final TransferManagerBuilder withEncryptedUploadConcurrency(Integer encryptedUploadConcurrency) {
+        setEncryptedUploadConcurrency(encryptedUploadConcurrency);
+        return this;
+    }
+
+    /**
+     * @return The bulk delete concurrency currently configured in the builder.
+     */
+    public final Integer getBulkDeleteConcurrency() {
+        return bulkDeleteConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of multi-object delete requests, of up to 1000 keys each, that a
+     * bulk delete may have in flight at once. Defaults to 10.
+     *
+     * @param bulkDeleteConcurrency Number of delete requests in flight at once
+     * @see TransferManagerConfiguration#setBulkDeleteConcurrency(int)
+     */
+    public final void setBulkDeleteConcurrency(Integer bulkDeleteConcurrency) {
+        this.bulkDeleteConcurrency = bulkDeleteConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of multi-object delete requests, of up to 1000 keys each, that a
+     * bulk delete may have in flight at once. Defaults to 10.
+     *
+     * @param bulkDeleteConcurrency Number of delete requests in flight at once
+     * @return This object for method chaining.
+     * @see TransferManagerConfiguration#setBulkDeleteConcurrency(int)
+     */
+    public final TransferManagerBuilder withBulkDeleteConcurrency(Integer bulkDeleteConcurrency) {
+        setBulkDeleteConcurrency(bulkDeleteConcurrency);
+        return this;
+    }
+
+    /**
+     * @return The adaptive upload concurrency currently configured in the builder.
+     */
+    public final Integer getAdaptiveUploadConcurrency() {
+        return adaptiveUploadConcurrency;
+    }
+
+    /**
+     * Enables adaptive tuning of the part size and number of parts in flight of multipart
+     * uploads, with at most the given number of parts of an upload in flight at once. Zero, the
+     * default, disables adaptive tuning.
+     *
+     * @param adaptiveUploadConcurrency Maximum number of parts of an upload in flight at once
+     * @see TransferManagerConfiguration#setAdaptiveUploadConcurrency(int)
+     */
+    public final void setAdaptiveUploadConcurrency(Integer adaptiveUploadConcurrency) {
+        this.adaptiveUploadConcurrency = adaptiveUploadConcurrency;
+    }
+
+    /**
+     * Enables adaptive tuning of the part size and number of parts in flight of multipart
+     * uploads, with at most the given number of parts of an upload in flight at once. Zero, the
+     * default, disables adaptive tuning.
+     *
+     * @param adaptiveUploadConcurrency Maximum number of parts of an upload in flight at once
+     * @return This object for method chaining.
+     * @see TransferManagerConfiguration#setAdaptiveUploadConcurrency(int)
+     */
+    public final TransferManagerBuilder withAdaptiveUploadConcurrency(Integer adaptiveUploadConcurrency) {
+        setAdaptiveUploadConcurrency(adaptiveUploadConcurrency);
+        return this;
+    }
+
     private TransferManagerConfiguration resolveConfiguration() {
         TransferManagerConfiguration configuration = new TransferManagerConfiguration();
         if (this.minimumUploadPartSize != null) {
@@ -333,6 +549,24 @@ public final class TransferManagerBuilder {
         if (this.multipartUploadThreshold != null) {
             configuration.setMultipartUploadThreshold(multipartUploadThreshold);
         }
+        if (this.downloadRangeSize != null) {
+            configuration.setDownloadRangeSize(downloadRangeSize);
+        }
+        if (this.streamingUploadConcurrency != null) {
+            configuration.setStreamingUploadConcurrency(streamingUploadConcurrency);
+        }
+        if (this.directoryTransferQueueSize != null) {
+            configuration.setDirectoryTransferQueueSize(directoryTransferQueueSize);
+        }
+        if (this.encryptedUploadConcurrency != null) {
+            configuration.setEncryptedUploadConcurrency(encryptedUploadConcurrency);
+        }
+        if (this.bulkDeleteConcurrency != null) {
+            configuration.setBulkDeleteConcurrency(bulkDeleteConcurrency);
+        }
+        if (this.adaptiveUploadConcurrency != null) {
+            configuration.setAdaptiveUploadConcurrency(adaptiveUploadConcurrency);
+        }
         return configuration;
     }
 
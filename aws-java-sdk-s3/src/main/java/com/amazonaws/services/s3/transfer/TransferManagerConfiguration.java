@@ -45,6 +45,12 @@ public class TransferManagerConfiguration {
     @SdkTestInternalApi
     static final long DEFAULT_MINIMUM_COPY_PART_SIZE = 100 * MB;
 
+    /** Default number of outstanding copies of a directory copy while listing. */
+    static final int DEFAULT_DIRECTORY_COPY_QUEUE_SIZE = 100;
+
+    /** Default maximum number of delete requests a bulk delete has in flight. */
+    static final int DEFAULT_BULK_DELETE_CONCURRENCY = 10;
+
     /**
      * The minimum part size for upload parts. Decreasing the minimum part size
      * will cause multipart uploads to be split into a larger number of smaller
@@ -101,6 +107,51 @@ public class TransferManagerConfiguration {
      */
     private boolean disableParallelDownloads = false;
 
+    /**
+     * The size in bytes of each byte range fetched by a ranged parallel
+     * download, or zero (the default) to disable ranged downloads.
+     * <p>
+     * When set, any object larger than this size is downloaded with
+     * concurrent ranged GET requests, whether or not it was uploaded in parts,
+     * and each range is written directly to its offset in the destination
+     * file without going through temporary files.
+     * </p>
+     */
+    private long downloadRangeSize = 0;
+
+    /**
+     * The number of part buffers used to upload a stream of unknown length as
+     * concurrent multipart upload parts, or zero (the default) to disable
+     * streaming uploads.
+     */
+    private int streamingUploadConcurrency = 0;
+
+    /**
+     * The number of sub-transfers a directory upload or download may have
+     * queued or in progress while it is still listing the directory, or zero
+     * (the default) to list the entire directory before starting any of them.
+     */
+    private int directoryTransferQueueSize = 0;
+
+    /**
+     * The number of parts of an upload through the Amazon S3 encryption
+     * client that may be encrypted ahead and in flight at once, or zero (the
+     * default) to upload encrypted parts one at a time.
+     */
+    private int encryptedUploadConcurrency = 0;
+
+    /**
+     * The maximum number of multi-object delete requests a bulk delete may
+     * have in flight at once.
+     */
+    private int bulkDeleteConcurrency = DEFAULT_BULK_DELETE_CONCURRENCY;
+
+    /**
+     * The maximum number of parts of an upload that adaptive tuning may have
+     * in flight at once, or zero (the default) to disable adaptive tuning.
+     */
+    private int adaptiveUploadConcurrency = 0;
+
     /**
      * Returns the minimum part size for upload parts.
      * Decreasing the minimum part size causes
@@ -292,4 +343,275 @@ public class TransferManagerConfiguration {
     public void setDisableParallelDownloads(boolean disableParallelDownloads) {
         this.disableParallelDownloads = disableParallelDownloads;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the size in bytes of each byte range fetched by a ranged
+     * parallel download, or zero if ranged downloads are disabled (the
+     * default).
+     *
+     * @return The size in bytes of each range of a ranged parallel download.
+     */
+    public long getDownloadRangeSize() {
+        return downloadRangeSize;
+    }
+
+    /**
+     * Sets the size in bytes of each byte range fetched by a ranged parallel
+     * download. Zero, the default, disables ranged downloads.
+     *
+     * <p>
+     * When enabled, {@link TransferManager} splits any object larger than this
+     * size into byte ranges, fetches them concurrently with ranged GET
+     * requests and writes each one straight to its offset in the destination
+     * file. Unlike the part based parallel download this works for objects
+     * uploaded with a single PUT, and needs no temporary files or merge pass.
+     * It takes precedence over the part based download when both apply, and
+     * is turned off along with it by {@link #setDisableParallelDownloads(boolean)}.
+     * </p>
+     * <p>
+     * Objects downloaded this way are not checked against their MD5 ETag,
+     * but every range request is conditional on the ETag returned when the
+     * download started, so the download fails rather than mixing two
+     * versions of an object modified while it is in progress.
+     * </p>
+     *
+     * @param downloadRangeSize
+     *            The size in bytes of each range, or zero to disable ranged
+     *            downloads.
+     */
+    public void setDownloadRangeSize(long downloadRangeSize) {
+        if (downloadRangeSize < 0) {
+            throw new IllegalArgumentException("The download range size must not be negative");
+        }
+        this.downloadRangeSize = downloadRangeSize;
+    }
+
+    /**
+     * Returns the number of part buffers used to upload streams of unknown
+     * length as concurrent multipart upload parts, or zero if streaming
+     * uploads are disabled (the default).
+     *
+     * @return The number of parts of a streaming upload that may be buffered
+     *         and in flight at once.
+     */
+    public int getStreamingUploadConcurrency() {
+        return streamingUploadConcurrency;
+    }
+
+    /**
+     * Sets the number of part buffers used to upload streams of unknown
+     * length as concurrent multipart upload parts. Zero, the default, disables
+     * streaming uploads.
+     *
+     * <p>
+     * By default an upload from an {@link java.io.InputStream} without a
+     * content length is sent as a single PUT, which requires the SDK to buffer
+     * the entire stream in memory first. When streaming uploads are enabled,
+     * {@link TransferManager} instead reads the stream into buffers of the
+     * {@link #getMinimumUploadPartSize() minimum upload part size} and uploads
+     * each one as a part while the next is being read, reusing a buffer once
+     * its part has been sent. At most this many buffers are ever allocated, so
+     * memory use is bounded by the minimum upload part size times this value
+     * regardless of the length of the stream. A stream that ends before the
+     * first buffer is full is uploaded with a single PUT.
+     * </p>
+     * <p>
+     * Since a multipart upload can have at most 10,000 parts, the minimum
+     * upload part size limits the largest stream that can be uploaded this
+     * way. Streaming uploads are not used with the Amazon S3 encryption client,
+     * which must upload parts in order.
+     * </p>
+     *
+     * @param streamingUploadConcurrency
+     *            The number of parts of a streaming upload that may be
+     *            buffered and in flight at once, or zero to disable streaming
+     *            uploads.
+     */
+    public void setStreamingUploadConcurrency(int streamingUploadConcurrency) {
+        if (streamingUploadConcurrency < 0) {
+            throw new IllegalArgumentException("The streaming upload concurrency must not be negative");
+        }
+        this.streamingUploadConcurrency = streamingUploadConcurrency;
+    }
+
+    /**
+     * Returns the number of sub-transfers a directory upload or download may
+     * have queued or in progress while it is still listing the directory, or
+     * zero if the directory is listed in full before any transfer starts (the
+     * default).
+     *
+     * @return The number of outstanding sub-transfers of a directory transfer
+     *         that is still listing.
+     */
+    public int getDirectoryTransferQueueSize() {
+        return directoryTransferQueueSize;
+    }
+
+    /**
+     * Sets the number of sub-transfers a directory upload or download may
+     * have queued or in progress while it is still listing the directory.
+     * Zero, the default, lists the entire directory before starting any
+     * transfer.
+     *
+     * <p>
+     * By default {@link TransferManager#downloadDirectory(String, String, java.io.File)}
+     * and {@link TransferManager#uploadDirectory(String, String, java.io.File, boolean)}
+     * list every object or file up front, holding the whole listing in memory
+     * and transferring nothing until it is complete. When this is set, they
+     * return as soon as listing starts in the background, and each object or
+     * file begins transferring as soon as it is listed. Listing pauses while
+     * this many sub-transfers are outstanding, so memory use stays bounded and
+     * listing overlaps with the transfers instead of preceding them.
+     * </p>
+     * <p>
+     * Since the size of the directory is not known until listing finishes,
+     * the total bytes to transfer reported by the transfer's progress grows as
+     * objects or files are listed.
+     * </p>
+     * <p>
+     * {@link TransferManager#copyDirectory(String, String, String, String)}
+     * and {@link TransferManager#syncDirectory(String, String, String, String)}
+     * always copy objects while listing, with at most this many copies
+     * outstanding, or 100 if this is zero.
+     * </p>
+     *
+     * @param directoryTransferQueueSize
+     *            The number of outstanding sub-transfers of a directory
+     *            transfer that is still listing, or zero to list the entire
+     *            directory first.
+     */
+    public void setDirectoryTransferQueueSize(int directoryTransferQueueSize) {
+        if (directoryTransferQueueSize < 0) {
+            throw new IllegalArgumentException("The directory transfer queue size must not be negative");
+        }
+        this.directoryTransferQueueSize = directoryTransferQueueSize;
+    }
+
+    /**
+     * Returns the number of parts of an upload through the Amazon S3
+     * encryption client that may be encrypted ahead and in flight at once, or
+     * zero if encrypted parts are uploaded one at a time (the default).
+     *
+     * @return The number of encrypted parts that may be in flight at once.
+     */
+    public int getEncryptedUploadConcurrency() {
+        return encryptedUploadConcurrency;
+    }
+
+    /**
+     * Sets the number of parts of an upload through the Amazon S3 encryption
+     * client that may be encrypted ahead and in flight at once. Zero, the
+     * default, uploads encrypted parts one at a time.
+     *
+     * <p>
+     * Each encrypted part continues the cipher state of the part before it, so
+     * by default {@link TransferManager} uploads the parts of an encrypted
+     * multipart upload in series, at the speed of a single connection. When
+     * this is set and the client is an
+     * {@link com.amazonaws.services.s3.AmazonS3EncryptionClient}, the upload
+     * goes through
+     * {@link com.amazonaws.services.s3.AmazonS3EncryptionClient#uploadObject(com.amazonaws.services.s3.model.UploadObjectRequest)}
+     * instead: the content is still encrypted in order, but into temporary
+     * part files that are uploaded concurrently on the transfer manager's
+     * thread pool while the next part is being encrypted. Encryption pauses
+     * while this many parts are in flight, so the temporary disk space used is
+     * bounded by the upload part size times one more than this value. The
+     * resulting object is the same as one uploaded in series.
+     * </p>
+     * <p>
+     * Such uploads cannot be paused and resumed.
+     * </p>
+     *
+     * @param encryptedUploadConcurrency
+     *            The number of encrypted parts that may be in flight at once,
+     *            or zero to upload encrypted parts in series.
+     */
+    public void setEncryptedUploadConcurrency(int encryptedUploadConcurrency) {
+        if (encryptedUploadConcurrency < 0) {
+            throw new IllegalArgumentException("The encrypted upload concurrency must not be negative");
+        }
+        this.encryptedUploadConcurrency = encryptedUploadConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of multi-object delete requests, of up to
+     * 1000 keys each, that a bulk delete may have in flight at once.
+     *
+     * @return The maximum number of delete requests in flight at once.
+     *
+     * @see TransferManager#deleteObjects(String, Iterable)
+     */
+    public int getBulkDeleteConcurrency() {
+        return bulkDeleteConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of multi-object delete requests, of up to 1000
+     * keys each, that a bulk delete may have in flight at once. The requests
+     * run on the transfer manager's thread pool, so its size also limits how
+     * many of them actually run at once. Defaults to 10.
+     *
+     * @param bulkDeleteConcurrency
+     *            The maximum number of delete requests in flight at once.
+     *
+     * @see TransferManager#deleteObjects(String, Iterable)
+     */
+    public void setBulkDeleteConcurrency(int bulkDeleteConcurrency) {
+        if (bulkDeleteConcurrency < 1) {
+            throw new IllegalArgumentException("The bulk delete concurrency must be positive");
+        }
+        this.bulkDeleteConcurrency = bulkDeleteConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of parts of an upload that adaptive tuning
+     * may have in flight at once, or zero if adaptive tuning is disabled (the
+     * default).
+     *
+     * @return The maximum number of adaptively tuned parts in flight at once.
+     *
+     * @see TransferManager#getAdaptiveTuningMetrics()
+     */
+    public int getAdaptiveUploadConcurrency() {
+        return adaptiveUploadConcurrency;
+    }
+
+    /**
+     * Enables adaptive tuning of multipart uploads of files, with at most the
+     * given number of parts of each upload in flight at once. Zero, the
+     * default, disables adaptive tuning.
+     *
+     * <p>
+     * By default the parts of an upload are all the same size, computed from
+     * {@link #getMinimumUploadPartSize()}, and are all queued on the thread
+     * pool at once. With adaptive tuning, {@link TransferManager} instead
+     * measures how long each part takes to upload and how much throughput
+     * the parts in flight achieve together, and while the upload runs it
+     * grows parts that finish too quickly to amortize the cost of a request,
+     * shrinks parts that would be costly to retry, and raises the number of
+     * parts in flight for as long as doing so raises the throughput. Retried
+     * part requests halve the number of parts in flight. Once parts have
+     * grown past {@link #getMultipartUploadThreshold()}, files that fit in a
+     * single part are uploaded in a single request. What is learned
+     * carries over to later uploads, and is reported by
+     * {@link TransferManager#getAdaptiveTuningMetrics()}.
+     * </p>
+     * <p>
+     * Since the sizes of their parts are not known up front, adaptively tuned
+     * uploads cannot be paused and resumed. The thread pool must have at least
+     * this many threads for this many parts to be in flight at once.
+     * </p>
+     *
+     * @param adaptiveUploadConcurrency
+     *            The maximum number of parts of an upload in flight at once,
+     *            or zero to disable adaptive tuning.
+     *
+     * @see TransferManager#getAdaptiveTuningMetrics()
+     */
+    public void setAdaptiveUploadConcurrency(int adaptiveUploadConcurrency) {
+        if (adaptiveUploadConcurrency < 0) {
+            throw new IllegalArgumentException("The adaptive upload concurrency must not be negative");
+        }
+        this.adaptiveUploadConcurrency = adaptiveUploadConcurrency;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.services.s3.transfer.AdaptiveTuningMetrics;
+import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
+
+/**
+ * Tunes the part size and the number of parts in flight of the multipart
+ * uploads of a transfer manager from the time each part takes to upload.
+ * <p>
+ * The part size is doubled while parts of the current size upload in less
+ * than {@link #MIN_PART_NANOS}, so that the fixed cost of each request is
+ * amortized over more data, and halved, down to the configured minimum, while
+ * they take more than {@link #MAX_PART_NANOS}, so that retrying one stays
+ * cheap. The number of parts in flight is tuned by probing: once every part in
+ * flight has on average completed, the aggregate throughput since the last
+ * decision is measured, and one more part is allowed in flight, unless the
+ * previous increase raised the throughput by less than {@link #MIN_GAIN}, in
+ * which case it is taken back and held for {@link #HOLD_WINDOWS} measurements.
+ * Retried part requests halve the number of parts in flight and hold off any
+ * increase of either value until the next measurement.
+ * <p>
+ * Once parts have grown past the configured multipart upload threshold,
+ * objects that fit in a single part are uploaded in a single request.
+ * <p>
+ * What is learned carries over from one upload to the next.
+ */
+@SdkInternalApi
+public class AdaptiveUploadTuner implements AdaptiveTuningMetrics {
+    private static final Log log = LogFactory.getLog(AdaptiveUploadTuner.class);
+
+    /** Parts uploaded faster than this are grown. */
+    static final long MIN_PART_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    /** Parts uploaded slower than this are shrunk. */
+    static final long MAX_PART_NANOS = TimeUnit.SECONDS.toNanos(20);
+
+    /** The largest part size to grow to, which bounds the cost of a retry. */
+    static final long MAX_PART_SIZE = 512L * 1024 * 1024;
+
+    /** The number of parts in flight to start probing from. */
+    static final int INITIAL_CONCURRENCY = 4;
+
+    /** The throughput ratio an added part in flight must achieve to stay. */
+    static final double MIN_GAIN = 1.1;
+
+    /** The measurements to wait before probing again after a failed probe. */
+    static final int HOLD_WINDOWS = 4;
+
+    private long partSize;
+    private int concurrency;
+    private long throughput;
+
+    private long windowStart;
+    private long windowBytes;
+    private int windowParts;
+    private boolean windowRetried;
+    private double lastThroughput;
+    private boolean probing;
+    private int holdWindows;
+
+    private long partSizeIncreaseCount;
+    private long partSizeDecreaseCount;
+    private long concurrencyIncreaseCount;
+    private long concurrencyDecreaseCount;
+    private long retryCount;
+
+    /**
+     * Returns the size of the next part to upload, which is never less than
+     * the configured minimum upload part size.
+     */
+    public synchronized long nextPartSize(TransferManagerConfiguration configuration) {
+        if (partSize < configuration.getMinimumUploadPartSize()) {
+            partSize = configuration.getMinimumUploadPartSize();
+        }
+        return partSize;
+    }
+
+    /**
+     * Returns the size above which an upload is performed in parts: the
+     * configured multipart upload threshold, or the size of the next part if
+     * parts have grown past it, since such an upload would otherwise cost
+     * three requests for a single part.
+     */
+    public synchronized long multipartUploadThreshold(TransferManagerConfiguration configuration) {
+        return Math.max(configuration.getMultipartUploadThreshold(), nextPartSize(configuration));
+    }
+
+    /**
+     * Returns the number of parts an upload may currently have in flight,
+     * which is never more than the configured adaptive upload concurrency.
+     */
+    public synchronized int concurrencyLimit(TransferManagerConfiguration configuration) {
+        int max = Math.max(1, configuration.getAdaptiveUploadConcurrency());
+        if (concurrency == 0) {
+            concurrency = INITIAL_CONCURRENCY;
+        }
+        if (concurrency > max) {
+            concurrency = max;
+        }
+        return concurrency;
+    }
+
+    /**
+     * Records a part upload and adjusts the part size and number of parts in
+     * flight accordingly.
+     *
+     * @param bytes
+     *            The size of the part.
+     * @param nanos
+     *            The time the part took to upload, including any retries.
+     * @param retries
+     *            The number of retried requests observed since the last part
+     *            was recorded.
+     */
+    public void onPartUploaded(long bytes, long nanos, int retries,
+            TransferManagerConfiguration configuration) {
+        onPartUploaded(bytes, nanos, retries, configuration, System.nanoTime());
+    }
+
+    /**
+     * Records a part upload that completed at the given {@link System#nanoTime()}.
+     */
+    synchronized void onPartUploaded(long bytes, long nanos, int retries,
+            TransferManagerConfiguration configuration, long now) {
+        if (windowParts == 0) {
+            windowStart = now - nanos;
+        }
+        windowBytes += bytes;
+        windowParts++;
+
+        if (retries > 0) {
+            retryCount += retries;
+            windowRetried = true;
+            if (concurrency > 1) {
+                concurrency = Math.max(1, concurrency / 2);
+                concurrencyDecreaseCount++;
+                log.debug("Part requests were retried, reducing adaptive upload concurrency to " + concurrency);
+            }
+            // A probe cut short by retries tells nothing about the gain
+            probing = false;
+        }
+
+        // Only parts of the current size tell whether it is right
+        if (bytes == partSize) {
+            long minimumPartSize = configuration.getMinimumUploadPartSize();
+            if (nanos < MIN_PART_NANOS && !windowRetried && partSize < MAX_PART_SIZE) {
+                partSize = Math.min(partSize * 2, MAX_PART_SIZE);
+                partSizeIncreaseCount++;
+                log.debug("Increasing adaptive upload part size to " + partSize);
+            } else if (nanos > MAX_PART_NANOS && partSize > minimumPartSize) {
+                partSize = Math.max(partSize / 2, minimumPartSize);
+                partSizeDecreaseCount++;
+                log.debug("Decreasing adaptive upload part size to " + partSize);
+            }
+        }
+
+        if (windowParts < concurrency) {
+            return;
+        }
+        double windowThroughput = windowBytes * (double) TimeUnit.SECONDS.toNanos(1)
+                / Math.max(1, now - windowStart);
+        throughput = (long) windowThroughput;
+        int max = Math.max(1, configuration.getAdaptiveUploadConcurrency());
+        if (probing && windowThroughput < lastThroughput * MIN_GAIN) {
+            concurrency--;
+            concurrencyDecreaseCount++;
+            probing = false;
+            holdWindows = HOLD_WINDOWS;
+            log.debug("Throughput of " + throughput + " bytes/s did not improve enough, "
+                    + "reducing adaptive upload concurrency to " + concurrency);
+        } else if (holdWindows > 0) {
+            holdWindows--;
+            probing = false;
+        } else if (!windowRetried && concurrency < max) {
+            concurrency++;
+            concurrencyIncreaseCount++;
+            probing = true;
+            log.debug("Throughput is " + throughput
+                    + " bytes/s, increasing adaptive upload concurrency to " + concurrency);
+        } else {
+            probing = false;
+        }
+        lastThroughput = windowThroughput;
+        windowBytes = 0;
+        windowParts = 0;
+        windowRetried = false;
+    }
+
+    @Override
+    public synchronized long getPartSize() {
+        return partSize;
+    }
+
+    @Override
+    public synchronized int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public synchronized long getThroughput() {
+        return throughput;
+    }
+
+    @Override
+    public synchronized long getPartSizeIncreaseCount() {
+        return partSizeIncreaseCount;
+    }
+
+    @Override
+    public synchronized long getPartSizeDecreaseCount() {
+        return partSizeDecreaseCount;
+    }
+
+    @Override
+    public synchronized long getConcurrencyIncreaseCount() {
+        return concurrencyIncreaseCount;
+    }
+
+    @Override
+    public synchronized long getConcurrencyDecreaseCount() {
+        return concurrencyDecreaseCount;
+    }
+
+    @Override
+    public synchronized long getRetryCount() {
+        return retryCount;
+    }
+}
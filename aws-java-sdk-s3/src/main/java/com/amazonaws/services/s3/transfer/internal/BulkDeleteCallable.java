@@ -0,0 +1,211 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
+import static com.amazonaws.services.s3.transfer.internal.S3ProgressPublisher.publishObjectsDeleted;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult.FailedBatch;
+
+/**
+ * Deletes the objects of a bulk delete in batches of quiet multi-object delete
+ * requests, a bounded number of which are in flight at once. The keys that
+ * fail to be deleted with a retryable error are retried on their own. The
+ * rest of the failed keys, and the batches whose request failed as a whole,
+ * are recorded as {@link FailedBatch}es while the deletion carries on, and
+ * are returned in the result.
+ */
+public class BulkDeleteCallable implements Callable<BulkDeleteResult> {
+
+    /** The maximum number of keys in a multi-object delete request. */
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    /** The maximum number of times a key is retried. */
+    static final int MAX_KEY_RETRIES = 3;
+
+    /** The delay before the first retry of a batch; doubled on each retry. */
+    private static final long BASE_RETRY_DELAY_MILLIS = 100;
+
+    /** The per-key error codes worth retrying. */
+    private static final Set<String> RETRYABLE_ERROR_CODES = new HashSet<String>(
+            Arrays.asList("InternalError", "ServiceUnavailable", "SlowDown"));
+
+    private static final Log log = LogFactory.getLog(BulkDeleteCallable.class);
+
+    private final AmazonS3 s3;
+    private final ExecutorService threadPool;
+    private final BulkDeleteImpl bulkDelete;
+    private final String bucketName;
+    private final Iterable<KeyVersion> keys;
+    /** The maximum number of delete requests in flight at once. */
+    private final int concurrency;
+    private final ProgressListenerChain listenerChain;
+
+    private final AtomicLong deletedObjectCount = new AtomicLong();
+    /** The keys that could not be deleted. */
+    private final List<FailedBatch> failedBatches =
+            Collections.synchronizedList(new ArrayList<FailedBatch>());
+
+    public BulkDeleteCallable(AmazonS3 s3, ExecutorService threadPool,
+            BulkDeleteImpl bulkDelete, String bucketName,
+            Iterable<KeyVersion> keys, int concurrency,
+            ProgressListenerChain progressListenerChain) {
+        this.s3 = s3;
+        this.threadPool = threadPool;
+        this.bulkDelete = bulkDelete;
+        this.bucketName = bucketName;
+        this.keys = keys;
+        this.concurrency = concurrency;
+        this.listenerChain = progressListenerChain;
+    }
+
+    public BulkDeleteResult call() throws Exception {
+        bulkDelete.setState(TransferState.InProgress);
+        publishProgress(listenerChain, ProgressEventType.TRANSFER_STARTED_EVENT);
+
+        InFlightTasks<Void> inFlight = new InFlightTasks<Void>(threadPool);
+        try {
+            List<KeyVersion> batch = new ArrayList<KeyVersion>(MAX_KEYS_PER_REQUEST);
+            for (KeyVersion key : keys) {
+                batch.add(key);
+                if (batch.size() == MAX_KEYS_PER_REQUEST) {
+                    submitBatch(batch, inFlight);
+                    batch = new ArrayList<KeyVersion>(MAX_KEYS_PER_REQUEST);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submitBatch(batch, inFlight);
+            }
+            while (!inFlight.isEmpty()) {
+                inFlight.awaitAny();
+            }
+        } catch (Exception e) {
+            inFlight.cancelAll();
+            throw e;
+        }
+
+        BulkDeleteResult result = new BulkDeleteResult();
+        result.setBucketName(bucketName);
+        result.setDeletedObjectCount(deletedObjectCount.get());
+        synchronized (failedBatches) {
+            result.setFailedBatches(new ArrayList<FailedBatch>(failedBatches));
+        }
+        return result;
+    }
+
+    /**
+     * Submits the deletion of the given batch of keys, first waiting for a
+     * batch in flight to finish if there are already as many as allowed.
+     */
+    private void submitBatch(final List<KeyVersion> batch, InFlightTasks<Void> inFlight) {
+        while (inFlight.size() >= concurrency) {
+            inFlight.awaitAny();
+        }
+        inFlight.submit(new Callable<Void>() {
+            public Void call() throws Exception {
+                deleteBatch(batch);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Deletes the given batch of keys, retrying the keys that failed with a
+     * retryable error and recording the keys that could not be deleted.
+     */
+    private void deleteBatch(List<KeyVersion> batch) throws InterruptedException {
+        for (int retries = 0; ; retries++) {
+            DeleteObjectsRequest req = new DeleteObjectsRequest(bucketName)
+                    .withKeys(batch)
+                    .withQuiet(true);
+            TransferManager.appendSingleObjectUserAgent(req);
+            List<KeyVersion> retryKeys = new ArrayList<KeyVersion>();
+            int failed = 0;
+            try {
+                s3.deleteObjects(req);
+            } catch (MultiObjectDeleteException e) {
+                List<DeleteError> errors = new ArrayList<DeleteError>();
+                List<KeyVersion> errorKeys = new ArrayList<KeyVersion>();
+                for (DeleteError error : e.getErrors()) {
+                    KeyVersion key = new KeyVersion(error.getKey(), error.getVersionId());
+                    if (retries < MAX_KEY_RETRIES
+                            && RETRYABLE_ERROR_CODES.contains(error.getCode())) {
+                        retryKeys.add(key);
+                    } else {
+                        errors.add(error);
+                        errorKeys.add(key);
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    addFailedBatch(errorKeys, new MultiObjectDeleteException(errors,
+                            Collections.<DeletedObject>emptyList()));
+                }
+                failed = e.getErrors().size();
+            } catch (AbortedException e) {
+                throw e;
+            } catch (AmazonClientException e) {
+                log.debug("Unable to delete a batch of " + batch.size()
+                        + " keys from bucket " + bucketName, e);
+                addFailedBatch(batch, e);
+                return;
+            }
+            int deleted = batch.size() - failed;
+            deletedObjectCount.addAndGet(deleted);
+            publishObjectsDeleted(listenerChain, deleted);
+            if (retryKeys.isEmpty()) {
+                return;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Retrying the deletion of " + retryKeys.size()
+                        + " keys from bucket " + bucketName);
+            }
+            Thread.sleep(BASE_RETRY_DELAY_MILLIS << retries);
+            batch = retryKeys;
+        }
+    }
+
+    private void addFailedBatch(List<KeyVersion> keys, Exception exception) {
+        FailedBatch failedBatch = new FailedBatch();
+        failedBatch.setKeys(keys);
+        failedBatch.setException(exception);
+        failedBatches.add(failedBatch);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.transfer.BulkDelete;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult;
+
+/**
+ * An implementation of the BulkDelete Interface that helps in retrieving the
+ * result of the bulk delete operation.
+ */
+public class BulkDeleteImpl extends AbstractTransfer implements BulkDelete {
+
+    public BulkDeleteImpl(String description, TransferProgress transferProgress,
+            com.amazonaws.event.ProgressListenerChain progressListenerChain,
+            TransferStateChangeListener stateChangeListener) {
+        super(description, transferProgress, progressListenerChain,
+                stateChangeListener);
+    }
+
+    /**
+     * Waits for this bulk delete operation to complete and returns the result
+     * of the operation. Be prepared to handle errors when calling this method.
+     * Any errors that occurred during the asynchronous deletion will be
+     * re-thrown through this method.
+     *
+     * @return The result of this bulk delete.
+     *
+     * @throws AmazonClientException
+     *             If any errors were encountered in the client while making the
+     *             request or handling the response.
+     * @throws AmazonServiceException
+     *             If any errors occurred in Amazon S3 while processing the
+     *             request.
+     * @throws InterruptedException
+     *             If this thread is interrupted while waiting for the bulk
+     *             delete to complete.
+     */
+    public BulkDeleteResult waitForBulkDeleteResult() throws AmazonClientException,
+            AmazonServiceException, InterruptedException {
+        try {
+            BulkDeleteResult result = null;
+            while (!monitor.isDone() || result == null) {
+                Future<?> f = monitor.getFuture();
+                result = (BulkDeleteResult) f.get();
+            }
+            return result;
+        } catch (ExecutionException e) {
+            rethrowExecutionException(e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult;
+
+/**
+ * Monitors a bulk delete operation, and updates the state of the transfer
+ * once all of its batches have been deleted or it has failed. When waiting on
+ * the result of this class via a Future object, clients must call
+ * {@link BulkDeleteMonitor#isDone()} and {@link BulkDeleteMonitor#getFuture()}
+ */
+public class BulkDeleteMonitor implements Callable<BulkDeleteResult>, TransferMonitor {
+
+    private final BulkDeleteCallable bulkDeleteCallable;
+    private final BulkDeleteImpl transfer;
+    private final ProgressListenerChain listener;
+
+    /*
+     * State for clients wishing to poll for completion
+     */
+    private boolean isBulkDeleteDone = false;
+    private Future<BulkDeleteResult> future;
+
+    public synchronized Future<BulkDeleteResult> getFuture() {
+        return future;
+    }
+
+    private synchronized void setFuture(Future<BulkDeleteResult> future) {
+        this.future = future;
+    }
+
+    public synchronized boolean isDone() {
+        return isBulkDeleteDone;
+    }
+
+    private synchronized void markAllDone() {
+        isBulkDeleteDone = true;
+    }
+
+    /**
+     * Constructs a new watcher for a bulk delete operation, and then
+     * immediately submits it to the thread pool.
+     *
+     * @param transfer
+     *            The bulk delete being monitored.
+     * @param threadPool
+     *            The {@link ExecutorService} to which we should submit new
+     *            tasks.
+     * @param bulkDeleteCallable
+     *            The callable responsible for deleting the objects.
+     * @param progressListenerChain
+     *            The listeners of the progress of the bulk delete.
+     */
+    public static BulkDeleteMonitor create(
+            BulkDeleteImpl transfer,
+            ExecutorService threadPool,
+            BulkDeleteCallable bulkDeleteCallable,
+            ProgressListenerChain progressListenerChain) {
+
+        BulkDeleteMonitor bulkDeleteMonitor = new BulkDeleteMonitor(transfer,
+                bulkDeleteCallable, progressListenerChain);
+        bulkDeleteMonitor.setFuture(threadPool.submit(bulkDeleteMonitor));
+        return bulkDeleteMonitor;
+    }
+
+    private BulkDeleteMonitor(BulkDeleteImpl transfer,
+            BulkDeleteCallable bulkDeleteCallable,
+            ProgressListenerChain progressListenerChain) {
+        this.transfer = transfer;
+        this.bulkDeleteCallable = bulkDeleteCallable;
+        this.listener = progressListenerChain;
+    }
+
+    @Override
+    public BulkDeleteResult call() throws Exception {
+        try {
+            BulkDeleteResult result = bulkDeleteCallable.call();
+            markAllDone();
+            transfer.setState(TransferState.Completed);
+            publishProgress(listener, ProgressEventType.TRANSFER_COMPLETED_EVENT);
+            return result;
+        } catch (CancellationException e) {
+            markAllDone();
+            transfer.setState(TransferState.Canceled);
+            publishProgress(listener, ProgressEventType.TRANSFER_CANCELED_EVENT);
+            throw new SdkClientException("Bulk delete canceled");
+        } catch (Exception e) {
+            markAllDone();
+            transfer.setState(TransferState.Failed);
+            publishProgress(listener, ProgressEventType.TRANSFER_FAILED_EVENT);
+            throw e;
+        }
+    }
+}
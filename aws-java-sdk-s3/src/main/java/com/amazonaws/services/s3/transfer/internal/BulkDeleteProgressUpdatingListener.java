@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.SyncProgressListener;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+
+/**
+ * Counts the objects deleted by a bulk delete as the bytes transferred of its
+ * {@link TransferProgress}.
+ */
+public class BulkDeleteProgressUpdatingListener extends SyncProgressListener {
+    private final TransferProgress transferProgress;
+
+    public BulkDeleteProgressUpdatingListener(TransferProgress transferProgress) {
+        this.transferProgress = transferProgress;
+    }
+
+    public void progressChanged(ProgressEvent progressEvent) {
+        if (progressEvent.getEventType() == ProgressEventType.TRANSFER_OBJECTS_DELETED_EVENT) {
+            transferProgress.updateProgress(progressEvent.getBytes());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.services.s3.transfer.Transfer;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Helper class to wait for all the byte ranges of a ranged parallel download,
+ * recording in order how many leading ranges are complete so that a paused
+ * download resumes from there, and to close the destination file once done.
+ */
+@SdkInternalApi
+public class CompleteRangedDownload implements Callable<File> {
+    private static final Log LOG = LogFactory.getLog(CompleteRangedDownload.class);
+
+    private final List<Future<Long>> ranges;
+    private final FileChannel destination;
+    private final File destinationFile;
+    private final DownloadImpl download;
+    private int currentRangeNumber;
+
+    public CompleteRangedDownload(List<Future<Long>> ranges, FileChannel destination, File destinationFile,
+            DownloadImpl download, int currentRangeNumber) {
+        this.ranges = ranges;
+        this.destination = destination;
+        this.destinationFile = destinationFile;
+        this.download = download;
+        this.currentRangeNumber = currentRangeNumber;
+    }
+
+    @Override
+    public File call() throws Exception {
+        try {
+            for (Future<Long> range : ranges) {
+                range.get();
+                download.updatePersistableTransfer(currentRangeNumber++);
+            }
+        } catch (Exception e) {
+            for (Future<Long> range : ranges) {
+                range.cancel(true);
+            }
+            // Downloads aren't allowed to move from canceled to failed
+            if (download.getState() != Transfer.TransferState.Canceled) {
+                download.setState(Transfer.TransferState.Failed);
+            }
+            throw unwrap(e);
+        } finally {
+            IOUtils.closeQuietly(destination, LOG);
+        }
+
+        download.setState(Transfer.TransferState.Completed);
+        return destinationFile;
+    }
+
+    /**
+     * Returns the failure of the range that failed rather than the exception
+     * reporting it, so that callers of the download see the actual cause.
+     */
+    private static Exception unwrap(Exception e) {
+        if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        return e;
+    }
+}
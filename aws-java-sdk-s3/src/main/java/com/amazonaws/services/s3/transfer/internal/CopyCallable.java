@@ -36,6 +36,7 @@ import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
 import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PartETag;
@@ -74,9 +75,14 @@ public class CopyCallable implements Callable<CopyResult> {
     /** A reference to the original copy request received. */
     private final CopyObjectRequest copyObjectRequest;
     /** Upload id to be used when sending copy part requests. */
-    private String multipartUploadId;
+    private volatile String multipartUploadId;
     /** Metadata of the object in the source bucket to be copied. */
     private final ObjectMetadata metadata;
+    /**
+     * The client with which to look up the full metadata of the source object
+     * before copying it in parts, or null if {@link #metadata} is complete.
+     */
+    private final AmazonS3 srcS3;
     private final CopyImpl copy;
 
     private static final Log log = LogFactory.getLog(CopyCallable.class);
@@ -97,11 +103,26 @@ public class CopyCallable implements Callable<CopyResult> {
             ExecutorService threadPool, CopyImpl copy,
             CopyObjectRequest copyObjectRequest, ObjectMetadata metadata,
             ProgressListenerChain progressListenerChain) {
+        this(transferManager, threadPool, copy, copyObjectRequest, metadata, null,
+                progressListenerChain);
+    }
+
+    /**
+     * Creates a copy of an object of which only the content length is known
+     * yet. If it is copied in parts, the rest of the metadata of the source
+     * object, such as its content type and encryption metadata, is looked up
+     * with the given client once the copy starts.
+     */
+    public CopyCallable(TransferManager transferManager,
+            ExecutorService threadPool, CopyImpl copy,
+            CopyObjectRequest copyObjectRequest, ObjectMetadata metadata, AmazonS3 srcS3,
+            ProgressListenerChain progressListenerChain) {
         this.s3 = transferManager.getAmazonS3Client();
         this.configuration = transferManager.getConfiguration();
         this.threadPool = threadPool;
         this.copyObjectRequest = copyObjectRequest;
         this.metadata = metadata;
+        this.srcS3 = srcS3;
         this.listenerChain = progressListenerChain;
         this.copy = copy;
     }
@@ -166,10 +187,7 @@ public class CopyCallable implements Callable<CopyResult> {
      *             Any Exception that occurs while carrying out the request.
      */
     private void copyInParts() throws Exception {
-        final String bucketName = copyObjectRequest.getDestinationBucketName();
-        final String key = copyObjectRequest.getDestinationKey();
-
-        multipartUploadId = initiateMultipartUpload(copyObjectRequest);
+        multipartUploadId = initiateMultipartUpload(copyObjectRequest, getSourceMetadata());
 
         long optimalPartSize = getOptimalPartSize(metadata.getContentLength());
 
@@ -180,18 +198,43 @@ public class CopyCallable implements Callable<CopyResult> {
             copyPartsInParallel(requestFactory);
         } catch (Exception e) {
             publishProgress(listenerChain, ProgressEventType.TRANSFER_FAILED_EVENT);
-            try {
-                s3.abortMultipartUpload(new AbortMultipartUploadRequest(
-                        bucketName, key, multipartUploadId));
-            } catch (Exception e2) {
-                log.info(
-                        "Unable to abort multipart upload, you may need to manually remove uploaded parts: "
-                                + e2.getMessage(), e2);
-            }
+            performAbortMultipartUpload();
             throw e;
         }
     }
 
+    /**
+     * Returns the metadata of the source object, looking it up if only its
+     * content length was given.
+     */
+    private ObjectMetadata getSourceMetadata() {
+        if (srcS3 == null) {
+            return metadata;
+        }
+        return srcS3.getObjectMetadata(new GetObjectMetadataRequest(
+                copyObjectRequest.getSourceBucketName(), copyObjectRequest.getSourceKey(),
+                copyObjectRequest.getSourceVersionId())
+                .withSSECustomerKey(copyObjectRequest.getSourceSSECustomerKey()));
+    }
+
+    /**
+     * Performs an
+     * {@link AmazonS3#abortMultipartUpload(AbortMultipartUploadRequest)}
+     * operation for the multi-part copy, if one has been initiated.
+     */
+    void performAbortMultipartUpload() {
+        try {
+            if (multipartUploadId != null)
+                s3.abortMultipartUpload(new AbortMultipartUploadRequest(
+                        copyObjectRequest.getDestinationBucketName(),
+                        copyObjectRequest.getDestinationKey(), multipartUploadId));
+        } catch (Exception e2) {
+            log.info(
+                    "Unable to abort multipart upload, you may need to manually remove uploaded parts: "
+                            + e2.getMessage(), e2);
+        }
+    }
+
     /**
      * Computes and returns the optimal part size for the copy operation.
      */
@@ -213,6 +256,8 @@ public class CopyCallable implements Callable<CopyResult> {
             if (threadPool.isShutdown())
                 throw new CancellationException(
                         "TransferManager has been shutdown");
+            if (copy.getState() == TransferState.Canceled)
+                throw new CancellationException("Copy has been canceled");
             CopyPartRequest request = requestFactory.getNextCopyPartRequest();
             futures.add(threadPool.submit(new CopyPartCallable(s3, request)));
         }
@@ -221,7 +266,7 @@ public class CopyCallable implements Callable<CopyResult> {
     /**
      * Initiates a multipart upload and returns the upload id
      */
-    private String initiateMultipartUpload(CopyObjectRequest origReq) {
+    private String initiateMultipartUpload(CopyObjectRequest origReq, ObjectMetadata metadata) {
 
         InitiateMultipartUploadRequest req = new InitiateMultipartUploadRequest(
                 origReq.getDestinationBucketName(),
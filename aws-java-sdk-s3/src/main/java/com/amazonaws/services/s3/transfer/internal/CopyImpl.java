@@ -68,4 +68,30 @@ public class CopyImpl extends AbstractTransfer implements Copy {
             return null;
         }
     }
+
+    /**
+     * Cancels this copy if it is not done, and notifies the state change
+     * listeners of its cancellation.
+     */
+    public void abort() {
+        if (abortWithoutNotifyingStateChangeListener()) {
+            notifyStateChangeListeners(TransferState.Canceled);
+        }
+    }
+
+    /**
+     * Cancels this copy if it is not done, cleaning up the parts already
+     * copied if it is being performed in parts, without notifying the state
+     * change listeners.
+     *
+     * @return True if the copy was canceled, false if it was already done.
+     */
+    public synchronized boolean abortWithoutNotifyingStateChangeListener() {
+        if (isDone()) {
+            return false;
+        }
+        this.state = TransferState.Canceled;
+        ((CopyMonitor) monitor).performAbort();
+        return true;
+    }
 }
@@ -130,22 +130,60 @@ public class CopyMonitor implements Callable<CopyResult>, TransferMonitor {
 
             if (result == null) {
                 futures.addAll(multipartCopyCallable.getFutures());
+                // An abort may have missed parts submitted while it ran
+                if (transfer.getState() == TransferState.Canceled) {
+                    cancelParts();
+                    multipartCopyCallable.performAbortMultipartUpload();
+                    throw new CancellationException("Copy has been canceled");
+                }
                 setFuture(threadPool.submit(new CompleteMultipartCopy(multipartCopyCallable.getMultipartUploadId(), s3, origReq, futures, listener, this)));
             } else {
                 copyComplete();
             }
             return result;
         } catch (CancellationException e) {
-            transfer.setState(TransferState.Canceled);
-            publishProgress(listener, ProgressEventType.TRANSFER_CANCELED_EVENT);
+            // An aborted copy has already reported its cancellation
+            if (transfer.getState() != TransferState.Canceled) {
+                transfer.setState(TransferState.Canceled);
+                publishProgress(listener, ProgressEventType.TRANSFER_CANCELED_EVENT);
+            }
             throw new SdkClientException("Upload canceled");
         } catch (Exception e) {
-            transfer.setState(TransferState.Failed);
-            publishProgress(listener, ProgressEventType.TRANSFER_FAILED_EVENT);
+            // Copies aren't allowed to move from canceled to failed
+            if (transfer.getState() != TransferState.Canceled) {
+                transfer.setState(TransferState.Failed);
+                publishProgress(listener, ProgressEventType.TRANSFER_FAILED_EVENT);
+            }
             throw e;
         }
     }
 
+    /**
+     * Cancels the copy if it is still in progress, along with any of its parts,
+     * and cleans up the parts on Amazon S3 if it is being performed as a
+     * multi-part copy.
+     */
+    void performAbort() {
+        Future<CopyResult> f = getFuture();
+        if (f != null) {
+            f.cancel(true);
+        }
+        cancelParts();
+        multipartCopyCallable.performAbortMultipartUpload();
+        publishProgress(listener, ProgressEventType.TRANSFER_CANCELED_EVENT);
+    }
+
+    /**
+     * Cancels the copies of the parts of a multi-part copy that are not
+     * completed.
+     */
+    private void cancelParts() {
+        // Parts may still be being submitted
+        for (Future<PartETag> part : new ArrayList<Future<PartETag>>(multipartCopyCallable.getFutures())) {
+            part.cancel(true);
+        }
+    }
+
     void copyComplete() {
         markAllDone();
         transfer.setState(TransferState.Completed);
@@ -46,6 +46,12 @@ public class DownloadImpl extends AbstractTransfer implements Download {
     private final ObjectMetadata objectMetadata;
     private final ProgressListenerChain progressListenerChain;
 
+    /**
+     * The size of each byte range for a ranged parallel download, in which
+     * case the part numbers above count ranges; null for other downloads.
+     */
+    private final Long downloadRangeSize;
+
     @Deprecated
     public DownloadImpl(String description, TransferProgress transferProgress,
             ProgressListenerChain progressListenerChain, S3Object s3Object, TransferStateChangeListener listener,
@@ -58,12 +64,21 @@ public class DownloadImpl extends AbstractTransfer implements Download {
             ProgressListenerChain progressListenerChain, S3Object s3Object, TransferStateChangeListener listener,
             GetObjectRequest getObjectRequest, File file,
             ObjectMetadata objectMetadata, boolean isDownloadParallel) {
+        this(description, transferProgress, progressListenerChain, s3Object, listener,
+                getObjectRequest, file, objectMetadata, isDownloadParallel, null);
+    }
+
+    public DownloadImpl(String description, TransferProgress transferProgress,
+            ProgressListenerChain progressListenerChain, S3Object s3Object, TransferStateChangeListener listener,
+            GetObjectRequest getObjectRequest, File file,
+            ObjectMetadata objectMetadata, boolean isDownloadParallel, Long downloadRangeSize) {
         super(description, transferProgress, progressListenerChain, listener);
         this.s3Object = s3Object;
         this.objectMetadata = objectMetadata;
         this.getObjectRequest = getObjectRequest;
         this.file = file;
         this.progressListenerChain = progressListenerChain;
+        this.downloadRangeSize = downloadRangeSize;
         this.persistableDownload = captureDownloadState(getObjectRequest, file);
         S3ProgressPublisher.publishTransferPersistable(progressListenerChain, persistableDownload);
     }
@@ -190,7 +205,7 @@ public class DownloadImpl extends AbstractTransfer implements Download {
                     getObjectRequest.getVersionId(), getObjectRequest.getRange(),
                     getObjectRequest.getResponseHeaders(), getObjectRequest.isRequesterPays(),
                     file.getAbsolutePath(), getLastFullyDownloadedPartNumber(),
-                    getObjectMetadata().getLastModified().getTime());
+                    getObjectMetadata().getLastModified().getTime(), downloadRangeSize);
         }
         return null;
     }
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.annotation.SdkInternalApi;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Helper class to get a byte range of an object from s3 and write it directly
+ * to the same offset of the destination file, with positional writes on a
+ * {@link FileChannel} shared by all the ranges of the download.
+ */
+@SdkInternalApi
+public class DownloadRangeCallable implements Callable<Long> {
+    private static final Log LOG = LogFactory.getLog(DownloadRangeCallable.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AmazonS3 s3;
+    private final GetObjectRequest getRangeRequest;
+    private final FileChannel destination;
+
+    /** The next byte of the object to write into the destination file. */
+    private long position;
+
+    /**
+     * @param s3
+     *            The client to download the range with.
+     * @param getRangeRequest
+     *            The request for the range, which is also the offset of the
+     *            data in the destination file.
+     * @param destination
+     *            The channel of the destination file, which this callable
+     *            does not close.
+     */
+    public DownloadRangeCallable(AmazonS3 s3, GetObjectRequest getRangeRequest, FileChannel destination) {
+        this.s3 = s3;
+        this.getRangeRequest = getRangeRequest;
+        this.destination = destination;
+    }
+
+    /**
+     * @return the number of bytes written into the destination file
+     */
+    public Long call() throws Exception {
+        final long[] range = getRangeRequest.getRange();
+        final long lastByte = range[1];
+        position = range[0];
+        boolean hasRetried = false;
+
+        for (;;) {
+            if (position > lastByte) {
+                // Everything was written before the failure being retried
+                return lastByte - range[0] + 1;
+            }
+            getRangeRequest.setRange(position, lastByte);
+            S3Object s3Object = s3.getObject(getRangeRequest);
+            if (s3Object == null) {
+                throw new SdkClientException("Unable to download bytes " + position + "-" + lastByte + " of "
+                        + getRangeRequest.getKey() + ": the object no longer satisfies the request's constraints,"
+                        + " it may have been modified since the download started");
+            }
+            InputStream content = s3Object.getObjectContent();
+            try {
+                writeToDestination(content);
+                return lastByte - range[0] + 1;
+            } catch (ClosedChannelException e) {
+                // The download was canceled or another range failed
+                throw e;
+            } catch (IOException e) {
+                if (hasRetried) {
+                    throw new SdkClientException("Unable to download bytes " + position + "-" + lastByte
+                            + " of " + getRangeRequest.getKey(), e);
+                }
+                LOG.info("Retrying the download of bytes " + position + "-" + lastByte + " of "
+                        + getRangeRequest.getKey(), e);
+                hasRetried = true;
+            } catch (AmazonClientException e) {
+                if (hasRetried || !e.isRetryable()) {
+                    throw e;
+                }
+                LOG.info("Retrying the download of bytes " + position + "-" + lastByte + " of "
+                        + getRangeRequest.getKey(), e);
+                hasRetried = true;
+            } finally {
+                IOUtils.closeQuietly(content, LOG);
+            }
+        }
+    }
+
+    /**
+     * Copies the content into the destination file at the current position,
+     * advancing it as bytes are written so that a retry after a failure half
+     * way only fetches what is missing.
+     */
+    private void writeToDestination(InputStream content) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        final ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        int bytesRead;
+        while ((bytesRead = content.read(buffer)) > -1) {
+            wrapped.clear();
+            wrapped.limit(bytesRead);
+            while (wrapped.hasRemaining()) {
+                position += destination.write(wrapped, position);
+            }
+        }
+    }
+}
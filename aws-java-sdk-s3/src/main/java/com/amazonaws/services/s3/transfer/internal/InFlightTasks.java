@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.annotation.SdkInternalApi;
+
+/**
+ * The tasks a transfer has submitted to the thread pool and not yet waited
+ * for, used to bound how many of them are in flight at once: once the bound is
+ * reached, the submitting thread calls {@link #awaitAny()} before submitting
+ * the next one.
+ * <p>
+ * A task that no pool thread has started by the time it is waited for is run
+ * by the waiting thread instead, so that a transfer makes progress even if
+ * every pool thread is busy with other transfers. Not thread safe; meant to be
+ * used by the single thread driving a transfer.
+ *
+ * @param <V>
+ *            The result type of the tasks.
+ */
+@SdkInternalApi
+final class InFlightTasks<V> {
+
+    private final ExecutorService threadPool;
+    private final LinkedList<FutureTask<V>> tasks = new LinkedList<FutureTask<V>>();
+
+    InFlightTasks(ExecutorService threadPool) {
+        this.threadPool = threadPool;
+    }
+
+    /**
+     * Submits a task to the thread pool.
+     *
+     * @return The future of the task, which also runs it in the calling thread
+     *         if no pool thread has started it yet.
+     */
+    Future<V> submit(Callable<V> callable) {
+        FutureTask<V> task = new InlineFutureTask<V>(callable);
+        tasks.addLast(task);
+        threadPool.execute(task);
+        return task;
+    }
+
+    /** Returns the number of tasks submitted and not yet waited for. */
+    int size() {
+        return tasks.size();
+    }
+
+    boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+
+    /**
+     * Waits for one of the tasks in flight to finish, preferring one that
+     * already has over the oldest one, and returns its result.
+     *
+     * @throws AbortedException
+     *             If the current thread is interrupted while waiting, or the
+     *             task was interrupted.
+     * @throws SdkClientException
+     *             If the task failed with any other checked exception; runtime
+     *             exceptions and errors are rethrown as is.
+     */
+    V awaitAny() {
+        FutureTask<V> done = tasks.getFirst();
+        for (FutureTask<V> task : tasks) {
+            if (task.isDone()) {
+                done = task;
+                break;
+            }
+        }
+        tasks.remove(done);
+        try {
+            return done.get();
+        } catch (InterruptedException e) {
+            throw new AbortedException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof InterruptedException) {
+                throw new AbortedException(cause);
+            }
+            throw new SdkClientException("Unable to complete the transfer", cause);
+        }
+    }
+
+    /**
+     * Cancels the tasks in flight, interrupting those that are running.
+     */
+    void cancelAll() {
+        for (FutureTask<V> task : tasks) {
+            task.cancel(true);
+        }
+        tasks.clear();
+    }
+
+    /**
+     * A task that is run by the thread waiting for its result if no other
+     * thread has started it yet.
+     */
+    private static final class InlineFutureTask<V> extends FutureTask<V> {
+        private InlineFutureTask(Callable<V> callable) {
+            super(callable);
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            run();
+            return super.get();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.transfer.Copy;
+import com.amazonaws.services.s3.transfer.MultipleCopy;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+
+/**
+ * Multiple object copy when copying an entire virtual directory.
+ */
+public class MultipleCopyImpl extends MultipleFileTransfer<Copy> implements MultipleCopy {
+
+    private final String sourceBucketName;
+    private final String sourceKeyPrefix;
+    private final String destinationBucketName;
+    private final String destinationKeyPrefix;
+
+    public MultipleCopyImpl(String description, TransferProgress transferProgress,
+            ProgressListenerChain progressListenerChain, String sourceBucketName,
+            String sourceKeyPrefix, String destinationBucketName, String destinationKeyPrefix,
+            Collection<? extends Copy> copies) {
+        super(description, transferProgress, progressListenerChain, copies);
+        this.sourceBucketName = sourceBucketName;
+        this.sourceKeyPrefix = sourceKeyPrefix;
+        this.destinationBucketName = destinationBucketName;
+        this.destinationKeyPrefix = destinationKeyPrefix;
+    }
+
+    /**
+     * Returns the name of the bucket from which objects are copied.
+     */
+    public String getSourceBucketName() {
+        return sourceBucketName;
+    }
+
+    /**
+     * Returns the key prefix of the virtual directory being copied.
+     */
+    public String getSourceKeyPrefix() {
+        return sourceKeyPrefix;
+    }
+
+    /**
+     * Returns the name of the bucket to which objects are copied.
+     */
+    public String getDestinationBucketName() {
+        return destinationBucketName;
+    }
+
+    /**
+     * Returns the key prefix of the virtual directory objects are copied to.
+     */
+    public String getDestinationKeyPrefix() {
+        return destinationKeyPrefix;
+    }
+
+    /**
+     * Waits for this transfer to complete. This is a blocking call; the current
+     * thread is suspended until this transfer completes.
+     *
+     * @throws AmazonClientException
+     *             If any errors were encountered in the client while making the
+     *             request or handling the response.
+     * @throws AmazonServiceException
+     *             If any errors occurred in Amazon S3 while processing the
+     *             request.
+     * @throws InterruptedException
+     *             If this thread is interrupted while waiting for the transfer
+     *             to complete.
+     */
+    @Override
+    public void waitForCompletion()
+            throws AmazonClientException, AmazonServiceException, InterruptedException {
+        if (subTransfers.isEmpty()) {
+            waitForSubTransfersQueued();
+            if (subTransfers.isEmpty() && getQueuingFailure() == null)
+                return;
+        }
+        super.waitForCompletion();
+    }
+
+    /**
+     * Aborts all outstanding copies.
+     */
+    @Override
+    public void abort() {
+        /* Stop any copies still being listed from being started. */
+        cancelQueuingSubTransfers();
+
+        /*
+         * As for downloads, cancel every copy before notifying the listener
+         * shared by all of them, which checks the state of each one.
+         */
+        List<CopyImpl> canceled = new ArrayList<CopyImpl>();
+        for (Copy copy : subTransfers) {
+            if (((CopyImpl) copy).abortWithoutNotifyingStateChangeListener()) {
+                canceled.add((CopyImpl) copy);
+            }
+        }
+        for (CopyImpl copy : canceled) {
+            copy.notifyStateChangeListeners(TransferState.Canceled);
+        }
+    }
+}
@@ -71,8 +71,11 @@ public class MultipleFileDownloadImpl extends MultipleFileTransfer<Download> imp
     @Override
     public void waitForCompletion()
             throws AmazonClientException, AmazonServiceException, InterruptedException {
-        if (subTransfers.isEmpty())
-            return;
+        if (subTransfers.isEmpty()) {
+            waitForSubTransfersQueued();
+            if (subTransfers.isEmpty() && getQueuingFailure() == null)
+                return;
+        }
         super.waitForCompletion();
     }
 
@@ -93,6 +96,9 @@ public class MultipleFileDownloadImpl extends MultipleFileTransfer<Download> imp
          * then notify the listener.
          */
 
+        /* Stop any downloads still being listed from being started. */
+        cancelQueuingSubTransfers();
+
         /* First abort all the download jobs without notifying the state change listener.*/
         for (Transfer fileDownload : subTransfers) {
             ((DownloadImpl)fileDownload).abortWithoutNotifyingStateChangeListener();
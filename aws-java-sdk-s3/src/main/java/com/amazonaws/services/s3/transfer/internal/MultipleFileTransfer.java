@@ -15,6 +15,7 @@
 package com.amazonaws.services.s3.transfer.internal;
 
 import java.util.Collection;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.amazonaws.event.ProgressEventType;
@@ -32,6 +33,18 @@ public abstract class MultipleFileTransfer<T extends Transfer> extends AbstractT
     /** Whether any of the sub-transfers has started. **/
     private AtomicBoolean subTransferStarted = new AtomicBoolean(false);
 
+    /** Guards the sub-transfer queuing state below. */
+    private final Object queuingLock = new Object();
+
+    /** Whether sub-transfers are still being listed and added. */
+    private boolean queuingSubTransfers;
+
+    /** The error that stopped sub-transfers from being listed, if any. */
+    private Exception queuingFailure;
+
+    /** Whether this transfer was aborted while sub-transfers were being listed. */
+    private volatile boolean queuingCanceled;
+
     MultipleFileTransfer(String description, TransferProgress transferProgress,
             ProgressListenerChain progressListenerChain, Collection<? extends T> subTransfers) {
         super(description, transferProgress, progressListenerChain);
@@ -47,6 +60,10 @@ public abstract class MultipleFileTransfer<T extends Transfer> extends AbstractT
      * entire transfer canceled. Otherwise, we consider ourselves Completed.
      */
     public void collateFinalState() {
+        if ( getQueuingFailure() != null ) {
+            setState(TransferState.Failed);
+            return;
+        }
         boolean seenCanceled = false;
         for ( T download : subTransfers ) {
             if ( download.getState() == TransferState.Failed ) {
@@ -62,6 +79,99 @@ public abstract class MultipleFileTransfer<T extends Transfer> extends AbstractT
             setState(TransferState.Completed);
     }
 
+    /**
+     * Marks this transfer as still listing and adding sub-transfers, which
+     * start as they are added. The transfer is not done until
+     * {@link #finishQueuingSubTransfers(Exception)} is called.
+     */
+    public void startQueuingSubTransfers() {
+        synchronized (queuingLock) {
+            queuingSubTransfers = true;
+        }
+    }
+
+    /**
+     * Marks every sub-transfer of this transfer as added, and completes this
+     * transfer if they have all already finished.
+     *
+     * @param failure
+     *            The error that stopped sub-transfers from being listed, or
+     *            null if they were all added.
+     */
+    public void finishQueuingSubTransfers(Exception failure) {
+        synchronized (queuingLock) {
+            queuingSubTransfers = false;
+            queuingFailure = failure;
+            queuingLock.notifyAll();
+        }
+        // Sub-transfers that finished while others were still being added
+        // could not complete this transfer themselves.
+        synchronized (this) {
+            if ( !isDone() && getMonitor().isDone() )
+                collateFinalState();
+        }
+    }
+
+    /**
+     * Returns true if sub-transfers are still being listed and added.
+     */
+    public boolean isQueuingSubTransfers() {
+        synchronized (queuingLock) {
+            return queuingSubTransfers;
+        }
+    }
+
+    /**
+     * Returns the error that stopped sub-transfers from being listed, or null.
+     */
+    public Exception getQueuingFailure() {
+        synchronized (queuingLock) {
+            return queuingFailure;
+        }
+    }
+
+    /**
+     * Waits until every sub-transfer of this transfer has been added.
+     */
+    void waitForSubTransfersQueued() throws InterruptedException {
+        synchronized (queuingLock) {
+            while ( queuingSubTransfers )
+                queuingLock.wait();
+        }
+    }
+
+    /**
+     * Waits until every sub-transfer of this transfer has been added, or the
+     * timeout elapses, and returns true if they have all been added.
+     */
+    boolean waitForSubTransfersQueued(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (queuingLock) {
+            while ( queuingSubTransfers ) {
+                long remaining = deadline - System.nanoTime();
+                if ( remaining <= 0 )
+                    return false;
+                TimeUnit.NANOSECONDS.timedWait(queuingLock, remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stops any further sub-transfers from being added to this transfer.
+     */
+    public void cancelQueuingSubTransfers() {
+        queuingCanceled = true;
+    }
+
+    /**
+     * Returns true if no further sub-transfers should be added to this
+     * transfer because it has been aborted.
+     */
+    public boolean isQueuingCanceled() {
+        return queuingCanceled;
+    }
+
     /**
      * Override this method so that TransferState updates are also sent out to the
      * progress listener chain in forms of ProgressEvent.
@@ -25,10 +25,10 @@ import com.amazonaws.services.s3.transfer.Transfer;
 public class MultipleFileTransferMonitor implements TransferMonitor {
 
     private final Collection<? extends AbstractTransfer> subTransfers;
-    private final AbstractTransfer transfer;
+    private final MultipleFileTransfer<?> transfer;
     private final Future<?> future;
 
-    public MultipleFileTransferMonitor(AbstractTransfer transfer, Collection<? extends AbstractTransfer> subTransfers) {
+    public MultipleFileTransferMonitor(MultipleFileTransfer<?> transfer, Collection<? extends AbstractTransfer> subTransfers) {
         this.subTransfers = subTransfers;
         this.transfer = transfer;
 
@@ -46,6 +46,8 @@ public class MultipleFileTransferMonitor implements TransferMonitor {
 
             @Override
             public Object get() throws InterruptedException, ExecutionException {
+                MultipleFileTransferMonitor.this.transfer.waitForSubTransfersQueued();
+                throwQueuingFailure();
                 Object result = null;
                 for ( AbstractTransfer download : MultipleFileTransferMonitor.this.subTransfers ) {
                     result = download.getMonitor().getFuture().get();
@@ -56,6 +58,9 @@ public class MultipleFileTransferMonitor implements TransferMonitor {
             @Override
             public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
                     TimeoutException {
+                if ( !MultipleFileTransferMonitor.this.transfer.waitForSubTransfersQueued(timeout, unit) )
+                    throw new TimeoutException();
+                throwQueuingFailure();
                 Object result = null;
                 for ( AbstractTransfer subTransfer : MultipleFileTransferMonitor.this.subTransfers ) {
                     result = subTransfer.getMonitor().getFuture().get(timeout, unit);
@@ -75,6 +80,12 @@ public class MultipleFileTransferMonitor implements TransferMonitor {
         };
     }
 
+    private void throwQueuingFailure() throws ExecutionException {
+        Exception failure = transfer.getQueuingFailure();
+        if ( failure != null )
+            throw new ExecutionException(failure);
+    }
+
     @Override
     public Future<?> getFuture() {
         return future;
@@ -82,6 +93,8 @@ public class MultipleFileTransferMonitor implements TransferMonitor {
 
     @Override
     public synchronized boolean isDone() {
+        if ( transfer.isQueuingSubTransfers() )
+            return false;
         for ( Transfer subTransfer : subTransfers ) {
             if ( !subTransfer.isDone() )
                 return false;
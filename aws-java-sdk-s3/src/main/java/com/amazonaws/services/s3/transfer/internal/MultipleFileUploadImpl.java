@@ -70,8 +70,11 @@ public class MultipleFileUploadImpl extends MultipleFileTransfer<Upload> impleme
     @Override
     public void waitForCompletion()
             throws AmazonClientException, AmazonServiceException, InterruptedException {
-        if (subTransfers.isEmpty())
-            return;
+        if (subTransfers.isEmpty()) {
+            waitForSubTransfersQueued();
+            if (subTransfers.isEmpty() && getQueuingFailure() == null)
+                return;
+        }
         super.waitForCompletion();
     }
 
@@ -15,6 +15,8 @@
 package com.amazonaws.services.s3.transfer.internal;
 
 import com.amazonaws.event.DeliveryMode;
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
 import com.amazonaws.event.ProgressListener;
 import com.amazonaws.event.SDKProgressPublisher;
 import com.amazonaws.services.s3.transfer.PersistableTransfer;
@@ -47,6 +49,24 @@ public class S3ProgressPublisher extends SDKProgressPublisher {
         return deliverEvent(s3listener, persistableTransfer);
     }
 
+    /**
+     * Used to deliver the number of objects of a bulk delete just deleted to
+     * the given listener.
+     *
+     * @return the future of a submitted task; or null if the delivery is
+     * synchronous with no future task involved.  Note a listener should never
+     * block, and therefore returning null is the typical case.
+     */
+    public static Future<?> publishObjectsDeleted(
+            final ProgressListener listener,
+            final long objects) {
+        if (listener == ProgressListener.NOOP || listener == null || objects <= 0) {
+            return null;
+        }
+        return deliverEvent(listener,
+                new ProgressEvent(ProgressEventType.TRANSFER_OBJECTS_DELETED_EVENT, objects));
+    }
+
     private static Future<?> deliverEvent(final S3ProgressListener listener,
             final PersistableTransfer persistableTransfer) {
         if (listener instanceof DeliveryMode) {
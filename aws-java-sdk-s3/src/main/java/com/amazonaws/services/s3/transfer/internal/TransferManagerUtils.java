@@ -23,6 +23,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Encryption;
+import com.amazonaws.services.s3.AmazonS3EncryptionClient;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -136,6 +137,53 @@ public class TransferManagerUtils {
         return (contentLength > configuration.getMultipartUploadThreshold());
     }
 
+    /**
+     * Returns true if the specified request should be uploaded by reading its
+     * stream of unknown length into a bounded set of part buffers that are
+     * uploaded as concurrent multipart upload parts.
+     *
+     * @param putObjectRequest
+     *            The request containing all the details of the upload.
+     * @param configuration
+     *            Configuration settings controlling how transfer manager
+     *            processes requests.
+     * @param isUsingEncryption
+     *            True if the upload is an encrypted upload, otherwise false.
+     *
+     * @return True if the specified request should be processed as a
+     *         streaming multipart upload.
+     */
+    public static boolean shouldUseStreamingUpload(PutObjectRequest putObjectRequest,
+            TransferManagerConfiguration configuration, boolean isUsingEncryption) {
+        // Encrypted parts depend on the cipher state of the previous part
+        if (isUsingEncryption) return false;
+
+        return configuration.getStreamingUploadConcurrency() > 0
+                && getRequestFile(putObjectRequest) == null
+                && putObjectRequest.getInputStream() != null
+                && getContentLength(putObjectRequest) == -1;
+    }
+
+    /**
+     * Returns true if the specified request should be uploaded through the
+     * encryption client's concurrent encrypt-and-upload pipeline instead of
+     * uploading encrypted parts in series.
+     *
+     * @param s3
+     *            The client the upload is made with.
+     * @param configuration
+     *            Configuration settings controlling how transfer manager
+     *            processes requests.
+     *
+     * @return True if the encrypted parts of the upload should be uploaded
+     *         concurrently.
+     */
+    public static boolean shouldUseParallelEncryptedUpload(AmazonS3 s3,
+            TransferManagerConfiguration configuration) {
+        return configuration.getEncryptedUploadConcurrency() > 0
+                && s3 instanceof AmazonS3EncryptionClient;
+    }
+
     /**
      * Convenience method for getting the file specified in a request.
      */
@@ -210,4 +258,36 @@ public class TransferManagerUtils {
         }
         return true;
     }
+
+    /**
+     * Returns true if the specified download request can be split into byte
+     * ranges that are fetched in parallel with ranged GET requests.
+     *
+     * @param s3
+     *            The Amazon s3 client.
+     *
+     * @param getObjectRequest
+     *            The request to check.
+     *
+     * @param objectLength
+     *            The length of the object to download.
+     *
+     * @param downloadRangeSize
+     *            The configured size of each range, zero when ranged downloads
+     *            are disabled.
+     *
+     * @return True if this request can use a ranged parallel download.
+     */
+    public static boolean isDownloadRangeable(final AmazonS3 s3, final GetObjectRequest getObjectRequest,
+            long objectLength, long downloadRangeSize) {
+        ValidationUtils.assertNotNull(s3, "S3 client");
+        ValidationUtils.assertNotNull(getObjectRequest, "GetObjectRequest");
+
+        if (downloadRangeSize <= 0 || objectLength <= downloadRangeSize) {
+            return false;
+        }
+        // Ranges of client side encrypted objects cannot be decrypted independently
+        return !(s3 instanceof AmazonS3Encryption) && getObjectRequest.getRange() == null
+                && getObjectRequest.getPartNumber() == null;
+    }
 }
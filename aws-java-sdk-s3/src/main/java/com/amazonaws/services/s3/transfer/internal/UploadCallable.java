@@ -16,6 +16,11 @@ package com.amazonaws.services.s3.transfer.internal;
 
 import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
 
+import static com.amazonaws.services.s3.internal.Constants.MAXIMUM_UPLOAD_PARTS;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -25,16 +30,24 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.amazonaws.services.s3.model.ObjectTagging;
 import com.amazonaws.services.s3.model.SetObjectTaggingRequest;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.amazonaws.SdkClientException;
+import com.amazonaws.event.ProgressEvent;
 import com.amazonaws.event.ProgressEventType;
 import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.event.SyncProgressListener;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Encryption;
+import com.amazonaws.services.s3.AmazonS3EncryptionClient;
+import com.amazonaws.services.s3.OnFileDelete;
+import com.amazonaws.services.s3.UploadObjectObserver;
+import com.amazonaws.services.s3.internal.PartCreationEvent;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
@@ -42,12 +55,15 @@ import com.amazonaws.services.s3.model.EncryptedInitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.EncryptedPutObjectRequest;
 import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ListPartsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PartListing;
 import com.amazonaws.services.s3.model.PartSummary;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.UploadObjectRequest;
 import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import com.amazonaws.services.s3.transfer.PersistableUpload;
 import com.amazonaws.services.s3.transfer.Transfer.TransferState;
 import com.amazonaws.services.s3.transfer.TransferManager;
@@ -76,11 +92,32 @@ public class UploadCallable implements Callable<UploadResult> {
 
     private PersistableUpload persistableUpload;
 
+    /**
+     * True once a stream of unknown length has been found to need more than
+     * one part and is being uploaded as a streaming multipart upload.
+     */
+    private volatile boolean streamedInParts;
+
+    /** Tunes the parts of this upload if adaptive tuning is enabled. */
+    private final AdaptiveUploadTuner tuner;
+
+    /** The size above which this upload is performed in parts. */
+    private final long multipartUploadThreshold;
+
     public UploadCallable(TransferManager transferManager,
             ExecutorService threadPool, UploadImpl upload,
             PutObjectRequest origReq,
             ProgressListenerChain progressListenerChain, String uploadId,
             TransferProgress transferProgress) {
+        this(transferManager, threadPool, upload, origReq, progressListenerChain,
+                uploadId, transferProgress, null);
+    }
+
+    public UploadCallable(TransferManager transferManager,
+            ExecutorService threadPool, UploadImpl upload,
+            PutObjectRequest origReq,
+            ProgressListenerChain progressListenerChain, String uploadId,
+            TransferProgress transferProgress, AdaptiveUploadTuner tuner) {
         this.s3 = transferManager.getAmazonS3Client();
         this.configuration = transferManager.getConfiguration();
 
@@ -90,6 +127,10 @@ public class UploadCallable implements Callable<UploadResult> {
         this.upload = upload;
         this.multipartUploadId = uploadId;
         this.transferProgress = transferProgress;
+        this.tuner = tuner;
+        this.multipartUploadThreshold = isAdaptive()
+                ? tuner.multipartUploadThreshold(configuration)
+                : configuration.getMultipartUploadThreshold();
     }
 
     List<Future<PartETag>> getFutures() {
@@ -113,28 +154,43 @@ public class UploadCallable implements Callable<UploadResult> {
      * @return True if this UploadCallable is processing a multipart upload.
      */
     public boolean isMultipartUpload() {
-        return TransferManagerUtils.shouldUseMultipartUpload(origReq, configuration);
+        return streamedInParts
+                || TransferManagerUtils.getContentLength(origReq) > multipartUploadThreshold;
+    }
+
+    /**
+     * Returns true if the parts of this upload are to be tuned adaptively.
+     * Parts of a resumed upload must line up with those already uploaded, so
+     * only new uploads are.
+     */
+    private boolean isAdaptive() {
+        return multipartUploadId == null && tuner != null
+                && configuration.getAdaptiveUploadConcurrency() > 0
+                && TransferManagerUtils.isUploadParallelizable(origReq, s3 instanceof AmazonS3Encryption);
     }
 
     public UploadResult call() throws Exception {
         upload.setState(TransferState.InProgress);
-        if ( isMultipartUpload() ) {
+        if (TransferManagerUtils.shouldUseStreamingUpload(origReq, configuration,
+                s3 instanceof AmazonS3Encryption)) {
+            return uploadStream();
+        } else if ( isMultipartUpload() ) {
             publishProgress(listener, ProgressEventType.TRANSFER_STARTED_EVENT);
             return uploadInParts();
         } else {
-            return uploadInOneChunk();
+            return uploadInOneChunk(origReq);
         }
     }
 
     /**
      * Uploads the given request in a single chunk and returns the result.
      */
-    private UploadResult uploadInOneChunk() {
-        PutObjectResult putObjectResult = s3.putObject(origReq);
+    private UploadResult uploadInOneChunk(PutObjectRequest req) {
+        PutObjectResult putObjectResult = s3.putObject(req);
 
         UploadResult uploadResult = new UploadResult();
-        uploadResult.setBucketName(origReq.getBucketName());
-        uploadResult.setKey(origReq.getKey());
+        uploadResult.setBucketName(req.getBucketName());
+        uploadResult.setKey(req.getKey());
         uploadResult.setETag(putObjectResult.getETag());
         uploadResult.setVersionId(putObjectResult.getVersionId());
         return uploadResult;
@@ -176,6 +232,11 @@ public class UploadCallable implements Callable<UploadResult> {
         long optimalPartSize = getOptimalPartSize(isUsingEncryption);
 
         try {
+            if (isUsingEncryption
+                    && TransferManagerUtils.shouldUseParallelEncryptedUpload(s3, configuration)) {
+                return uploadEncryptedPartsInParallel(optimalPartSize);
+            }
+            boolean adaptive = isAdaptive();
             if (multipartUploadId == null) {
                 multipartUploadId = initiateMultipartUpload(origReq,
                         isUsingEncryption);
@@ -183,7 +244,9 @@ public class UploadCallable implements Callable<UploadResult> {
 
             UploadPartRequestFactory requestFactory = new UploadPartRequestFactory(origReq, multipartUploadId, optimalPartSize);
 
-            if (TransferManagerUtils.isUploadParallelizable(origReq, isUsingEncryption)) {
+            if (adaptive) {
+                return uploadPartsAdaptively(requestFactory, optimalPartSize);
+            } else if (TransferManagerUtils.isUploadParallelizable(origReq, isUsingEncryption)) {
                 captureUploadStateIfPossible();
                 uploadPartsInParallel(requestFactory, multipartUploadId);
                 return null;
@@ -203,6 +266,372 @@ public class UploadCallable implements Callable<UploadResult> {
         }
     }
 
+    /**
+     * Uploads the request through the encryption client's pipeline, which
+     * encrypts the content in order into temporary part files and hands each
+     * one to an {@link EncryptedPartObserver} to upload on the thread pool
+     * while the next part is being encrypted.
+     */
+    private UploadResult uploadEncryptedPartsInParallel(long partSize) throws Exception {
+        UploadObjectRequest req = origReq.getFile() != null
+                ? new UploadObjectRequest(origReq.getBucketName(), origReq.getKey(), origReq.getFile())
+                : new UploadObjectRequest(origReq.getBucketName(), origReq.getKey(),
+                        origReq.getInputStream(), null);
+        if (origReq.getMetadata() != null) req.setMetadata(origReq.getMetadata().clone());
+        if (origReq instanceof EncryptedPutObjectRequest) {
+            req.setMaterialsDescription(((EncryptedPutObjectRequest) origReq).getMaterialsDescription());
+        }
+        req.withCannedAcl(origReq.getCannedAcl())
+           .withAccessControlList(origReq.getAccessControlList())
+           .withStorageClass(origReq.getStorageClass())
+           .withRedirectLocation(origReq.getRedirectLocation())
+           .withSSECustomerKey(origReq.getSSECustomerKey())
+           .withSSEAwsKeyManagementParams(origReq.getSSEAwsKeyManagementParams())
+           .withGeneralProgressListener(origReq.getGeneralProgressListener())
+           .withRequestMetricCollector(origReq.getRequestMetricCollector());
+        req.withPartSize(partSize)
+           .withExecutorService(threadPool)
+           .withUploadObjectObserver(new EncryptedPartObserver(configuration.getEncryptedUploadConcurrency()));
+        req.getRequestClientOptions().setReadLimit(origReq.getReadLimit());
+
+        try {
+            return onMultipartUploadCompleted(((AmazonS3EncryptionClient) s3).uploadObject(req));
+        } catch (Exception e) {
+            // The pipeline has already aborted the multipart upload
+            multipartUploadId = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Uploads a stream of unknown length by reading it into part sized buffers
+     * and uploading each full buffer as a part on the thread pool while the
+     * next one is read. No more than the configured streaming upload
+     * concurrency of buffers is ever allocated; once they are all in flight,
+     * reading waits for a part to finish and reuses its buffer. A stream that
+     * fits in the first buffer is uploaded in a single chunk instead.
+     */
+    private UploadResult uploadStream() throws Exception {
+        final InputStream input = origReq.getInputStream();
+        final int partSize = (int) Math.min(configuration.getMinimumUploadPartSize(),
+                Integer.MAX_VALUE - 8);
+        final int maxBuffers = configuration.getStreamingUploadConcurrency();
+        final InFlightTasks<StreamedPart> inFlight = new InFlightTasks<StreamedPart>(threadPool);
+        final List<PartETag> partETags = new ArrayList<PartETag>();
+
+        try {
+            byte[] buffer = new byte[partSize];
+            int buffersAllocated = 1;
+            int length = readFully(input, buffer);
+            if (length < partSize) {
+                PutObjectRequest req = origReq.clone();
+                ObjectMetadata metadata = req.getMetadata() == null
+                        ? new ObjectMetadata() : req.getMetadata().clone();
+                metadata.setContentLength(length);
+                req.setMetadata(metadata);
+                req.setInputStream(new ByteArrayInputStream(buffer, 0, length));
+                transferProgress.setTotalBytesToTransfer(length);
+                return uploadInOneChunk(req);
+            }
+
+            streamedInParts = true;
+            publishProgress(listener, ProgressEventType.TRANSFER_STARTED_EVENT);
+            multipartUploadId = initiateMultipartUpload(origReq, false);
+
+            int partNumber = 1;
+            long totalBytes = 0;
+            while (length > 0) {
+                if (threadPool.isShutdown()) throw new CancellationException("TransferManager has been shutdown");
+                if (partNumber > MAXIMUM_UPLOAD_PARTS) {
+                    throw new SdkClientException("The stream is too long to upload in "
+                            + MAXIMUM_UPLOAD_PARTS + " parts of " + partSize
+                            + " bytes; increase the minimum upload part size");
+                }
+                inFlight.submit(new StreamedPart(buffer, newStreamedPartRequest(partNumber++, buffer, length)));
+                totalBytes += length;
+
+                if (buffersAllocated < maxBuffers) {
+                    buffer = new byte[partSize];
+                    buffersAllocated++;
+                } else {
+                    // Reuse the buffer of the first part to finish
+                    StreamedPart done = inFlight.awaitAny();
+                    partETags.add(done.partETag);
+                    buffer = done.buffer;
+                }
+                length = readFully(input, buffer);
+            }
+            transferProgress.setTotalBytesToTransfer(totalBytes);
+
+            while (!inFlight.isEmpty()) {
+                partETags.add(inFlight.awaitAny().partETag);
+            }
+            return completeMultipartUpload(partETags);
+        } catch (Exception e) {
+            inFlight.cancelAll();
+            publishProgress(listener, ProgressEventType.TRANSFER_FAILED_EVENT);
+            performAbortMultipartUpload();
+            throw e;
+        } finally {
+            try {
+                input.close();
+            } catch (Exception e) {
+                log.warn("Unable to cleanly close input stream: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads from the stream until the buffer is full or the stream ends, and
+     * returns the number of bytes read.
+     */
+    private static int readFully(InputStream input, byte[] buffer) throws IOException {
+        int offset = 0;
+        while (offset < buffer.length) {
+            int read = input.read(buffer, offset, buffer.length - offset);
+            if (read == -1) break;
+            offset += read;
+        }
+        return offset;
+    }
+
+    private UploadPartRequest newStreamedPartRequest(int partNumber, byte[] buffer, int length) {
+        UploadPartRequest req = new UploadPartRequest()
+            .withBucketName(origReq.getBucketName())
+            .withKey(origReq.getKey())
+            .withUploadId(multipartUploadId)
+            .withInputStream(new ByteArrayInputStream(buffer, 0, length))
+            .withPartNumber(partNumber)
+            .withPartSize(length);
+        TransferManager.appendMultipartUserAgent(req);
+
+        if (origReq.getSSECustomerKey() != null) req.setSSECustomerKey(origReq.getSSECustomerKey());
+
+        req.withGeneralProgressListener(origReq.getGeneralProgressListener())
+           .withRequestMetricCollector(origReq.getRequestMetricCollector())
+           ;
+        req.getRequestClientOptions().setReadLimit(origReq.getReadLimit());
+        return req;
+    }
+
+    /**
+     * The upload of a part of a streaming upload, which keeps the buffer
+     * holding its data for reuse.
+     */
+    private final class StreamedPart implements Callable<StreamedPart> {
+        private final byte[] buffer;
+        private final UploadPartRequest request;
+        /** Only read once the upload is done. */
+        private PartETag partETag;
+
+        private StreamedPart(byte[] buffer, UploadPartRequest request) {
+            this.buffer = buffer;
+            this.request = request;
+        }
+
+        @Override
+        public StreamedPart call() {
+            partETag = s3.uploadPart(request).getPartETag();
+            return this;
+        }
+    }
+
+    /**
+     * Uploads the encrypted part files created by
+     * {@link AmazonS3EncryptionClient#uploadObject(UploadObjectRequest)} on
+     * the thread pool, with the same request options as the parts of any other
+     * multipart upload. Once the maximum number of parts are in flight, the
+     * encryption of the next part waits for one of them to finish, which
+     * bounds the temporary disk space used. A part that the pool has not
+     * picked up yet by the time it is waited for is uploaded by the waiting
+     * thread instead, so the upload completes even if every pool thread is
+     * busy with other transfers.
+     */
+    private final class EncryptedPartObserver extends UploadObjectObserver {
+        private final int maxPartsInFlight;
+        private final InFlightTasks<UploadPartResult> inFlight =
+                new InFlightTasks<UploadPartResult>(threadPool);
+        private final List<Future<UploadPartResult>> parts =
+                new ArrayList<Future<UploadPartResult>>();
+
+        private EncryptedPartObserver(int maxPartsInFlight) {
+            this.maxPartsInFlight = maxPartsInFlight;
+        }
+
+        @Override
+        protected InitiateMultipartUploadRequest newInitiateMultipartUploadRequest(
+                UploadObjectRequest req) {
+            return TransferManager.appendMultipartUserAgent(
+                    super.newInitiateMultipartUploadRequest(req));
+        }
+
+        @Override
+        public String onUploadInitiation(UploadObjectRequest req) {
+            multipartUploadId = super.onUploadInitiation(req);
+            log.debug("Initiated new multipart upload: " + multipartUploadId);
+            return multipartUploadId;
+        }
+
+        @Override
+        protected UploadPartRequest newUploadPartRequest(PartCreationEvent event, File part) {
+            UploadPartRequest req = super.newUploadPartRequest(event, part);
+            TransferManager.appendMultipartUserAgent(req);
+
+            if (origReq.getSSECustomerKey() != null) req.setSSECustomerKey(origReq.getSSECustomerKey());
+
+            req.withGeneralProgressListener(origReq.getGeneralProgressListener())
+               .withRequestMetricCollector(origReq.getRequestMetricCollector())
+               ;
+            return req;
+        }
+
+        @Override
+        public void onPartCreate(PartCreationEvent event) {
+            if (threadPool.isShutdown()) throw new CancellationException("TransferManager has been shutdown");
+            final File part = event.getPart();
+            final UploadPartRequest req = newUploadPartRequest(event, part);
+            final OnFileDelete fileDeleteObserver = event.getFileDeleteObserver();
+            appendUserAgent(req, AmazonS3EncryptionClient.USER_AGENT);
+
+            while (inFlight.size() >= maxPartsInFlight) {
+                inFlight.awaitAny();
+            }
+            parts.add(inFlight.submit(new Callable<UploadPartResult>() {
+                @Override
+                public UploadPartResult call() {
+                    try {
+                        return uploadPart(req);
+                    } finally {
+                        if (!part.delete()) {
+                            log.debug("Ignoring failure to delete file " + part
+                                    + " which has already been uploaded");
+                        } else if (fileDeleteObserver != null) {
+                            fileDeleteObserver.onFileDelete(null);
+                        }
+                    }
+                }
+            }));
+        }
+
+        @Override
+        public List<Future<UploadPartResult>> getFutures() {
+            return parts;
+        }
+
+        @Override
+        public CompleteMultipartUploadResult onCompletion(List<PartETag> partETags) {
+            CompleteMultipartUploadRequest req =
+                new CompleteMultipartUploadRequest(
+                    origReq.getBucketName(), origReq.getKey(), getUploadId(),
+                        partETags)
+                .withGeneralProgressListener(origReq.getGeneralProgressListener())
+                .withRequestMetricCollector(origReq.getRequestMetricCollector())
+                ;
+            return getAmazonS3().completeMultipartUpload(req);
+        }
+
+        @Override
+        public void onAbort() {
+            for (Future<UploadPartResult> part : parts) {
+                part.cancel(true);
+            }
+            super.onAbort();
+        }
+    }
+
+    /**
+     * Uploads the parts on the thread pool with the part size and number of
+     * parts in flight chosen by the adaptive tuner, reporting the time each
+     * part takes and the retries observed meanwhile back to it, then
+     * completes the upload and returns the result. As with encrypted parts, a
+     * part that the pool has not picked up yet by the time it is waited for is
+     * uploaded by the waiting thread.
+     */
+    private UploadResult uploadPartsAdaptively(UploadPartRequestFactory requestFactory,
+            long minimumPartSize) throws Exception {
+        RetryCountingListener retries = new RetryCountingListener();
+        listener.addProgressListener(retries);
+        InFlightTasks<TimedPartUpload> inFlight = new InFlightTasks<TimedPartUpload>(threadPool);
+        List<PartETag> partETags = new ArrayList<PartETag>();
+        try {
+            while (requestFactory.hasMoreRequests()) {
+                if (threadPool.isShutdown()) throw new CancellationException("TransferManager has been shutdown");
+                while (inFlight.size() >= tuner.concurrencyLimit(configuration)) {
+                    partETags.add(awaitAnyPart(inFlight, retries));
+                }
+                requestFactory.setOptimalPartSize(
+                        Math.max(minimumPartSize, tuner.nextPartSize(configuration)));
+                inFlight.submit(new TimedPartUpload(requestFactory.getNextUploadPartRequest()));
+            }
+            while (!inFlight.isEmpty()) {
+                partETags.add(awaitAnyPart(inFlight, retries));
+            }
+        } catch (RuntimeException e) {
+            inFlight.cancelAll();
+            throw e;
+        } finally {
+            listener.removeProgressListener(retries);
+        }
+        return completeMultipartUpload(partETags);
+    }
+
+    /**
+     * Waits for an adaptively tuned part in flight to finish, reports it to
+     * the tuner and returns its ETag.
+     */
+    private PartETag awaitAnyPart(InFlightTasks<TimedPartUpload> inFlight, RetryCountingListener retries) {
+        TimedPartUpload done = inFlight.awaitAny();
+        tuner.onPartUploaded(done.size, done.nanos, retries.reset(), configuration);
+        return done.partETag;
+    }
+
+    /**
+     * An adaptively tuned part upload, which records how long the request
+     * took, retries included.
+     */
+    private final class TimedPartUpload implements Callable<TimedPartUpload> {
+        private final UploadPartRequest request;
+        private final long size;
+        /** Only read once the upload is done. */
+        private long nanos;
+        private PartETag partETag;
+
+        private TimedPartUpload(UploadPartRequest request) {
+            this.request = request;
+            this.size = request.getPartSize();
+        }
+
+        @Override
+        public TimedPartUpload call() {
+            long start = System.nanoTime();
+            partETag = s3.uploadPart(request).getPartETag();
+            nanos = System.nanoTime() - start;
+            return this;
+        }
+    }
+
+    /**
+     * Counts the retried requests of an upload, all of which report to its
+     * progress listener chain.
+     */
+    private static final class RetryCountingListener extends SyncProgressListener {
+        private final AtomicInteger retries = new AtomicInteger();
+
+        @Override
+        public void progressChanged(ProgressEvent progressEvent) {
+            if (progressEvent.getEventType() == ProgressEventType.CLIENT_REQUEST_RETRY_EVENT) {
+                retries.incrementAndGet();
+            }
+        }
+
+        /**
+         * Returns the number of retries counted since the last call.
+         */
+        private int reset() {
+            return retries.getAndSet(0);
+        }
+    }
+
     /**
      * Performs an
      * {@link AmazonS3#abortMultipartUpload(AbortMultipartUploadRequest)}
@@ -257,6 +686,14 @@ public class UploadCallable implements Callable<UploadResult> {
             partETags.add(s3.uploadPart(uploadPartRequest).getPartETag());
         }
 
+        return completeMultipartUpload(partETags);
+    }
+
+    /**
+     * Completes the multipart upload with the given parts and returns the
+     * result.
+     */
+    private UploadResult completeMultipartUpload(List<PartETag> partETags) {
         CompleteMultipartUploadRequest req =
             new CompleteMultipartUploadRequest(
                 origReq.getBucketName(), origReq.getKey(), multipartUploadId,
@@ -264,8 +701,13 @@ public class UploadCallable implements Callable<UploadResult> {
             .withGeneralProgressListener(origReq.getGeneralProgressListener())
             .withRequestMetricCollector(origReq.getRequestMetricCollector())
             ;
-        CompleteMultipartUploadResult res = s3.completeMultipartUpload(req);
+        return onMultipartUploadCompleted(s3.completeMultipartUpload(req));
+    }
 
+    /**
+     * Finishes off a completed multipart upload and returns the result.
+     */
+    private UploadResult onMultipartUploadCompleted(CompleteMultipartUploadResult res) {
         // Note: The multipart upload API does not currently support tagging.
         // This is a workaround until it is supported by the service.
         ObjectTagging tagging = origReq.getTagging();
@@ -37,7 +37,7 @@ public class UploadPartRequestFactory {
     private final String bucketName;
     private final String key;
     private final String uploadId;
-    private final long optimalPartSize;
+    private long optimalPartSize;
     private final File file;
     private final PutObjectRequest origReq;
     private int partNumber = 1;
@@ -116,4 +116,12 @@ public class UploadPartRequestFactory {
         return totalNumberOfParts;
     }
 
+    /**
+     * Changes the size of the parts requested from here on, which leaves
+     * {@link #getTotalNumberOfParts()} as computed from the initial size.
+     */
+    synchronized void setOptimalPartSize(long optimalPartSize) {
+        this.optimalPartSize = optimalPartSize;
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.model;
+
+import java.util.List;
+
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.transfer.TransferManager;
+
+/**
+ * Contains information about a completed bulk delete operation.
+ * <p>
+ * See {@link TransferManager} for more information about creating transfers.
+ *
+ * @see TransferManager#deleteObjects(String, Iterable)
+ * @see TransferManager#deleteObjectsWithPrefix(String, String)
+ */
+public class BulkDeleteResult {
+
+    /** The name of the bucket the objects were deleted from */
+    private String bucketName;
+
+    /** The number of objects deleted */
+    private long deletedObjectCount;
+
+    /** The batches of keys that could not be deleted */
+    private List<FailedBatch> failedBatches;
+
+    /**
+     * Gets the name of the bucket the objects were deleted from.
+     *
+     * @return The name of the bucket the objects were deleted from.
+     *
+     * @see BulkDeleteResult#setBucketName(String bucketName)
+     */
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    /**
+     * Sets the name of the bucket the objects were deleted from.
+     *
+     * @param bucketName
+     *            The name of the bucket the objects were deleted from.
+     * @see BulkDeleteResult#getBucketName()
+     */
+    public void setBucketName(String bucketName) {
+        this.bucketName = bucketName;
+    }
+
+    /**
+     * Gets the number of objects deleted.
+     *
+     * @return The number of objects deleted.
+     *
+     * @see BulkDeleteResult#setDeletedObjectCount(long deletedObjectCount)
+     */
+    public long getDeletedObjectCount() {
+        return deletedObjectCount;
+    }
+
+    /**
+     * Sets the number of objects deleted.
+     *
+     * @param deletedObjectCount
+     *            The number of objects deleted.
+     * @see BulkDeleteResult#getDeletedObjectCount()
+     */
+    public void setDeletedObjectCount(long deletedObjectCount) {
+        this.deletedObjectCount = deletedObjectCount;
+    }
+
+    /**
+     * Gets the batches of keys that could not be deleted, each with the error
+     * that stopped them from being deleted. The list is empty if every object
+     * was deleted.
+     *
+     * @return The batches of keys that could not be deleted.
+     *
+     * @see BulkDeleteResult#setFailedBatches(List failedBatches)
+     */
+    public List<FailedBatch> getFailedBatches() {
+        return failedBatches;
+    }
+
+    /**
+     * Sets the batches of keys that could not be deleted.
+     *
+     * @param failedBatches
+     *            The batches of keys that could not be deleted.
+     * @see BulkDeleteResult#getFailedBatches()
+     */
+    public void setFailedBatches(List<FailedBatch> failedBatches) {
+        this.failedBatches = failedBatches;
+    }
+
+    /**
+     * Keys of a bulk delete that could not be deleted, and the error that
+     * stopped them from being deleted. When the multi-object delete request
+     * of a batch fails as a whole, the batch holds all of its keys and the
+     * error of the request. Otherwise it holds the keys that S3 failed to
+     * delete, with a {@link MultiObjectDeleteException} listing their errors.
+     */
+    public static class FailedBatch {
+        private List<KeyVersion> keys;
+        private Exception exception;
+
+        public void setKeys(List<KeyVersion> keys) {
+            this.keys = keys;
+        }
+
+        public List<KeyVersion> getKeys() {
+            return keys;
+        }
+
+        public void setException(Exception exception) {
+            this.exception = exception;
+        }
+
+        public Exception getException() {
+            return exception;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.internal.crypto;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests the re-encryption of AES/GCM content after a mark and reset.
+ */
+public class GCMCipherLiteTest {
+
+    @BeforeClass
+    public static void setup() {
+        CryptoRuntime.enableBouncyCastle();
+    }
+
+    /**
+     * Content which doesn't end on a block boundary leaves a partial block for
+     * doFinal; re-encrypting it after a reset must not emit that block twice.
+     */
+    @Test
+    public void testReencryptionAfterResetMatchesFirstPass() throws Exception {
+        final Random random = new Random(42);
+        final byte[] plaintext = new byte[16 * 100 + 7];
+        random.nextBytes(plaintext);
+        final byte[] keyBytes = new byte[32];
+        random.nextBytes(keyBytes);
+        final SecretKey cek = new SecretKeySpec(keyBytes, "AES");
+        final byte[] iv = new byte[12];
+        random.nextBytes(iv);
+
+        final CipherLite encrypter = ContentCryptoScheme.AES_GCM.createCipherLite(
+                cek, iv, Cipher.ENCRYPT_MODE);
+        final CipherLiteInputStream in = new CipherLiteInputStream(
+                new ByteArrayInputStream(plaintext), encrypter, 512);
+
+        final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        final byte[] chunk = new byte[512];
+        head.write(chunk, 0, in.read(chunk));
+        in.mark(plaintext.length);
+        final byte[] tail = readFully(in);
+        in.reset();
+        assertArrayEquals(tail, readFully(in));
+
+        head.write(tail);
+        final CipherLite decrypter = ContentCryptoScheme.AES_GCM.createCipherLite(
+                cek, iv, Cipher.DECRYPT_MODE);
+        final InputStream decrypted = new CipherLiteInputStream(
+                new ByteArrayInputStream(head.toByteArray()), decrypter, 512);
+        assertArrayEquals(plaintext, readFully(decrypted));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buf = new byte[1024];
+        for (int len; (len = in.read(buf)) != -1;) {
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+}
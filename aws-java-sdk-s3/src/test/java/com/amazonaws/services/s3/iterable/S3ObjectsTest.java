@@ -0,0 +1,156 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.iterable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+public class S3ObjectsTest {
+
+    private static final List<String> KEYS = Arrays.asList(
+            "a", "b/1", "b/2", "b/3", "c", "d", "e/1", "f", "g/1", "g/2", "h");
+
+    @Test
+    public void delimiterSplitListsInKeyOrder() {
+        InMemoryS3 s3 = new InMemoryS3(KEYS);
+        for (int batchSize = 1; batchSize <= 4; batchSize++) {
+            for (int parallelism = 1; parallelism <= 3; parallelism++) {
+                S3Objects objects = S3Objects.inBucket(s3, "bucket").withBatchSize(batchSize)
+                        .withDelimiterSplit("/").withListingParallelism(parallelism);
+                assertEquals(KEYS, keys(objects.iterator()));
+            }
+        }
+    }
+
+    @Test
+    public void delimiterSplitStreamsTopLevelPages() throws InterruptedException {
+        InMemoryS3 s3 = new InMemoryS3(KEYS);
+        s3.blockTopLevelPagesAfter = "b/";
+        Iterator<S3ObjectSummary> it = S3Objects.inBucket(s3, "bucket").withBatchSize(2)
+                .withDelimiterSplit("/").iterator();
+
+        // The first page holds "a" and "b/", which are consumed while the rest
+        // of the top level is still being listed
+        assertEquals(Arrays.asList("a", "b/1", "b/2", "b/3"), keys(it, 4));
+        assertTrue(s3.topLevelPageRequested.await(10, TimeUnit.SECONDS));
+        s3.releaseTopLevelPages.countDown();
+        assertEquals(KEYS.subList(4, KEYS.size()), keys(it));
+    }
+
+    private static List<String> keys(Iterator<S3ObjectSummary> it) {
+        return keys(it, Integer.MAX_VALUE);
+    }
+
+    private static List<String> keys(Iterator<S3ObjectSummary> it, int count) {
+        List<String> keys = new ArrayList<String>();
+        while (keys.size() < count && it.hasNext()) {
+            keys.add(it.next().getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * A bucket whose listings honor the prefix, marker, delimiter and maximum
+     * number of keys, like Amazon S3.
+     */
+    private static final class InMemoryS3 extends AbstractAmazonS3 {
+        private final TreeSet<String> keys;
+
+        /** Listings with the delimiter after this marker wait for the release. */
+        private volatile String blockTopLevelPagesAfter;
+        private final CountDownLatch topLevelPageRequested = new CountDownLatch(1);
+        private final CountDownLatch releaseTopLevelPages = new CountDownLatch(1);
+
+        private InMemoryS3(List<String> keys) {
+            this.keys = new TreeSet<String>(keys);
+        }
+
+        @Override
+        public ObjectListing listObjects(ListObjectsRequest request) {
+            String prefix = request.getPrefix() == null ? "" : request.getPrefix();
+            String marker = request.getMarker();
+            String delimiter = request.getDelimiter();
+            if (delimiter != null && marker != null && marker.equals(blockTopLevelPagesAfter)) {
+                topLevelPageRequested.countDown();
+                try {
+                    assertTrue(releaseTopLevelPages.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new AbortedException(e);
+                }
+            }
+            int maxKeys = request.getMaxKeys() == null ? 1000 : request.getMaxKeys();
+
+            ObjectListing listing = new ObjectListing();
+            listing.setBucketName(request.getBucketName());
+            listing.setPrefix(request.getPrefix());
+            listing.setDelimiter(delimiter);
+            listing.setMarker(marker);
+            listing.setMaxKeys(maxKeys);
+            int count = 0;
+            String last = null;
+            for (String key : marker == null ? keys : keys.tailSet(marker, false)) {
+                if (!key.startsWith(prefix)) {
+                    continue;
+                }
+                int end = delimiter == null ? -1 : key.indexOf(delimiter, prefix.length());
+                String entry = end < 0 ? key : key.substring(0, end + delimiter.length());
+                if (entry.equals(last) || (marker != null && entry.compareTo(marker) <= 0)) {
+                    continue;
+                }
+                if (count == maxKeys) {
+                    listing.setTruncated(true);
+                    break;
+                }
+                if (end < 0) {
+                    S3ObjectSummary summary = new S3ObjectSummary();
+                    summary.setBucketName(request.getBucketName());
+                    summary.setKey(key);
+                    listing.getObjectSummaries().add(summary);
+                } else {
+                    listing.getCommonPrefixes().add(entry);
+                }
+                last = entry;
+                count++;
+            }
+            if (listing.isTruncated()) {
+                listing.setNextMarker(last);
+            }
+            return listing;
+        }
+
+        @Override
+        public ObjectListing listNextBatchOfObjects(ObjectListing previousObjectListing) {
+            return listObjects(new ListObjectsRequest(previousObjectListing.getBucketName(),
+                    previousObjectListing.getPrefix(), previousObjectListing.getNextMarker(),
+                    previousObjectListing.getDelimiter(), previousObjectListing.getMaxKeys()));
+        }
+    }
+}
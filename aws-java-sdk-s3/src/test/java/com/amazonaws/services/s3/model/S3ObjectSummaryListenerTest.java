@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amazonaws.services.s3.model.transform.Unmarshallers.ListObjectsUnmarshaller;
+import com.amazonaws.util.StringUtils;
+
+public class S3ObjectSummaryListenerTest {
+
+    private final List<String> listedKeys = new ArrayList<String>();
+
+    private final S3ObjectSummaryListener listener = new S3ObjectSummaryListener() {
+        @Override
+        public void objectSummaryListed(S3ObjectSummary summary) {
+            listedKeys.add(summary.getKey());
+        }
+    };
+
+    @Test
+    public void listenerReceivesSummariesOfEveryPage() throws Exception {
+        ListObjectsRequest request = new ListObjectsRequest().withBucketName("bucket")
+                .withPrefix("logs/").withMaxKeys(2).withObjectSummaryListener(listener);
+
+        ObjectListing listing = listPage(request, "<Marker></Marker>", true, "logs/a", "logs/b");
+        assertTrue(listing.getObjectSummaries().isEmpty());
+        assertSame(listener, listing.getObjectSummaryListener());
+
+        request = new ListNextBatchOfObjectsRequest(listing).toListObjectsRequest();
+        assertEquals("logs/b", request.getMarker());
+        listing = listPage(request, "<Marker>logs/b</Marker>", true, "logs/c", "logs/d");
+
+        request = new ListNextBatchOfObjectsRequest(listing).toListObjectsRequest();
+        assertEquals("logs/d", request.getMarker());
+        listing = listPage(request, "<Marker>logs/d</Marker>", false, "logs/e");
+        assertFalse(listing.isTruncated());
+        assertTrue(listing.getObjectSummaries().isEmpty());
+
+        assertEquals(Arrays.asList("logs/a", "logs/b", "logs/c", "logs/d", "logs/e"), listedKeys);
+    }
+
+    @Test
+    public void listingWithoutListenerCollectsSummaries() throws Exception {
+        ListObjectsRequest request = new ListObjectsRequest().withBucketName("bucket").withMaxKeys(2);
+
+        ObjectListing listing = listPage(request, "<Marker></Marker>", true, "a", "b");
+        request = new ListNextBatchOfObjectsRequest(listing).toListObjectsRequest();
+        assertEquals(null, request.getObjectSummaryListener());
+        listing = listPage(request, "<Marker>b</Marker>", false, "c");
+
+        assertEquals(1, listing.getObjectSummaries().size());
+        assertEquals("c", listing.getObjectSummaries().get(0).getKey());
+        assertTrue(listedKeys.isEmpty());
+    }
+
+    /**
+     * Unmarshalls a ListBucket response page the way the client does for the given request.
+     */
+    private static ObjectListing listPage(ListObjectsRequest request, String marker, boolean truncated,
+            String... keys) throws Exception {
+        StringBuilder xml = new StringBuilder()
+                .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .append("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">")
+                .append("<Name>").append(request.getBucketName()).append("</Name>")
+                .append("<Prefix>").append(request.getPrefix() == null ? "" : request.getPrefix()).append("</Prefix>")
+                .append(marker)
+                .append("<MaxKeys>").append(request.getMaxKeys()).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        for (String key : keys) {
+            xml.append("<Contents><Key>").append(key).append("</Key>")
+                    .append("<LastModified>2016-12-01T00:00:00.000Z</LastModified>")
+                    .append("<ETag>&quot;d41d8cd98f00b204e9800998ecf8427e&quot;</ETag>")
+                    .append("<Size>0</Size><StorageClass>STANDARD</StorageClass></Contents>");
+        }
+        xml.append("</ListBucketResult>");
+        return new ListObjectsUnmarshaller(false, request.getObjectSummaryListener())
+                .unmarshall(new ByteArrayInputStream(xml.toString().getBytes(StringUtils.UTF8)));
+    }
+}
@@ -0,0 +1,375 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+
+/**
+ * Copies and synchronizes virtual directories between in-memory buckets.
+ */
+public class CopyDirectoryTest {
+
+    private static final String WORKER_THREAD_NAME = "copy-worker";
+
+    private final BucketsS3 s3 = new BucketsS3();
+
+    private ExecutorService executor;
+
+    private TransferManager tm;
+
+    private TransferManagerConfiguration configuration;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, WORKER_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        tm = new TransferManager(s3, executor);
+        configuration = new TransferManagerConfiguration();
+        tm.setConfiguration(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        tm.shutdownNow(false);
+    }
+
+    @Test
+    public void copyDirectoryCopiesEveryObjectUnderThePrefix() throws Exception {
+        s3.put("source", "data/a", "etaga", 1, 1000);
+        s3.put("source", "data/sub/b", "etagb", 2, 1000);
+        s3.put("source", "data-backup/c", "etagc", 3, 1000);
+
+        MultipleCopy copy = tm.copyDirectory("source", "data", "destination", "copy");
+        copy.waitForCompletion();
+
+        assertEquals(TransferState.Completed, copy.getState());
+        assertEquals(Arrays.asList("copy/a", "copy/sub/b"), s3.keys("destination"));
+        assertEquals(3, copy.getProgress().getBytesTransferred());
+    }
+
+    @Test
+    public void syncDirectoryCopiesOnlyMissingAndChangedObjects() throws Exception {
+        s3.put("source", "src/a", "etaga", 1, 1000);
+        s3.put("source", "src/b", "etagb", 2, 1000);
+        s3.put("source", "src/c", "etagc", 3, 1000);
+        s3.put("source", "src/d", "etagd", 4, 1000);
+        s3.put("source", "src/f", "etagf", 5, 1000);
+        s3.put("destination", "dst/b", "etagb", 2, 1000);
+        s3.put("destination", "dst/c", "etagchanged", 3, 1000);
+        s3.put("destination", "dst/e", "etage", 5, 1000);
+        s3.put("destination", "dst/f", "etagf", 6, 1000);
+
+        MultipleCopy copy = tm.syncDirectory("source", "src", "destination", "dst");
+        copy.waitForCompletion();
+
+        assertEquals(TransferState.Completed, copy.getState());
+        assertEquals(Arrays.asList("src/a", "src/c", "src/d", "src/f"), s3.copiedKeys());
+        assertEquals(Arrays.asList("dst/a", "dst/b", "dst/c", "dst/d", "dst/e", "dst/f"),
+                s3.keys("destination"));
+    }
+
+    @Test
+    public void syncDirectoryMatchesKeysAcrossListingPages() throws Exception {
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 25; i++) {
+            String name = String.format("%02d", i);
+            s3.put("source", "src/" + name, "etag" + name, i, 1000);
+            if (i % 3 == 0) {
+                s3.put("destination", "dst/" + name, "etag" + name, i, 1000);
+            } else {
+                expected.add("src/" + name);
+            }
+        }
+
+        MultipleCopy copy = tm.syncDirectory("source", "src/", "destination", "dst/");
+        copy.waitForCompletion();
+
+        assertEquals(expected, s3.copiedKeys());
+    }
+
+    @Test
+    public void sourceMetadataOfACopyInPartsIsLookedUpOnTheTransferThreadPool() throws Exception {
+        configuration.setMultipartCopyThreshold(5);
+        configuration.setMultipartCopyPartSize(5);
+        s3.put("source", "data/small", "etagsmall", 5, 1000);
+        s3.put("source", "data/large", "etaglarge", 12, 1000);
+
+        MultipleCopy copy = tm.copyDirectory("source", "data", "destination", "copy");
+        copy.waitForCompletion();
+
+        assertEquals(TransferState.Completed, copy.getState());
+        assertEquals(Arrays.asList("copy/large", "copy/small"), s3.keys("destination"));
+        assertEquals(Collections.singletonList(WORKER_THREAD_NAME), s3.metadataLookupThreads());
+    }
+
+    @Test
+    public void abortStopsListingAndCancelsOutstandingCopies() throws Exception {
+        configuration.setDirectoryTransferQueueSize(1);
+        s3.put("source", "data/a", "etaga", 1, 1000);
+        s3.put("source", "data/b", "etagb", 1, 1000);
+        s3.put("source", "data/c", "etagc", 1, 1000);
+        s3.blockCopies();
+
+        MultipleCopy copy = tm.copyDirectory("source", "data", "destination", "copy");
+        assertTrue(s3.copyStarted.await(10, TimeUnit.SECONDS));
+        copy.abort();
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!copy.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(TransferState.Canceled, copy.getState());
+        assertEquals(Collections.singletonList("data/a"), s3.copiedKeys());
+        assertTrue(s3.keys("destination").isEmpty());
+    }
+
+    @Test
+    public void objectOfAnotherSizeIsNotUpToDate() {
+        assertFalse(TransferManager.isUpToDate(summary("etag", 1, 1000), summary("etag", 2, 2000)));
+    }
+
+    @Test
+    public void objectWithTheSameETagIsUpToDate() {
+        assertTrue(TransferManager.isUpToDate(summary("etag", 1, 2000), summary("etag", 1, 1000)));
+    }
+
+    @Test
+    public void objectWithAnotherETagIsNotUpToDate() {
+        assertFalse(TransferManager.isUpToDate(summary("etag", 1, 1000), summary("other", 1, 2000)));
+    }
+
+    @Test
+    public void multipartCopyIsUpToDateIfNotOlderThanTheSource() {
+        assertTrue(TransferManager.isUpToDate(summary("etag", 1, 1000), summary("etag-2", 1, 2000)));
+        assertTrue(TransferManager.isUpToDate(summary("etag-2", 1, 1000), summary("etag", 1, 1000)));
+        assertFalse(TransferManager.isUpToDate(summary("etag-2", 1, 2000), summary("etag", 1, 1000)));
+    }
+
+    @Test
+    public void multipartCopyWithoutModificationTimesIsNotUpToDate() {
+        S3ObjectSummary destination = summary("etag-2", 1, 1000);
+        destination.setLastModified(null);
+        assertFalse(TransferManager.isUpToDate(summary("etag", 1, 1000), destination));
+    }
+
+    private static S3ObjectSummary summary(String eTag, long size, long lastModified) {
+        S3ObjectSummary summary = new S3ObjectSummary();
+        summary.setETag(eTag);
+        summary.setSize(size);
+        summary.setLastModified(new Date(lastModified));
+        return summary;
+    }
+
+    /**
+     * Lists and copies objects between in-memory buckets, returning listings
+     * of at most ten objects.
+     */
+    private static class BucketsS3 extends AbstractAmazonS3 {
+
+        private final Map<String, SortedMap<String, S3ObjectSummary>> buckets =
+                new HashMap<String, SortedMap<String, S3ObjectSummary>>();
+
+        private final List<String> copiedKeys = new ArrayList<String>();
+
+        private final List<String> metadataLookupThreads = new ArrayList<String>();
+
+        private final Map<String, CopyPartRequest> parts = new TreeMap<String, CopyPartRequest>();
+
+        private final CountDownLatch copyStarted = new CountDownLatch(1);
+
+        private boolean blockCopies;
+
+        synchronized void put(String bucket, String key, String eTag, long size, long lastModified) {
+            SortedMap<String, S3ObjectSummary> objects = buckets.get(bucket);
+            if (objects == null) {
+                objects = new TreeMap<String, S3ObjectSummary>();
+                buckets.put(bucket, objects);
+            }
+            S3ObjectSummary summary = summary(eTag, size, lastModified);
+            summary.setBucketName(bucket);
+            summary.setKey(key);
+            objects.put(key, summary);
+        }
+
+        synchronized List<String> keys(String bucket) {
+            SortedMap<String, S3ObjectSummary> objects = buckets.get(bucket);
+            return objects == null ? new ArrayList<String>() : new ArrayList<String>(objects.keySet());
+        }
+
+        /** Returns the source keys of the copies made, in key order. */
+        synchronized List<String> copiedKeys() {
+            List<String> keys = new ArrayList<String>(copiedKeys);
+            Collections.sort(keys);
+            return keys;
+        }
+
+        synchronized List<String> metadataLookupThreads() {
+            return new ArrayList<String>(metadataLookupThreads);
+        }
+
+        /** Makes copies wait until they are interrupted. */
+        synchronized void blockCopies() {
+            blockCopies = true;
+        }
+
+        private synchronized S3ObjectSummary get(String bucket, String key) {
+            SortedMap<String, S3ObjectSummary> objects = buckets.get(bucket);
+            return objects == null ? null : objects.get(key);
+        }
+
+        @Override
+        public synchronized ObjectListing listObjects(ListObjectsRequest request) {
+            ObjectListing listing = new ObjectListing();
+            listing.setBucketName(request.getBucketName());
+            listing.setPrefix(request.getPrefix());
+            listing.setMaxKeys(10);
+            SortedMap<String, S3ObjectSummary> objects = buckets.get(request.getBucketName());
+            if (objects == null) {
+                return listing;
+            }
+            String prefix = request.getPrefix() == null ? "" : request.getPrefix();
+            String marker = request.getMarker();
+            for (S3ObjectSummary summary : objects.values()) {
+                if (!summary.getKey().startsWith(prefix)
+                        || (marker != null && summary.getKey().compareTo(marker) <= 0)) {
+                    continue;
+                }
+                if (listing.getObjectSummaries().size() == listing.getMaxKeys()) {
+                    listing.setTruncated(true);
+                    break;
+                }
+                listing.getObjectSummaries().add(summary);
+                listing.setNextMarker(summary.getKey());
+            }
+            return listing;
+        }
+
+        @Override
+        public ObjectListing listNextBatchOfObjects(ObjectListing previousObjectListing) {
+            return listObjects(new ListObjectsRequest().withBucketName(previousObjectListing.getBucketName())
+                    .withPrefix(previousObjectListing.getPrefix())
+                    .withMarker(previousObjectListing.getNextMarker()));
+        }
+
+        @Override
+        public synchronized ObjectMetadata getObjectMetadata(GetObjectMetadataRequest request) {
+            metadataLookupThreads.add(Thread.currentThread().getName());
+            S3ObjectSummary summary = get(request.getBucketName(), request.getKey());
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(summary.getSize());
+            metadata.setContentType("text/plain");
+            return metadata;
+        }
+
+        @Override
+        public CopyObjectResult copyObject(CopyObjectRequest request) {
+            boolean block;
+            synchronized (this) {
+                copiedKeys.add(request.getSourceKey());
+                block = blockCopies;
+            }
+            copyStarted.countDown();
+            if (block) {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SdkClientException("Copy interrupted", e);
+                }
+            }
+            S3ObjectSummary source = get(request.getSourceBucketName(), request.getSourceKey());
+            put(request.getDestinationBucketName(), request.getDestinationKey(), source.getETag(),
+                    source.getSize(), System.currentTimeMillis());
+            CopyObjectResult result = new CopyObjectResult();
+            result.setETag(source.getETag());
+            return result;
+        }
+
+        @Override
+        public synchronized InitiateMultipartUploadResult initiateMultipartUpload(
+                InitiateMultipartUploadRequest request) {
+            InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+            result.setUploadId("upload-" + request.getKey());
+            return result;
+        }
+
+        @Override
+        public synchronized CopyPartResult copyPart(CopyPartRequest request) {
+            parts.put(request.getUploadId() + "/" + request.getPartNumber(), request);
+            CopyPartResult result = new CopyPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("part-" + request.getPartNumber());
+            return result;
+        }
+
+        @Override
+        public synchronized CompleteMultipartUploadResult completeMultipartUpload(
+                CompleteMultipartUploadRequest request) {
+            CopyPartRequest part = parts.get(request.getUploadId() + "/1");
+            copiedKeys.add(part.getSourceKey());
+            S3ObjectSummary source = get(part.getSourceBucketName(), part.getSourceKey());
+            put(request.getBucketName(), request.getKey(), "etag-" + request.getPartETags().size(),
+                    source.getSize(), System.currentTimeMillis());
+            CompleteMultipartUploadResult result = new CompleteMultipartUploadResult();
+            result.setBucketName(request.getBucketName());
+            result.setKey(request.getKey());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,501 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.SyncProgressListener;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.internal.MultipleFileDownloadImpl;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Downloads and uploads directories through a stubbed client with a directory
+ * transfer queue size set, so that sub-transfers start while listing.
+ */
+public class DirectoryTransferWhileListingTest {
+
+    private static final int QUEUE_SIZE = 2;
+
+    private final ListingS3 s3 = new ListingS3();
+
+    private ExecutorService executor;
+
+    private TransferManager tm;
+
+    private File directory;
+
+    @Before
+    public void setup() throws IOException {
+        executor = Executors.newFixedThreadPool(8);
+        tm = new TransferManager(s3, executor);
+        TransferManagerConfiguration configuration = new TransferManagerConfiguration();
+        configuration.setDirectoryTransferQueueSize(QUEUE_SIZE);
+        tm.setConfiguration(configuration);
+        directory = File.createTempFile("DirectoryTransferWhileListingTest", "");
+        directory.delete();
+        directory.mkdir();
+    }
+
+    @After
+    public void tearDown() {
+        s3.releaseDownloads.countDown();
+        tm.shutdownNow(false);
+        delete(directory);
+    }
+
+    @Test
+    public void downloadsInFlightAreCappedAtTheQueueSize() throws Exception {
+        s3.putObjects("dir/a", "dir/b", "dir/c", "dir/d", "dir/e", "dir/sub/f", "dir/sub/g");
+        s3.getObjectDelayMillis = 20;
+
+        MultipleFileDownload download = tm.downloadDirectory("bucket", "dir", directory);
+        download.waitForCompletion();
+
+        assertEquals(TransferState.Completed, awaitDone(download));
+        for (Map.Entry<String, byte[]> object : s3.objects.entrySet()) {
+            assertArrayEquals(object.getValue(), read(new File(directory, object.getKey())));
+        }
+        assertTrue("Downloads in flight: " + s3.maxInFlight, s3.maxInFlight <= QUEUE_SIZE);
+        assertTrue("Downloads in flight: " + s3.maxInFlight, s3.maxInFlight > 1);
+        assertEquals(s3.totalSize(), download.getProgress().getTotalBytesToTransfer());
+    }
+
+    @Test
+    public void abortWhileListingStopsFurtherDownloads() throws Exception {
+        s3.putObjects("dir/a", "dir/b", "dir/c", "dir/d", "dir/e");
+        s3.releaseDownloads = new CountDownLatch(1);
+
+        MultipleFileDownload download = tm.downloadDirectory("bucket", "dir", directory);
+        s3.awaitDownloadsStarted(QUEUE_SIZE);
+        download.abort();
+
+        assertEquals(TransferState.Canceled, awaitDone(download));
+        assertFalse(((MultipleFileDownloadImpl) download).isQueuingSubTransfers());
+        assertEquals(QUEUE_SIZE, s3.getObjectCount());
+    }
+
+    @Test
+    public void downloadIsNotDoneUntilListingFinishes() throws Exception {
+        s3.putObjects("dir/a", "dir/b", "dir/c", "dir/d", "dir/e");
+        s3.releaseNextBatch = new CountDownLatch(1);
+
+        MultipleFileDownload download = tm.downloadDirectory("bucket", "dir", directory);
+        // Every object of the first page is downloaded before the rest are listed
+        s3.awaitDownloadsFinished(ListingS3.PAGE_SIZE);
+        Thread.sleep(50);
+        assertFalse(download.isDone());
+        assertEquals(TransferState.InProgress, download.getState());
+
+        s3.releaseNextBatch.countDown();
+        download.waitForCompletion();
+
+        assertEquals(TransferState.Completed, awaitDone(download));
+        assertEquals(5, s3.getObjectCount());
+    }
+
+    @Test
+    public void progressListenerSeesTheDownloadStartOnceAndEachFileComplete() throws Exception {
+        s3.putObjects("dir/a", "dir/b", "dir/c", "dir/sub/d");
+        s3.releaseListing = new CountDownLatch(1);
+
+        MultipleFileDownload download = tm.downloadDirectory("bucket", "dir", directory);
+        TransferEventRecorder recorder = new TransferEventRecorder();
+        download.addProgressListener(recorder);
+        s3.releaseListing.countDown();
+        download.waitForCompletion();
+
+        // Each file's download completes, then the directory's
+        List<ProgressEventType> events = recorder.awaitTransferEvents(ProgressEventType.TRANSFER_COMPLETED_EVENT, 5);
+        assertEquals(ProgressEventType.TRANSFER_STARTED_EVENT, events.get(0));
+        assertEquals(1, Collections.frequency(events, ProgressEventType.TRANSFER_STARTED_EVENT));
+        assertEquals(6, events.size());
+    }
+
+    @Test
+    public void listingFailureFailsTheDownload() throws Exception {
+        s3.putObjects("dir/a", "dir/b", "dir/c", "dir/d", "dir/e");
+        s3.failNextBatch = true;
+
+        MultipleFileDownload download = tm.downloadDirectory("bucket", "dir", directory);
+        TransferEventRecorder recorder = new TransferEventRecorder();
+        download.addProgressListener(recorder);
+        try {
+            download.waitForCompletion();
+            fail("The download was expected to fail");
+        } catch (AmazonServiceException expected) {
+            assertEquals("Listing failed", expected.getErrorMessage());
+        }
+
+        assertEquals(TransferState.Failed, awaitDone(download));
+        assertTrue(((MultipleFileDownloadImpl) download).getQueuingFailure() instanceof AmazonServiceException);
+        assertEquals(ListingS3.PAGE_SIZE, s3.getObjectCount());
+        // The files listed before the failure are still downloaded
+        recorder.awaitTransferEvents(ProgressEventType.TRANSFER_COMPLETED_EVENT, ListingS3.PAGE_SIZE);
+        List<ProgressEventType> events = recorder.awaitTransferEvents(ProgressEventType.TRANSFER_FAILED_EVENT, 1);
+        assertEquals(1, Collections.frequency(events, ProgressEventType.TRANSFER_FAILED_EVENT));
+    }
+
+    @Test
+    public void uploadsInFlightAreCappedAtTheQueueSize() throws Exception {
+        write("a", "b", "sub/c", "sub/d", "sub/deeper/e");
+        s3.putObjectDelayMillis = 20;
+
+        MultipleFileUpload upload = tm.uploadDirectory("bucket", "prefix", directory, true);
+        upload.waitForCompletion();
+
+        assertEquals(TransferState.Completed, awaitDone(upload));
+        assertEquals(Arrays.asList("prefix/a", "prefix/b", "prefix/sub/c", "prefix/sub/d", "prefix/sub/deeper/e"),
+                new ArrayList<String>(s3.objects.keySet()));
+        assertArrayEquals("sub/deeper/e".getBytes(), s3.objects.get("prefix/sub/deeper/e"));
+        assertTrue("Uploads in flight: " + s3.maxInFlight, s3.maxInFlight <= QUEUE_SIZE);
+        assertTrue("Uploads in flight: " + s3.maxInFlight, s3.maxInFlight > 1);
+        assertEquals(s3.totalSize(), upload.getProgress().getTotalBytesToTransfer());
+    }
+
+    @Test
+    public void uploadWithoutSubdirectoriesSkipsThem() throws Exception {
+        write("a", "sub/b");
+
+        MultipleFileUpload upload = tm.uploadDirectory("bucket", "", directory, false);
+        upload.waitForCompletion();
+
+        assertEquals(TransferState.Completed, awaitDone(upload));
+        assertEquals(Arrays.asList("a"), new ArrayList<String>(s3.objects.keySet()));
+    }
+
+    /**
+     * Waits for the last sub-transfer to report its final state to the
+     * transfer, which may happen just after waitForCompletion returns.
+     */
+    private static TransferState awaitDone(Transfer transfer) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!transfer.isDone()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("The transfer didn't finish");
+            }
+            Thread.sleep(10);
+        }
+        return transfer.getState();
+    }
+
+    /** Writes files under the directory, each containing its own path. */
+    private void write(String... paths) throws IOException {
+        for (String path : paths) {
+            File file = new File(directory, path);
+            file.getParentFile().mkdirs();
+            FileOutputStream out = new FileOutputStream(file);
+            try {
+                out.write(path.getBytes());
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private static byte[] read(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return IOUtils.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Records the transfer events published to the listeners of a directory
+     * transfer, which also receive the events of each file's transfer.
+     */
+    private static class TransferEventRecorder extends SyncProgressListener {
+        private final List<ProgressEventType> events = new ArrayList<ProgressEventType>();
+
+        @Override
+        public synchronized void progressChanged(ProgressEvent progressEvent) {
+            if (progressEvent.getEventType().isTransferEvent()) {
+                events.add(progressEvent.getEventType());
+                notifyAll();
+            }
+        }
+
+        /**
+         * Waits for the given number of events of a type, and
+         * returns every transfer event recorded.
+         */
+        synchronized List<ProgressEventType> awaitTransferEvents(ProgressEventType type, int count)
+                throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (Collections.frequency(events, type) < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("Transfer events: " + events, remaining > 0);
+                wait(remaining);
+            }
+            return new ArrayList<ProgressEventType>(events);
+        }
+    }
+
+    /**
+     * Lists, downloads and uploads objects held in memory, a few at a time,
+     * recording how many transfers are in flight at once.
+     */
+    private static class ListingS3 extends AbstractAmazonS3 {
+
+        private static final int PAGE_SIZE = 2;
+
+        private final SortedMap<String, byte[]> objects = new TreeMap<String, byte[]>();
+
+        private volatile long getObjectDelayMillis;
+        private volatile long putObjectDelayMillis;
+        private volatile boolean failNextBatch;
+        private volatile CountDownLatch releaseListing = new CountDownLatch(0);
+        private volatile CountDownLatch releaseNextBatch = new CountDownLatch(0);
+        private volatile CountDownLatch releaseDownloads = new CountDownLatch(0);
+
+        private int inFlight;
+        private int maxInFlight;
+        private int getObjectCount;
+        private int downloadsFinished;
+
+        synchronized void putObjects(String... keys) {
+            for (String key : keys) {
+                objects.put(key, key.getBytes());
+            }
+        }
+
+        synchronized long totalSize() {
+            long size = 0;
+            for (byte[] content : objects.values()) {
+                size += content.length;
+            }
+            return size;
+        }
+
+        synchronized int getObjectCount() {
+            return getObjectCount;
+        }
+
+        synchronized void awaitDownloadsStarted(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (getObjectCount < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("Downloads started: " + getObjectCount, remaining > 0);
+                wait(remaining);
+            }
+        }
+
+        synchronized void awaitDownloadsFinished(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 10000;
+            while (downloadsFinished < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                assertTrue("Downloads finished: " + downloadsFinished, remaining > 0);
+                wait(remaining);
+            }
+        }
+
+        @Override
+        public ObjectListing listObjects(ListObjectsRequest request) {
+            await(releaseListing);
+            return list(request.getBucketName(), request.getPrefix(), null);
+        }
+
+        @Override
+        public ObjectListing listNextBatchOfObjects(ObjectListing previous) {
+            await(releaseNextBatch);
+            if (failNextBatch) {
+                throw new AmazonServiceException("Listing failed");
+            }
+            return list(previous.getBucketName(), previous.getPrefix(), previous.getNextMarker());
+        }
+
+        /**
+         * Lists a page of the objects and virtual subdirectories directly
+         * under the prefix, after the marker.
+         */
+        private synchronized ObjectListing list(String bucketName, String prefix, String marker) {
+            ObjectListing listing = new ObjectListing();
+            listing.setBucketName(bucketName);
+            listing.setPrefix(prefix);
+            listing.setDelimiter("/");
+            int entries = 0;
+            for (Map.Entry<String, byte[]> object : objects.entrySet()) {
+                String key = object.getKey();
+                if (!key.startsWith(prefix) || isListedBefore(key, marker)) {
+                    continue;
+                }
+                int delimiter = key.indexOf('/', prefix.length());
+                String commonPrefix = delimiter < 0 ? null : key.substring(0, delimiter + 1);
+                if (commonPrefix != null && listing.getCommonPrefixes().contains(commonPrefix)) {
+                    continue;
+                }
+                if (entries == PAGE_SIZE) {
+                    listing.setTruncated(true);
+                    break;
+                }
+                if (commonPrefix != null) {
+                    listing.getCommonPrefixes().add(commonPrefix);
+                    listing.setNextMarker(commonPrefix);
+                } else {
+                    S3ObjectSummary summary = new S3ObjectSummary();
+                    summary.setBucketName(bucketName);
+                    summary.setKey(key);
+                    summary.setSize(object.getValue().length);
+                    listing.getObjectSummaries().add(summary);
+                    listing.setNextMarker(key);
+                }
+                entries++;
+            }
+            return listing;
+        }
+
+        private static boolean isListedBefore(String key, String marker) {
+            return marker != null
+                    && (key.compareTo(marker) <= 0 || (marker.endsWith("/") && key.startsWith(marker)));
+        }
+
+        @Override
+        public synchronized ObjectMetadata getObjectMetadata(GetObjectMetadataRequest request) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(objects.get(request.getKey()).length);
+            metadata.setLastModified(new Date(0));
+            metadata.setHeader("ETag", "etag");
+            return metadata;
+        }
+
+        @Override
+        public S3Object getObject(GetObjectRequest request) {
+            byte[] content;
+            synchronized (this) {
+                content = objects.get(request.getKey());
+                getObjectCount++;
+                notifyAll();
+            }
+            started();
+            try {
+                releaseDownloads.await();
+                if (getObjectDelayMillis > 0) {
+                    Thread.sleep(getObjectDelayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } finally {
+                finished();
+            }
+            long[] range = request.getRange();
+            S3Object object = new S3Object();
+            object.setBucketName(request.getBucketName());
+            object.setKey(request.getKey());
+            object.setObjectContent(new ByteArrayInputStream(content, (int) range[0],
+                    (int) (range[1] - range[0] + 1)) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    synchronized (ListingS3.this) {
+                        downloadsFinished++;
+                        ListingS3.this.notifyAll();
+                    }
+                }
+            });
+            return object;
+        }
+
+        @Override
+        public PutObjectResult putObject(PutObjectRequest request) {
+            started();
+            try {
+                if (putObjectDelayMillis > 0) {
+                    Thread.sleep(putObjectDelayMillis);
+                }
+                byte[] content = read(request.getFile());
+                synchronized (this) {
+                    objects.put(request.getKey(), content);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                finished();
+            }
+            return new PutObjectResult();
+        }
+
+        private synchronized void started() {
+            inFlight++;
+            maxInFlight = Math.max(maxInFlight, inFlight);
+        }
+
+        private synchronized void finished() {
+            inFlight--;
+        }
+
+        private static void await(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.internal.DownloadImpl;
+import com.amazonaws.services.s3.transfer.internal.DownloadMonitor;
+import com.amazonaws.services.s3.transfer.internal.InMemoryObjectS3;
+
+/**
+ * Runs ranged parallel downloads through {@link DownloadCallable} and the
+ * CompleteRangedDownload it hands the ranges to.
+ */
+public class RangedDownloadTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    private static final long RANGE_SIZE = 4;
+
+    private final InMemoryObjectS3 s3 = new InMemoryObjectS3(CONTENT);
+
+    /** A single thread, so that ranges are requested and completed in order. */
+    private ExecutorService executor;
+
+    private File file;
+
+    private DownloadImpl download;
+
+    @Before
+    public void setup() throws IOException {
+        executor = Executors.newSingleThreadExecutor();
+        file = File.createTempFile("RangedDownloadTest", ".tmp");
+        download = new DownloadImpl("Downloading key", new TransferProgress(), new ProgressListenerChain(), null,
+                null, new GetObjectRequest("bucket", "key"), file, s3.metadata(), true,
+                Long.valueOf(RANGE_SIZE));
+        download.setMonitor(new DownloadMonitor(download, null));
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        file.delete();
+    }
+
+    @Test
+    public void objectIsSplitIntoRangesWithAShorterLastRange() throws Exception {
+        assertEquals(file, download(null));
+
+        assertRanges(new long[] {0, 3}, new long[] {4, 7}, new long[] {8, 9});
+        assertArrayEquals(CONTENT, readFile());
+        assertEquals(TransferState.Completed, download.getState());
+        assertEquals(Integer.valueOf(3), download.getLastFullyDownloadedPartNumber());
+    }
+
+    @Test
+    public void objectChangedMidDownloadFailsTheDownload() throws Exception {
+        s3.changeETagAfter(1);
+
+        try {
+            download(null);
+            fail("The download was expected to fail");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof SdkClientException);
+            assertTrue(expected.getCause().getMessage().contains("modified"));
+        }
+        assertEquals(TransferState.Failed, download.getState());
+        assertEquals(Integer.valueOf(1), download.getLastFullyDownloadedPartNumber());
+    }
+
+    @Test
+    public void brokenContentIsRetriedWithinTheRange() throws Exception {
+        s3.failNextContentAfter(1);
+
+        download(null);
+
+        assertRanges(new long[] {0, 3}, new long[] {1, 3}, new long[] {4, 7}, new long[] {8, 9});
+        assertArrayEquals(CONTENT, readFile());
+        assertEquals(TransferState.Completed, download.getState());
+    }
+
+    @Test
+    public void resumedDownloadSkipsTheRangesAlreadyWritten() throws Exception {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(CONTENT, 0, (int) RANGE_SIZE);
+        } finally {
+            out.close();
+        }
+
+        download(Integer.valueOf(1));
+
+        assertRanges(new long[] {4, 7}, new long[] {8, 9});
+        assertArrayEquals(CONTENT, readFile());
+        assertEquals(RANGE_SIZE, download.getProgress().getBytesTransferred());
+        assertEquals(Integer.valueOf(3), download.getLastFullyDownloadedPartNumber());
+    }
+
+    @Test
+    public void resumingAfterTheFileWasTruncatedFails() throws Exception {
+        try {
+            download(Integer.valueOf(2));
+            fail("The download was expected to fail");
+        } catch (SdkClientException expected) {
+            assertTrue(expected.getMessage().contains("modified"));
+        }
+        assertTrue(s3.getRequestedRanges().isEmpty());
+        assertEquals(TransferState.Failed, download.getState());
+    }
+
+    /**
+     * Starts a ranged download, resuming after the given number of ranges,
+     * and waits for it to complete.
+     */
+    private File download(Integer lastFullyDownloadedPartNumber) throws Exception {
+        DownloadCallable callable = new DownloadCallable(s3, new CountDownLatch(0),
+                new GetObjectRequest("bucket", "key"), false, download, file, 0, CONTENT.length, 0, null,
+                executor, lastFullyDownloadedPartNumber, true, false, RANGE_SIZE);
+        callable.call();
+        return (File) ((DownloadMonitor) download.getMonitor()).getFuture().get();
+    }
+
+    private void assertRanges(long[]... expected) {
+        List<long[]> ranges = s3.getRequestedRanges();
+        assertEquals(expected.length, ranges.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], ranges.get(i));
+        }
+    }
+
+    private byte[] readFile() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            byte[] bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+            return bytes;
+        } finally {
+            raf.close();
+        }
+    }
+}
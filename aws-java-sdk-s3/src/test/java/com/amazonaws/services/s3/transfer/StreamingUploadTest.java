@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Uploads streams of unknown length through a stubbed client.
+ */
+public class StreamingUploadTest {
+
+    private static final int PART_SIZE = 100;
+
+    private static final int CONCURRENCY = 3;
+
+    private final PartsS3 s3 = new PartsS3();
+
+    private ExecutorService executor;
+
+    private TransferManager tm;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(8);
+        tm = new TransferManager(s3, executor);
+        TransferManagerConfiguration configuration = new TransferManagerConfiguration();
+        configuration.setMinimumUploadPartSize(PART_SIZE);
+        configuration.setStreamingUploadConcurrency(CONCURRENCY);
+        tm.setConfiguration(configuration);
+    }
+
+    @After
+    public void tearDown() {
+        tm.shutdownNow(false);
+    }
+
+    @Test
+    public void streamShorterThanAPartIsUploadedInOneRequest() throws Exception {
+        byte[] content = content(PART_SIZE - 1);
+
+        tm.upload("bucket", "key", new ByteArrayInputStream(content), new ObjectMetadata())
+                .waitForUploadResult();
+
+        assertArrayEquals(content, s3.putContent);
+        assertEquals(PART_SIZE - 1, s3.putContentLength);
+        assertNull(s3.uploadId);
+    }
+
+    @Test
+    public void streamIsUploadedInPartsOfTheMinimumPartSize() throws Exception {
+        byte[] content = content(PART_SIZE * 4 + 10);
+
+        Upload upload = tm.upload("bucket", "key", new ByteArrayInputStream(content), new ObjectMetadata());
+        upload.waitForUploadResult();
+
+        assertEquals(TransferState.Completed, upload.getState());
+        assertArrayEquals(content, s3.completedContent());
+        assertEquals(5, s3.completedParts.size());
+        assertEquals(PART_SIZE * 4 + 10, upload.getProgress().getTotalBytesToTransfer());
+    }
+
+    @Test
+    public void partsInFlightAndBufferedAreCappedAtTheStreamingConcurrency() throws Exception {
+        s3.partDelayMillis = 20;
+        byte[] content = content(PART_SIZE * 12);
+        ReadAheadMeasuringInputStream input = new ReadAheadMeasuringInputStream(content, s3);
+
+        tm.upload("bucket", "key", input, new ObjectMetadata()).waitForUploadResult();
+
+        assertArrayEquals(content, s3.completedContent());
+        assertTrue("Parts in flight: " + s3.maxPartsInFlight, s3.maxPartsInFlight <= CONCURRENCY);
+        assertTrue("Parts in flight: " + s3.maxPartsInFlight, s3.maxPartsInFlight > 1);
+        long maxReadAhead = input.getMaxReadAhead();
+        assertTrue("Bytes read ahead: " + maxReadAhead, maxReadAhead <= PART_SIZE * CONCURRENCY);
+    }
+
+    @Test
+    public void partsMayCompleteOutOfOrder() throws Exception {
+        s3.holdPartUntilNextCompletes = 1;
+        byte[] content = content(PART_SIZE * 5);
+
+        tm.upload("bucket", "key", new ByteArrayInputStream(content), new ObjectMetadata())
+                .waitForUploadResult();
+
+        assertEquals(Integer.valueOf(2), s3.completionOrder.get(0));
+        assertArrayEquals(content, s3.completedContent());
+    }
+
+    @Test
+    public void failedPartAbortsTheUpload() throws Exception {
+        s3.failPart = 2;
+        Upload upload = tm.upload("bucket", "key", new ByteArrayInputStream(content(PART_SIZE * 5)),
+                new ObjectMetadata());
+
+        try {
+            upload.waitForUploadResult();
+            fail("The upload was expected to fail");
+        } catch (AmazonServiceException expected) {
+            assertEquals("Part failed", expected.getErrorMessage());
+        }
+        assertEquals(TransferState.Failed, upload.getState());
+        assertEquals(s3.uploadId, s3.abortedUploadId);
+        assertTrue(s3.completedParts.isEmpty());
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    /**
+     * Measures how many bytes the upload has read from the stream beyond
+     * those of the parts already uploaded, which it must hold in memory.
+     */
+    private static class ReadAheadMeasuringInputStream extends ByteArrayInputStream {
+        private final PartsS3 s3;
+        private long read;
+        private long maxReadAhead;
+
+        ReadAheadMeasuringInputStream(byte[] content, PartsS3 s3) {
+            super(content);
+            this.s3 = s3;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                read += n;
+                maxReadAhead = Math.max(maxReadAhead, read - s3.uploadedBytes());
+            }
+            return n;
+        }
+
+        synchronized long getMaxReadAhead() {
+            return maxReadAhead;
+        }
+    }
+
+    /**
+     * Accepts multipart uploads, recording the parts and how many are in
+     * flight at once.
+     */
+    private static class PartsS3 extends AbstractAmazonS3 {
+
+        private final SortedMap<Integer, byte[]> parts = new TreeMap<Integer, byte[]>();
+        private final List<Integer> completionOrder = new ArrayList<Integer>();
+        private final CountDownLatch nextPartCompleted = new CountDownLatch(1);
+
+        private volatile long partDelayMillis;
+        private volatile int holdPartUntilNextCompletes;
+        private volatile int failPart;
+
+        private String uploadId;
+        private String abortedUploadId;
+        private byte[] putContent;
+        private long putContentLength;
+        private List<PartETag> completedParts = new ArrayList<PartETag>();
+
+        private int partsInFlight;
+        private int maxPartsInFlight;
+
+        @Override
+        public synchronized PutObjectResult putObject(PutObjectRequest request) {
+            try {
+                putContent = IOUtils.toByteArray(request.getInputStream());
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            putContentLength = request.getMetadata().getContentLength();
+            return new PutObjectResult();
+        }
+
+        @Override
+        public synchronized InitiateMultipartUploadResult initiateMultipartUpload(
+                InitiateMultipartUploadRequest request) {
+            uploadId = "upload-" + request.getKey();
+            InitiateMultipartUploadResult result = new InitiateMultipartUploadResult();
+            result.setUploadId(uploadId);
+            return result;
+        }
+
+        @Override
+        public UploadPartResult uploadPart(UploadPartRequest request) {
+            int partNumber = request.getPartNumber();
+            synchronized (this) {
+                partsInFlight++;
+                maxPartsInFlight = Math.max(maxPartsInFlight, partsInFlight);
+            }
+            try {
+                if (partNumber == failPart) {
+                    throw new AmazonServiceException("Part failed");
+                }
+                if (partNumber == holdPartUntilNextCompletes) {
+                    nextPartCompleted.await(10, TimeUnit.SECONDS);
+                }
+                if (partDelayMillis > 0) {
+                    Thread.sleep(partDelayMillis);
+                }
+                byte[] data = IOUtils.toByteArray(request.getInputStream());
+                synchronized (this) {
+                    parts.put(partNumber, data);
+                    completionOrder.add(partNumber);
+                }
+                if (partNumber == holdPartUntilNextCompletes + 1) {
+                    nextPartCompleted.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                synchronized (this) {
+                    partsInFlight--;
+                }
+            }
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(partNumber);
+            result.setETag("etag-" + partNumber);
+            return result;
+        }
+
+        @Override
+        public synchronized CompleteMultipartUploadResult completeMultipartUpload(
+                CompleteMultipartUploadRequest request) {
+            completedParts = new ArrayList<PartETag>(request.getPartETags());
+            CompleteMultipartUploadResult result = new CompleteMultipartUploadResult();
+            result.setBucketName(request.getBucketName());
+            result.setKey(request.getKey());
+            return result;
+        }
+
+        @Override
+        public synchronized void abortMultipartUpload(AbortMultipartUploadRequest request) {
+            abortedUploadId = request.getUploadId();
+        }
+
+        synchronized long uploadedBytes() {
+            long uploaded = 0;
+            for (byte[] part : parts.values()) {
+                uploaded += part.length;
+            }
+            return uploaded;
+        }
+
+        /** Returns the content of the parts listed by the completed upload, in order. */
+        synchronized byte[] completedContent() throws IOException {
+            SortedMap<Integer, byte[]> completed = new TreeMap<Integer, byte[]>();
+            for (PartETag part : completedParts) {
+                completed.put(part.getPartNumber(), parts.get(part.getPartNumber()));
+            }
+            assertEquals(completedParts.size(), completed.size());
+            assertEquals(Integer.valueOf(1), completed.firstKey());
+            assertEquals(Integer.valueOf(completed.size()), completed.lastKey());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (byte[] part : completed.values()) {
+                out.write(part);
+            }
+            return out.toByteArray();
+        }
+    }
+}
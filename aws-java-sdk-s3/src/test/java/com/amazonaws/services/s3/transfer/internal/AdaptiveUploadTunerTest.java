@@ -0,0 +1,206 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
+
+/**
+ * Feeds part upload times and retries to an {@link AdaptiveUploadTuner} and
+ * checks the part size and number of parts in flight it settles on.
+ */
+public class AdaptiveUploadTunerTest {
+
+    private static final long MB = 1024 * 1024;
+
+    /** Between {@link AdaptiveUploadTuner#MIN_PART_NANOS} and {@link AdaptiveUploadTuner#MAX_PART_NANOS}. */
+    private static final long STEADY_SECONDS = 5;
+
+    private final AdaptiveUploadTuner tuner = new AdaptiveUploadTuner();
+
+    private final TransferManagerConfiguration configuration = new TransferManagerConfiguration();
+
+    /** The current {@link System#nanoTime()} as seen by the tuner. */
+    private long now;
+
+    @Before
+    public void setup() {
+        configuration.setAdaptiveUploadConcurrency(8);
+        // As an upload does before submitting its first part
+        tuner.concurrencyLimit(configuration);
+        tuner.nextPartSize(configuration);
+    }
+
+    @Test
+    public void startsFromTheMinimumPartSizeAndInitialConcurrency() {
+        assertEquals(5 * MB, tuner.nextPartSize(configuration));
+        assertEquals(AdaptiveUploadTuner.INITIAL_CONCURRENCY, tuner.concurrencyLimit(configuration));
+    }
+
+    @Test
+    public void fastPartsAreGrown() {
+        part(5 * MB, 1, 0);
+        part(10 * MB, 1, 0);
+
+        assertEquals(20 * MB, tuner.nextPartSize(configuration));
+        assertEquals(2, tuner.getPartSizeIncreaseCount());
+    }
+
+    @Test
+    public void partsAreNotGrownPastTheMaximumPartSize() {
+        long partSize = 5 * MB;
+        for (int i = 0; i < 20; i++) {
+            part(partSize, 1, 0);
+            partSize = tuner.nextPartSize(configuration);
+        }
+
+        assertEquals(AdaptiveUploadTuner.MAX_PART_SIZE, partSize);
+    }
+
+    @Test
+    public void slowPartsAreShrunkDownToTheMinimumPartSize() {
+        part(5 * MB, 1, 0);
+        part(10 * MB, 1, 0);
+
+        part(20 * MB, 30, 0);
+        assertEquals(10 * MB, tuner.nextPartSize(configuration));
+        part(10 * MB, 30, 0);
+        part(5 * MB, 30, 0);
+
+        assertEquals(5 * MB, tuner.nextPartSize(configuration));
+        assertEquals(2, tuner.getPartSizeDecreaseCount());
+    }
+
+    @Test
+    public void partsOfAnotherSizeDoNotChangeThePartSize() {
+        part(3 * MB, 1, 0);
+        part(5 * MB, STEADY_SECONDS, 0);
+
+        assertEquals(5 * MB, tuner.nextPartSize(configuration));
+    }
+
+    @Test
+    public void concurrencyIsRaisedWhileThroughputImproves() {
+        window(4, STEADY_SECONDS);
+        assertEquals(5, tuner.concurrencyLimit(configuration));
+        assertEquals(4 * MB, tuner.getThroughput());
+
+        window(5, STEADY_SECONDS);
+        assertEquals(6, tuner.concurrencyLimit(configuration));
+        assertEquals(5 * MB, tuner.getThroughput());
+        assertEquals(2, tuner.getConcurrencyIncreaseCount());
+    }
+
+    @Test
+    public void concurrencyThatDoesNotImproveThroughputIsTakenBackAndHeld() {
+        window(4, STEADY_SECONDS);
+        // Five parts barely achieve more than four did
+        window(5, STEADY_SECONDS * 5 / 4);
+        assertEquals(4, tuner.concurrencyLimit(configuration));
+        assertEquals(1, tuner.getConcurrencyDecreaseCount());
+
+        for (int i = 0; i < AdaptiveUploadTuner.HOLD_WINDOWS; i++) {
+            window(4, STEADY_SECONDS);
+            assertEquals(4, tuner.concurrencyLimit(configuration));
+        }
+        window(4, STEADY_SECONDS);
+        assertEquals(5, tuner.concurrencyLimit(configuration));
+    }
+
+    @Test
+    public void concurrencyIsNotRaisedPastTheConfiguredMaximum() {
+        configuration.setAdaptiveUploadConcurrency(5);
+
+        window(4, STEADY_SECONDS);
+        window(5, 1);
+        window(5, 1);
+
+        assertEquals(5, tuner.concurrencyLimit(configuration));
+
+        configuration.setAdaptiveUploadConcurrency(2);
+        assertEquals(2, tuner.concurrencyLimit(configuration));
+    }
+
+    @Test
+    public void retriesHalveTheConcurrencyAndHoldOffGrowth() {
+        part(5 * MB, 1, 3);
+        assertEquals(2, tuner.concurrencyLimit(configuration));
+        assertEquals(3, tuner.getRetryCount());
+        assertEquals(1, tuner.getConcurrencyDecreaseCount());
+        assertEquals(5 * MB, tuner.nextPartSize(configuration));
+
+        // Closes the window the retries happened in, without growing anything
+        part(5 * MB, 1, 0);
+        assertEquals(5 * MB, tuner.nextPartSize(configuration));
+        assertEquals(2, tuner.concurrencyLimit(configuration));
+
+        part(5 * MB, 1, 0);
+        assertEquals(10 * MB, tuner.nextPartSize(configuration));
+    }
+
+    @Test
+    public void retriesDuringAProbeEndIt() {
+        window(4, STEADY_SECONDS);
+        assertEquals(5, tuner.concurrencyLimit(configuration));
+
+        part(5 * MB, STEADY_SECONDS, 1);
+
+        assertEquals(2, tuner.concurrencyLimit(configuration));
+        // The slow window that follows doesn't take the probe back again
+        window(1, STEADY_SECONDS * 10);
+        assertEquals(2, tuner.concurrencyLimit(configuration));
+        assertEquals(1, tuner.getConcurrencyDecreaseCount());
+    }
+
+    @Test
+    public void partsGrownPastTheThresholdRaiseIt() {
+        assertEquals(16 * MB, tuner.multipartUploadThreshold(configuration));
+
+        part(5 * MB, 1, 0);
+        part(10 * MB, 1, 0);
+
+        assertEquals(20 * MB, tuner.multipartUploadThreshold(configuration));
+    }
+
+    /**
+     * Records a part that took the given number of seconds to upload, on its
+     * own.
+     */
+    private void part(long bytes, long seconds, int retries) {
+        long nanos = TimeUnit.SECONDS.toNanos(seconds);
+        now += nanos;
+        tuner.onPartUploaded(bytes, nanos, retries, configuration, now);
+    }
+
+    /**
+     * Records the given number of parts of the current size, all uploaded
+     * together over the given number of seconds, which measures the
+     * throughput if they are as many as the parts in flight.
+     */
+    private void window(int parts, long seconds) {
+        long partSize = tuner.nextPartSize(configuration);
+        long nanos = TimeUnit.SECONDS.toNanos(seconds);
+        now += nanos;
+        for (int i = 0; i < parts; i++) {
+            tuner.onPartUploaded(partSize, nanos, 0, configuration, now);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.event.ProgressEvent;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.event.SyncProgressListener;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult;
+import com.amazonaws.services.s3.transfer.model.BulkDeleteResult.FailedBatch;
+
+/**
+ * Runs bulk deletes through a {@link BulkDeleteCallable} against a stubbed
+ * client.
+ */
+public class BulkDeleteCallableTest {
+
+    private final DeletingS3 s3 = new DeletingS3();
+
+    private final TransferProgress progress = new TransferProgress();
+
+    private final EventRecorder events = new EventRecorder();
+
+    private ExecutorService executor;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void keysAreDeletedInQuietBatchesOfAtMostAThousand() throws Exception {
+        BulkDeleteResult result = delete(keys(2500));
+
+        assertEquals(2500, result.getDeletedObjectCount());
+        assertTrue(result.getFailedBatches().isEmpty());
+        assertEquals("bucket", result.getBucketName());
+        List<Integer> sizes = s3.requestSizes();
+        Collections.sort(sizes);
+        assertEquals(3, sizes.size());
+        assertEquals(Integer.valueOf(500), sizes.get(0));
+        assertEquals(Integer.valueOf(1000), sizes.get(2));
+        assertTrue(s3.allQuiet);
+    }
+
+    @Test
+    public void deletedObjectsAreCountedThroughTheirOwnEvents() throws Exception {
+        delete(keys(1500));
+
+        assertEquals(1500, events.objectsDeleted);
+        assertEquals(0, events.bytesTransferred);
+        assertEquals(1500, progress.getBytesTransferred());
+    }
+
+    @Test
+    public void keysFailingWithARetryableErrorAreRetriedOnTheirOwn() throws Exception {
+        s3.failKey("key-3", "SlowDown", 1);
+        s3.failKey("key-5", "InternalError", 1);
+
+        BulkDeleteResult result = delete(keys(10));
+
+        assertEquals(10, result.getDeletedObjectCount());
+        assertTrue(result.getFailedBatches().isEmpty());
+        assertEquals(2, s3.requestSizes().size());
+        assertEquals(Integer.valueOf(2), s3.requestSizes().get(1));
+        assertEquals(10, progress.getBytesTransferred());
+    }
+
+    @Test
+    public void keysFailingWithOtherErrorsAreReturnedAsAFailedBatch() throws Exception {
+        s3.failKey("key-3", "AccessDenied", 1);
+
+        BulkDeleteResult result = delete(keys(10));
+
+        assertEquals(9, result.getDeletedObjectCount());
+        assertEquals(1, s3.requestSizes().size());
+        assertEquals(1, result.getFailedBatches().size());
+        FailedBatch failed = result.getFailedBatches().get(0);
+        assertEquals(1, failed.getKeys().size());
+        assertEquals("key-3", failed.getKeys().get(0).getKey());
+        List<DeleteError> errors = ((MultiObjectDeleteException) failed.getException()).getErrors();
+        assertEquals(1, errors.size());
+        assertEquals("AccessDenied", errors.get(0).getCode());
+    }
+
+    @Test
+    public void keysRetriedTooOftenAreReturnedAsAFailedBatch() throws Exception {
+        s3.failKey("key-0", "SlowDown", Integer.MAX_VALUE);
+
+        BulkDeleteResult result = delete(keys(2));
+
+        assertEquals(1, result.getDeletedObjectCount());
+        assertEquals(1 + BulkDeleteCallable.MAX_KEY_RETRIES, s3.requestSizes().size());
+        assertEquals("key-0", result.getFailedBatches().get(0).getKeys().get(0).getKey());
+    }
+
+    @Test
+    public void failedRequestIsRecordedAndTheOtherBatchesAreStillDeleted() throws Exception {
+        AmazonServiceException failure = new AmazonServiceException("Request failed");
+        s3.failRequestWithKey("key-1000", failure);
+
+        BulkDeleteResult result = delete(keys(2500));
+
+        assertEquals(1500, result.getDeletedObjectCount());
+        assertEquals(3, s3.requestSizes().size());
+        assertEquals(1, result.getFailedBatches().size());
+        FailedBatch failed = result.getFailedBatches().get(0);
+        assertSame(failure, failed.getException());
+        assertEquals(1000, failed.getKeys().size());
+        assertEquals("key-1000", failed.getKeys().get(0).getKey());
+        assertEquals(1500, progress.getBytesTransferred());
+    }
+
+    @Test
+    public void failureToProduceTheKeysFailsTheBulkDelete() throws Exception {
+        final RuntimeException failure = new RuntimeException("Listing failed");
+        Iterable<KeyVersion> keys = new Iterable<KeyVersion>() {
+            public Iterator<KeyVersion> iterator() {
+                throw failure;
+            }
+        };
+
+        try {
+            delete(keys);
+            fail("The bulk delete was expected to fail");
+        } catch (RuntimeException expected) {
+            assertSame(failure, expected);
+        }
+    }
+
+    private BulkDeleteResult delete(Iterable<KeyVersion> keys) throws Exception {
+        ProgressListenerChain listenerChain = new ProgressListenerChain(
+                new BulkDeleteProgressUpdatingListener(progress), events);
+        BulkDeleteImpl bulkDelete = new BulkDeleteImpl("Deleting", progress, listenerChain, null);
+        return new BulkDeleteCallable(s3, executor, bulkDelete, "bucket", keys, 2, listenerChain).call();
+    }
+
+    private static List<KeyVersion> keys(int count) {
+        List<KeyVersion> keys = new ArrayList<KeyVersion>();
+        for (int i = 0; i < count; i++) {
+            keys.add(new KeyVersion("key-" + i));
+        }
+        return keys;
+    }
+
+    /** Totals the objects deleted and bytes transferred published. */
+    private static class EventRecorder extends SyncProgressListener {
+        private long objectsDeleted;
+        private long bytesTransferred;
+
+        @Override
+        public synchronized void progressChanged(ProgressEvent progressEvent) {
+            if (progressEvent.getEventType() == ProgressEventType.TRANSFER_OBJECTS_DELETED_EVENT) {
+                objectsDeleted += progressEvent.getBytes();
+            }
+            bytesTransferred += progressEvent.getBytesTransferred();
+        }
+    }
+
+    /**
+     * Accepts multi-object delete requests, failing the keys and requests it
+     * is told to.
+     */
+    private static class DeletingS3 extends AbstractAmazonS3 {
+        private final List<Integer> requestSizes = new ArrayList<Integer>();
+        private final Map<String, String> keyErrorCodes = new HashMap<String, String>();
+        private final Map<String, Integer> keyFailuresLeft = new HashMap<String, Integer>();
+        private final Map<String, RuntimeException> requestFailures = new HashMap<String, RuntimeException>();
+        private boolean allQuiet = true;
+
+        synchronized void failKey(String key, String code, int times) {
+            keyErrorCodes.put(key, code);
+            keyFailuresLeft.put(key, times);
+        }
+
+        /** Fails the request whose first key is the given key. */
+        synchronized void failRequestWithKey(String key, RuntimeException failure) {
+            requestFailures.put(key, failure);
+        }
+
+        synchronized List<Integer> requestSizes() {
+            return new ArrayList<Integer>(requestSizes);
+        }
+
+        @Override
+        public synchronized DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+            List<KeyVersion> keys = request.getKeys();
+            requestSizes.add(keys.size());
+            allQuiet &= request.getQuiet();
+            RuntimeException failure = requestFailures.get(keys.get(0).getKey());
+            if (failure != null) {
+                throw failure;
+            }
+            List<DeleteError> errors = new ArrayList<DeleteError>();
+            for (KeyVersion key : keys) {
+                Integer failuresLeft = keyFailuresLeft.get(key.getKey());
+                if (failuresLeft != null && failuresLeft > 0) {
+                    keyFailuresLeft.put(key.getKey(), failuresLeft - 1);
+                    DeleteError error = new DeleteError();
+                    error.setKey(key.getKey());
+                    error.setCode(keyErrorCodes.get(key.getKey()));
+                    errors.add(error);
+                }
+            }
+            if (!errors.isEmpty()) {
+                throw new MultiObjectDeleteException(errors, Collections.<DeletedObject>emptyList());
+            }
+            return new DeleteObjectsResult(Collections.<DeletedObject>emptyList());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+
+public class DownloadRangeCallableTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes();
+
+    private final InMemoryObjectS3 s3 = new InMemoryObjectS3(CONTENT);
+
+    private File file;
+
+    private RandomAccessFile raf;
+
+    private FileChannel destination;
+
+    @Before
+    public void setup() throws IOException {
+        file = File.createTempFile("DownloadRangeCallableTest", ".tmp");
+        raf = new RandomAccessFile(file, "rw");
+        raf.setLength(CONTENT.length);
+        destination = raf.getChannel();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        raf.close();
+        file.delete();
+    }
+
+    @Test
+    public void rangeIsWrittenAtItsOffset() throws Exception {
+        assertEquals(Long.valueOf(5), range(5, 9).call());
+
+        assertRanges(new long[] {5, 9});
+        assertWritten(5, 9);
+    }
+
+    @Test
+    public void lastRangeMayBeShorterThanTheOthers() throws Exception {
+        assertEquals(Long.valueOf(4), range(16, 19).call());
+
+        assertWritten(16, 19);
+    }
+
+    @Test
+    public void brokenContentIsRetriedFromTheLastWrittenByte() throws Exception {
+        s3.failNextContentAfter(3);
+
+        assertEquals(Long.valueOf(10), range(10, 19).call());
+
+        assertRanges(new long[] {10, 19}, new long[] {13, 19});
+        assertWritten(10, 19);
+    }
+
+    @Test
+    public void contentFailingBeforeAnyByteIsRetriedFromTheStart() throws Exception {
+        s3.failNextContentAfter(0);
+
+        assertEquals(Long.valueOf(10), range(0, 9).call());
+
+        assertRanges(new long[] {0, 9}, new long[] {0, 9});
+        assertWritten(0, 9);
+    }
+
+    @Test
+    public void secondFailureFailsTheRange() throws Exception {
+        s3.failNextContentAfter(2);
+        s3.failNextContentAfter(2);
+
+        try {
+            range(0, 9).call();
+            fail("The range was expected to fail");
+        } catch (SdkClientException expected) {
+            assertTrue(expected.getCause() instanceof IOException);
+        }
+        assertRanges(new long[] {0, 9}, new long[] {2, 9});
+    }
+
+    @Test
+    public void requestErrorIsLeftToTheClientRetryPolicy() throws Exception {
+        AmazonServiceException unavailable = new AmazonServiceException("Service unavailable");
+        unavailable.setStatusCode(503);
+        s3.failNextRequest(unavailable);
+
+        try {
+            range(0, 9).call();
+            fail("The range was expected to fail");
+        } catch (AmazonServiceException expected) {
+            assertSame(unavailable, expected);
+        }
+        assertEquals(1, s3.getRequestedRanges().size());
+    }
+
+    @Test
+    public void changedObjectFailsTheRange() throws Exception {
+        GetObjectRequest request = new GetObjectRequest("bucket", "key").withRange(0, 9);
+        request.setMatchingETagConstraints(Collections.singletonList("another-etag"));
+
+        try {
+            new DownloadRangeCallable(s3, request, destination).call();
+            fail("The range was expected to fail");
+        } catch (SdkClientException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("modified"));
+        }
+    }
+
+    private DownloadRangeCallable range(long firstByte, long lastByte) {
+        return new DownloadRangeCallable(s3, new GetObjectRequest("bucket", "key").withRange(firstByte, lastByte),
+                destination);
+    }
+
+    private void assertRanges(long[]... expected) {
+        List<long[]> ranges = s3.getRequestedRanges();
+        assertEquals(expected.length, ranges.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], ranges.get(i));
+        }
+    }
+
+    private void assertWritten(int firstByte, int lastByte) throws IOException {
+        byte[] written = new byte[CONTENT.length];
+        raf.seek(0);
+        raf.readFully(written);
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, firstByte, lastByte + 1),
+                          Arrays.copyOfRange(written, firstByte, lastByte + 1));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.amazonaws.AbortedException;
+
+public class InFlightTasksTest {
+
+    /** A pool that is too busy to ever start the tasks submitted to it. */
+    private final QueuingExecutorService threadPool = new QueuingExecutorService();
+
+    private final InFlightTasks<Integer> inFlight = new InFlightTasks<Integer>(threadPool);
+
+    @Test
+    public void taskNotStartedByPoolRunsInWaitingThread() {
+        inFlight.submit(constant(1));
+        inFlight.submit(constant(2));
+        assertEquals(2, inFlight.size());
+
+        assertEquals(Integer.valueOf(1), inFlight.awaitAny());
+        assertEquals(Integer.valueOf(2), inFlight.awaitAny());
+        assertTrue(inFlight.isEmpty());
+    }
+
+    @Test
+    public void finishedTaskIsPreferredOverOldest() {
+        inFlight.submit(constant(1));
+        inFlight.submit(constant(2));
+        threadPool.tasks.get(1).run();
+
+        assertEquals(Integer.valueOf(2), inFlight.awaitAny());
+        assertEquals(Integer.valueOf(1), inFlight.awaitAny());
+    }
+
+    @Test
+    public void failuresAreRethrown() {
+        inFlight.submit(new Callable<Integer>() {
+            public Integer call() {
+                throw new IllegalStateException("failed");
+            }
+        });
+        inFlight.submit(new Callable<Integer>() {
+            public Integer call() throws InterruptedException {
+                throw new InterruptedException();
+            }
+        });
+        try {
+            inFlight.awaitAny();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            inFlight.awaitAny();
+            fail();
+        } catch (AbortedException expected) {
+        }
+    }
+
+    @Test
+    public void cancelAllCancelsTasksInFlight() {
+        Future<Integer> first = inFlight.submit(constant(1));
+        Future<Integer> second = inFlight.submit(constant(2));
+        inFlight.awaitAny();
+
+        inFlight.cancelAll();
+        assertTrue(inFlight.isEmpty());
+        assertTrue(first.isDone() && !first.isCancelled());
+        assertTrue(second.isCancelled());
+    }
+
+    private static Callable<Integer> constant(final int value) {
+        return new Callable<Integer>() {
+            public Integer call() {
+                return value;
+            }
+        };
+    }
+
+    private static final class QueuingExecutorService extends AbstractExecutorService {
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+
+/**
+ * Serves byte ranges of a single object from memory, recording the ranges
+ * requested. Like the real client, it returns null when the ETag of the
+ * object doesn't match the constraints of the request.
+ */
+public class InMemoryObjectS3 extends AbstractAmazonS3 {
+
+    private final byte[] content;
+
+    private final List<long[]> requestedRanges = new ArrayList<long[]>();
+
+    /**
+     * What to do instead of serving the next requests: a RuntimeException to
+     * throw, or the number of bytes after which the content stream fails.
+     */
+    private final Queue<Object> failures = new LinkedList<Object>();
+
+    private String eTag = "etag-1";
+
+    private int requestsBeforeETagChange = -1;
+
+    public InMemoryObjectS3(byte[] content) {
+        this.content = content;
+    }
+
+    public ObjectMetadata metadata() {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(content.length);
+        metadata.setHeader(Headers.ETAG, eTag);
+        metadata.setLastModified(new Date(0));
+        return metadata;
+    }
+
+    /** Makes the next request throw the given exception. */
+    public synchronized void failNextRequest(RuntimeException exception) {
+        failures.add(exception);
+    }
+
+    /** Makes the content of the next request fail after the given number of bytes. */
+    public synchronized void failNextContentAfter(int bytes) {
+        failures.add(Integer.valueOf(bytes));
+    }
+
+    /** Gives the object a new ETag once the given number of requests have been served. */
+    public synchronized void changeETagAfter(int requests) {
+        requestsBeforeETagChange = requests;
+    }
+
+    public synchronized List<long[]> getRequestedRanges() {
+        return new ArrayList<long[]>(requestedRanges);
+    }
+
+    @Override
+    public synchronized S3Object getObject(GetObjectRequest request) {
+        final long[] range = request.getRange();
+        requestedRanges.add(range.clone());
+
+        if (requestsBeforeETagChange == 0) {
+            eTag = "etag-2";
+        }
+        requestsBeforeETagChange--;
+        List<String> matchingETags = request.getMatchingETagConstraints();
+        if (matchingETags != null && !matchingETags.isEmpty() && !matchingETags.contains(eTag)) {
+            return null;
+        }
+
+        Object failure = failures.poll();
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        int from = (int) range[0];
+        int to = (int) Math.min(range[1], content.length - 1);
+        InputStream in = new ByteArrayInputStream(content, from, to - from + 1);
+        if (failure instanceof Integer) {
+            in = new FailingInputStream(in, (Integer) failure);
+        }
+        S3Object object = new S3Object();
+        object.setBucketName(request.getBucketName());
+        object.setKey(request.getKey());
+        object.setObjectContent(in);
+        return object;
+    }
+
+    /** Fails once a number of bytes have been read. */
+    private static class FailingInputStream extends FilterInputStream {
+
+        private int remaining;
+
+        FailingInputStream(InputStream in, int bytesBeforeFailure) {
+            super(in);
+            this.remaining = bytesBeforeFailure;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0) {
+                throw new IOException("Connection reset");
+            }
+            int read = super.read(b, off, Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016-2016 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+
+/**
+ * Checks how a {@link MultipleFileTransfer} that is still listing its
+ * sub-transfers reports being done, failing and aborting.
+ */
+public class MultipleFileTransferQueuingTest {
+
+    private MultipleFileDownloadImpl transfer;
+
+    private MultipleFileTransferMonitor monitor;
+
+    @Before
+    public void setup() {
+        ArrayList<DownloadImpl> downloads = new ArrayList<DownloadImpl>();
+        transfer = new MultipleFileDownloadImpl("Downloading", new TransferProgress(), new ProgressListenerChain(),
+                "prefix", "bucket", downloads);
+        monitor = new MultipleFileTransferMonitor(transfer, downloads);
+        transfer.setMonitor(monitor);
+        transfer.startQueuingSubTransfers();
+    }
+
+    @Test
+    public void transferIsNotDoneWhileQueuing() throws Exception {
+        assertTrue(transfer.isQueuingSubTransfers());
+        assertFalse(monitor.isDone());
+        assertFalse(transfer.waitForSubTransfersQueued(10, TimeUnit.MILLISECONDS));
+        try {
+            monitor.getFuture().get(10, TimeUnit.MILLISECONDS);
+            fail("The transfer was still queuing");
+        } catch (TimeoutException expected) {
+        }
+        assertEquals(TransferState.Waiting, transfer.getState());
+    }
+
+    @Test
+    public void finishingQueuingCompletesATransferWithNothingLeft() throws Exception {
+        transfer.finishQueuingSubTransfers(null);
+
+        assertFalse(transfer.isQueuingSubTransfers());
+        assertTrue(transfer.waitForSubTransfersQueued(0, TimeUnit.MILLISECONDS));
+        assertTrue(monitor.isDone());
+        assertNull(transfer.getQueuingFailure());
+        assertEquals(TransferState.Completed, transfer.getState());
+    }
+
+    @Test
+    public void waitersAreWokenWhenQueuingFinishes() throws Exception {
+        Thread lister = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                transfer.finishQueuingSubTransfers(null);
+            }
+        };
+        lister.start();
+
+        transfer.waitForSubTransfersQueued();
+
+        assertFalse(transfer.isQueuingSubTransfers());
+        lister.join();
+    }
+
+    @Test
+    public void queuingFailureFailsTheTransfer() throws Exception {
+        Exception failure = new RuntimeException("Listing failed");
+
+        transfer.finishQueuingSubTransfers(failure);
+
+        assertSame(failure, transfer.getQueuingFailure());
+        assertEquals(TransferState.Failed, transfer.getState());
+        try {
+            monitor.getFuture().get();
+            fail("The queuing failure was expected");
+        } catch (ExecutionException expected) {
+            assertSame(failure, expected.getCause());
+        }
+    }
+
+    @Test
+    public void abortCancelsQueuing() throws Exception {
+        assertFalse(transfer.isQueuingCanceled());
+
+        transfer.abort();
+
+        assertTrue(transfer.isQueuingCanceled());
+        // The transfer finishes once the lister stops
+        assertFalse(transfer.isDone());
+        transfer.finishQueuingSubTransfers(null);
+        assertTrue(transfer.isDone());
+    }
+}